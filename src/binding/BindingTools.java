@@ -18,18 +18,28 @@
 package binding;
 
 import java.util.List;
+import java.util.Map;
 
+import binding.list.FanOutListBindingLink;
 import binding.list.ListBindingLink;
 import binding.list.definition.MutableList;
+import binding.list.definition.view.ElementConverter;
 import binding.list.source.BasicListBindingSource;
 import binding.list.target.BasicListBindingTarget;
 import binding.list.target.ListBindingTarget;
+import binding.map.MapBindingLink;
+import binding.map.definition.MutableMap;
+import binding.map.target.BasicMapBindingTarget;
+import binding.map.target.MapBindingTarget;
 import binding.property.PropertyBindingLink;
 import binding.property.source.PropertyBindingSource;
 import binding.property.source.object.BeanBindingSource;
 import binding.property.source.object.MapBindingSource;
 import binding.property.target.BeanBindingTarget;
 import binding.property.target.PropertyBindingTarget;
+import binding.tree.TreeBindingLink;
+import binding.tree.definition.MutableTree;
+import binding.tree.target.TreeBindingTarget;
 
 /**
  * Static API to create bindings faster.
@@ -146,4 +156,66 @@ public final class BindingTools {
     public static <T> ListBindingLink<T> createBinding(MutableList<T> source, ListBindingTarget<T> bindingTarget) {
         return new ListBindingLink<T>(new BasicListBindingSource<T>(source), bindingTarget);
     }
+
+    /**
+     * Creates a binding link converting a source list once for several targets (add targets 
+     * with {@link FanOutListBindingLink#addBindingTarget(ListBindingTarget)})
+     * 
+     * see {@link BasicListBindingSource} and {@link FanOutListBindingLink} for thrown
+     * exceptions
+     * 
+     * @param <T> : source list element type
+     * @param <U> : converted elements type
+     * @param source : binding source list
+     * @param converter : converter shared by all targets
+     * @return - the binding link
+     */
+    public static <T, U> FanOutListBindingLink<T, U> createFanOutBinding(
+            MutableList<T> source, ElementConverter<? super T, ? extends U> converter) {
+        return new FanOutListBindingLink<T, U>(new BasicListBindingSource<T>(source), converter);
+    }
+
+    /**
+     * Creates a simple direct binding from one map to another
+     * 
+     * see {@link BasicMapBindingTarget} and {@link MapBindingLink} for thrown exceptions
+     * 
+     * @param <K> : maps keys type
+     * @param <V> : maps values type
+     * @param source : binding source map
+     * @param target : binding target map
+     * @return - the binding link
+     */
+    public static <K, V> MapBindingLink<K, V> createBinding(MutableMap<K, V> source, Map<K, V> target) {
+        return new MapBindingLink<K, V>(source, new BasicMapBindingTarget<K, V>(target));
+    }
+
+    /**
+     * Creates a binding link from a map to a binding target (for quick implementation, take a 
+     * look at AbstractMapBindingTarget class)
+     * 
+     * @param <K> : source map keys type
+     * @param <V> : source map values type
+     * @param source : binding source map
+     * @param bindingTarget : binding target (null available)
+     * @return - the binding link
+     */
+    public static <K, V> MapBindingLink<K, V> createBinding(MutableMap<K, V> source,
+                                                            MapBindingTarget<K, V> bindingTarget) {
+        return new MapBindingLink<K, V>(source, bindingTarget);
+    }
+
+    /**
+     * Creates a binding link from a tree to a binding target (a Swing tree model is available 
+     * as TreeModelBindingTarget)
+     * 
+     * @param <T> : source tree nodes type
+     * @param source : binding source tree
+     * @param bindingTarget : binding target (null available)
+     * @return - the binding link
+     */
+    public static <T> TreeBindingLink<T> createBinding(MutableTree<T> source,
+                                                       TreeBindingTarget<T> bindingTarget) {
+        return new TreeBindingLink<T>(source, bindingTarget);
+    }
 }
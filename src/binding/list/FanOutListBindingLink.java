@@ -0,0 +1,270 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import binding.IBindingLink;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.view.ElementConverter;
+import binding.list.source.ListBindingSource;
+import binding.list.target.ListBindingTarget;
+
+/**
+ * A binding link propagating a source list to several targets through a shared conversion. The
+ * link registers once on the source, converts each source element once, and keeps the converted
+ * elements in a shared list : targets receive the converted elements (as source elements of 
+ * type U), so a table, a summary and an export buffer bound to the same list no longer convert 
+ * it each. Removed elements are the previously converted ones, they are never converted again.
+ * <br>
+ * As for ListBindingLink, terminating the binding makes every target see an empty list.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * 
+ * @param <T> : source list elements type
+ * @param <U> : converted elements type, received by targets
+ */
+public class FanOutListBindingLink<T, U> implements TypedListDataListener<T>,
+        IBindingLink<ListBindingSource<T>, List<ListBindingTarget<U>>> {
+
+    /** Shared converter **/
+    private final ElementConverter<? super T, ? extends U> converter;
+
+    /** Converted elements, in source order **/
+    private final List<U> converted;
+
+    /** Read only view on converted elements, given to targets **/
+    private final List<U> convertedView;
+
+    /** Binding targets **/
+    private final List<ListBindingTarget<U>> bindingTargets;
+
+    /** List binding source **/
+    private ListBindingSource<T> bindingSource;
+
+    /**
+     * Constructor
+     * 
+     * @param bindingSource : binding source (null available)
+     * @param converter : converter shared by all targets
+     * @throws IllegalArgumentException if the converter is null
+     */
+    public FanOutListBindingLink(ListBindingSource<T> bindingSource,
+                                 ElementConverter<? super T, ? extends U> converter) {
+        if (converter == null) {
+            throw new IllegalArgumentException(getClass() + ": the converter can not be null");
+        }
+        this.converter = converter;
+        this.converted = new ArrayList<U>();
+        this.convertedView = Collections.unmodifiableList(converted);
+        this.bindingTargets = new ArrayList<ListBindingTarget<U>>();
+        setBindingSource(bindingSource);
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public ListBindingSource<T> getBindingSource() {
+        return bindingSource;
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public void setBindingSource(ListBindingSource<T> bindingSource) {
+        if (this.bindingSource != null) {
+            this.bindingSource.removeListDataListener(this);
+        }
+        fireRemoveAll();
+
+        this.bindingSource = bindingSource;
+        if (this.bindingSource != null) {
+            this.bindingSource.addListDataListener(this);
+            List<T> elements = this.bindingSource.getElements();
+            if (!elements.isEmpty()) {
+                fireAddAll(0, elements.size() - 1, elements);
+            }
+        }
+    }
+
+    /**
+     * Returns the converted elements shared by targets
+     * 
+     * @return - a read only list
+     */
+    public List<U> getConvertedElements() {
+        return convertedView;
+    }
+
+    /**
+     * {@inherit}
+     * 
+     * @return - a copy of the current binding targets
+     */
+    @Override
+    public List<ListBindingTarget<U>> getBindingTarget() {
+        return new ArrayList<ListBindingTarget<U>>(bindingTargets);
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public void setBindingTarget(List<ListBindingTarget<U>> newTargets) {
+        for (ListBindingTarget<U> bindingTarget : getBindingTarget()) {
+            removeBindingTarget(bindingTarget);
+        }
+        if (newTargets != null) {
+            for (ListBindingTarget<U> bindingTarget : newTargets) {
+                addBindingTarget(bindingTarget);
+            }
+        }
+    }
+
+    /**
+     * Adds a binding target : it immediately receives the current converted elements
+     * 
+     * @param bindingTarget : target to add
+     * @throws IllegalArgumentException if the target is null
+     */
+    public void addBindingTarget(ListBindingTarget<U> bindingTarget) {
+        if (bindingTarget == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": you can not add a null binding target");
+        }
+        bindingTargets.add(bindingTarget);
+        if (!converted.isEmpty()) {
+            bindingTarget.intervalAdded(convertedView, new ArrayList<U>(converted), 0,
+                                        converted.size() - 1);
+        }
+    }
+
+    /**
+     * Removes a binding target : it receives the removal of all converted elements
+     * 
+     * @param bindingTarget : target to remove
+     * @return true if the target was bound by this link
+     */
+    public boolean removeBindingTarget(ListBindingTarget<U> bindingTarget) {
+        for (int i = 0; i < bindingTargets.size(); i++) {
+            if (bindingTargets.get(i) == bindingTarget) {
+                bindingTargets.remove(i);
+                if (!converted.isEmpty()) {
+                    bindingTarget.intervalRemoved(Collections.<U> emptyList(),
+                                                  new ArrayList<U>(converted), 0,
+                                                  converted.size() - 1);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public void terminateBinding() {
+        setBindingSource(null);
+        setBindingTarget(null);
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void intervalAdded(TypedListDataEvent e) {
+        List<T> added = e.getNewElements();
+        if (added == null) {
+            added = bindingSource.getElements().subList(e.getIndex0(), e.getIndex1() + 1);
+        }
+        fireAddAll(e.getIndex0(), e.getIndex1(), added);
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public void intervalRemoved(TypedListDataEvent e) {
+        fireRemoveAll(e.getIndex0(), e.getIndex1());
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void contentsChanged(TypedListDataEvent e) {
+        // convert that event into remove / add elements
+        fireRemoveAll(e.getIndex0(), e.getIndex1());
+        List<T> newElements = e.getNewElements();
+        if (newElements == null) {
+            newElements = bindingSource.getElements().subList(e.getIndex0(), e.getIndex1() + 1);
+        }
+        fireAddAll(e.getIndex0(), e.getIndex1(), newElements);
+    }
+
+    /**
+     * Converts added elements once and sends them to every target
+     * 
+     * @param firstIndex : first element added index
+     * @param lastIndex : last element added index
+     * @param addedElements : added source elements
+     */
+    private void fireAddAll(int firstIndex, int lastIndex, List<T> addedElements) {
+        List<U> added = new ArrayList<U>(addedElements.size());
+        for (T element : addedElements) {
+            added.add(converter.convert(element));
+        }
+        converted.addAll(firstIndex, added);
+        for (int i = 0; i < bindingTargets.size(); i++) {
+            bindingTargets.get(i).intervalAdded(convertedView, added, firstIndex, lastIndex);
+        }
+    }
+
+    /**
+     * Removes converted elements and sends the removal to every target
+     * 
+     * @param firstIndex : first removed index
+     * @param lastIndex : last removed index
+     */
+    private void fireRemoveAll(int firstIndex, int lastIndex) {
+        List<U> range = converted.subList(firstIndex, lastIndex + 1);
+        List<U> removed = new ArrayList<U>(range);
+        range.clear();
+        for (int i = 0; i < bindingTargets.size(); i++) {
+            bindingTargets.get(i).intervalRemoved(convertedView, removed, firstIndex, lastIndex);
+        }
+    }
+
+    /**
+     * Removes every converted element, if any, and sends the removal to every target
+     */
+    private void fireRemoveAll() {
+        if (!converted.isEmpty()) {
+            fireRemoveAll(0, converted.size() - 1);
+        }
+    }
+}
@@ -19,7 +19,7 @@ package binding.list;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.Executor;
 
 import binding.IBindingLink;
 import binding.list.definition.TypedListDataEvent;
@@ -32,6 +32,10 @@ import binding.list.target.ListBindingTarget;
  * and javax.swing.ListModel). As for PropertyBindingLink, you can call terminate binding 
  * to terminate binding and ensure GC can recover your (such call will "make the illusion" to 
  * binding target that the list is now empty so that it can destroy its corresponding objects).
+ * <br>
+ * Bursts of small adjacent events (for instance many add calls at the list tail) can be 
+ * coalesced into contiguous range events before reaching the binding target, see 
+ * {@link #setCoalescing(Executor, int)}.
  * 
  * Copyright 2010, Raphael Mechali <br>
  * Distributed under Lesser GNU General Public License (LGPL)
@@ -48,6 +52,39 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
     /** List binding target **/
     private ListBindingTarget<T> bindingTarget;
 
+    /** Is coalescing enabled? Volatile : events are dispatched without locking when it is not **/
+    private volatile boolean coalescing;
+
+    /** Executor that runs the flush of coalesced events, null for explicit flushes only **/
+    private Executor flushExecutor;
+
+    /** Maximum count of elements buffered before a flush **/
+    private int coalescingLimit;
+
+    /** Buffered run : true for added elements, false for removed elements **/
+    private boolean bufferedAdd;
+
+    /** Buffered run first index **/
+    private int bufferedIndex;
+
+    /** Buffered run elements, null when nothing is buffered **/
+    private List<T> bufferedElements;
+
+    /** Is a flush scheduled on the flush executor? **/
+    private boolean flushScheduled;
+
+    /** Task flushing buffered events **/
+    private final Runnable flushTask = new Runnable() {
+
+        @Override
+        public void run() {
+            synchronized (ListBindingLink.this) {
+                flushScheduled = false;
+                flush();
+            }
+        }
+    };
+
     /**
      * Constructor
      * 
@@ -74,7 +111,8 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
     @Override
     public void setBindingSource(ListBindingSource<T> bindingSource) {
         // terminate previous listening (keep previous elements list before)
-        List<T> previousElements = getCurrentElements();
+        flush();
+        List<T> previousElements = new ArrayList<T>(getCurrentElements());
         if (this.bindingSource != null) {
             this.bindingSource.removeListDataListener(this);
         }
@@ -89,7 +127,7 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
         List<T> currentElements = getCurrentElements();
 
         if (!previousElements.isEmpty()) {
-            fireRemoveAll(0, previousElements.size(), previousElements);
+            fireRemoveAll(0, previousElements.size() - 1, previousElements);
         }
 
         int currentSize = currentElements.size();
@@ -112,6 +150,7 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
     @Override
     public void setBindingTarget(ListBindingTarget<T> bindingTarget) {
         // remove previous binding target : leave it removing all current elements if it is not empty
+        flush();
         final List<T> currentElements = getCurrentElements();
         int size = currentElements.size();
         if (this.bindingTarget != null && !currentElements.isEmpty()) {
@@ -128,6 +167,170 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
         }
     }
 
+    /**
+     * Sets up events coalescing : adjacent added (or removed) intervals received in a burst are
+     * buffered and merged into a single interval event for the binding target. The buffer is
+     * flushed when a non adjacent event is received, when it reaches the size limit, when 
+     * {@link #flush()} is called, and on the next tick of the flush executor after the first 
+     * buffered event (for instance, with an executor posting to the Swing event dispatch thread,
+     * at the end of the current dispatch).
+     * 
+     * @param flushExecutor : executor that runs the scheduled flushes, null to flush only 
+     *          explicitly or on size limit
+     * @param sizeLimit : maximum count of buffered elements
+     * @throws IllegalArgumentException if the size limit is not strictly positive
+     */
+    public synchronized void setCoalescing(Executor flushExecutor, int sizeLimit) {
+        if (sizeLimit <= 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the coalescing size limit must be strictly positive");
+        }
+        flush();
+        this.coalescing = true;
+        this.flushExecutor = flushExecutor;
+        this.coalescingLimit = sizeLimit;
+    }
+
+    /**
+     * Disables events coalescing (buffered events are flushed)
+     */
+    public synchronized void disableCoalescing() {
+        flush();
+        this.coalescing = false;
+        this.flushExecutor = null;
+    }
+
+    /**
+     * Is events coalescing enabled?
+     * 
+     * @return -
+     */
+    public synchronized boolean isCoalescing() {
+        return coalescing;
+    }
+
+    /**
+     * Sends buffered events to the binding target
+     */
+    public synchronized void flush() {
+        if (bufferedElements == null) {
+            return;
+        }
+        List<T> elements = bufferedElements;
+        bufferedElements = null;
+        int lastIndex = bufferedIndex + elements.size() - 1;
+        if (bufferedAdd) {
+            fireAddAll(bufferedIndex, lastIndex, elements);
+        }
+        else {
+            fireRemoveAll(bufferedIndex, lastIndex, elements);
+        }
+    }
+
+    /**
+     * Dispatches an added interval, buffering it when coalescing. The link is only locked when
+     * coalescing
+     * 
+     * @param firstIndex : first element added index
+     * @param lastIndex : last element added index
+     * @param addedElements : added elements
+     */
+    private void dispatchAdd(int firstIndex, int lastIndex, List<T> addedElements) {
+        if (coalescing) {
+            synchronized (this) {
+                // checked again : coalescing may have been disabled meanwhile
+                if (coalescing) {
+                    bufferAdd(firstIndex, addedElements);
+                    return;
+                }
+            }
+        }
+        fireAddAll(firstIndex, lastIndex, addedElements);
+    }
+
+    /**
+     * Buffers an added interval, the caller holding the link lock
+     * 
+     * @param firstIndex : first element added index
+     * @param addedElements : added elements
+     */
+    private void bufferAdd(int firstIndex, List<T> addedElements) {
+        if (bufferedElements != null && bufferedAdd && firstIndex >= bufferedIndex
+                && firstIndex <= bufferedIndex + bufferedElements.size()) {
+            // inside or adjacent to the buffered added run
+            bufferedElements.addAll(firstIndex - bufferedIndex, addedElements);
+        }
+        else {
+            flush();
+            bufferedAdd = true;
+            bufferedIndex = firstIndex;
+            bufferedElements = new ArrayList<T>(addedElements);
+        }
+        buffered();
+    }
+
+    /**
+     * Dispatches a removed interval, buffering it when coalescing. The link is only locked when
+     * coalescing
+     * 
+     * @param firstIndex : first remove index in the source list
+     * @param lastIndex : last remove index in the source list
+     * @param removedElements : removed elements
+     */
+    private void dispatchRemove(int firstIndex, int lastIndex, List<T> removedElements) {
+        if (coalescing) {
+            synchronized (this) {
+                // checked again : coalescing may have been disabled meanwhile
+                if (coalescing) {
+                    bufferRemove(firstIndex, lastIndex, removedElements);
+                    return;
+                }
+            }
+        }
+        fireRemoveAll(firstIndex, lastIndex, removedElements);
+    }
+
+    /**
+     * Buffers a removed interval, the caller holding the link lock
+     * 
+     * @param firstIndex : first remove index in the source list
+     * @param lastIndex : last remove index in the source list
+     * @param removedElements : removed elements
+     */
+    private void bufferRemove(int firstIndex, int lastIndex, List<T> removedElements) {
+        if (bufferedElements != null && !bufferedAdd && firstIndex <= bufferedIndex
+                && lastIndex + 1 >= bufferedIndex) {
+            // the removed interval surrounds or touches the gap left by the buffered run
+            List<T> merged = new ArrayList<T>(bufferedElements.size() + removedElements.size());
+            merged.addAll(removedElements.subList(0, bufferedIndex - firstIndex));
+            merged.addAll(bufferedElements);
+            merged.addAll(removedElements.subList(bufferedIndex - firstIndex,
+                                                  removedElements.size()));
+            bufferedIndex = firstIndex;
+            bufferedElements = merged;
+        }
+        else {
+            flush();
+            bufferedAdd = false;
+            bufferedIndex = firstIndex;
+            bufferedElements = new ArrayList<T>(removedElements);
+        }
+        buffered();
+    }
+
+    /**
+     * Flushes the buffer when it is full, or schedules a flush after an event was buffered
+     */
+    private void buffered() {
+        if (bufferedElements.size() >= coalescingLimit) {
+            flush();
+        }
+        else if (flushExecutor != null && !flushScheduled) {
+            flushScheduled = true;
+            flushExecutor.execute(flushTask);
+        }
+    }
+
     /**
      * {@inherit}
      */
@@ -159,9 +362,9 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
                              List<T> newElements) {
         // convert that event into add / remove elements
         // a - Fire remove all previous elements
-        fireRemoveAll(firstIndex, lastIndex, previousElements);
+        dispatchRemove(firstIndex, lastIndex, previousElements);
         // b - Fire add all new elements
-        fireAddAll(firstIndex, lastIndex, newElements);
+        dispatchAdd(firstIndex, lastIndex, newElements);
     }
 
     /**
@@ -170,7 +373,7 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
     @Override
     public void intervalAdded(TypedListDataEvent e) {
         // fire the list add event
-        fireAddAll(e.getIndex0(), e.getIndex1(), e.getNewElements());
+        dispatchAdd(e.getIndex0(), e.getIndex1(), e.getNewElements());
     }
 
     /**
@@ -179,7 +382,7 @@ public class ListBindingLink<T> implements TypedListDataListener<T>,
     @Override
     public void intervalRemoved(TypedListDataEvent e) {
         // fire the list remove event
-        fireRemoveAll(e.getIndex0(), e.getIndex1(), e.getPreviousElements());
+        dispatchRemove(e.getIndex0(), e.getIndex1(), e.getPreviousElements());
     }
 
     /**
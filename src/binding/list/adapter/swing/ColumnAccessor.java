@@ -0,0 +1,94 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.adapter.swing;
+
+/**
+ * A typed column of a MutableListTableModel : values are read through compiled code (usually 
+ * an anonymous subclass calling a getter), never through reflection. Columns are read only 
+ * unless {@link #isEditable(Object)} and {@link #setValue(Object, Object)} are overridden.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : rows type
+ */
+public abstract class ColumnAccessor<T> {
+
+    /** Column name **/
+    private final String name;
+
+    /** Column values type **/
+    private final Class<?> type;
+
+    /**
+     * Constructor
+     * @param name : column name
+     * @param type : column values type
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public ColumnAccessor(String name, Class<?> type) {
+        if (name == null || type == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the column name and type can not be null");
+        }
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Column name getter
+     * @return -
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Column values type getter
+     * @return -
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the value of this column for a row
+     * @param row : row element
+     * @return -
+     */
+    public abstract Object getValue(T row);
+
+    /**
+     * Is the value of this column editable for a row?
+     * @param row : row element
+     * @return - false by default
+     */
+    public boolean isEditable(T row) {
+        return false;
+    }
+
+    /**
+     * Sets the value of this column for a row
+     * @param row : row element
+     * @param value : new value
+     * @throws UnsupportedOperationException by default
+     */
+    public void setValue(T row, Object value) {
+        throw new UnsupportedOperationException(getClass() + ": the column " + name
+                + " is read only");
+    }
+}
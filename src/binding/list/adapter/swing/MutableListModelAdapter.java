@@ -0,0 +1,135 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.adapter.swing;
+
+import binding.list.definition.MutableList;
+import java.util.concurrent.Executor;
+import javax.swing.AbstractListModel;
+
+/**
+ * A Swing list model over a MutableList. Although a MutableList is already a ListModel, this 
+ * adapter can coalesce bursts into a single updated region and a single added interval per 
+ * tick of a flush executor (see {@link #setCoalescing(Executor)}), so that a JList repaints
+ * and re-measures its cells once per burst. As any Swing model, it must be used on the event 
+ * dispatch thread : the source list must be modified on that thread. Call {@link #dispose()}
+ * to stop listening to the list.<br>
+ * The adapter extends the raw AbstractListModel, which is not generic before Java 7.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+@SuppressWarnings("rawtypes")
+public class MutableListModelAdapter<T> extends AbstractListModel {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** List events translator **/
+    private final RowEventsTranslator<T> translator;
+
+    /**
+     * Constructor
+     * @param list : source list
+     * @throws IllegalArgumentException if the list is null
+     */
+    public MutableListModelAdapter(MutableList<T> list) {
+        this.translator = new RowEventsTranslator<T>(list) {
+
+            @Override
+            protected void fireRowsInserted(int firstRow, int lastRow) {
+                fireIntervalAdded(MutableListModelAdapter.this, firstRow, lastRow);
+            }
+
+            @Override
+            protected void fireRowsDeleted(int firstRow, int lastRow) {
+                fireIntervalRemoved(MutableListModelAdapter.this, firstRow, lastRow);
+            }
+
+            @Override
+            protected void fireRowsUpdated(int firstRow, int lastRow) {
+                fireContentsChanged(MutableListModelAdapter.this, firstRow, lastRow);
+            }
+        };
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getList() {
+        return translator.getList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return translator.getRowCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getElementAt(int index) {
+        return translator.getElement(index);
+    }
+
+    /**
+     * Enables events coalescing : updated elements and elements added after the ones known by
+     * the list are buffered until the next run of the flush executor (for instance 
+     * AsynchronousListBindingTarget.EVENT_DISPATCH_THREAD, to fire once per event dispatch
+     * thread tick)
+     * @param flushExecutor : executor running the flushes
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public void setCoalescing(Executor flushExecutor) {
+        translator.setCoalescing(flushExecutor);
+    }
+
+    /**
+     * Disables events coalescing (buffered events are fired)
+     */
+    public void disableCoalescing() {
+        translator.disableCoalescing();
+    }
+
+    /**
+     * Is events coalescing enabled?
+     * @return -
+     */
+    public boolean isCoalescing() {
+        return translator.isCoalescing();
+    }
+
+    /**
+     * Fires buffered events
+     */
+    public void flush() {
+        translator.flush();
+    }
+
+    /**
+     * Stops listening to the source list. The model must no longer be used after this call
+     */
+    public void dispose() {
+        translator.dispose();
+    }
+}
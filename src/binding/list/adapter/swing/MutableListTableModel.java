@@ -0,0 +1,220 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.adapter.swing;
+
+import binding.list.definition.MutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A Swing table model over a MutableList, one row per element : each list event is translated
+ * into the exact fireTableRowsInserted / fireTableRowsDeleted / fireTableRowsUpdated call, so
+ * that a JTable only repaints and re-measures the changed rows. Cells are read through typed
+ * {@link ColumnAccessor}s. <br>
+ * Bursts can be coalesced into a single updated region and a single inserted range per tick of
+ * a flush executor, see {@link #setCoalescing(Executor)}. As any Swing model, it must be used 
+ * on the event dispatch thread : the source list must be modified on that thread. Call 
+ * {@link #dispose()} to stop listening to the list.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : rows type
+ */
+public class MutableListTableModel<T> extends AbstractTableModel {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** Columns **/
+    private final List<ColumnAccessor<? super T>> columns;
+
+    /** List events translator **/
+    private final RowEventsTranslator<T> translator;
+
+    /**
+     * Constructor
+     * @param list : source list
+     * @param columns : columns
+     * @throws IllegalArgumentException if the list or a column is null
+     */
+    @SuppressWarnings("unchecked")
+    public MutableListTableModel(MutableList<T> list, ColumnAccessor<? super T>... columns) {
+        this(list, Arrays.asList(columns));
+    }
+
+    /**
+     * Constructor
+     * @param list : source list
+     * @param columns : columns
+     * @throws IllegalArgumentException if the list or a column is null
+     */
+    public MutableListTableModel(MutableList<T> list,
+                                 List<? extends ColumnAccessor<? super T>> columns) {
+        if (columns == null || columns.contains(null)) {
+            throw new IllegalArgumentException(getClass() + ": the columns can not be null");
+        }
+        this.columns = Collections.unmodifiableList(
+                new ArrayList<ColumnAccessor<? super T>>(columns));
+        this.translator = new RowEventsTranslator<T>(list) {
+
+            @Override
+            protected void fireRowsInserted(int firstRow, int lastRow) {
+                fireTableRowsInserted(firstRow, lastRow);
+            }
+
+            @Override
+            protected void fireRowsDeleted(int firstRow, int lastRow) {
+                fireTableRowsDeleted(firstRow, lastRow);
+            }
+
+            @Override
+            protected void fireRowsUpdated(int firstRow, int lastRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+        };
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getList() {
+        return translator.getList();
+    }
+
+    /**
+     * Columns getter
+     * @return - a read only list of the columns
+     */
+    public List<ColumnAccessor<? super T>> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the element of a row
+     * @param row : row index
+     * @return -
+     */
+    public T getRow(int row) {
+        return translator.getElement(row);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRowCount() {
+        return translator.getRowCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column).getType();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        T element = translator.getElement(row);
+        return element == null ? null : columns.get(column).getValue(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        T element = translator.getElement(row);
+        return element != null && columns.get(column).isEditable(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        columns.get(column).setValue(translator.getElement(row), value);
+        fireTableCellUpdated(row, column);
+    }
+
+    /**
+     * Enables events coalescing : updated rows and rows inserted after the rows known by the 
+     * table are buffered until the next run of the flush executor (for instance 
+     * AsynchronousListBindingTarget.EVENT_DISPATCH_THREAD, to fire once per event dispatch
+     * thread tick)
+     * @param flushExecutor : executor running the flushes
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public void setCoalescing(Executor flushExecutor) {
+        translator.setCoalescing(flushExecutor);
+    }
+
+    /**
+     * Disables events coalescing (buffered events are fired)
+     */
+    public void disableCoalescing() {
+        translator.disableCoalescing();
+    }
+
+    /**
+     * Is events coalescing enabled?
+     * @return -
+     */
+    public boolean isCoalescing() {
+        return translator.isCoalescing();
+    }
+
+    /**
+     * Fires buffered events
+     */
+    public void flush() {
+        translator.flush();
+    }
+
+    /**
+     * Stops listening to the source list. The model must no longer be used after this call
+     */
+    public void dispose() {
+        translator.dispose();
+    }
+}
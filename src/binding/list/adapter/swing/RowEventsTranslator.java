@@ -0,0 +1,252 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.adapter.swing;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import java.util.concurrent.Executor;
+
+/**
+ * Translates the events of a MutableList into exact rows events for a Swing model, and
+ * optionally coalesces bursts : updated ranges and rows inserted after the known rows are buffered
+ * until the next tick of a flush executor (for instance the Swing event dispatch thread), 
+ * where a single updated region and a single inserted range are fired. Any other change 
+ * flushes the buffer first, so that the fired events always describe the row count reported 
+ * by the model.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+abstract class RowEventsTranslator<T> implements TypedListDataListener<T> {
+
+    /** Source list **/
+    private final MutableList<T> list;
+
+    /** Rows count the model listeners know about **/
+    private int rowCount;
+
+    /** Executor running the flushes, null when coalescing is disabled **/
+    private Executor flushExecutor;
+
+    /** First buffered updated row, -1 when no update is buffered **/
+    private int firstUpdatedRow = -1;
+
+    /** Last buffered updated row **/
+    private int lastUpdatedRow;
+
+    /** Count of buffered rows appended at the tail **/
+    private int appendedRows;
+
+    /** Is a flush scheduled on the flush executor? **/
+    private boolean flushScheduled;
+
+    /** Task flushing buffered events **/
+    private final Runnable flushTask = new Runnable() {
+
+        @Override
+        public void run() {
+            flushScheduled = false;
+            flush();
+        }
+    };
+
+    /**
+     * Constructor
+     * @param list : source list
+     * @throws IllegalArgumentException if the list is null
+     */
+    public RowEventsTranslator(MutableList<T> list) {
+        if (list == null) {
+            throw new IllegalArgumentException(getClass() + ": the source list can not be null");
+        }
+        this.list = list;
+        this.rowCount = list.size();
+        list.addListDataListener(this);
+    }
+
+    /**
+     * Indicates that rows were inserted
+     * @param firstRow : first inserted row
+     * @param lastRow : last inserted row
+     */
+    protected abstract void fireRowsInserted(int firstRow, int lastRow);
+
+    /**
+     * Indicates that rows were deleted
+     * @param firstRow : first deleted row
+     * @param lastRow : last deleted row
+     */
+    protected abstract void fireRowsDeleted(int firstRow, int lastRow);
+
+    /**
+     * Indicates that rows were updated
+     * @param firstRow : first updated row
+     * @param lastRow : last updated row
+     */
+    protected abstract void fireRowsUpdated(int firstRow, int lastRow);
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getList() {
+        return list;
+    }
+
+    /**
+     * Returns the rows count the model listeners know about
+     * @return -
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the element of a row
+     * @param row : row index
+     * @return - the element, null if the list shrank and the model was not notified yet
+     */
+    public T getElement(int row) {
+        return row < list.size() ? list.get(row) : null;
+    }
+
+    /**
+     * Enables coalescing
+     * @param executor : executor running the flushes
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public void setCoalescing(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the flush executor can not be null");
+        }
+        flush();
+        flushExecutor = executor;
+    }
+
+    /**
+     * Disables coalescing (buffered events are flushed)
+     */
+    public void disableCoalescing() {
+        flush();
+        flushExecutor = null;
+    }
+
+    /**
+     * Is coalescing enabled?
+     * @return -
+     */
+    public boolean isCoalescing() {
+        return flushExecutor != null;
+    }
+
+    /**
+     * Fires buffered events
+     */
+    public void flush() {
+        if (firstUpdatedRow >= 0) {
+            int firstRow = firstUpdatedRow;
+            firstUpdatedRow = -1;
+            fireRowsUpdated(firstRow, lastUpdatedRow);
+        }
+        if (appendedRows > 0) {
+            int firstRow = rowCount;
+            rowCount += appendedRows;
+            appendedRows = 0;
+            fireRowsInserted(firstRow, rowCount - 1);
+        }
+    }
+
+    /**
+     * Stops listening to the source list
+     */
+    public void dispose() {
+        list.removeListDataListener(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void intervalAdded(TypedListDataEvent event) {
+        int count = event.getIndex1() - event.getIndex0() + 1;
+        if (flushExecutor != null && event.getIndex0() >= rowCount) {
+            // inserted among the rows that were never shown
+            appendedRows += count;
+            scheduleFlush();
+            return;
+        }
+        flush();
+        rowCount += count;
+        fireRowsInserted(event.getIndex0(), event.getIndex1());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void intervalRemoved(TypedListDataEvent event) {
+        int count = event.getIndex1() - event.getIndex0() + 1;
+        if (event.getIndex0() >= rowCount) {
+            // only rows that were never shown
+            appendedRows -= count;
+            return;
+        }
+        flush();
+        rowCount -= count;
+        fireRowsDeleted(event.getIndex0(), event.getIndex1());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contentsChanged(TypedListDataEvent event) {
+        int firstRow = event.getIndex0();
+        // rows that were never shown will be inserted with their current value
+        int lastRow = Math.min(event.getIndex1(), rowCount - 1);
+        if (firstRow > lastRow) {
+            return;
+        }
+        if (flushExecutor == null) {
+            fireRowsUpdated(firstRow, lastRow);
+            return;
+        }
+        if (firstUpdatedRow < 0) {
+            firstUpdatedRow = firstRow;
+            lastUpdatedRow = lastRow;
+        }
+        else {
+            firstUpdatedRow = Math.min(firstUpdatedRow, firstRow);
+            lastUpdatedRow = Math.max(lastUpdatedRow, lastRow);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Schedules a flush on the flush executor, if none is scheduled yet
+     */
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flushExecutor.execute(flushTask);
+        }
+    }
+}
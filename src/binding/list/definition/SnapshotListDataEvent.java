@@ -0,0 +1,75 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition;
+
+import java.util.List;
+
+/**
+ * A typed list data event that also provides immutable snapshots of the whole list before and
+ * after the event, so that asynchronous consumers can keep a consistent view without copying it.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class SnapshotListDataEvent<T> extends TypedListDataEvent<T> {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** List content before event **/
+    private final List<T> previousSnapshot;
+
+    /** List content after event **/
+    private final List<T> newSnapshot;
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @param type : event type
+     * @param index0 : first / last index 
+     * @param index1 : first / last index 
+     * @param previousElements : elements that were in list before event
+     * @param newElements : corresponding elements that replaced previous elements after event
+     * @param previousSnapshot : immutable list content before event
+     * @param newSnapshot : immutable list content after event
+     */
+    public SnapshotListDataEvent(Object source, int type, int index0, int index1,
+                                 List<T> previousElements, List<T> newElements,
+                                 List<T> previousSnapshot, List<T> newSnapshot) {
+        super(source, type, index0, index1, previousElements, newElements);
+        this.previousSnapshot = previousSnapshot;
+        this.newSnapshot = newSnapshot;
+    }
+
+    /**
+     * Previous snapshot getter
+     * @return - the immutable list content before event
+     */
+    public List<T> getPreviousSnapshot() {
+        return previousSnapshot;
+    }
+
+    /**
+     * New snapshot getter
+     * @return - the immutable list content after event
+     */
+    public List<T> getNewSnapshot() {
+        return newSnapshot;
+    }
+}
@@ -0,0 +1,246 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.tools.ListenerList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * Base class for mutable lists that are not backed by an ArrayList. It holds typed / untyped 
+ * listeners and provides the range fire methods, so that extending classes only have to 
+ * implement storage (get, size and the mutation methods they support, as for AbstractList).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public abstract class AbstractMutableList<T> extends AbstractList<T> implements MutableList<T> {
+
+    /** Typed listeners **/
+    private transient ListenerList<TypedListDataListener<T>> typedListeners;
+
+    /** Untyped listeners **/
+    private transient ListenerList<ListDataListener> untypedListeners;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getElementAt(int index) {
+        return get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListDataListener(TypedListDataListener<T> listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not add a null listener");
+        }
+        typedListeners().add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListDataListener(TypedListDataListener<T> listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not remove a null listener");
+        }
+        typedListeners().remove(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListDataListener(ListDataListener listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not add a null listener");
+        }
+        untypedListeners().add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListDataListener(ListDataListener listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not remove a null listener");
+        }
+        untypedListeners().remove(listener);
+    }
+
+    /**
+     * Returns typed listeners (never null)
+     * @return - a read only snapshot of the typed listeners
+     */
+    public Collection<TypedListDataListener<T>> getTypedListeners() {
+        return typedListeners().getListeners();
+    }
+
+    /**
+     * Returns untyped listeners (never null)
+     * @return  - a read only snapshot of the untyped listeners
+     */
+    public Collection<ListDataListener> getUntypedListeners() {
+        return untypedListeners().getListeners();
+    }
+
+    /**
+     * Returns the typed listeners list, created on first need (and after deserialization)
+     * @return -
+     */
+    private synchronized ListenerList<TypedListDataListener<T>> typedListeners() {
+        if (typedListeners == null) {
+            typedListeners = new ListenerList<TypedListDataListener<T>>();
+        }
+        return typedListeners;
+    }
+
+    /**
+     * Returns the untyped listeners list, created on first need (and after deserialization)
+     * @return -
+     */
+    private synchronized ListenerList<ListDataListener> untypedListeners() {
+        if (untypedListeners == null) {
+            untypedListeners = new ListenerList<ListDataListener>();
+        }
+        return untypedListeners;
+    }
+
+    /**
+     * Is there any listener to notify?
+     * @return true if at least one typed or untyped listener is registered
+     */
+    protected boolean hasListeners() {
+        return (typedListeners != null && !typedListeners.isEmpty())
+                || (untypedListeners != null && !untypedListeners.isEmpty());
+    }
+
+    /**
+     * Fires an interval added event
+     * @param index : insertion index
+     * @param addedElements : added elements
+     */
+    protected void fireIntervalAdded(int index, List<T> addedElements) {
+        if (addedElements.isEmpty() || !hasListeners()) {
+            return;
+        }
+        fireEvent(new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_ADDED, index,
+                                            index + addedElements.size() - 1, null,
+                                            addedElements));
+    }
+
+    /**
+     * Fires an interval removed event
+     * @param index : first removed index
+     * @param removedElements : removed elements
+     */
+    protected void fireIntervalRemoved(int index, List<T> removedElements) {
+        if (removedElements.isEmpty() || !hasListeners()) {
+            return;
+        }
+        fireEvent(new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_REMOVED, index,
+                                            index + removedElements.size() - 1,
+                                            removedElements, null));
+    }
+
+    /**
+     * Fires a contents changed event
+     * @param index : first changed index
+     * @param previousElements : elements that were in the range before change
+     * @param newElements : elements that are now in the range (same size than previous elements)
+     */
+    protected void fireContentsChanged(int index, List<T> previousElements, List<T> newElements) {
+        if (newElements.isEmpty() || !hasListeners()) {
+            return;
+        }
+        fireEvent(new TypedListDataEvent<T>(this, ListDataEvent.CONTENTS_CHANGED, index,
+                                            index + newElements.size() - 1, previousElements,
+                                            newElements));
+    }
+
+    /**
+     * Fires an event to listeners, according to its type
+     * @param event : event to fire
+     */
+    protected void fireEvent(TypedListDataEvent<T> event) {
+        switch (event.getType()) {
+        case ListDataEvent.INTERVAL_ADDED:
+            for (TypedListDataListener<T> listener : getTypedListeners()) {
+                listener.intervalAdded(event);
+            }
+            for (ListDataListener listener : getUntypedListeners()) {
+                listener.intervalAdded(event);
+            }
+            break;
+        case ListDataEvent.INTERVAL_REMOVED:
+            for (TypedListDataListener<T> listener : getTypedListeners()) {
+                listener.intervalRemoved(event);
+            }
+            for (ListDataListener listener : getUntypedListeners()) {
+                listener.intervalRemoved(event);
+            }
+            break;
+        default:
+            for (TypedListDataListener<T> listener : getTypedListeners()) {
+                listener.contentsChanged(event);
+            }
+            for (ListDataListener listener : getUntypedListeners()) {
+                listener.contentsChanged(event);
+            }
+        }
+    }
+
+    /**
+     * Fires a contents changed event for a single element
+     * @param index : changed index
+     * @param oldElement : old value at that index
+     * @param element  : new value at that index
+     */
+    protected void fireContentsChanged(int index, T oldElement, T element) {
+        if (!hasListeners()) {
+            return;
+        }
+        List<T> previousElements = new ArrayList<T>(1);
+        List<T> newElements = new ArrayList<T>(1);
+        previousElements.add(oldElement);
+        newElements.add(element);
+        fireContentsChanged(index, previousElements, newElements);
+    }
+}
@@ -0,0 +1,461 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.tools.ListenerList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+/**
+ * A thread safe mutable list. Its content is an immutable snapshot (a {@link PersistentVector})
+ * : readers never lock and writers (any number of threads) build a new snapshot then publish it
+ * with a compare and set, retrying if another writer published first. Building a snapshot shares
+ * most of the previous one, so that single element writes and failed attempts cost O(log n). Each published snapshot gets the next
+ * version number and its event is queued with that number, so that listeners receive events in
+ * strict mutation order, one at a time, whatever thread performed the mutation. Events are
+ * delivered by the writer threads : a writer whose event is not the next one to deliver
+ * returns immediately, the writer delivering the previous events will deliver it.<br>
+ * The iterator (and so equals, hashCode and toString) works on a consistent snapshot. Note that
+ * get() is O(log n).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class ConcurrentMutableList<T> extends AbstractList<T> implements MutableList<T> {
+
+    /** Current snapshot **/
+    private final AtomicReference<Snapshot<T>> snapshot;
+
+    /** Events published but not yet delivered, by version **/
+    private final Map<Long, TypedListDataEvent<T>> pendingEvents;
+
+    /** Lock held by the thread delivering events **/
+    private final ReentrantLock deliveryLock;
+
+    /** Version of the last delivered event **/
+    private volatile long deliveredVersion;
+
+    /** Typed listeners **/
+    private final ListenerList<TypedListDataListener<T>> typedListeners;
+
+    /** Untyped listeners **/
+    private final ListenerList<ListDataListener> untypedListeners;
+
+    /**
+     * Constructor
+     */
+    public ConcurrentMutableList() {
+        this(Collections.<T> emptyList());
+    }
+
+    /**
+     * Constructor
+     * @param initialElements : initial elements
+     */
+    public ConcurrentMutableList(Collection<? extends T> initialElements) {
+        snapshot = new AtomicReference<Snapshot<T>>(
+                new Snapshot<T>(PersistentVector.<T> of(initialElements), 0));
+        pendingEvents = new ConcurrentHashMap<Long, TypedListDataEvent<T>>();
+        deliveryLock = new ReentrantLock();
+        typedListeners = new ListenerList<TypedListDataListener<T>>();
+        untypedListeners = new ListenerList<ListDataListener>();
+    }
+
+    /**
+     * Returns an immutable snapshot of the list content
+     * @return -
+     */
+    public List<T> snapshot() {
+        return snapshot.get().elements;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        return snapshot.get().elements.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return snapshot.get().elements.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getElementAt(int index) {
+        return get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.plus(current.elements.size(), element));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishAdded(next.version, current.elements.size(), Collections.singletonList(element));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T element) {
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.plus(index, element));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishAdded(next.version, index, Collections.singletonList(element));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        List<T> addedElements = Collections.unmodifiableList(new ArrayList<T>(c));
+        if (addedElements.isEmpty()) {
+            return false;
+        }
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.plusAll(current.elements.size(), addedElements));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishAdded(next.version, current.elements.size(), addedElements);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        List<T> addedElements = Collections.unmodifiableList(new ArrayList<T>(c));
+        if (addedElements.isEmpty()) {
+            return false;
+        }
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.plusAll(index, addedElements));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishAdded(next.version, index, addedElements);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.with(index, element));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        T oldElement = current.elements.get(index);
+        publish(next.version, new TypedListDataEvent<T>(this, ListDataEvent.CONTENTS_CHANGED,
+                                                         index, index,
+                                                         Collections.singletonList(oldElement),
+                                                         Collections.singletonList(element)));
+        return oldElement;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.minus(index));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        T removed = current.elements.get(index);
+        publishRemoved(next.version, index, Collections.singletonList(removed));
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        Snapshot<T> current;
+        Snapshot<T> next;
+        int index;
+        do {
+            current = snapshot.get();
+            index = current.elements.indexOf(o);
+            if (index == -1) {
+                return false;
+            }
+            next = current.next(current.elements.minus(index));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishRemoved(next.version, index, Collections.singletonList(current.elements.get(index)));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            next = current.next(current.elements.minusRange(fromIndex, toIndex));
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishRemoved(next.version, fromIndex, current.elements.subList(fromIndex, toIndex));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        Snapshot<T> current;
+        Snapshot<T> next;
+        do {
+            current = snapshot.get();
+            if (current.elements.isEmpty()) {
+                return;
+            }
+            next = current.next(PersistentVector.<T> empty());
+        }
+        while (!snapshot.compareAndSet(current, next));
+        publishRemoved(next.version, 0, current.elements);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListDataListener(TypedListDataListener<T> listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not add a null listener");
+        }
+        typedListeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListDataListener(TypedListDataListener<T> listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not remove a null listener");
+        }
+        typedListeners.remove(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListDataListener(ListDataListener listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not add a null listener");
+        }
+        untypedListeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListDataListener(ListDataListener listener) {
+        if (listener == null) {
+            throw new RuntimeException(getClass() + " : you can not remove a null listener");
+        }
+        untypedListeners.remove(listener);
+    }
+
+    /**
+     * Publishes an interval added event
+     * @param version : version of the snapshot produced by the mutation
+     * @param index : insertion index
+     * @param addedElements : added elements
+     */
+    private void publishAdded(long version, int index, List<T> addedElements) {
+        publish(version, new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_ADDED, index,
+                                                   index + addedElements.size() - 1, null,
+                                                   addedElements));
+    }
+
+    /**
+     * Publishes an interval removed event
+     * @param version : version of the snapshot produced by the mutation
+     * @param index : first removed index
+     * @param removedElements : removed elements
+     */
+    private void publishRemoved(long version, int index, List<T> removedElements) {
+        publish(version, new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_REMOVED, index,
+                                                   index + removedElements.size() - 1,
+                                                   removedElements, null));
+    }
+
+    /**
+     * Queues an event then delivers, if no other thread is delivering, every event whose
+     * previous events have all been delivered
+     * @param version : version of the snapshot produced by the mutation
+     * @param event : mutation event
+     */
+    private void publish(long version, TypedListDataEvent<T> event) {
+        pendingEvents.put(version, event);
+        // loop : an event may be queued after the delivering thread checked for it but before
+        // it released the lock
+        while (pendingEvents.containsKey(deliveredVersion + 1) && deliveryLock.tryLock()) {
+            try {
+                TypedListDataEvent<T> next;
+                while ((next = pendingEvents.remove(deliveredVersion + 1)) != null) {
+                    deliveredVersion++;
+                    fire(next);
+                }
+            }
+            finally {
+                deliveryLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Fires an event to listeners
+     * @param event : event to fire
+     */
+    private void fire(TypedListDataEvent<T> event) {
+        switch (event.getType()) {
+        case ListDataEvent.INTERVAL_ADDED:
+            for (TypedListDataListener<T> listener : typedListeners.getListeners()) {
+                listener.intervalAdded(event);
+            }
+            for (ListDataListener listener : untypedListeners.getListeners()) {
+                listener.intervalAdded(event);
+            }
+            break;
+        case ListDataEvent.INTERVAL_REMOVED:
+            for (TypedListDataListener<T> listener : typedListeners.getListeners()) {
+                listener.intervalRemoved(event);
+            }
+            for (ListDataListener listener : untypedListeners.getListeners()) {
+                listener.intervalRemoved(event);
+            }
+            break;
+        default:
+            for (TypedListDataListener<T> listener : typedListeners.getListeners()) {
+                listener.contentsChanged(event);
+            }
+            for (ListDataListener listener : untypedListeners.getListeners()) {
+                listener.contentsChanged(event);
+            }
+        }
+    }
+
+    /**
+     * An immutable list content, with its version
+     * @param <T> : list elements type
+     */
+    private static class Snapshot<T> {
+
+        /** Elements (never modified) **/
+        private final PersistentVector<T> elements;
+
+        /** Version **/
+        private final long version;
+
+        /**
+         * Constructor
+         * @param elements : elements
+         * @param version : version
+         */
+        public Snapshot(PersistentVector<T> elements, long version) {
+            this.elements = elements;
+            this.version = version;
+        }
+
+        /**
+         * Builds the next snapshot
+         * @param nextElements : elements of the next snapshot
+         * @return -
+         */
+        public Snapshot<T> next(PersistentVector<T> nextElements) {
+            return new Snapshot<T>(nextElements, version + 1);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * A compact binary codec for list elements, used when serializing a {@link MutableArrayList}
+ * instead of the default object serialization of each element (much smaller and faster for 
+ * primitive-like elements). The codec itself is written once in the stream, it must therefore
+ * be serializable. Null elements are handled by the list, the codec never receives them. See
+ * {@link ElementCodecs} for common codecs.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public interface ElementCodec<T> extends Serializable {
+
+    /**
+     * Writes an element
+     * @param element : element to write (not null)
+     * @param out : output
+     * @throws IOException if the element could not be written
+     */
+    void write(T element, DataOutput out) throws IOException;
+
+    /**
+     * Reads an element
+     * @param in : input
+     * @return - the read element
+     * @throws IOException if the element could not be read
+     */
+    T read(DataInput in) throws IOException;
+}
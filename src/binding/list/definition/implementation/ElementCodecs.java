@@ -0,0 +1,158 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Common element codecs (see {@link ElementCodec})
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public final class ElementCodecs {
+
+    /** Integer codec (4 bytes per element) **/
+    public static final ElementCodec<Integer> INTEGER = new IntegerCodec();
+
+    /** Long codec (8 bytes per element) **/
+    public static final ElementCodec<Long> LONG = new LongCodec();
+
+    /** Double codec (8 bytes per element) **/
+    public static final ElementCodec<Double> DOUBLE = new DoubleCodec();
+
+    /** String codec (modified UTF-8, strings shorter than 65536 bytes once encoded) **/
+    public static final ElementCodec<String> STRING = new StringCodec();
+
+    /**
+     * Not instantiable
+     */
+    private ElementCodecs() {
+        // static tools
+    }
+
+    /**
+     * Integer codec
+     */
+    private static final class IntegerCodec implements ElementCodec<Integer> {
+
+        /** Serial version UID **/
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void write(Integer element, DataOutput out) throws IOException {
+            out.writeInt(element);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+
+        /**
+         * Keeps the codec unique when deserialized
+         * @return -
+         */
+        private Object readResolve() {
+            return INTEGER;
+        }
+    }
+
+    /**
+     * Long codec
+     */
+    private static final class LongCodec implements ElementCodec<Long> {
+
+        /** Serial version UID **/
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void write(Long element, DataOutput out) throws IOException {
+            out.writeLong(element);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+
+        /**
+         * Keeps the codec unique when deserialized
+         * @return -
+         */
+        private Object readResolve() {
+            return LONG;
+        }
+    }
+
+    /**
+     * Double codec
+     */
+    private static final class DoubleCodec implements ElementCodec<Double> {
+
+        /** Serial version UID **/
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void write(Double element, DataOutput out) throws IOException {
+            out.writeDouble(element);
+        }
+
+        @Override
+        public Double read(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+
+        /**
+         * Keeps the codec unique when deserialized
+         * @return -
+         */
+        private Object readResolve() {
+            return DOUBLE;
+        }
+    }
+
+    /**
+     * String codec
+     */
+    private static final class StringCodec implements ElementCodec<String> {
+
+        /** Serial version UID **/
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void write(String element, DataOutput out) throws IOException {
+            out.writeUTF(element);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+
+        /**
+         * Keeps the codec unique when deserialized
+         * @return -
+         */
+        private Object readResolve() {
+            return STRING;
+        }
+    }
+}
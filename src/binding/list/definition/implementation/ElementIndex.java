@@ -0,0 +1,256 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import binding.list.definition.view.ElementConverter;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of list elements positions, by element or by key. It mirrors the list in a 
+ * {@link WeightedSequence}, whose nodes are stable handles on elements whatever the insertions
+ * and removals before them, and maps each key to the nodes of its elements : finding the 
+ * position of a key takes O(d log n), d being the count of elements sharing the key (their 
+ * nodes are scanned), and keeping the index up to date costs O(log n) per inserted, removed or
+ * replaced element, including when a mutation shifts a range.<br>
+ * Keys must not change while their elements are in the list, and equal elements must have 
+ * equal keys.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+class ElementIndex<T> {
+
+    /** Keys extractor, null to index elements themselves **/
+    private final ElementConverter<? super T, ?> keyExtractor;
+
+    /** Elements nodes, in list order **/
+    private final WeightedSequence<T> positions;
+
+    /** Nodes by key : a single node, or a list of nodes for duplicate keys **/
+    private final Map<Object, Object> nodes;
+
+    /**
+     * Constructor
+     * @param keyExtractor : keys extractor, null to index elements themselves
+     * @param elements : current list elements
+     */
+    public ElementIndex(ElementConverter<? super T, ?> keyExtractor, List<T> elements) {
+        this.keyExtractor = keyExtractor;
+        this.positions = new WeightedSequence<T>();
+        this.nodes = new HashMap<Object, Object>(Math.max(16, elements.size() * 4 / 3 + 1));
+        inserted(0, elements);
+    }
+
+    /**
+     * Keys extractor getter
+     * @return - the keys extractor, null if elements themselves are indexed
+     */
+    public ElementConverter<? super T, ?> getKeyExtractor() {
+        return keyExtractor;
+    }
+
+    /**
+     * Extracts the keys of elements about to be inserted or set, without indexing them
+     * @param elements : elements
+     * @throws RuntimeException the exception thrown by the keys extractor, if it fails
+     */
+    public void checkKeys(Collection<? extends T> elements) {
+        if (keyExtractor != null) {
+            for (T element : elements) {
+                keyExtractor.convert(element);
+            }
+        }
+    }
+
+    /**
+     * Indexes inserted elements
+     * @param index : list index of the first inserted element
+     * @param elements : inserted elements
+     */
+    public void inserted(int index, Collection<? extends T> elements) {
+        List<T> inserted = new ArrayList<T>(elements);
+        for (Node<T> node : positions.insertAll(index, inserted, new int[inserted.size()])) {
+            addNode(node);
+        }
+    }
+
+    /**
+     * Removes elements from the index
+     * @param index : list index of the first removed element
+     * @param count : removed elements count
+     */
+    public void removed(int index, int count) {
+        for (Node<T> node : positions.remove(index, count)) {
+            removeNode(node);
+        }
+    }
+
+    /**
+     * Indexes a replaced element
+     * @param index : list index of the element
+     * @param element : new element
+     */
+    public void replaced(int index, T element) {
+        Node<T> node = positions.get(index);
+        removeNode(node);
+        node.setValue(element);
+        addNode(node);
+    }
+
+    /**
+     * Empties the index
+     */
+    public void clear() {
+        positions.clear();
+        nodes.clear();
+    }
+
+    /**
+     * Returns the first or last position of a key
+     * @param key : key
+     * @param last : true for the last position, false for the first one
+     * @return - the position, -1 if no element has that key
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOfKey(Object key, boolean last) {
+        Object value = nodes.get(key);
+        if (value == null) {
+            return -1;
+        }
+        if (value instanceof Node) {
+            return positions.indexOf((Node<T>) value);
+        }
+        int found = -1;
+        for (Node<T> node : (List<Node<T>>) value) {
+            int index = positions.indexOf(node);
+            if (found == -1 || (last ? index > found : index < found)) {
+                found = index;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the first or last position of an element
+     * @param element : element
+     * @param last : true for the last position, false for the first one
+     * @return - the position, -1 if the element is not in the list
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOf(Object element, boolean last) {
+        Object key;
+        try {
+            key = getKey((T) element);
+        } catch (ClassCastException e) {
+            // not an element of this list
+            return -1;
+        }
+        Object value = nodes.get(key);
+        if (value == null) {
+            return -1;
+        }
+        List<Node<T>> candidates = value instanceof Node ? null : (List<Node<T>>) value;
+        if (candidates == null) {
+            Node<T> node = (Node<T>) value;
+            return equal(node.getValue(), element) ? positions.indexOf(node) : -1;
+        }
+        int found = -1;
+        for (Node<T> node : candidates) {
+            if (equal(node.getValue(), element)) {
+                int index = positions.indexOf(node);
+                if (found == -1 || (last ? index > found : index < found)) {
+                    found = index;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the key of an element
+     * @param element : element
+     * @return -
+     */
+    private Object getKey(T element) {
+        return keyExtractor == null ? element : keyExtractor.convert(element);
+    }
+
+    /**
+     * Adds a node to the keys map
+     * @param node : node
+     */
+    @SuppressWarnings("unchecked")
+    private void addNode(Node<T> node) {
+        Object key = getKey(node.getValue());
+        Object value = nodes.get(key);
+        if (value == null) {
+            nodes.put(key, node);
+        }
+        else if (value instanceof Node) {
+            List<Node<T>> duplicates = new ArrayList<Node<T>>(2);
+            duplicates.add((Node<T>) value);
+            duplicates.add(node);
+            nodes.put(key, duplicates);
+        }
+        else {
+            ((List<Node<T>>) value).add(node);
+        }
+    }
+
+    /**
+     * Removes a node from the keys map
+     * @param node : node
+     */
+    @SuppressWarnings("unchecked")
+    private void removeNode(Node<T> node) {
+        Object key = getKey(node.getValue());
+        Object value = nodes.get(key);
+        if (value == node) {
+            nodes.remove(key);
+        }
+        else if (value != null && !(value instanceof Node)) {
+            List<Node<T>> duplicates = (List<Node<T>>) value;
+            for (int i = duplicates.size() - 1; i >= 0; i--) {
+                if (duplicates.get(i) == node) {
+                    duplicates.remove(i);
+                    break;
+                }
+            }
+            if (duplicates.size() == 1) {
+                nodes.put(key, duplicates.get(0));
+            }
+        }
+    }
+
+    /**
+     * Compares two elements
+     * @param e1 : first element
+     * @param e2 : second element
+     * @return true if both are null or equal
+     */
+    private static boolean equal(Object e1, Object e2) {
+        return e1 == null ? e2 == null : e1.equals(e2);
+    }
+}
@@ -0,0 +1,303 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A file mapped in memory as a sequence of segments, so that it can be addressed with long
+ * offsets beyond the 2GB limit of a single mapped buffer. Reads and writes that span two
+ * segments are performed through heap copies. The file grows on demand, its last segment being
+ * remapped with a larger size until it reaches the segment size.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+final class MappedSegments {
+
+    /** Segment size shift **/
+    private static final int SEGMENT_SHIFT = 26;
+
+    /** Segment size (64 MB) **/
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    /** Mask to compute offset in segment **/
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /** Minimal growth step **/
+    private static final int MIN_GROWTH = 1 << 16;
+
+    /** Size of the bounce array used to move bytes **/
+    private static final int BOUNCE_SIZE = 1 << 16;
+
+    /** Mapped file **/
+    private final RandomAccessFile file;
+
+    /** File channel **/
+    private final FileChannel channel;
+
+    /** Mapped segments **/
+    private final List<MappedByteBuffer> segments;
+
+    /** Segments written since last force **/
+    private final BitSet dirtySegments;
+
+    /**
+     * Constructor : maps the whole current file content
+     * @param path : file path (created if it does not exist)
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedSegments(File path) throws IOException {
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = file.getChannel();
+        this.segments = new ArrayList<MappedByteBuffer>();
+        this.dirtySegments = new BitSet();
+        long length = file.length();
+        if (length > 0) {
+            ensureCapacity(length);
+        }
+    }
+
+    /**
+     * Returns the mapped length
+     * @return -
+     */
+    public long capacity() {
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        int last = segments.size() - 1;
+        return ((long) last << SEGMENT_SHIFT) + segments.get(last).capacity();
+    }
+
+    /**
+     * Ensures the file is mapped at least up to the length as parameter
+     * @param length : length to map
+     * @throws IOException if the file cannot be grown or mapped
+     */
+    public void ensureCapacity(long length) throws IOException {
+        while (capacity() < length) {
+            int last = segments.size() - 1;
+            if (last >= 0 && segments.get(last).capacity() < SEGMENT_SIZE) {
+                // grow last segment
+                long segmentStart = (long) last << SEGMENT_SHIFT;
+                int current = segments.get(last).capacity();
+                long required = Math.min(length - segmentStart, SEGMENT_SIZE);
+                int grown = (int) Math.min(SEGMENT_SIZE, Math.max(required, (long) current * 2));
+                segments.set(last, map(segmentStart, grown));
+            }
+            else {
+                // map a new segment
+                long segmentStart = (long) segments.size() << SEGMENT_SHIFT;
+                long required = Math.min(length - segmentStart, SEGMENT_SIZE);
+                segments.add(map(segmentStart, (int) Math.max(required, MIN_GROWTH)));
+            }
+        }
+    }
+
+    /**
+     * Maps a segment
+     * @param position : segment position in file
+     * @param size : segment size
+     * @return the mapped segment
+     * @throws IOException if mapping failed
+     */
+    private MappedByteBuffer map(long position, int size) throws IOException {
+        if (file.length() < position + size) {
+            file.setLength(position + size);
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+    }
+
+    /**
+     * Returns a buffer whose index 0 is the position as parameter. When the range lies in a
+     * single segment, the buffer shares its content with the file, otherwise it is a copy
+     * @param position : position in file
+     * @param length : range length
+     * @return -
+     */
+    public ByteBuffer slice(long position, int length) {
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        int segment = (int) (position >>> SEGMENT_SHIFT);
+        int offset = (int) (position & SEGMENT_MASK);
+        if (offset + length <= segments.get(segment).capacity()) {
+            ByteBuffer slice = segments.get(segment).duplicate();
+            slice.limit(offset + length).position(offset);
+            return slice.slice();
+        }
+        byte[] copy = new byte[length];
+        get(position, copy, 0, length);
+        return ByteBuffer.wrap(copy);
+    }
+
+    /**
+     * Returns a buffer sharing the file content, whose index 0 is the position as parameter, or
+     * null if the range spans two segments
+     * @param position : position in file
+     * @param length : range length
+     * @return -
+     */
+    public ByteBuffer writableSlice(long position, int length) {
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        int segment = (int) (position >>> SEGMENT_SHIFT);
+        int offset = (int) (position & SEGMENT_MASK);
+        if (offset + length > segments.get(segment).capacity()) {
+            return null;
+        }
+        dirtySegments.set(segment);
+        ByteBuffer slice = segments.get(segment).duplicate();
+        slice.limit(offset + length).position(offset);
+        return slice.slice();
+    }
+
+    /**
+     * Reads bytes
+     * @param position : position in file
+     * @param destination : destination array
+     * @param offset : offset in destination array
+     * @param length : bytes count
+     */
+    public void get(long position, byte[] destination, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer segment = segments.get((int) (position >>> SEGMENT_SHIFT)).duplicate();
+            int inSegment = (int) (position & SEGMENT_MASK);
+            int chunk = Math.min(length, segment.capacity() - inSegment);
+            segment.position(inSegment);
+            segment.get(destination, offset, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Writes bytes
+     * @param position : position in file
+     * @param source : source array
+     * @param offset : offset in source array
+     * @param length : bytes count
+     */
+    public void put(long position, byte[] source, int offset, int length) {
+        while (length > 0) {
+            int segmentIndex = (int) (position >>> SEGMENT_SHIFT);
+            ByteBuffer segment = segments.get(segmentIndex).duplicate();
+            int inSegment = (int) (position & SEGMENT_MASK);
+            int chunk = Math.min(length, segment.capacity() - inSegment);
+            segment.position(inSegment);
+            segment.put(source, offset, chunk);
+            dirtySegments.set(segmentIndex);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Reads an int value
+     * @param position : position in file
+     * @return -
+     */
+    public int getInt(long position) {
+        return slice(position, 4).getInt(0);
+    }
+
+    /**
+     * Writes an int value
+     * @param position : position in file
+     * @param value : value
+     */
+    public void putInt(long position, int value) {
+        ByteBuffer bytes = ByteBuffer.allocate(4);
+        bytes.putInt(0, value);
+        put(position, bytes.array(), 0, 4);
+    }
+
+    /**
+     * Reads a long value
+     * @param position : position in file
+     * @return -
+     */
+    public long getLong(long position) {
+        return slice(position, 8).getLong(0);
+    }
+
+    /**
+     * Writes a long value
+     * @param position : position in file
+     * @param value : value
+     */
+    public void putLong(long position, long value) {
+        ByteBuffer bytes = ByteBuffer.allocate(8);
+        bytes.putLong(0, value);
+        put(position, bytes.array(), 0, 8);
+    }
+
+    /**
+     * Moves bytes in file (source and destination ranges may overlap)
+     * @param from : source position
+     * @param to : destination position
+     * @param length : count of bytes to move
+     */
+    public void move(long from, long to, long length) {
+        if (length <= 0 || from == to) {
+            return;
+        }
+        byte[] bounce = new byte[(int) Math.min(BOUNCE_SIZE, length)];
+        long done = 0;
+        while (done < length) {
+            int chunk = (int) Math.min(bounce.length, length - done);
+            // moving forward : copy from the end so that no byte is overwritten before being read
+            long offset = to > from ? length - done - chunk : done;
+            get(from + offset, bounce, 0, chunk);
+            put(to + offset, bounce, 0, chunk);
+            done += chunk;
+        }
+    }
+
+    /**
+     * Forces the segments written since last call to the storage device
+     */
+    public void force() {
+        for (int i = dirtySegments.nextSetBit(0); i >= 0; i = dirtySegments.nextSetBit(i + 1)) {
+            segments.get(i).force();
+        }
+        dirtySegments.clear();
+    }
+
+    /**
+     * Forces pending writes and closes the file
+     * @throws IOException if the file could not be closed
+     */
+    public void close() throws IOException {
+        force();
+        channel.close();
+        file.close();
+    }
+}
@@ -0,0 +1,629 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A persistent mutable list, backed by a memory mapped file. Mutations are written in the
+ * mapped file and the operating system writes them back to disk lazily; call {@link #flush()}
+ * to force them. Reopening an existing file is immediate since elements are only decoded on
+ * get() (codecs may return flyweights, see {@link RecordCodec}).<br>
+ * Two storage modes are available:
+ * <ul>
+ * <li>fixed length records (see {@link RecordCodec}) are stored inline, in list order, after
+ * the file header.</li>
+ * <li>variable length records (see {@link VariableRecordCodec}) are appended to a data file
+ * (the list file path followed by ".data") while the list file holds, in list order, the offset
+ * and length of each record. Insertions and removals therefore only shift those entries.
+ * Replaced and removed records are left in the data file until {@link #compact()} is
+ * called.</li>
+ * </ul>
+ * Removed elements provided in events remain readable after the removal (variable length 
+ * records only until next compaction, and until the list is closed). Elements removed at the
+ * list end (for instance by clear) are not copied : they are read from the file region they 
+ * occupied, and copied only if the list grows over that region while they are still 
+ * referenced. The list is not thread safe.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class MemoryMappedMutableList<T> extends AbstractMutableList<T> {
+
+    /** File magic number **/
+    private static final int MAGIC = 0x42544d4c;
+
+    /** File format version **/
+    private static final int VERSION = 1;
+
+    /** Record length stored in header for variable length records **/
+    private static final int VARIABLE_LENGTH = -1;
+
+    /** Header length **/
+    private static final int HEADER_LENGTH = 32;
+
+    /** Position of the record length in header **/
+    private static final int RECORD_LENGTH_POSITION = 8;
+
+    /** Position of the size in header **/
+    private static final int SIZE_POSITION = 16;
+
+    /** Position of the data end in header **/
+    private static final int DATA_END_POSITION = 24;
+
+    /** Length of an entry pointing a variable length record (offset and length) **/
+    private static final int POINTER_LENGTH = 12;
+
+    /** Suffix of the data file for variable length records **/
+    private static final String DATA_FILE_SUFFIX = ".data";
+
+    /** Fixed length records codec (null for variable length records) **/
+    private final RecordCodec<T> codec;
+
+    /** Variable length records codec (null for fixed length records) **/
+    private final VariableRecordCodec<T> variableCodec;
+
+    /** List file : header then entries in list order **/
+    private final MappedSegments entries;
+
+    /** Data file (null for fixed length records) **/
+    private final MappedSegments data;
+
+    /** Length of an entry (record length or pointer length) **/
+    private final int entryLength;
+
+    /** Elements count **/
+    private int size;
+
+    /** End of written data in data file **/
+    private long dataEnd;
+
+    /** Removed elements still read from the file region after the list end **/
+    private final List<WeakReference<DetachedList>> detachedTails =
+            new ArrayList<WeakReference<DetachedList>>();
+
+    /** Maximum size of the copies of detached entries **/
+    private static final int DETACHED_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Constructor for fixed length records : opens the list file, or creates it if it does not
+     * exist
+     * @param file : list file
+     * @param codec : records codec
+     * @throws IllegalArgumentException if a parameter is null, if the record length is invalid
+     *          or if the existing file does not match the codec
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MemoryMappedMutableList(File file, RecordCodec<T> codec) throws IOException {
+        if (file == null || codec == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the file and the records codec can not be null");
+        }
+        if (codec.getRecordLength() <= 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the record length must be strictly positive");
+        }
+        this.codec = codec;
+        this.variableCodec = null;
+        this.entryLength = codec.getRecordLength();
+        this.entries = new MappedSegments(file);
+        this.data = null;
+        open(entryLength);
+    }
+
+    /**
+     * Constructor for variable length records : opens the list file and its data file, or
+     * creates them if they do not exist
+     * @param file : list file
+     * @param codec : records codec
+     * @throws IllegalArgumentException if a parameter is null or if the existing file does not
+     *          match the codec
+     * @throws IOException if a file cannot be opened or mapped
+     */
+    public MemoryMappedMutableList(File file, VariableRecordCodec<T> codec) throws IOException {
+        if (file == null || codec == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the file and the records codec can not be null");
+        }
+        this.codec = null;
+        this.variableCodec = codec;
+        this.entryLength = POINTER_LENGTH;
+        this.entries = new MappedSegments(file);
+        this.data = new MappedSegments(new File(file.getPath() + DATA_FILE_SUFFIX));
+        open(VARIABLE_LENGTH);
+    }
+
+    /**
+     * Reads the file header, or writes it if the file is new
+     * @param recordLength : expected record length
+     * @throws IOException if the file cannot be grown
+     */
+    private void open(int recordLength) throws IOException {
+        if (entries.capacity() < HEADER_LENGTH) {
+            entries.ensureCapacity(HEADER_LENGTH);
+            entries.putInt(0, MAGIC);
+            entries.putInt(4, VERSION);
+            entries.putInt(RECORD_LENGTH_POSITION, recordLength);
+            writeHeader();
+            return;
+        }
+        if (entries.getInt(0) != MAGIC || entries.getInt(4) != VERSION) {
+            throw new IllegalArgumentException(getClass() + ": not a mapped list file");
+        }
+        if (entries.getInt(RECORD_LENGTH_POSITION) != recordLength) {
+            throw new IllegalArgumentException(getClass() + ": the file record length ("
+                    + entries.getInt(RECORD_LENGTH_POSITION)
+                    + ") does not match the codec one (" + recordLength + ")");
+        }
+        size = (int) entries.getLong(SIZE_POSITION);
+        dataEnd = entries.getLong(DATA_END_POSITION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        checkElementIndex(index);
+        long position = entryPosition(index);
+        if (codec != null) {
+            return codec.read(entries.slice(position, entryLength), 0);
+        }
+        int length = entries.getInt(position + 8);
+        return variableCodec.read(data.slice(entries.getLong(position), length), 0, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        checkElementIndex(index);
+        T oldElement = copyEntries(index, 1).get(0);
+        writeElement(index, element);
+        writeHeader();
+        fireContentsChanged(index, oldElement, element);
+        return oldElement;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T element) {
+        checkPositionIndex(index);
+        insertElements(index, Collections.singletonList(element));
+        fireIntervalAdded(index, Collections.singletonList(element));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        checkPositionIndex(index);
+        // copy first : the collection could be this list
+        List<T> addedElements = new ArrayList<T>(c);
+        if (addedElements.isEmpty()) {
+            return false;
+        }
+        insertElements(index, addedElements);
+        fireIntervalAdded(index, addedElements);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        checkElementIndex(index);
+        T removed = copyEntries(index, 1).get(0);
+        closeRoom(index, 1);
+        fireIntervalRemoved(index, Collections.singletonList(removed));
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + "[ out of list bounds, size: " + size);
+        }
+        int count = toIndex - fromIndex;
+        if (count == 0) {
+            return;
+        }
+        List<T> removed = hasListeners() ? detach(fromIndex, count) : null;
+        closeRoom(fromIndex, count);
+        if (removed != null) {
+            fireIntervalRemoved(fromIndex, removed);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        removeRange(0, size);
+    }
+
+    /**
+     * Forces the mutations performed so far to the storage device
+     */
+    public void flush() {
+        writeHeader();
+        entries.force();
+        if (data != null) {
+            data.force();
+        }
+    }
+
+    /**
+     * Flushes then closes the list files. The list must no longer be used after this call
+     * @throws IOException if a file could not be closed
+     */
+    public void close() throws IOException {
+        flush();
+        entries.close();
+        if (data != null) {
+            data.close();
+        }
+    }
+
+    /**
+     * Reclaims, for variable length records, the data file space used by replaced and removed
+     * elements (it does nothing for fixed length records). Removed elements provided by previous
+     * events must no longer be read after this call.
+     */
+    public void compact() {
+        if (data == null) {
+            return;
+        }
+        // move records toward the file start, in their data file order
+        Integer[] order = new Integer[size];
+        final long[] offsets = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            offsets[i] = entries.getLong(entryPosition(i));
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer first, Integer second) {
+                return offsets[first] < offsets[second] ? -1
+                        : offsets[first] == offsets[second] ? 0 : 1;
+            }
+        });
+        long written = 0;
+        for (Integer index : order) {
+            long position = entryPosition(index);
+            int length = entries.getInt(position + 8);
+            data.move(offsets[index], written, length);
+            entries.putLong(position, written);
+            written += length;
+        }
+        dataEnd = written;
+        writeHeader();
+    }
+
+    /**
+     * Computes an entry position in list file
+     * @param index : element index
+     * @return -
+     */
+    private long entryPosition(int index) {
+        return HEADER_LENGTH + (long) index * entryLength;
+    }
+
+    /**
+     * Writes an element (its record or, for variable length records, its pointer)
+     * @param index : element index
+     * @param element : element
+     */
+    private void writeElement(int index, T element) {
+        long position = entryPosition(index);
+        if (codec != null) {
+            ByteBuffer record = entries.writableSlice(position, entryLength);
+            if (record != null) {
+                codec.write(element, record, 0);
+            }
+            else {
+                // record spans two segments
+                ByteBuffer copy = ByteBuffer.allocate(entryLength);
+                codec.write(element, copy, 0);
+                entries.put(position, copy.array(), 0, entryLength);
+            }
+            return;
+        }
+        int length = variableCodec.getEncodedLength(element);
+        ensureCapacity(data, dataEnd + length);
+        ByteBuffer record = data.writableSlice(dataEnd, length);
+        if (record != null) {
+            variableCodec.write(element, record, 0);
+        }
+        else {
+            ByteBuffer copy = ByteBuffer.allocate(length);
+            variableCodec.write(element, copy, 0);
+            data.put(dataEnd, copy.array(), 0, length);
+        }
+        entries.putLong(position, dataEnd);
+        entries.putInt(position + 8, length);
+        dataEnd += length;
+    }
+
+    /**
+     * Writes the mutable part of header
+     */
+    private void writeHeader() {
+        entries.putLong(SIZE_POSITION, size);
+        entries.putLong(DATA_END_POSITION, dataEnd);
+    }
+
+    /**
+     * Inserts elements : opens room for their entries (shifting entries after index), writes 
+     * them, and only then grows the list. If a write fails, the entries are shifted back so
+     * that the list is left unchanged
+     * @param index : index of the first new element
+     * @param elements : new elements
+     */
+    private void insertElements(int index, List<T> elements) {
+        int count = elements.size();
+        materializeTails(size + count);
+        ensureCapacity(entries, entryPosition(size + count));
+        entries.move(entryPosition(index), entryPosition(index + count),
+                     (long) (size - index) * entryLength);
+        boolean written = false;
+        try {
+            for (int i = 0; i < count; i++) {
+                writeElement(index + i, elements.get(i));
+            }
+            written = true;
+        }
+        finally {
+            if (!written) {
+                entries.move(entryPosition(index + count), entryPosition(index),
+                             (long) (size - index) * entryLength);
+            }
+        }
+        size += count;
+        modCount++;
+        writeHeader();
+    }
+
+    /**
+     * Copies the entries of the removed elements that are still read from the file region 
+     * that the list is about to grow over
+     * @param newSize : size of the list after growth
+     */
+    private void materializeTails(int newSize) {
+        for (int i = detachedTails.size() - 1; i >= 0; i--) {
+            DetachedList detached = detachedTails.get(i).get();
+            if (detached == null) {
+                detachedTails.remove(i);
+            }
+            else if (detached.firstIndex < newSize) {
+                detached.materialize();
+                detachedTails.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Closes room in entries (shifting entries after the removed ones)
+     * @param index : index of the first removed entry
+     * @param count : count of removed entries
+     */
+    private void closeRoom(int index, int count) {
+        entries.move(entryPosition(index + count), entryPosition(index),
+                     (long) (size - index - count) * entryLength);
+        size -= count;
+        modCount++;
+        writeHeader();
+    }
+
+    /**
+     * Grows a mapped file
+     * @param segments : mapped file
+     * @param length : required length
+     * @throws RuntimeException if the file could not be grown
+     */
+    private void ensureCapacity(MappedSegments segments, long length) {
+        try {
+            segments.ensureCapacity(length);
+        }
+        catch (IOException e) {
+            // convert the error into a runtime error as list methods cannot throw it
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the elements about to be removed, that remain readable after their removal. 
+     * Entries at the list end are left in the file and read from there, other entries are
+     * copied
+     * @param index : first element index
+     * @param count : count of elements
+     * @return - the detached elements list
+     */
+    private List<T> detach(int index, int count) {
+        DetachedList detached = new DetachedList(index, count);
+        if (index + count == size) {
+            for (int i = detachedTails.size() - 1; i >= 0; i--) {
+                if (detachedTails.get(i).get() == null) {
+                    detachedTails.remove(i);
+                }
+            }
+            detachedTails.add(new WeakReference<DetachedList>(detached));
+        }
+        else {
+            detached.materialize();
+        }
+        return detached;
+    }
+
+    /**
+     * Copies entries and returns the corresponding elements, that remain readable after the
+     * entries are overwritten
+     * @param index : first element index
+     * @param count : count of elements
+     * @return - the copied elements list
+     */
+    private List<T> copyEntries(int index, int count) {
+        DetachedList copied = new DetachedList(index, count);
+        copied.materialize();
+        return copied;
+    }
+
+    /**
+     * Checks an element index
+     * @param index : index
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     */
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Checks an insertion index
+     * @param index : index
+     * @throws IndexOutOfBoundsException if index is not in [0, size]
+     */
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Read only list decoding elements from their entries : in the list file until they are 
+     * materialized, then from a copy split in chunks (so that no single array has to hold a
+     * multi-GB range)
+     */
+    private class DetachedList extends AbstractList<T> {
+
+        /** Index of the first entry in the list file **/
+        private final int firstIndex;
+
+        /** Entries count **/
+        private final int count;
+
+        /** Entries count in a copy chunk **/
+        private final int chunkEntries;
+
+        /** Entries copy, null while entries are read from the list file **/
+        private volatile ByteBuffer[] chunks;
+
+        /**
+         * Constructor
+         * @param firstIndex : index of the first entry in the list file
+         * @param count : entries count
+         */
+        public DetachedList(int firstIndex, int count) {
+            this.firstIndex = firstIndex;
+            this.count = count;
+            this.chunkEntries = Math.max(1, DETACHED_CHUNK_SIZE / entryLength);
+        }
+
+        /**
+         * Copies the entries, so that they no longer depend on the list file region
+         */
+        public void materialize() {
+            if (chunks != null) {
+                return;
+            }
+            ByteBuffer[] copy = new ByteBuffer[(int) (((long) count + chunkEntries - 1)
+                    / chunkEntries)];
+            for (int i = 0; i < copy.length; i++) {
+                int entriesCount = Math.min(chunkEntries, count - i * chunkEntries);
+                byte[] bytes = new byte[entriesCount * entryLength];
+                entries.get(entryPosition(firstIndex + i * chunkEntries), bytes, 0,
+                            bytes.length);
+                copy[i] = ByteBuffer.wrap(bytes);
+            }
+            chunks = copy;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            ByteBuffer[] copy = chunks;
+            ByteBuffer entry;
+            int position;
+            if (copy == null) {
+                entry = entries.slice(entryPosition(firstIndex + index), entryLength);
+                position = 0;
+            }
+            else {
+                entry = copy[index / chunkEntries];
+                position = (index % chunkEntries) * entryLength;
+            }
+            if (codec != null) {
+                return codec.read(entry, position);
+            }
+            int length = entry.getInt(position + 8);
+            return variableCodec.read(data.slice(entry.getLong(position), length), 0, length);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
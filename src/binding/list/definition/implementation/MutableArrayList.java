@@ -20,27 +20,64 @@ package binding.list.definition.implementation;
 import binding.list.definition.MutableList;
 import binding.list.definition.TypedListDataEvent;
 import binding.list.definition.TypedListDataListener;
-import java.io.Serializable;
+import binding.list.definition.view.ElementConverter;
+import binding.tools.ListenerList;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import javax.swing.event.ListDataEvent;
 import javax.swing.event.ListDataListener;
 
 /**
- * Mutable array list implementation
+ * Mutable array list implementation. <br>
+ * It is externalizable with a compact format holding only the elements (listeners are never 
+ * written) : a format version, the elements count, the element codec (or null) and then the 
+ * elements, written by the codec when one is set (see {@link #setElementCodec(ElementCodec)}),
+ * or as objects otherwise. {@link #readElements(ObjectInput)} appends a stream content to a 
+ * list with a single interval added event.<br>
+ * An optional index of elements positions (see {@link #setIndexed(boolean)}) makes indexOf, 
+ * contains, remove(Object) and key lookups run in O(d log n) instead of scanning the list, d 
+ * being the count of elements sharing the looked up key (1 for distinct elements).<br>
+ * The Java 8 sort, replaceAll and removeIf methods are overridden to keep the index and the 
+ * listeners up to date : compiling this class requires a Java 8 class library, although it 
+ * still runs on older platforms.
  * 
  * Copyright 2011, Raphael Mechali <br>
  * Distributed under Lesser GNU General Public License (LGPL)
  * @param <T> : list elements type
  */
-public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>, Serializable {
+public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>, Externalizable {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** Externalized format version **/
+    private static final int FORMAT_VERSION = 1;
+
+    /** Maximum capacity reserved from the count read in a stream, before reading elements **/
+    private static final int MAX_READ_CAPACITY = 4096;
 
     /** Typed listeners **/
-    private Collection<TypedListDataListener<T>> _typedListeners;
+    private transient ListenerList<TypedListDataListener<T>> _typedListeners;
 
     /** Untyped listeners **/
-    private Collection<ListDataListener> _untypedListeners;
+    private transient ListenerList<ListDataListener> _untypedListeners;
+
+    /** Codec used to write elements, null to write them as objects **/
+    private transient ElementCodec<T> elementCodec;
+
+    /** Elements positions index, null when the list is not indexed **/
+    private transient ElementIndex<T> elementIndex;
 
     /**
      * Constructor
@@ -65,6 +102,164 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         super(initialCapacity);
     }
 
+    /**
+     * Element codec getter
+     * @return - the codec used to write elements, null if they are written as objects
+     */
+    public ElementCodec<T> getElementCodec() {
+        return elementCodec;
+    }
+
+    /**
+     * Element codec setter (a read list keeps the codec it was written with)
+     * @param elementCodec : codec used to write elements, null to write them as objects
+     */
+    public void setElementCodec(ElementCodec<T> elementCodec) {
+        this.elementCodec = elementCodec;
+    }
+
+    /**
+     * Indexes, or stops indexing, elements positions. The index is kept up to date by every 
+     * mutation, at a O(log n) cost per inserted, removed or replaced element.
+     * @param indexed : true to index elements (by equals and hashCode), false to drop the index
+     */
+    public void setIndexed(boolean indexed) {
+        elementIndex = indexed ? new ElementIndex<T>(null, this) : null;
+    }
+
+    /**
+     * Indexes elements positions by key, so that {@link #indexOfKey(Object)} runs in O(d log n),
+     * d being the count of elements sharing the key.
+     * The index also serves indexOf, contains and remove(Object) : equal elements must have 
+     * equal keys. Keys must not change while their elements are in the list.
+     * @param keyExtractor : keys extractor
+     * @throws IllegalArgumentException if the keys extractor is null
+     */
+    public void setIndexed(ElementConverter<? super T, ?> keyExtractor) {
+        if (keyExtractor == null) {
+            throw new IllegalArgumentException(getClass() + ": the key extractor can not be null");
+        }
+        elementIndex = new ElementIndex<T>(keyExtractor, this);
+    }
+
+    /**
+     * Are elements positions indexed?
+     * @return -
+     */
+    public boolean isIndexed() {
+        return elementIndex != null;
+    }
+
+    /**
+     * Returns the first position of a key, in O(d log n) for d elements sharing the key
+     * @param key : key (the element itself when the list is indexed by elements)
+     * @return - the position, -1 if no element has that key
+     * @throws IllegalStateException if the list is not indexed
+     */
+    public int indexOfKey(Object key) {
+        if (elementIndex == null) {
+            throw new IllegalStateException(getClass() + ": the list is not indexed");
+        }
+        return elementIndex.indexOfKey(key, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(Object o) {
+        return elementIndex == null ? super.indexOf(o) : elementIndex.indexOf(o, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        return elementIndex == null ? super.lastIndexOf(o) : elementIndex.indexOf(o, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        int size = size();
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(size);
+        out.writeObject(elementCodec);
+        for (int i = 0; i < size; i++) {
+            T element = get(i);
+            if (elementCodec == null) {
+                out.writeObject(element);
+            }
+            else {
+                out.writeBoolean(element != null);
+                if (element != null) {
+                    elementCodec.write(element, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        readElements(in);
+    }
+
+    /**
+     * Reads elements written by {@link #writeExternal(ObjectOutput)} and appends them to this 
+     * list, firing a single interval added event. A list without codec adopts the codec read from
+     * the stream.
+     * @param in : input
+     * @throws IOException if elements could not be read, or if the stream is corrupted
+     * @throws ClassNotFoundException if an element or codec class could not be found
+     */
+    @SuppressWarnings("unchecked")
+    public void readElements(ObjectInput in) throws IOException, ClassNotFoundException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException(getClass() + ": unsupported format version " + version);
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException(getClass() + ": invalid elements count " + count);
+        }
+        ElementCodec<T> codec = (ElementCodec<T>) in.readObject();
+        // the count is not trusted : the list grows as elements are actually read
+        List<T> read = new ArrayList<T>(Math.min(count, MAX_READ_CAPACITY));
+        for (int i = 0; i < count; i++) {
+            if (codec == null) {
+                read.add((T) in.readObject());
+            }
+            else {
+                read.add(in.readBoolean() ? codec.read(in) : null);
+            }
+        }
+        if (elementCodec == null) {
+            elementCodec = codec;
+        }
+        checkKeys(read);
+        int index = size();
+        if (super.addAll(read)) {
+            if (elementIndex != null) {
+                elementIndex.inserted(index, read);
+            }
+            fireIntervalAdded(index, read);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -78,11 +273,87 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
      */
     @Override
     public T set(int index, T element) {
+        checkKeys(Collections.singletonList(element));
         T oldElement = super.set(index, element);
+        if (elementIndex != null) {
+            elementIndex.replaced(index, element);
+        }
         fireContentsChanged(index, oldElement, element);
         return oldElement;
     }
 
+    /**
+     * Replaces a range of elements, firing a single contents changed event
+     * @param index : first replaced index
+     * @param elements : new elements
+     * @return - the replaced elements
+     * @throws IndexOutOfBoundsException if the range is out of the list bounds
+     */
+    public List<T> setAll(int index, List<? extends T> elements) {
+        if (index < 0 || index + elements.size() > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: "
+                    + elements.size() + ", Size: " + size());
+        }
+        List<T> newElements = new ArrayList<T>(elements);
+        checkKeys(newElements);
+        List<T> previousElements = new ArrayList<T>(super.subList(index,
+                                                                  index + newElements.size()));
+        for (int i = 0; i < newElements.size(); i++) {
+            super.set(index + i, newElements.get(i));
+            if (elementIndex != null) {
+                elementIndex.replaced(index + i, newElements.get(i));
+            }
+        }
+        if (!newElements.isEmpty()) {
+            fireContentsChanged(index, previousElements, newElements);
+        }
+        return previousElements;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single contents changed event over the list (see {@link #setAll(int, List)})
+     */
+    @Override
+    public void sort(Comparator<? super T> c) {
+        List<T> sorted = new ArrayList<T>(this);
+        Collections.sort(sorted, c);
+        setAll(0, sorted);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * The operator is applied to every element before the list changes, then a single contents 
+     * changed event is fired over the list (see {@link #setAll(int, List)})
+     */
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        if (operator == null) {
+            throw new NullPointerException();
+        }
+        List<T> replaced = new ArrayList<T>(size());
+        for (int i = 0; i < size(); i++) {
+            replaced.add(operator.apply(get(i)));
+        }
+        setAll(0, replaced);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * The copy has no listener, and its own index when this list is indexed
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public MutableArrayList<T> clone() {
+        MutableArrayList<T> copy = (MutableArrayList<T>) super.clone();
+        copy._typedListeners = null;
+        copy._untypedListeners = null;
+        if (elementIndex != null) {
+            copy.elementIndex = new ElementIndex<T>(elementIndex.getKeyExtractor(), copy);
+        }
+        return copy;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -96,10 +367,14 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
      */
     @Override
     public boolean add(T element) {
+        checkKeys(Collections.singletonList(element));
         // not using this class method because parent is optimized for this operation
         super.add(element);
         List<T> addedElements = new ArrayList<T>(1);
         addedElements.add(element);
+        if (elementIndex != null) {
+            elementIndex.inserted(size() - 1, addedElements);
+        }
         fireIntervalAdded(size() - 1, addedElements);
         return true;
     }
@@ -109,9 +384,13 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
      */
     @Override
     public void add(int index, T element) {
+        checkKeys(Collections.singletonList(element));
         super.add(index, element);
         List<T> addedElements = new ArrayList<T>(1);
         addedElements.add(element);
+        if (elementIndex != null) {
+            elementIndex.inserted(index, addedElements);
+        }
         fireIntervalAdded(index, addedElements);
     }
 
@@ -121,9 +400,14 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
     @Override
     public boolean addAll(Collection<? extends T> c) {
         // not using this class method because parent is optimized for this operation
+        List<T> addedElements = new ArrayList<T>(c);
+        checkKeys(addedElements);
         int index = size();
-        if (super.addAll(c)) {
-            fireIntervalAdded(index, new ArrayList<T>(c));
+        if (super.addAll(addedElements)) {
+            if (elementIndex != null) {
+                elementIndex.inserted(index, addedElements);
+            }
+            fireIntervalAdded(index, addedElements);
             return true;
         }
         return false;
@@ -134,8 +418,13 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
      */
     @Override
     public boolean addAll(int index, Collection<? extends T> c) {
-        if (super.addAll(index, c)) {
-            fireIntervalAdded(index, new ArrayList<T>(c));
+        List<T> addedElements = new ArrayList<T>(c);
+        checkKeys(addedElements);
+        if (super.addAll(index, addedElements)) {
+            if (elementIndex != null) {
+                elementIndex.inserted(index, addedElements);
+            }
+            fireIntervalAdded(index, addedElements);
             return true;
         }
         return false;
@@ -147,6 +436,9 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
     @Override
     public T remove(int index) {
         final T object = super.remove(index);
+        if (elementIndex != null) {
+            elementIndex.removed(index, 1);
+        }
         List<T> removedElements = new ArrayList<T>();
         removedElements.add(object);
         fireIntervalRemoved(index, removedElements);
@@ -174,9 +466,152 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
     public void clear() {
         final ArrayList<T> copy = new ArrayList<T>(this);
         super.clear();
+        if (elementIndex != null) {
+            elementIndex.clear();
+        }
         fireIntervalRemoved(0, copy);
     }
 
+    /**
+     * {@inheritDoc} <br>
+     * Fires an interval removed event for each run of consecutive removed elements, from the
+     * last run to the first one. The collection is copied in a hash set unless it is a set.
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return removeMatching(c, false);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires an interval removed event for each run of consecutive removed elements, from the
+     * last run to the first one. The collection is copied in a hash set unless it is a set.
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return removeMatching(c, true);
+    }
+
+    /**
+     * Removes, in a single pass, the elements contained or not in a collection
+     * @param c : collection
+     * @param retain : true to remove the elements not in the collection, false to remove the
+     *          ones in the collection
+     * @return true if the list changed
+     */
+    private boolean removeMatching(Collection<?> c, boolean retain) {
+        Collection<?> filter = c instanceof Set ? c : new HashSet<Object>(c);
+        boolean[] removed = new boolean[size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = filter.contains(get(i)) != retain;
+        }
+        return removeFlagged(removed);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * The filter is evaluated on every element before the list changes. Fires an interval removed
+     * event for each run of consecutive removed elements, from the last run to the first one.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        boolean[] removed = new boolean[size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = filter.test(get(i));
+        }
+        return removeFlagged(removed);
+    }
+
+    /**
+     * Removes, in a single pass, flagged elements
+     * @param removed : removal flag of each element
+     * @return true if the list changed
+     */
+    private boolean removeFlagged(boolean[] removed) {
+        List<Integer> runIndexes = new ArrayList<Integer>();
+        List<List<T>> runs = new ArrayList<List<T>>();
+        List<T> kept = new ArrayList<T>(removed.length);
+        List<T> run = null;
+        for (int i = 0; i < removed.length; i++) {
+            T element = get(i);
+            if (removed[i]) {
+                if (run == null) {
+                    run = new ArrayList<T>();
+                    runs.add(run);
+                    runIndexes.add(i);
+                }
+                run.add(element);
+            }
+            else {
+                run = null;
+                kept.add(element);
+            }
+        }
+        if (runs.isEmpty()) {
+            return false;
+        }
+        super.clear();
+        super.addAll(kept);
+        if (elementIndex != null) {
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                elementIndex.removed(runIndexes.get(i), runs.get(i).size());
+            }
+        }
+        for (int i = runs.size() - 1; i >= 0; i--) {
+            fireIntervalRemoved(runIndexes.get(i), runs.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single interval removed event (used for instance by subList(from, to).clear())
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        final ArrayList<T> removed = new ArrayList<T>(super.subList(fromIndex, toIndex));
+        super.removeRange(fromIndex, toIndex);
+        if (elementIndex != null) {
+            elementIndex.removed(fromIndex, toIndex - fromIndex);
+        }
+        fireIntervalRemoved(fromIndex, removed);
+    }
+
+    /**
+     * Runs the index keys extractor on elements about to enter the list, so that an element 
+     * whose key can not be extracted is rejected before the list changes
+     * @param elements : elements entering the list
+     */
+    private void checkKeys(Collection<? extends T> elements) {
+        if (elementIndex != null) {
+            elementIndex.checkKeys(elements);
+        }
+    }
+
+    /**
+     * Returns the count of structural modifications of the list, so that sub lists can detect the
+     * modifications performed behind them
+     * @return -
+     */
+    int getModificationCount() {
+        return modCount;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * The returned list is an observable window on this list : see {@link MutableSubList}
+     */
+    @Override
+    public MutableSubList<T> subList(int fromIndex, int toIndex) {
+        return new MutableSubList<T>(this, fromIndex, toIndex);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -185,7 +620,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         if (listener == null) {
             throw new RuntimeException(getClass() + " : you can not add a null listener");
         }
-        getTypedListeners().add(listener);
+        typedListeners().add(listener);
     }
 
     /**
@@ -196,7 +631,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         if (listener == null) {
             throw new RuntimeException(getClass() + " : you can not remove a null listener");
         }
-        getTypedListeners().add(listener);
+        typedListeners().remove(listener);
     }
 
     /**
@@ -207,7 +642,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         if (listener == null) {
             throw new RuntimeException(getClass() + " : you can not add a null listener");
         }
-        getUntypedListeners().add(listener);
+        untypedListeners().add(listener);
     }
 
     /**
@@ -218,27 +653,43 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         if (listener == null) {
             throw new RuntimeException(getClass() + " : you can not remove a null listener");
         }
-        getUntypedListeners().add(listener);
+        untypedListeners().remove(listener);
     }
 
     /**
      * Returns typed listeners (never null)
-     * @return -
+     * @return - a read only snapshot of the typed listeners
      */
     public Collection<TypedListDataListener<T>> getTypedListeners() {
+        return typedListeners().getListeners();
+    }
+
+    /**
+     * Returns untyped listeners (never null)
+     * @return  - a read only snapshot of the untyped listeners
+     */
+    public Collection<ListDataListener> getUntypedListeners() {
+        return untypedListeners().getListeners();
+    }
+
+    /**
+     * Returns the typed listeners list, created on first need (and after deserialization)
+     * @return -
+     */
+    private synchronized ListenerList<TypedListDataListener<T>> typedListeners() {
         if (_typedListeners == null) {
-            _typedListeners = new ArrayList<TypedListDataListener<T>>();
+            _typedListeners = new ListenerList<TypedListDataListener<T>>();
         }
         return _typedListeners;
     }
 
     /**
-     * Returns untyped listeners (never null)
-     * @return  -
+     * Returns the untyped listeners list, created on first need (and after deserialization)
+     * @return -
      */
-    public Collection<ListDataListener> getUntypedListeners() {
+    private synchronized ListenerList<ListDataListener> untypedListeners() {
         if (_untypedListeners == null) {
-            _untypedListeners = new ArrayList<ListDataListener>();
+            _untypedListeners = new ListenerList<ListDataListener>();
         }
         return _untypedListeners;
     }
@@ -253,7 +704,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
 
         for (TypedListDataListener<T> listener : getTypedListeners()) {
             if (event == null) {
-                event = new TypedListDataEvent<T>(event, ListDataEvent.INTERVAL_ADDED, index,
+                event = new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_ADDED, index,
                                                   index + addedElements.size() - 1, null,
                                                   addedElements);
             }
@@ -262,7 +713,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
 
         for (ListDataListener listener : getUntypedListeners()) {
             if (event == null) {
-                event = new TypedListDataEvent<T>(event, ListDataEvent.INTERVAL_ADDED, index,
+                event = new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_ADDED, index,
                                                   index + addedElements.size() - 1, null,
                                                   addedElements);
             }
@@ -281,7 +732,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
 
         for (TypedListDataListener<T> listener : getTypedListeners()) {
             if (event == null) {
-                event = new TypedListDataEvent<T>(event, ListDataEvent.INTERVAL_REMOVED, index,
+                event = new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_REMOVED, index,
                                                   index + removedElements.size() - 1,
                                                   removedElements, null);
             }
@@ -290,7 +741,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
 
         for (ListDataListener listener : getUntypedListeners()) {
             if (event == null) {
-                event = new TypedListDataEvent<T>(event, ListDataEvent.INTERVAL_REMOVED, index,
+                event = new TypedListDataEvent<T>(this, ListDataEvent.INTERVAL_REMOVED, index,
                                                   index + removedElements.size() - 1,
                                                   removedElements, null);
             }
@@ -298,6 +749,34 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         }
     }
 
+    /**
+     * Fires a contents changed event for a range
+     * @param index : first changed index
+     * @param previousElements : elements that were in the range before change
+     * @param newElements : elements that are now in the range (same size than previous elements)
+     */
+    protected void fireContentsChanged(int index, List<T> previousElements, List<T> newElements) {
+        TypedListDataEvent<T> event = null;
+
+        for (TypedListDataListener<T> listener : getTypedListeners()) {
+            if (event == null) {
+                event = new TypedListDataEvent<T>(this, ListDataEvent.CONTENTS_CHANGED, index,
+                                                  index + newElements.size() - 1,
+                                                  previousElements, newElements);
+            }
+            listener.contentsChanged(event);
+        }
+
+        for (ListDataListener listener : getUntypedListeners()) {
+            if (event == null) {
+                event = new TypedListDataEvent<T>(this, ListDataEvent.CONTENTS_CHANGED, index,
+                                                  index + newElements.size() - 1,
+                                                  previousElements, newElements);
+            }
+            listener.contentsChanged(event);
+        }
+    }
+
     /**
      * Firest a content changed event
      * @param index : insertion index
@@ -313,7 +792,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
                 List<T> newElements = new ArrayList<T>(1);
                 previousElements.add(oldElement);
                 newElements.add(element);
-                event = new TypedListDataEvent<T>(event, ListDataEvent.CONTENTS_CHANGED, index,
+                event = new TypedListDataEvent<T>(this, ListDataEvent.CONTENTS_CHANGED, index,
                                                   index, previousElements, newElements);
             }
             listener.contentsChanged(event);
@@ -322,7 +801,7 @@ public class MutableArrayList<T> extends ArrayList<T> implements MutableList<T>,
         for (ListDataListener listener : getUntypedListeners()) {
             if (event == null) {
                 // typed event for untyped listeners, do not provide lists
-                event = new TypedListDataEvent<T>(event, ListDataEvent.CONTENTS_CHANGED, index,
+                event = new TypedListDataEvent<T>(this, ListDataEvent.CONTENTS_CHANGED, index,
                                                   index, null, null);
             }
             listener.contentsChanged(event);
@@ -0,0 +1,355 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import javax.swing.event.ListDataListener;
+
+/**
+ * An observable window on a range of a {@link MutableArrayList}, returned by its subList method.
+ * Mutations through the window are forwarded to the parent list, so that they fire the parent 
+ * events. Listeners of the window only receive the parent events that intersect its range, 
+ * translated to window indexes.<br>
+ * While it has listeners, the window listens to its parent and follows its changes : parent 
+ * insertions and removals before the window shift it, the ones inside the window resize it. 
+ * Without listeners, the window is not registered on its parent (temporary sub lists, such as
+ * in list.subList(from, to).clear(), do not leak a listener) and, as for ArrayList sub lists,
+ * it fails with a ConcurrentModificationException once its parent was structurally modified 
+ * by another way.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class MutableSubList<T> extends AbstractMutableList<T> {
+
+    /** Parent list **/
+    private final MutableArrayList<T> parent;
+
+    /** Parent events listener **/
+    private final TypedListDataListener<T> parentListener;
+
+    /** Window first index in parent **/
+    private int offset;
+
+    /** Window size **/
+    private int size;
+
+    /** Is the window registered on its parent? **/
+    private boolean listening;
+
+    /** Parent modification count expected when the window is not listening **/
+    private int expectedModificationCount;
+
+    /**
+     * Constructor
+     * @param parent : parent list
+     * @param fromIndex : window first index in parent (inclusive)
+     * @param toIndex : window last index in parent (exclusive)
+     * @throws IndexOutOfBoundsException if the range is out of the parent bounds
+     */
+    MutableSubList(MutableArrayList<T> parent, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > parent.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: "
+                    + toIndex + ", size: " + parent.size());
+        }
+        this.parent = parent;
+        this.offset = fromIndex;
+        this.size = toIndex - fromIndex;
+        this.expectedModificationCount = parent.getModificationCount();
+        this.parentListener = new ParentListener();
+    }
+
+    /**
+     * Returns the window first index in its parent
+     * @return -
+     */
+    public int getOffset() {
+        checkParent();
+        return offset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        checkIndex(index, size - 1);
+        return parent.get(offset + index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        checkParent();
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        checkIndex(index, size - 1);
+        return parent.set(offset + index, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T element) {
+        checkIndex(index, size);
+        parent.add(offset + index, element);
+        resized(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        checkIndex(index, size);
+        int count = c.size();
+        if (parent.addAll(offset + index, c)) {
+            resized(count);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size - 1);
+        T removed = parent.remove(offset + index);
+        resized(-1);
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        checkParent();
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: "
+                    + toIndex + ", size: " + size);
+        }
+        parent.removeRange(offset + fromIndex, offset + toIndex);
+        resized(fromIndex - toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableSubList<T> subList(int fromIndex, int toIndex) {
+        checkParent();
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: "
+                    + toIndex + ", size: " + size);
+        }
+        return new MutableSubList<T>(parent, offset + fromIndex, offset + toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListDataListener(TypedListDataListener<T> listener) {
+        super.addListDataListener(listener);
+        updateListening();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListDataListener(TypedListDataListener<T> listener) {
+        super.removeListDataListener(listener);
+        updateListening();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addListDataListener(ListDataListener listener) {
+        super.addListDataListener(listener);
+        updateListening();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeListDataListener(ListDataListener listener) {
+        super.removeListDataListener(listener);
+        updateListening();
+    }
+
+    /**
+     * Registers on the parent when the window gets its first listener, unregisters when it 
+     * loses its last one
+     */
+    private void updateListening() {
+        if (hasListeners() && !listening) {
+            checkParent();
+            parent.addListDataListener(parentListener);
+            listening = true;
+        }
+        else if (!hasListeners() && listening) {
+            parent.removeListDataListener(parentListener);
+            listening = false;
+            expectedModificationCount = parent.getModificationCount();
+        }
+    }
+
+    /**
+     * Updates the window size after a mutation through it (when listening, the parent event 
+     * already did it)
+     * @param delta : size change
+     */
+    private void resized(int delta) {
+        if (!listening) {
+            size += delta;
+            expectedModificationCount = parent.getModificationCount();
+        }
+    }
+
+    /**
+     * Checks that the parent was not modified behind a window that does not listen to it
+     * @throws ConcurrentModificationException if the parent was structurally modified
+     */
+    private void checkParent() {
+        if (!listening && parent.getModificationCount() != expectedModificationCount) {
+            throw new ConcurrentModificationException(getClass()
+                    + ": the parent list was modified outside of the sub list");
+        }
+    }
+
+    /**
+     * Checks an index
+     * @param index : index to check
+     * @param max : maximum allowed index
+     * @throws IndexOutOfBoundsException if the index is out of [0, max]
+     */
+    private void checkIndex(int index, int max) {
+        checkParent();
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Follows parent changes and forwards the ones intersecting the window
+     */
+    private class ParentListener implements TypedListDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent e) {
+            int count = e.getIndex1() - e.getIndex0() + 1;
+            if (e.getIndex0() < offset) {
+                offset += count;
+            }
+            else if (e.getIndex0() <= offset + size) {
+                size += count;
+                List<T> added = e.getNewElements();
+                if (added == null) {
+                    added = new ArrayList<T>(parent.subList(e.getIndex0(), e.getIndex1() + 1));
+                }
+                fireIntervalAdded(e.getIndex0() - offset, added);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalRemoved(TypedListDataEvent e) {
+            int first = Math.max(e.getIndex0(), offset);
+            int last = Math.min(e.getIndex1(), offset + size - 1);
+            int before = Math.max(0, Math.min(e.getIndex1() + 1, offset) - e.getIndex0());
+            if (first <= last) {
+                size -= last - first + 1;
+                List<T> removed = e.getPreviousElements();
+                int localIndex = first - offset;
+                offset -= before;
+                if (removed != null) {
+                    fireIntervalRemoved(localIndex, removed.subList(first - e.getIndex0(),
+                                                                    last - e.getIndex0() + 1));
+                }
+                else {
+                    fireIntervalRemoved(localIndex, Collections.<T>nCopies(last - first + 1, null));
+                }
+            }
+            else {
+                offset -= before;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent e) {
+            int first = Math.max(e.getIndex0(), offset);
+            int last = Math.min(e.getIndex1(), offset + size - 1);
+            if (first > last) {
+                return;
+            }
+            List<T> previous = e.getPreviousElements();
+            List<T> current = e.getNewElements();
+            if (current == null) {
+                current = parent.subList(e.getIndex0(), e.getIndex1() + 1);
+            }
+            int from = first - e.getIndex0();
+            int to = last - e.getIndex0() + 1;
+            fireContentsChanged(first - offset,
+                                previous == null ? null : previous.subList(from, to),
+                                new ArrayList<T>(current.subList(from, to)));
+        }
+    }
+}
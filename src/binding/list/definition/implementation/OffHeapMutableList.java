@@ -0,0 +1,349 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import binding.tools.BufferTools;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A mutable list that stores its elements off-heap, as fixed length records in a direct byte
+ * buffer, using a record codec. It is intended for huge lists of flat records : elements only 
+ * exist on the Java heap while they are used (the codec may even return flyweights, see 
+ * {@link RecordCodec}), which keeps the GC away from the list content.<br>
+ * Removed elements provided in events are decoded from a detached copy of the removed records, 
+ * so that they remain valid after the removal.<br>
+ * Note that the whole list must fit in a single buffer (Integer.MAX_VALUE bytes).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class OffHeapMutableList<T> extends AbstractMutableList<T> {
+
+    /** Default initial capacity, in records **/
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** Records codec **/
+    private final RecordCodec<T> codec;
+
+    /** Length of a record in bytes **/
+    private final int recordLength;
+
+    /** Records buffer **/
+    private ByteBuffer buffer;
+
+    /** Count of records in buffer **/
+    private int size;
+
+    /**
+     * Constructor
+     * @param codec : records codec
+     * @throws IllegalArgumentException if the codec is null or if its record length is invalid
+     */
+    public OffHeapMutableList(RecordCodec<T> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param codec : records codec
+     * @param initialCapacity : initial capacity, in records
+     * @throws IllegalArgumentException if the codec is null or if its record length is invalid
+     */
+    public OffHeapMutableList(RecordCodec<T> codec, int initialCapacity) {
+        if (codec == null) {
+            throw new IllegalArgumentException(getClass() + ": the records codec can not be null");
+        }
+        if (codec.getRecordLength() <= 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the record length must be strictly positive");
+        }
+        this.codec = codec;
+        this.recordLength = codec.getRecordLength();
+        this.buffer = ByteBuffer.allocateDirect(checkedByteCount(Math.max(1, initialCapacity)));
+    }
+
+    /**
+     * Records codec getter
+     * @return -
+     */
+    public RecordCodec<T> getCodec() {
+        return codec;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        checkElementIndex(index);
+        return codec.read(buffer, index * recordLength);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        checkElementIndex(index);
+        T oldElement = detach(index, 1).get(0);
+        codec.write(element, buffer, index * recordLength);
+        fireContentsChanged(index, oldElement, element);
+        return oldElement;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T element) {
+        checkPositionIndex(index);
+        openRoom(index, 1);
+        codec.write(element, buffer, index * recordLength);
+        fireIntervalAdded(index, Collections.singletonList(element));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        checkPositionIndex(index);
+        // copy first : the collection could be this list
+        List<T> addedElements = new ArrayList<T>(c);
+        if (addedElements.isEmpty()) {
+            return false;
+        }
+        openRoom(index, addedElements.size());
+        int offset = index * recordLength;
+        for (T element : addedElements) {
+            codec.write(element, buffer, offset);
+            offset += recordLength;
+        }
+        fireIntervalAdded(index, addedElements);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        checkElementIndex(index);
+        T removed = detach(index, 1).get(0);
+        closeRoom(index, 1);
+        fireIntervalRemoved(index, Collections.singletonList(removed));
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + "[ out of list bounds, size: " + size);
+        }
+        int count = toIndex - fromIndex;
+        if (count == 0) {
+            return;
+        }
+        List<T> removed = hasListeners() ? detach(fromIndex, count) : null;
+        closeRoom(fromIndex, count);
+        if (removed != null) {
+            fireIntervalRemoved(fromIndex, removed);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        // the previous buffer becomes the removed elements storage : no copy required
+        List<T> removed = new RecordList<T>(codec, buffer, size);
+        buffer = ByteBuffer.allocateDirect(checkedByteCount(DEFAULT_CAPACITY));
+        size = 0;
+        modCount++;
+        fireIntervalRemoved(0, removed);
+    }
+
+    /**
+     * Ensures the list can hold the capacity as parameter without growing
+     * @param minCapacity : minimum capacity, in records
+     * @throws IllegalStateException if that capacity can not fit in a single buffer
+     */
+    public void ensureCapacity(int minCapacity) {
+        int capacity = buffer.capacity() / recordLength;
+        if (minCapacity > capacity) {
+            long grownCapacity = Math.max((long) minCapacity, capacity + (capacity >> 1));
+            int newCapacity = (int) Math.min(grownCapacity, Integer.MAX_VALUE / recordLength);
+            ByteBuffer grown = ByteBuffer.allocateDirect(checkedByteCount(Math.max(minCapacity,
+                                                                                   newCapacity)));
+            BufferTools.copyBytes(buffer, 0, grown, 0, size * recordLength);
+            buffer = grown;
+        }
+    }
+
+    /**
+     * Opens room for records in buffer (shifting records after index)
+     * @param index : index of the first new record
+     * @param count : count of new records
+     */
+    private void openRoom(int index, int count) {
+        ensureCapacity(size + count);
+        BufferTools.moveBytes(buffer, index * recordLength, (index + count) * recordLength,
+                              (size - index) * recordLength);
+        size += count;
+        modCount++;
+    }
+
+    /**
+     * Closes room in buffer (shifting records after the removed ones)
+     * @param index : index of the first removed record
+     * @param count : count of removed records
+     */
+    private void closeRoom(int index, int count) {
+        BufferTools.moveBytes(buffer, (index + count) * recordLength, index * recordLength,
+                              (size - index - count) * recordLength);
+        size -= count;
+        modCount++;
+    }
+
+    /**
+     * Copies records into a heap buffer and returns the corresponding elements, that remain
+     * valid whatever happens to this list later
+     * @param index : first record index
+     * @param count : count of records
+     * @return - the detached elements list
+     */
+    private List<T> detach(int index, int count) {
+        ByteBuffer copy = ByteBuffer.allocate(count * recordLength);
+        BufferTools.copyBytes(buffer, index * recordLength, copy, 0, count * recordLength);
+        return new RecordList<T>(codec, copy, count);
+    }
+
+    /**
+     * Computes a buffer size in bytes
+     * @param capacity : capacity in records
+     * @return - the buffer size
+     * @throws IllegalStateException if that size exceeds a buffer maximal capacity
+     */
+    private int checkedByteCount(int capacity) {
+        long byteCount = (long) capacity * recordLength;
+        if (byteCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException(getClass() + ": capacity of " + capacity
+                    + " records exceeds the maximal buffer size");
+        }
+        return (int) byteCount;
+    }
+
+    /**
+     * Checks an element index
+     * @param index : index
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     */
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Checks an insertion index
+     * @param index : index
+     * @throws IndexOutOfBoundsException if index is not in [0, size]
+     */
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Read only list decoding records from a buffer
+     * @param <T> : elements type
+     */
+    private static class RecordList<T> extends AbstractList<T> {
+
+        /** Codec **/
+        private final RecordCodec<T> codec;
+
+        /** Records buffer **/
+        private final ByteBuffer records;
+
+        /** Records count **/
+        private final int count;
+
+        /**
+         * Constructor
+         * @param codec : codec
+         * @param records : records buffer
+         * @param count : records count
+         */
+        public RecordList(RecordCodec<T> codec, ByteBuffer records, int count) {
+            this.codec = codec;
+            this.records = records;
+            this.count = count;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            return codec.read(records, index * codec.getRecordLength());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import binding.list.definition.SnapshotListDataEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.event.ListDataEvent;
+
+/**
+ * A mutable list backed by a persistent vector (see {@link PersistentVector}) : getting an
+ * immutable snapshot of its content is O(1), so that asynchronous targets, undo stacks or
+ * background exporters can keep consistent views without copying the list. Fired events are
+ * {@link SnapshotListDataEvent}s carrying the list snapshots before and after the event.<br>
+ * Note that get() is O(log n).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class PersistentMutableList<T> extends AbstractMutableList<T> {
+
+    /** Current content **/
+    private volatile PersistentVector<T> content;
+
+    /**
+     * Constructor
+     */
+    public PersistentMutableList() {
+        content = PersistentVector.empty();
+    }
+
+    /**
+     * Constructor
+     * @param initialElements : initial elements 
+     */
+    public PersistentMutableList(Collection<? extends T> initialElements) {
+        content = PersistentVector.of(initialElements);
+    }
+
+    /**
+     * Returns an immutable snapshot of the list content, in O(1)
+     * @return -
+     */
+    public PersistentVector<T> snapshot() {
+        return content;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        return content.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return content.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        PersistentVector<T> previous = content;
+        T oldElement = previous.get(index);
+        update(previous.with(index, element));
+        fireSnapshotEvent(ListDataEvent.CONTENTS_CHANGED, index, index,
+                          Collections.singletonList(oldElement),
+                          Collections.singletonList(element), previous);
+        return oldElement;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T element) {
+        PersistentVector<T> previous = content;
+        update(previous.plus(index, element));
+        fireSnapshotEvent(ListDataEvent.INTERVAL_ADDED, index, index, null,
+                          Collections.singletonList(element), previous);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(content.size(), c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        List<T> addedElements = Collections.unmodifiableList(new ArrayList<T>(c));
+        if (addedElements.isEmpty()) {
+            return false;
+        }
+        PersistentVector<T> previous = content;
+        update(previous.plusAll(index, addedElements));
+        fireSnapshotEvent(ListDataEvent.INTERVAL_ADDED, index, index + addedElements.size() - 1,
+                          null, addedElements, previous);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        PersistentVector<T> previous = content;
+        T removed = previous.get(index);
+        update(previous.minus(index));
+        fireSnapshotEvent(ListDataEvent.INTERVAL_REMOVED, index, index,
+                          Collections.singletonList(removed), null, previous);
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        PersistentVector<T> previous = content;
+        update(previous.minusRange(fromIndex, toIndex));
+        fireSnapshotEvent(ListDataEvent.INTERVAL_REMOVED, fromIndex, toIndex - 1, 
+                          previous.subList(fromIndex, toIndex), null, previous);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        PersistentVector<T> previous = content;
+        if (previous.isEmpty()) {
+            return;
+        }
+        update(PersistentVector.<T> empty());
+        fireSnapshotEvent(ListDataEvent.INTERVAL_REMOVED, 0, previous.size() - 1, previous, null,
+                          previous);
+    }
+
+    /**
+     * Sets the new content
+     * @param newContent : new content
+     */
+    private void update(PersistentVector<T> newContent) {
+        content = newContent;
+        modCount++;
+    }
+
+    /**
+     * Fires an event carrying the snapshots before and after the mutation
+     * @param type : event type
+     * @param index0 : first index
+     * @param index1 : last index
+     * @param previousElements : elements removed or replaced
+     * @param newElements : elements added or replacing
+     * @param previous : content before mutation
+     */
+    private void fireSnapshotEvent(int type, int index0, int index1, List<T> previousElements,
+                                   List<T> newElements, PersistentVector<T> previous) {
+        if (hasListeners()) {
+            fireEvent(new SnapshotListDataEvent<T>(this, type, index0, index1, previousElements,
+                                                   newElements, previous, content));
+        }
+    }
+}
@@ -0,0 +1,486 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable list whose update methods return a new list sharing most of its structure with
+ * the previous one. It is backed by an AVL tree annotated with subtree sizes : access, insertion
+ * and removal of a single element are O(log n), insertion of k elements is O(k + log n) and 
+ * removal of a range or sub list extraction are O(log n).<br>
+ * The JDK List mutation methods are not supported.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public final class PersistentVector<T> extends AbstractList<T> {
+
+    /** Empty vector **/
+    @SuppressWarnings("rawtypes")
+    private static final PersistentVector EMPTY = new PersistentVector(null);
+
+    /** Tree root (null when empty) **/
+    private final Node root;
+
+    /**
+     * Constructor
+     * @param root : tree root
+     */
+    private PersistentVector(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty vector
+     * @param <T> : elements type
+     * @return -
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a vector holding the elements as parameter, in O(n)
+     * @param <T> : elements type
+     * @param elements : elements
+     * @return -
+     */
+    public static <T> PersistentVector<T> of(Collection<? extends T> elements) {
+        return wrap(build(elements.toArray(), 0, elements.size()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkElementIndex(index);
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            }
+            else if (index == leftSize) {
+                return (T) node.value;
+            }
+            else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns a vector where the element at index is replaced
+     * @param index : index
+     * @param element : new element
+     * @return -
+     */
+    public PersistentVector<T> with(int index, T element) {
+        checkElementIndex(index);
+        return wrap(replace(root, index, element));
+    }
+
+    /**
+     * Returns a vector with an inserted element
+     * @param index : insertion index
+     * @param element : inserted element
+     * @return -
+     */
+    public PersistentVector<T> plus(int index, T element) {
+        checkPositionIndex(index);
+        Node[] parts = split(root, index);
+        return wrap(join(parts[0], element, parts[1]));
+    }
+
+    /**
+     * Returns a vector with inserted elements
+     * @param index : insertion index
+     * @param elements : inserted elements
+     * @return -
+     */
+    public PersistentVector<T> plusAll(int index, Collection<? extends T> elements) {
+        checkPositionIndex(index);
+        if (elements.isEmpty()) {
+            return this;
+        }
+        Node[] parts = split(root, index);
+        Node inserted = build(elements.toArray(), 0, elements.size());
+        return wrap(join2(join2(parts[0], inserted), parts[1]));
+    }
+
+    /**
+     * Returns a vector without the element at index
+     * @param index : index of removed element
+     * @return -
+     */
+    public PersistentVector<T> minus(int index) {
+        checkElementIndex(index);
+        return minusRange(index, index + 1);
+    }
+
+    /**
+     * Returns a vector without a range of elements
+     * @param fromIndex : first removed index
+     * @param toIndex : last removed index (exclusive)
+     * @return -
+     */
+    public PersistentVector<T> minusRange(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        Node[] head = split(root, fromIndex);
+        Node[] tail = split(head[1], toIndex - fromIndex);
+        return wrap(join2(head[0], tail[1]));
+    }
+
+    /**
+     * {@inheritDoc} The sub list is itself a persistent vector, extracted in O(log n)
+     */
+    @Override
+    public PersistentVector<T> subList(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        Node[] head = split(root, fromIndex);
+        return wrap(split(head[1], toIndex - fromIndex)[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            /** Nodes whose value and right subtree remain to visit **/
+            private final List<Node> stack = new ArrayList<Node>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node node) {
+                for (Node current = node; current != null; current = current.left) {
+                    stack.add(current);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = stack.remove(stack.size() - 1);
+                pushLeft(node.right);
+                return (T) node.value;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Wraps a tree into a vector
+     * @param <T> : elements type
+     * @param root : tree root
+     * @return -
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> PersistentVector<T> wrap(Node root) {
+        return root == null ? EMPTY : new PersistentVector<T>(root);
+    }
+
+    /**
+     * Checks an element index
+     * @param index : index
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     */
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    /**
+     * Checks an insertion index
+     * @param index : index
+     * @throws IndexOutOfBoundsException if index is not in [0, size]
+     */
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    /**
+     * Checks a range
+     * @param fromIndex : range start
+     * @param toIndex : range end (exclusive)
+     * @throws IndexOutOfBoundsException if the range is not in [0, size]
+     */
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + "[ out of list bounds, size: " + size());
+        }
+    }
+
+    /**
+     * Returns a subtree size
+     * @param node : subtree root (may be null)
+     * @return -
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns a subtree height
+     * @param node : subtree root (may be null)
+     * @return -
+     */
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Builds a balanced tree from an array range
+     * @param elements : elements
+     * @param from : range start
+     * @param to : range end (exclusive)
+     * @return -
+     */
+    private static Node build(Object[] elements, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(build(elements, from, middle), elements[middle],
+                        build(elements, middle + 1, to));
+    }
+
+    /**
+     * Replaces a value, copying the path to it
+     * @param node : subtree root
+     * @param index : index in subtree
+     * @param value : new value
+     * @return - the new subtree
+     */
+    private static Node replace(Node node, int index, Object value) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node(replace(node.left, index, value), node.value, node.right);
+        }
+        if (index == leftSize) {
+            return new Node(node.left, value, node.right);
+        }
+        return new Node(node.left, node.value, replace(node.right, index - leftSize - 1, value));
+    }
+
+    /**
+     * Splits a tree
+     * @param node : tree root
+     * @param index : count of elements in the first part
+     * @return - the first and second parts
+     */
+    private static Node[] split(Node node, int index) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            Node[] parts = split(node.left, index);
+            parts[1] = join(parts[1], node.value, node.right);
+            return parts;
+        }
+        Node[] parts = split(node.right, index - leftSize - 1);
+        parts[0] = join(node.left, node.value, parts[0]);
+        return parts;
+    }
+
+    /**
+     * Concatenates two trees
+     * @param left : first tree
+     * @param right : second tree
+     * @return - the concatenation
+     */
+    private static Node join2(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        Object[] last = new Object[1];
+        Node head = removeLast(left, last);
+        return join(head, last[0], right);
+    }
+
+    /**
+     * Removes the last value of a tree
+     * @param node : tree root
+     * @param removed : array receiving the removed value
+     * @return - the tree without its last value
+     */
+    private static Node removeLast(Node node, Object[] removed) {
+        if (node.right == null) {
+            removed[0] = node.value;
+            return node.left;
+        }
+        return join(node.left, node.value, removeLast(node.right, removed));
+    }
+
+    /**
+     * Concatenates two trees around a value, rebalancing the result
+     * @param left : first tree
+     * @param value : value between trees
+     * @param right : second tree
+     * @return - the concatenation
+     */
+    private static Node join(Node left, Object value, Node right) {
+        if (height(left) > height(right) + 1) {
+            return joinRight(left, value, right);
+        }
+        if (height(right) > height(left) + 1) {
+            return joinLeft(left, value, right);
+        }
+        return new Node(left, value, right);
+    }
+
+    /**
+     * Joins when the left tree is the highest
+     * @param left : first tree
+     * @param value : value between trees
+     * @param right : second tree
+     * @return - the concatenation
+     */
+    private static Node joinRight(Node left, Object value, Node right) {
+        Node joined;
+        if (height(left.right) <= height(right) + 1) {
+            joined = new Node(left.right, value, right);
+            if (height(joined) > height(left.left) + 1) {
+                return rotateLeft(new Node(left.left, left.value, rotateRight(joined)));
+            }
+            return new Node(left.left, left.value, joined);
+        }
+        joined = joinRight(left.right, value, right);
+        Node result = new Node(left.left, left.value, joined);
+        return height(joined) > height(left.left) + 1 ? rotateLeft(result) : result;
+    }
+
+    /**
+     * Joins when the right tree is the highest
+     * @param left : first tree
+     * @param value : value between trees
+     * @param right : second tree
+     * @return - the concatenation
+     */
+    private static Node joinLeft(Node left, Object value, Node right) {
+        Node joined;
+        if (height(right.left) <= height(left) + 1) {
+            joined = new Node(left, value, right.left);
+            if (height(joined) > height(right.right) + 1) {
+                return rotateRight(new Node(rotateLeft(joined), right.value, right.right));
+            }
+            return new Node(joined, right.value, right.right);
+        }
+        joined = joinLeft(left, value, right.left);
+        Node result = new Node(joined, right.value, right.right);
+        return height(joined) > height(right.right) + 1 ? rotateRight(result) : result;
+    }
+
+    /**
+     * Left rotation
+     * @param node : rotated subtree root
+     * @return - the new subtree root
+     */
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        return new Node(new Node(node.left, node.value, right.left), right.value, right.right);
+    }
+
+    /**
+     * Right rotation
+     * @param node : rotated subtree root
+     * @return - the new subtree root
+     */
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        return new Node(left.left, left.value, new Node(left.right, node.value, node.right));
+    }
+
+    /**
+     * Immutable tree node
+     */
+    private static final class Node {
+
+        /** Left subtree **/
+        private final Node left;
+
+        /** Node value **/
+        private final Object value;
+
+        /** Right subtree **/
+        private final Node right;
+
+        /** Subtree size **/
+        private final int size;
+
+        /** Subtree height **/
+        private final int height;
+
+        /**
+         * Constructor
+         * @param left : left subtree
+         * @param value : value
+         * @param right : right subtree
+         */
+        public Node(Node left, Object value, Node right) {
+            this.left = left;
+            this.value = value;
+            this.right = right;
+            this.size = PersistentVector.size(left) + 1 + PersistentVector.size(right);
+            this.height = Math.max(PersistentVector.height(left),
+                                   PersistentVector.height(right)) + 1;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec used by buffer backed mutable lists to store their elements as fixed length records.
+ * Records are read and written at absolute offsets, so that implementations must not rely on the
+ * buffer position.<br>
+ * Note that the read method may return a flyweight (an object that reads its fields from the
+ * buffer when they are requested). Such a view remains valid as long as the record is not moved,
+ * that is until the next insertion or removal before it in the list.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : encoded elements type
+ */
+public interface RecordCodec<T> {
+
+    /**
+     * Returns the length, in bytes, of an encoded record
+     * @return - the record length (strictly positive)
+     */
+    int getRecordLength();
+
+    /**
+     * Encodes an element
+     * @param element : element to encode
+     * @param buffer : buffer to write in
+     * @param offset : offset of the record in buffer
+     */
+    void write(T element, ByteBuffer buffer, int offset);
+
+    /**
+     * Decodes an element (or returns a flyweight over it)
+     * @param buffer : buffer to read
+     * @param offset : offset of the record in buffer
+     * @return - the element
+     */
+    T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,56 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.implementation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec used by buffer backed mutable lists to store their elements as variable length records.
+ * As for {@link RecordCodec}, records are read and written at absolute offsets and the read 
+ * method may return a flyweight.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : encoded elements type
+ */
+public interface VariableRecordCodec<T> {
+
+    /**
+     * Returns the length, in bytes, of an element record
+     * @param element : element to encode
+     * @return - the record length
+     */
+    int getEncodedLength(T element);
+
+    /**
+     * Encodes an element
+     * @param element : element to encode
+     * @param buffer : buffer to write in (room for the encoded length is available)
+     * @param offset : offset of the record in buffer
+     */
+    void write(T element, ByteBuffer buffer, int offset);
+
+    /**
+     * Decodes an element (or returns a flyweight over it)
+     * @param buffer : buffer to read
+     * @param offset : offset of the record in buffer
+     * @param length : record length
+     * @return - the element
+     */
+    T read(ByteBuffer buffer, int offset, int length);
+}
@@ -0,0 +1,258 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.FenwickTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class for read only views showing consecutive mutable lists (parts) as a single list. 
+ * Parts sizes are kept in a {@link FenwickTree}, so that accessing an element and turning a 
+ * part event into a view event take O(log n) in the parts count. Adding or removing parts 
+ * takes O(n) in the parts count.<br>
+ * Call {@link #dispose()} to stop listening to the parts.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public abstract class AbstractConcatMutableList<T> extends AbstractMutableList<T> {
+
+    /** Parts, in view order **/
+    private final List<Part> parts;
+
+    /** Parts sizes **/
+    private final FenwickTree offsets;
+
+    /**
+     * Constructor
+     */
+    protected AbstractConcatMutableList() {
+        parts = new ArrayList<Part>();
+        offsets = new FenwickTree();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= offsets.total()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int partIndex = offsets.find(index);
+        return parts.get(partIndex).list.get(index - offsets.prefixSum(partIndex));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return offsets.total();
+    }
+
+    /**
+     * Returns the parts count
+     * @return -
+     */
+    public int getPartCount() {
+        return parts.size();
+    }
+
+    /**
+     * Returns the view index of a part first element
+     * @param partIndex : part index, in [0, part count]
+     * @return -
+     */
+    public int getPartOffset(int partIndex) {
+        return offsets.prefixSum(partIndex);
+    }
+
+    /**
+     * Returns a part list
+     * @param partIndex : part index
+     * @return the list, null for an empty part
+     */
+    protected MutableList<T> getPart(int partIndex) {
+        return parts.get(partIndex).list;
+    }
+
+    /**
+     * Inserts parts and fires a single interval added event for their elements
+     * @param partIndex : insertion index in parts
+     * @param lists : inserted lists (a null list is an empty part)
+     */
+    protected void insertParts(int partIndex, List<? extends MutableList<T>> lists) {
+        int viewIndex = offsets.prefixSum(partIndex);
+        List<Part> inserted = new ArrayList<Part>(lists.size());
+        int[] sizes = new int[lists.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            Part part = new Part(lists.get(i));
+            inserted.add(part);
+            sizes[i] = part.list == null ? 0 : part.list.size();
+        }
+        parts.addAll(partIndex, inserted);
+        offsets.insert(partIndex, sizes);
+        updatePartIndexes(partIndex);
+        for (Part part : inserted) {
+            if (part.list != null) {
+                part.list.addListDataListener(part);
+            }
+        }
+        if (hasListeners()) {
+            fireIntervalAdded(viewIndex, getElements(inserted));
+        }
+    }
+
+    /**
+     * Removes parts and fires a single interval removed event for their elements
+     * @param partIndex : first removed part index
+     * @param count : removed parts count
+     */
+    protected void removeParts(int partIndex, int count) {
+        int viewIndex = offsets.prefixSum(partIndex);
+        List<Part> removedParts = parts.subList(partIndex, partIndex + count);
+        List<Part> removed = new ArrayList<Part>(removedParts);
+        removedParts.clear();
+        offsets.remove(partIndex, count);
+        updatePartIndexes(partIndex);
+        for (Part part : removed) {
+            if (part.list != null) {
+                part.list.removeListDataListener(part);
+            }
+        }
+        if (hasListeners()) {
+            fireIntervalRemoved(viewIndex, getElements(removed));
+        }
+    }
+
+    /**
+     * Stops listening to the parts
+     */
+    public void dispose() {
+        for (Part part : parts) {
+            if (part.list != null) {
+                part.list.removeListDataListener(part);
+            }
+        }
+    }
+
+    /**
+     * Updates parts indexes after a structural change
+     * @param from : first index to update
+     */
+    private void updatePartIndexes(int from) {
+        for (int i = from; i < parts.size(); i++) {
+            parts.get(i).index = i;
+        }
+    }
+
+    /**
+     * Returns the elements of parts, concatenated
+     * @param concatenated : parts
+     * @return -
+     */
+    private List<T> getElements(List<Part> concatenated) {
+        List<T> elements = new ArrayList<T>();
+        for (Part part : concatenated) {
+            if (part.list != null) {
+                elements.addAll(part.list);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * A part of the view, listening to its list
+     */
+    private class Part implements TypedListDataListener<T> {
+
+        /** Part list (null for an empty part) **/
+        private final MutableList<T> list;
+
+        /** Part index in parts **/
+        private int index;
+
+        /**
+         * Constructor
+         * @param list : part list
+         */
+        public Part(MutableList<T> list) {
+            this.list = list;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent e) {
+            int count = e.getIndex1() - e.getIndex0() + 1;
+            int viewIndex = offsets.prefixSum(index) + e.getIndex0();
+            offsets.add(index, count);
+            if (hasListeners()) {
+                List<T> added = e.getNewElements();
+                if (added == null) {
+                    added = new ArrayList<T>(list.subList(e.getIndex0(), e.getIndex1() + 1));
+                }
+                fireIntervalAdded(viewIndex, added);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalRemoved(TypedListDataEvent e) {
+            int count = e.getIndex1() - e.getIndex0() + 1;
+            int viewIndex = offsets.prefixSum(index) + e.getIndex0();
+            offsets.add(index, -count);
+            if (hasListeners()) {
+                List<T> removed = e.getPreviousElements();
+                if (removed == null) {
+                    removed = Collections.<T>nCopies(count, null);
+                }
+                fireIntervalRemoved(viewIndex, removed);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent e) {
+            if (hasListeners()) {
+                List<T> current = e.getNewElements();
+                if (current == null) {
+                    current = new ArrayList<T>(list.subList(e.getIndex0(), e.getIndex1() + 1));
+                }
+                fireContentsChanged(offsets.prefixSum(index) + e.getIndex0(),
+                                    e.getPreviousElements(), current);
+            }
+        }
+    }
+}
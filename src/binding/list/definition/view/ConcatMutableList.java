@@ -0,0 +1,103 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read only view showing several source lists one after the other. Each source event is 
+ * turned into the view event in O(log n) in the sources count (see 
+ * {@link AbstractConcatMutableList}). Sources can be added and removed while the view is used.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class ConcatMutableList<T> extends AbstractConcatMutableList<T> {
+
+    /**
+     * Constructor
+     * @param sources : source lists
+     * @throws IllegalArgumentException if a source list is null
+     */
+    @SuppressWarnings("unchecked")
+    public ConcatMutableList(MutableList<T>... sources) {
+        this(Arrays.asList(sources));
+    }
+
+    /**
+     * Constructor
+     * @param sources : source lists
+     * @throws IllegalArgumentException if the sources or a source list is null
+     */
+    public ConcatMutableList(List<? extends MutableList<T>> sources) {
+        if (sources == null || sources.contains(null)) {
+            throw new IllegalArgumentException(getClass() + ": source lists can not be null");
+        }
+        insertParts(0, sources);
+    }
+
+    /**
+     * Returns the source lists
+     * @return a read only copy of the source lists
+     */
+    public List<MutableList<T>> getSources() {
+        List<MutableList<T>> sources = new ArrayList<MutableList<T>>(getPartCount());
+        for (int i = 0; i < getPartCount(); i++) {
+            sources.add(getPart(i));
+        }
+        return Collections.unmodifiableList(sources);
+    }
+
+    /**
+     * Adds a source list after the other ones
+     * @param source : source list to add
+     * @throws IllegalArgumentException if the source list is null
+     */
+    public void addSource(MutableList<T> source) {
+        addSource(getPartCount(), source);
+    }
+
+    /**
+     * Inserts a source list
+     * @param index : source index
+     * @param source : source list to add
+     * @throws IllegalArgumentException if the source list is null
+     */
+    public void addSource(int index, MutableList<T> source) {
+        if (source == null) {
+            throw new IllegalArgumentException(getClass() + ": a source list can not be null");
+        }
+        insertParts(index, Collections.singletonList(source));
+    }
+
+    /**
+     * Removes a source list
+     * @param index : source index
+     * @return the removed source list
+     */
+    public MutableList<T> removeSource(int index) {
+        MutableList<T> removed = getPart(index);
+        removeParts(index, 1);
+        return removed;
+    }
+}
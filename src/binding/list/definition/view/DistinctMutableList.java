@@ -0,0 +1,266 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read only view showing once each distinct value (according to equals and hashCode) of a 
+ * source list, in the order values appeared. Values are reference counted in a hash map : a 
+ * source event only fires the view events of values whose count goes from or to 0, in O(log n)
+ * per changed element, without deduplicating the source again.<br>
+ * Elements must not change their equality while they are in the source list. 
+ * Call {@link #dispose()} to stop listening to the source list.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class DistinctMutableList<T> extends AbstractMutableList<T> {
+
+    /** Source list **/
+    private final MutableList<T> source;
+
+    /** Source elements, in source order (to know removed elements) **/
+    private final WeightedSequence<T> sourceElements;
+
+    /** Shown values, in appearance order **/
+    private final WeightedSequence<T> values;
+
+    /** Counts of shown values **/
+    private final Map<T, Count> counts;
+
+    /** Source list listener **/
+    private final TypedListDataListener<T> sourceListener;
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @throws IllegalArgumentException if the source is null
+     */
+    public DistinctMutableList(MutableList<T> source) {
+        if (source == null) {
+            throw new IllegalArgumentException(getClass() + ": the source list can not be null");
+        }
+        this.source = source;
+        this.sourceElements = new WeightedSequence<T>();
+        this.values = new WeightedSequence<T>();
+        this.counts = new HashMap<T, Count>();
+        this.sourceListener = new SourceListener();
+        insertElements(0, source);
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the occurrences count of a value in the source list
+     * @param value : value
+     * @return -
+     */
+    public int getCount(T value) {
+        Count count = counts.get(value);
+        return count == null ? 0 : count.value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return values.get(index).getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return counts.containsKey(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(Object o) {
+        Count count = counts.get(o);
+        return count == null ? -1 : values.indexOf(count.node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * Stops listening to the source list. The view must no longer be used after this call
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        sourceElements.clear();
+        values.clear();
+        counts.clear();
+    }
+
+    /**
+     * Inserts source elements, firing a single event for the new values
+     * @param index : source index of the first element
+     * @param elements : source elements
+     */
+    private void insertElements(int index, List<T> elements) {
+        sourceElements.insertAll(index, elements, new int[elements.size()]);
+        int viewIndex = values.size();
+        List<T> added = new ArrayList<T>();
+        for (T element : elements) {
+            if (increment(element)) {
+                added.add(element);
+            }
+        }
+        fireIntervalAdded(viewIndex, added);
+    }
+
+    /**
+     * Increments the count of a value, adding it at the end of the view if it is new (without
+     * firing)
+     * @param value : value
+     * @return true if the value is new
+     */
+    private boolean increment(T value) {
+        Count count = counts.get(value);
+        if (count != null) {
+            count.value++;
+            return false;
+        }
+        count = new Count();
+        count.value = 1;
+        count.node = values.insert(values.size(), value, 0);
+        counts.put(value, count);
+        return true;
+    }
+
+    /**
+     * Decrements the count of a value, removing it from the view when it reaches 0
+     * @param value : value
+     */
+    private void decrement(T value) {
+        Count count = counts.get(value);
+        count.value--;
+        if (count.value == 0) {
+            counts.remove(value);
+            int viewIndex = values.indexOf(count.node);
+            values.remove(viewIndex, 1);
+            fireIntervalRemoved(viewIndex, Collections.singletonList(count.node.getValue()));
+        }
+    }
+
+    /**
+     * A value occurrences count
+     */
+    private class Count {
+
+        /** Occurrences count **/
+        private int value;
+
+        /** Value node in the view **/
+        private Node<T> node;
+    }
+
+    /**
+     * Translates source events into view events
+     */
+    private class SourceListener implements TypedListDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<T> added = event.getNewElements();
+            if (added == null) {
+                added = source.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            insertElements(event.getIndex0(), added);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            List<Node<T>> removed = sourceElements.remove(event.getIndex0(), event.getIndex1()
+                    - event.getIndex0() + 1);
+            for (Node<T> node : removed) {
+                decrement(node.getValue());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<T> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                Node<T> node = sourceElements.get(i);
+                T previousElement = node.getValue();
+                T element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : source.get(i);
+                node.setValue(element);
+                if (previousElement == null ? element != null : !previousElement.equals(element)) {
+                    if (increment(element)) {
+                        fireIntervalAdded(values.size() - 1, Collections.singletonList(element));
+                    }
+                    decrement(previousElement);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.IntrospectionTools;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read only view showing the elements of a source mutable list accepted by a filter. The view
+ * is maintained incrementally : each source event is turned into the corresponding view event in
+ * O(log n) per changed element, without filtering the source again. It keeps, for each source 
+ * element, a node weighted 1 if the element is accepted and 0 otherwise, so that the view index
+ * of a source element is the weight before it (see {@link WeightedSequence}).<br>
+ * When elements are observable (they define addPropertyChangeListener(PropertyChangeListener)),
+ * the view listens to them and only filters again the element that fired a property change.<br>
+ * Call {@link #refresh()} when the filter criteria change, and {@link #dispose()} to stop 
+ * listening to the source list and its elements.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class FilteredMutableList<T> extends AbstractMutableList<T> {
+
+    /** Source list **/
+    private final MutableList<T> source;
+
+    /** Should the view listen to elements property changes? **/
+    private final boolean observeElements;
+
+    /** Source entries, weighted 1 when accepted **/
+    private final WeightedSequence<Entry> entries;
+
+    /** Source list listener **/
+    private final TypedListDataListener<T> sourceListener;
+
+    /** Filter **/
+    private ElementFilter<? super T> filter;
+
+    /**
+     * Constructor (the view listens to elements property changes)
+     * @param source : source list
+     * @param filter : filter
+     * @throws IllegalArgumentException if the source or the filter is null
+     */
+    public FilteredMutableList(MutableList<T> source, ElementFilter<? super T> filter) {
+        this(source, filter, true);
+    }
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @param filter : filter
+     * @param observeElements : true if the view should filter again elements that fire a
+     *          property change
+     * @throws IllegalArgumentException if the source or the filter is null
+     */
+    public FilteredMutableList(MutableList<T> source, ElementFilter<? super T> filter,
+                               boolean observeElements) {
+        if (source == null || filter == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the source list and the filter can not be null");
+        }
+        this.source = source;
+        this.filter = filter;
+        this.observeElements = observeElements;
+        this.entries = new WeightedSequence<Entry>();
+        this.sourceListener = new SourceListener();
+        insertEntries(0, source);
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Filter getter
+     * @return -
+     */
+    public ElementFilter<? super T> getFilter() {
+        return filter;
+    }
+
+    /**
+     * Filter setter : filters again every source element
+     * @param filter : new filter
+     * @throws IllegalArgumentException if the filter is null
+     */
+    public void setFilter(ElementFilter<? super T> filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException(getClass() + ": the filter can not be null");
+        }
+        this.filter = filter;
+        refresh();
+    }
+
+    /**
+     * Filters again every source element (to be called when the filter criteria changed). 
+     * Consecutive elements that enter or leave the view are notified in a single event.
+     */
+    public void refresh() {
+        int viewIndex = 0;
+        int runIndex = 0;
+        boolean runAdds = false;
+        List<T> run = new ArrayList<T>();
+        for (Node<Entry> node : entries.getNodes()) {
+            T element = node.getValue().element;
+            boolean accepted = filter.accept(element);
+            if ((node.getWeight() == 1) == accepted) {
+                if (accepted) {
+                    // a shown element breaks the run contiguity
+                    if (!run.isEmpty()) {
+                        fireRun(runIndex, runAdds, run);
+                        run = new ArrayList<T>();
+                    }
+                    viewIndex++;
+                }
+                continue;
+            }
+            if (!run.isEmpty() && runAdds != accepted) {
+                fireRun(runIndex, runAdds, run);
+                run = new ArrayList<T>();
+            }
+            if (run.isEmpty()) {
+                runIndex = viewIndex;
+                runAdds = accepted;
+            }
+            run.add(element);
+            entries.setWeight(node, accepted ? 1 : 0);
+            viewIndex += accepted ? 1 : 0;
+        }
+        if (!run.isEmpty()) {
+            fireRun(runIndex, runAdds, run);
+        }
+    }
+
+    /**
+     * Stops listening to the source list and its elements. The view must no longer be used
+     * after this call
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        for (Node<Entry> node : entries.getNodes()) {
+            node.getValue().stopObserving();
+        }
+        entries.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return entries.getAtWeight(index).getValue().element;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return entries.getTotalWeight();
+    }
+
+    /**
+     * Fires the event for a run of elements entering or leaving the view
+     * @param index : view index of the run
+     * @param added : true if elements entered the view
+     * @param elements : elements
+     */
+    private void fireRun(int index, boolean added, List<T> elements) {
+        if (added) {
+            fireIntervalAdded(index, elements);
+        }
+        else {
+            fireIntervalRemoved(index, elements);
+        }
+    }
+
+    /**
+     * Inserts entries for source elements
+     * @param index : source index of the first element
+     * @param elements : source elements
+     * @return - the accepted elements
+     */
+    private List<T> insertEntries(int index, List<T> elements) {
+        List<Entry> inserted = new ArrayList<Entry>(elements.size());
+        List<T> accepted = new ArrayList<T>();
+        int[] weights = new int[elements.size()];
+        for (int i = 0; i < weights.length; i++) {
+            T element = elements.get(i);
+            inserted.add(new Entry(element));
+            if (filter.accept(element)) {
+                weights[i] = 1;
+                accepted.add(element);
+            }
+        }
+        List<Node<Entry>> nodes = entries.insertAll(index, inserted, weights);
+        for (Node<Entry> node : nodes) {
+            node.getValue().startObserving(node);
+        }
+        return accepted;
+    }
+
+    /**
+     * Updates an entry whose element was replaced or changed
+     * @param entry : entry
+     * @param previousElement : element before change
+     */
+    private void update(Entry entry, T previousElement) {
+        boolean wasAccepted = entry.node.getWeight() == 1;
+        boolean accepted = filter.accept(entry.element);
+        if (accepted != wasAccepted) {
+            entries.setWeight(entry.node, accepted ? 1 : 0);
+        }
+        int viewIndex = entries.weightBefore(entry.node);
+        if (accepted && wasAccepted) {
+            if (previousElement != entry.element) {
+                fireContentsChanged(viewIndex, previousElement, entry.element);
+            }
+        }
+        else if (accepted) {
+            fireIntervalAdded(viewIndex, Collections.singletonList(entry.element));
+        }
+        else if (wasAccepted) {
+            fireIntervalRemoved(viewIndex, Collections.singletonList(previousElement));
+        }
+    }
+
+    /**
+     * A source element entry, listening to the element changes
+     */
+    private class Entry implements PropertyChangeListener {
+
+        /** Source element **/
+        private T element;
+
+        /** Entry node **/
+        private Node<Entry> node;
+
+        /** Is this entry listening to its element? **/
+        private boolean observing;
+
+        /**
+         * Constructor
+         * @param element : source element
+         */
+        public Entry(T element) {
+            this.element = element;
+        }
+
+        /**
+         * Starts listening to the element
+         * @param entryNode : entry node
+         */
+        public void startObserving(Node<Entry> entryNode) {
+            this.node = entryNode;
+            if (observeElements) {
+                observing = IntrospectionTools.addPropertyChangeListener(element, this);
+            }
+        }
+
+        /**
+         * Stops listening to the element
+         */
+        public void stopObserving() {
+            if (observing) {
+                IntrospectionTools.removePropertyChangeListener(element, this);
+                observing = false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            update(this, element);
+        }
+    }
+
+    /**
+     * Translates source events into view events
+     */
+    private class SourceListener implements TypedListDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<T> added = event.getNewElements();
+            if (added == null) {
+                added = source.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            int viewIndex = entries.weightBefore(event.getIndex0());
+            fireIntervalAdded(viewIndex, insertEntries(event.getIndex0(), added));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            int viewIndex = entries.weightBefore(event.getIndex0());
+            List<Node<Entry>> removed = entries.remove(event.getIndex0(), event.getIndex1()
+                    - event.getIndex0() + 1);
+            List<T> removedElements = new ArrayList<T>();
+            for (Node<Entry> node : removed) {
+                node.getValue().stopObserving();
+                if (node.getWeight() == 1) {
+                    removedElements.add(node.getValue().element);
+                }
+            }
+            fireIntervalRemoved(viewIndex, removedElements);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<T> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                Entry entry = entries.get(i).getValue();
+                T previousElement = entry.element;
+                entry.stopObserving();
+                entry.element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : source.get(i);
+                entry.startObserving(entry.node);
+                update(entry, previousElement);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read only view flattening a list of parents, each parent exposing a child mutable list : the
+ * view shows the children of the first parent, then the children of the second one, and so on.
+ * Children events are turned into view events in O(log n) in the parents count (see 
+ * {@link AbstractConcatMutableList}), parents additions and removals only add or remove the 
+ * corresponding children. When a parent is replaced, its children are replaced unless the new 
+ * parent exposes the same child list.<br>
+ * Call {@link #dispose()} to stop listening to the parents and children lists.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <P> : parents type
+ * @param <T> : children type
+ */
+public class FlatMappedMutableList<P, T> extends AbstractConcatMutableList<T> {
+
+    /** Parents list **/
+    private final MutableList<P> source;
+
+    /** Children lists extractor (may return null for a parent without children) **/
+    private final ElementConverter<? super P, ? extends MutableList<T>> childrenExtractor;
+
+    /** Parents list listener **/
+    private final TypedListDataListener<P> sourceListener;
+
+    /**
+     * Constructor
+     * @param source : parents list
+     * @param childrenExtractor : converter returning the children list of a parent
+     * @throws IllegalArgumentException if the parents list or the extractor is null
+     */
+    public FlatMappedMutableList(MutableList<P> source,
+                                 ElementConverter<? super P, ? extends MutableList<T>> childrenExtractor) {
+        if (source == null || childrenExtractor == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the parents list and the children extractor can not be null");
+        }
+        this.source = source;
+        this.childrenExtractor = childrenExtractor;
+        this.sourceListener = new SourceListener();
+        insertParts(0, getChildren(source));
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Parents list getter
+     * @return -
+     */
+    public MutableList<P> getSource() {
+        return source;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Stops also listening to the parents list
+     */
+    @Override
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        super.dispose();
+    }
+
+    /**
+     * Returns the children lists of parents
+     * @param parents : parents
+     * @return -
+     */
+    private List<MutableList<T>> getChildren(List<? extends P> parents) {
+        List<MutableList<T>> children = new ArrayList<MutableList<T>>(parents.size());
+        for (P parent : parents) {
+            children.add(childrenExtractor.convert(parent));
+        }
+        return children;
+    }
+
+    /**
+     * Parents list listener
+     */
+    private class SourceListener implements TypedListDataListener<P> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent e) {
+            List<P> added = e.getNewElements();
+            if (added == null) {
+                added = source.subList(e.getIndex0(), e.getIndex1() + 1);
+            }
+            insertParts(e.getIndex0(), getChildren(added));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent e) {
+            removeParts(e.getIndex0(), e.getIndex1() - e.getIndex0() + 1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent e) {
+            List<P> current = e.getNewElements();
+            for (int i = e.getIndex0(); i <= e.getIndex1(); i++) {
+                P parent = current == null ? source.get(i) : current.get(i - e.getIndex0());
+                MutableList<T> children = childrenExtractor.convert(parent);
+                if (children != getPart(i)) {
+                    removeParts(i, 1);
+                    insertParts(i, Collections.singletonList(children));
+                }
+            }
+        }
+    }
+}
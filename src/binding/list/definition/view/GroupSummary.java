@@ -0,0 +1,129 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+/**
+ * An immutable summary of a group of elements in a grouped view : group key, elements count, 
+ * and aggregates of the elements values.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : group key type
+ */
+public class GroupSummary<K> {
+
+    /** Group key **/
+    private final K key;
+
+    /** Elements count **/
+    private final int count;
+
+    /** Count of elements that have a value **/
+    private final int valuesCount;
+
+    /** Values sum **/
+    private final double sum;
+
+    /** Minimum value, null if no element has a value **/
+    private final Double min;
+
+    /** Maximum value, null if no element has a value **/
+    private final Double max;
+
+    /**
+     * Constructor
+     * @param key : group key
+     * @param count : elements count
+     * @param valuesCount : count of elements that have a value
+     * @param sum : values sum
+     * @param min : minimum value, null if no element has a value
+     * @param max : maximum value, null if no element has a value
+     */
+    public GroupSummary(K key, int count, int valuesCount, double sum, Double min, Double max) {
+        this.key = key;
+        this.count = count;
+        this.valuesCount = valuesCount;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Key getter
+     * @return -
+     */
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * Elements count getter
+     * @return -
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the count of elements that have a (non null) value
+     * @return -
+     */
+    public int getValuesCount() {
+        return valuesCount;
+    }
+
+    /**
+     * Values sum getter
+     * @return -
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Minimum value getter
+     * @return - the minimum value, null if no element has a value
+     */
+    public Double getMin() {
+        return min;
+    }
+
+    /**
+     * Maximum value getter
+     * @return - the maximum value, null if no element has a value
+     */
+    public Double getMax() {
+        return max;
+    }
+
+    /**
+     * Values average getter
+     * @return - the values average, NaN if no element has a value
+     */
+    public double getAverage() {
+        return valuesCount == 0 ? Double.NaN : sum / valuesCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return key + "[count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + "]";
+    }
+}
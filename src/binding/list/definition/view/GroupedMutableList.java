@@ -0,0 +1,452 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.IntrospectionTools;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A read only view showing one {@link GroupSummary} row per group of source elements sharing the
+ * same key, in groups creation order. Each group maintains its elements count, and, when a value
+ * extractor is provided, the sum, minimum, maximum and average of its elements values. Minimum 
+ * and maximum are kept in a sorted multiset of the group values, so that removing the current 
+ * extremum costs O(log n) instead of a group rescan.<br>
+ * Each source event or element property change only updates the groups of the elements it 
+ * concerns, and fires a single event per changed group : a group row is added when its first
+ * element appears, changed when its aggregates change, and removed when it becomes empty.<br>
+ * Call {@link #dispose()} to stop listening to the source list and its elements.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : source elements type
+ * @param <K> : group key type
+ */
+public class GroupedMutableList<T, K> extends AbstractMutableList<GroupSummary<K>> {
+
+    /** Source list **/
+    private final MutableList<T> source;
+
+    /** Key extractor **/
+    private final ElementConverter<? super T, ? extends K> keyExtractor;
+
+    /** Value extractor, null to count elements only **/
+    private final ElementConverter<? super T, ? extends Number> valueExtractor;
+
+    /** Should the view listen to elements property changes? **/
+    private final boolean observeElements;
+
+    /** Source entries in source order **/
+    private final WeightedSequence<Entry> entries;
+
+    /** Groups by key **/
+    private final Map<K, Group> groups;
+
+    /** Shown groups, in creation order **/
+    private final WeightedSequence<Group> rows;
+
+    /** Groups changed by the current update, with their previously shown summary **/
+    private final Map<Group, GroupSummary<K>> changedGroups;
+
+    /** Source list listener **/
+    private final TypedListDataListener<T> sourceListener;
+
+    /**
+     * Constructor for a view counting elements by group (the view listens to elements property 
+     * changes)
+     * @param source : source list
+     * @param keyExtractor : extracts the group key of an element
+     * @throws IllegalArgumentException if the source or the key extractor is null
+     */
+    public GroupedMutableList(MutableList<T> source,
+                              ElementConverter<? super T, ? extends K> keyExtractor) {
+        this(source, keyExtractor, null, true);
+    }
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @param keyExtractor : extracts the group key of an element
+     * @param valueExtractor : extracts the aggregated value of an element (null to count 
+     *          elements only, null values are counted but not aggregated)
+     * @param observeElements : true if the view should update the group of elements that fire a
+     *          property change
+     * @throws IllegalArgumentException if the source or the key extractor is null
+     */
+    public GroupedMutableList(MutableList<T> source,
+                              ElementConverter<? super T, ? extends K> keyExtractor,
+                              ElementConverter<? super T, ? extends Number> valueExtractor,
+                              boolean observeElements) {
+        if (source == null || keyExtractor == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the source list and the key extractor can not be null");
+        }
+        this.source = source;
+        this.keyExtractor = keyExtractor;
+        this.valueExtractor = valueExtractor;
+        this.observeElements = observeElements;
+        this.entries = new WeightedSequence<Entry>();
+        this.groups = new HashMap<K, Group>();
+        this.rows = new WeightedSequence<Group>();
+        this.changedGroups = new LinkedHashMap<Group, GroupSummary<K>>();
+        this.sourceListener = new SourceListener();
+        insertEntries(0, source);
+        flush();
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the summary of a group
+     * @param key : group key
+     * @return - the group summary, null if no source element has that key
+     */
+    public GroupSummary<K> getGroup(K key) {
+        Group group = groups.get(key);
+        return group == null ? null : group.shown;
+    }
+
+    /**
+     * Stops listening to the source list and its elements. The view must no longer be used
+     * after this call
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        for (Node<Entry> node : entries.getNodes()) {
+            node.getValue().stopObserving();
+        }
+        entries.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GroupSummary<K> get(int index) {
+        return rows.get(index).getValue().shown;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Inserts entries for source elements and adds them to their group
+     * @param index : source index of the first element
+     * @param elements : source elements
+     */
+    private void insertEntries(int index, List<T> elements) {
+        List<Entry> inserted = new ArrayList<Entry>(elements.size());
+        for (T element : elements) {
+            Entry entry = new Entry(element);
+            entry.extract();
+            entry.startObserving();
+            inserted.add(entry);
+        }
+        int[] weights = new int[inserted.size()];
+        Arrays.fill(weights, 1);
+        entries.insertAll(index, inserted, weights);
+    }
+
+    /**
+     * Returns the group of a key, creating it if needed
+     * @param key : group key
+     * @return -
+     */
+    private Group getOrCreateGroup(K key) {
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group(key);
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    /**
+     * Marks a group as changed by the current update
+     * @param group : group
+     */
+    private void touch(Group group) {
+        if (!changedGroups.containsKey(group)) {
+            changedGroups.put(group, group.shown);
+        }
+    }
+
+    /**
+     * Fires one event for each group changed by the current update
+     */
+    private void flush() {
+        List<Map.Entry<Group, GroupSummary<K>>> changed =
+                new ArrayList<Map.Entry<Group, GroupSummary<K>>>(changedGroups.entrySet());
+        changedGroups.clear();
+        for (Map.Entry<Group, GroupSummary<K>> change : changed) {
+            Group group = change.getKey();
+            GroupSummary<K> previous = change.getValue();
+            if (group.count == 0) {
+                groups.remove(group.key);
+                if (group.row != null) {
+                    int index = rows.indexOf(group.row);
+                    rows.remove(index, 1);
+                    group.row = null;
+                    group.shown = null;
+                    fireIntervalRemoved(index, Collections.singletonList(previous));
+                }
+            }
+            else if (group.row == null) {
+                group.shown = group.summarize();
+                group.row = rows.insert(rows.size(), group, 1);
+                fireIntervalAdded(rows.size() - 1, Collections.singletonList(group.shown));
+            }
+            else {
+                group.shown = group.summarize();
+                fireContentsChanged(rows.indexOf(group.row), previous, group.shown);
+            }
+        }
+    }
+
+    /**
+     * A group of elements sharing the same key, with its aggregates
+     */
+    private class Group {
+
+        /** Group key **/
+        private final K key;
+
+        /** Values count, sorted (multiset) **/
+        private final TreeMap<Double, Integer> values;
+
+        /** Elements count **/
+        private int count;
+
+        /** Count of elements that have a value **/
+        private int valuesCount;
+
+        /** Values sum **/
+        private double sum;
+
+        /** Node in shown rows, null if not shown **/
+        private Node<Group> row;
+
+        /** Currently shown summary **/
+        private GroupSummary<K> shown;
+
+        /**
+         * Constructor
+         * @param key : group key
+         */
+        public Group(K key) {
+            this.key = key;
+            this.values = new TreeMap<Double, Integer>();
+        }
+
+        /**
+         * Adds an element to the group
+         * @param value : element value, null if none
+         */
+        public void add(Double value) {
+            touch(this);
+            count++;
+            if (value != null) {
+                valuesCount++;
+                sum += value;
+                Integer valueCount = values.get(value);
+                values.put(value, valueCount == null ? 1 : valueCount + 1);
+            }
+        }
+
+        /**
+         * Removes an element from the group
+         * @param value : element value, null if none
+         */
+        public void remove(Double value) {
+            touch(this);
+            count--;
+            if (value != null) {
+                valuesCount--;
+                sum = valuesCount == 0 ? 0 : sum - value;
+                int valueCount = values.get(value);
+                if (valueCount == 1) {
+                    values.remove(value);
+                }
+                else {
+                    values.put(value, valueCount - 1);
+                }
+            }
+        }
+
+        /**
+         * Computes the group current summary
+         * @return -
+         */
+        public GroupSummary<K> summarize() {
+            return new GroupSummary<K>(key, count, valuesCount, sum,
+                                       values.isEmpty() ? null : values.firstKey(),
+                                       values.isEmpty() ? null : values.lastKey());
+        }
+    }
+
+    /**
+     * A source element entry, remembering the group and value the element contributes to
+     */
+    private class Entry implements PropertyChangeListener {
+
+        /** Source element **/
+        private T element;
+
+        /** Group the element belongs to **/
+        private Group group;
+
+        /** Value the element contributes **/
+        private Double value;
+
+        /** Is this entry listening to its element? **/
+        private boolean observing;
+
+        /**
+         * Constructor
+         * @param element : source element
+         */
+        public Entry(T element) {
+            this.element = element;
+        }
+
+        /**
+         * Extracts the element key and value and adds them to the corresponding group
+         */
+        public void extract() {
+            Number extracted = valueExtractor == null ? null : valueExtractor.convert(element);
+            value = extracted == null ? null : extracted.doubleValue();
+            group = getOrCreateGroup(keyExtractor.convert(element));
+            group.add(value);
+        }
+
+        /**
+         * Removes the element contribution from its group
+         */
+        public void retract() {
+            group.remove(value);
+        }
+
+        /**
+         * Starts listening to the element
+         */
+        public void startObserving() {
+            if (observeElements) {
+                observing = IntrospectionTools.addPropertyChangeListener(element, this);
+            }
+        }
+
+        /**
+         * Stops listening to the element
+         */
+        public void stopObserving() {
+            if (observing) {
+                IntrospectionTools.removePropertyChangeListener(element, this);
+                observing = false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            retract();
+            extract();
+            flush();
+        }
+    }
+
+    /**
+     * Updates groups on source events
+     */
+    private class SourceListener implements TypedListDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<T> added = event.getNewElements();
+            if (added == null) {
+                added = source.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            insertEntries(event.getIndex0(), added);
+            flush();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            List<Node<Entry>> removed = entries.remove(event.getIndex0(), event.getIndex1()
+                    - event.getIndex0() + 1);
+            for (Node<Entry> node : removed) {
+                node.getValue().stopObserving();
+                node.getValue().retract();
+            }
+            flush();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<T> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                Entry entry = entries.get(i).getValue();
+                entry.stopObserving();
+                entry.retract();
+                entry.element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : source.get(i);
+                entry.extract();
+                entry.startObserving();
+            }
+            flush();
+        }
+    }
+}
@@ -0,0 +1,676 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.IntrospectionTools;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read only view joining two source lists on keys : it shows a {@link JoinedRow} for each
+ * pair of left and right elements having equal keys (inner join), and, for a left join, a row
+ * with a null right element for each left element without match. Rows follow the left list 
+ * order, then the right list order for a left element matching several right elements. 
+ * Elements with a null key never match.<br>
+ * Both sides are indexed by key in hash maps, and left elements are kept in a 
+ * {@link WeightedSequence} weighted by their rows count : a source event, or a property change
+ * of an observable element, only fires the events of the affected rows, without computing the
+ * join again.<br>
+ * Call {@link #dispose()} to stop listening to the sources and their elements.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <L> : left elements type
+ * @param <R> : right elements type
+ * @param <K> : keys type
+ */
+public class JoinedMutableList<L, R, K> extends AbstractMutableList<JoinedRow<L, R>> {
+
+    /** Left source list **/
+    private final MutableList<L> leftSource;
+
+    /** Right source list **/
+    private final MutableList<R> rightSource;
+
+    /** Left keys extractor **/
+    private final ElementConverter<? super L, ? extends K> leftKeyExtractor;
+
+    /** Right keys extractor **/
+    private final ElementConverter<? super R, ? extends K> rightKeyExtractor;
+
+    /** Is it a left join? **/
+    private final boolean leftJoin;
+
+    /** Should the view listen to elements property changes? **/
+    private final boolean observeElements;
+
+    /** Left entries, in left source order, weighted by their rows count **/
+    private final WeightedSequence<LeftEntry> leftEntries;
+
+    /** Right entries, in right source order **/
+    private final WeightedSequence<RightEntry> rightEntries;
+
+    /** Left entries by key **/
+    private final Map<K, Set<LeftEntry>> leftIndex;
+
+    /** Right entries by key, in right source order **/
+    private final Map<K, List<RightEntry>> rightIndex;
+
+    /** Left source listener **/
+    private final TypedListDataListener<L> leftListener;
+
+    /** Right source listener **/
+    private final TypedListDataListener<R> rightListener;
+
+    /**
+     * Constructor (the view listens to elements property changes)
+     * @param leftSource : left source list
+     * @param rightSource : right source list
+     * @param leftKeyExtractor : left keys extractor
+     * @param rightKeyExtractor : right keys extractor
+     * @param leftJoin : true for a left join, false for an inner join
+     * @throws IllegalArgumentException if a source or an extractor is null
+     */
+    public JoinedMutableList(MutableList<L> leftSource, MutableList<R> rightSource,
+                             ElementConverter<? super L, ? extends K> leftKeyExtractor,
+                             ElementConverter<? super R, ? extends K> rightKeyExtractor,
+                             boolean leftJoin) {
+        this(leftSource, rightSource, leftKeyExtractor, rightKeyExtractor, leftJoin, true);
+    }
+
+    /**
+     * Constructor
+     * @param leftSource : left source list
+     * @param rightSource : right source list
+     * @param leftKeyExtractor : left keys extractor
+     * @param rightKeyExtractor : right keys extractor
+     * @param leftJoin : true for a left join, false for an inner join
+     * @param observeElements : true if the view should update the rows of elements that fire a
+     *          property change (for instance when their key changes)
+     * @throws IllegalArgumentException if a source or an extractor is null
+     */
+    public JoinedMutableList(MutableList<L> leftSource, MutableList<R> rightSource,
+                             ElementConverter<? super L, ? extends K> leftKeyExtractor,
+                             ElementConverter<? super R, ? extends K> rightKeyExtractor,
+                             boolean leftJoin, boolean observeElements) {
+        if (leftSource == null || rightSource == null || leftKeyExtractor == null
+                || rightKeyExtractor == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the source lists and the key extractors can not be null");
+        }
+        this.leftSource = leftSource;
+        this.rightSource = rightSource;
+        this.leftKeyExtractor = leftKeyExtractor;
+        this.rightKeyExtractor = rightKeyExtractor;
+        this.leftJoin = leftJoin;
+        this.observeElements = observeElements;
+        this.leftEntries = new WeightedSequence<LeftEntry>();
+        this.rightEntries = new WeightedSequence<RightEntry>();
+        this.leftIndex = new HashMap<K, Set<LeftEntry>>();
+        this.rightIndex = new HashMap<K, List<RightEntry>>();
+        this.leftListener = new LeftListener();
+        this.rightListener = new RightListener();
+        insertRightEntries(0, rightSource);
+        insertLeftEntries(0, leftSource);
+        leftSource.addListDataListener(leftListener);
+        rightSource.addListDataListener(rightListener);
+    }
+
+    /**
+     * Left source list getter
+     * @return -
+     */
+    public MutableList<L> getLeftSource() {
+        return leftSource;
+    }
+
+    /**
+     * Right source list getter
+     * @return -
+     */
+    public MutableList<R> getRightSource() {
+        return rightSource;
+    }
+
+    /**
+     * Is it a left join?
+     * @return true for a left join, false for an inner join
+     */
+    public boolean isLeftJoin() {
+        return leftJoin;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JoinedRow<L, R> get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<LeftEntry> node = leftEntries.getAtWeight(index);
+        List<RightEntry> matches = getMatches(node.getValue().key);
+        int offset = index - leftEntries.weightBefore(node);
+        return new JoinedRow<L, R>(node.getValue().element,
+                                   matches.isEmpty() ? null : matches.get(offset).element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return leftEntries.getTotalWeight();
+    }
+
+    /**
+     * Stops listening to the source lists and their elements. The view must no longer be used
+     * after this call
+     */
+    public void dispose() {
+        leftSource.removeListDataListener(leftListener);
+        rightSource.removeListDataListener(rightListener);
+        for (Node<LeftEntry> node : leftEntries.getNodes()) {
+            node.getValue().stopObserving();
+        }
+        for (Node<RightEntry> node : rightEntries.getNodes()) {
+            node.getValue().stopObserving();
+        }
+        leftEntries.clear();
+        rightEntries.clear();
+        leftIndex.clear();
+        rightIndex.clear();
+    }
+
+    /**
+     * Returns the right entries matching a key
+     * @param key : key
+     * @return - the matching entries, in right source order
+     */
+    private List<RightEntry> getMatches(K key) {
+        List<RightEntry> matches = key == null ? null : rightIndex.get(key);
+        return matches == null ? Collections.<RightEntry>emptyList() : matches;
+    }
+
+    /**
+     * Returns the rows count of a left element
+     * @param matchesCount : count of matching right elements
+     * @return -
+     */
+    private int getRowsCount(int matchesCount) {
+        return leftJoin ? Math.max(1, matchesCount) : matchesCount;
+    }
+
+    /**
+     * Returns the rows of a left entry, according to its current key
+     * @param entry : left entry
+     * @return -
+     */
+    private List<JoinedRow<L, R>> getRows(LeftEntry entry) {
+        List<RightEntry> matches = getMatches(entry.key);
+        List<JoinedRow<L, R>> rows = new ArrayList<JoinedRow<L, R>>(matches.size() + 1);
+        for (RightEntry match : matches) {
+            rows.add(new JoinedRow<L, R>(entry.element, match.element));
+        }
+        if (rows.isEmpty() && leftJoin) {
+            rows.add(new JoinedRow<L, R>(entry.element, null));
+        }
+        return rows;
+    }
+
+    /**
+     * Inserts entries for left elements
+     * @param index : left index of the first element
+     * @param elements : left elements
+     * @return - the rows of inserted elements
+     */
+    private List<JoinedRow<L, R>> insertLeftEntries(int index, List<L> elements) {
+        List<LeftEntry> inserted = new ArrayList<LeftEntry>(elements.size());
+        int[] weights = new int[elements.size()];
+        List<JoinedRow<L, R>> rows = new ArrayList<JoinedRow<L, R>>();
+        for (int i = 0; i < weights.length; i++) {
+            LeftEntry entry = new LeftEntry(elements.get(i));
+            inserted.add(entry);
+            List<JoinedRow<L, R>> entryRows = getRows(entry);
+            weights[i] = entryRows.size();
+            rows.addAll(entryRows);
+        }
+        List<Node<LeftEntry>> nodes = leftEntries.insertAll(index, inserted, weights);
+        for (Node<LeftEntry> node : nodes) {
+            node.getValue().index();
+            node.getValue().startObserving(node);
+        }
+        return rows;
+    }
+
+    /**
+     * Inserts entries for right elements, firing the added rows
+     * @param index : right index of the first element
+     * @param elements : right elements
+     */
+    private void insertRightEntries(int index, List<R> elements) {
+        List<RightEntry> inserted = new ArrayList<RightEntry>(elements.size());
+        int[] weights = new int[elements.size()];
+        for (int i = 0; i < weights.length; i++) {
+            inserted.add(new RightEntry(elements.get(i)));
+            weights[i] = 1;
+        }
+        List<Node<RightEntry>> nodes = rightEntries.insertAll(index, inserted, weights);
+        for (Node<RightEntry> node : nodes) {
+            node.getValue().startObserving(node);
+            addMatch(node.getValue());
+        }
+    }
+
+    /**
+     * Returns the position a right entry has, or would have, among the entries of its key
+     * @param matches : entries of the key, in right source order
+     * @param entry : right entry
+     * @return -
+     */
+    private int getMatchPosition(List<RightEntry> matches, RightEntry entry) {
+        int index = rightEntries.indexOf(entry.node);
+        int low = 0;
+        int high = matches.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rightEntries.indexOf(matches.get(middle).node) < index) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Indexes a right entry and fires the rows it adds to the left elements with the same key
+     * @param entry : right entry
+     */
+    private void addMatch(RightEntry entry) {
+        if (entry.key == null) {
+            return;
+        }
+        List<RightEntry> matches = rightIndex.get(entry.key);
+        if (matches == null) {
+            matches = new ArrayList<RightEntry>(1);
+            rightIndex.put(entry.key, matches);
+        }
+        int position = getMatchPosition(matches, entry);
+        matches.add(position, entry);
+        Set<LeftEntry> lefts = leftIndex.get(entry.key);
+        if (lefts == null) {
+            return;
+        }
+        for (LeftEntry left : lefts) {
+            int rowIndex = leftEntries.weightBefore(left.node) + position;
+            JoinedRow<L, R> row = new JoinedRow<L, R>(left.element, entry.element);
+            if (leftJoin && matches.size() == 1) {
+                fireContentsChanged(rowIndex, new JoinedRow<L, R>(left.element, null), row);
+            }
+            else {
+                leftEntries.setWeight(left.node, left.node.getWeight() + 1);
+                fireIntervalAdded(rowIndex, Collections.singletonList(row));
+            }
+        }
+    }
+
+    /**
+     * Removes a right entry from the index and fires the rows it removes from the left 
+     * elements with the same key
+     * @param entry : right entry
+     * @param element : right element the rows were showing
+     */
+    private void removeMatch(RightEntry entry, R element) {
+        if (entry.key == null) {
+            return;
+        }
+        List<RightEntry> matches = rightIndex.get(entry.key);
+        int position = getMatchPosition(matches, entry);
+        matches.remove(position);
+        if (matches.isEmpty()) {
+            rightIndex.remove(entry.key);
+        }
+        Set<LeftEntry> lefts = leftIndex.get(entry.key);
+        if (lefts == null) {
+            return;
+        }
+        for (LeftEntry left : lefts) {
+            int rowIndex = leftEntries.weightBefore(left.node) + position;
+            JoinedRow<L, R> row = new JoinedRow<L, R>(left.element, element);
+            if (leftJoin && matches.isEmpty()) {
+                fireContentsChanged(rowIndex, row, new JoinedRow<L, R>(left.element, null));
+            }
+            else {
+                leftEntries.setWeight(left.node, left.node.getWeight() - 1);
+                fireIntervalRemoved(rowIndex, Collections.singletonList(row));
+            }
+        }
+    }
+
+    /**
+     * Updates the rows of a left entry whose element was replaced or changed
+     * @param entry : left entry
+     * @param previousRows : rows of the entry before the change
+     */
+    private void updateLeft(LeftEntry entry, List<JoinedRow<L, R>> previousRows) {
+        entry.unindex();
+        entry.key = leftKeyExtractor.convert(entry.element);
+        entry.index();
+        List<JoinedRow<L, R>> rows = getRows(entry);
+        int rowIndex = leftEntries.weightBefore(entry.node);
+        leftEntries.setWeight(entry.node, rows.size());
+        int common = Math.min(rows.size(), previousRows.size());
+        if (common > 0) {
+            fireContentsChanged(rowIndex, previousRows.subList(0, common), rows.subList(0, common));
+        }
+        if (rows.size() > common) {
+            fireIntervalAdded(rowIndex + common, rows.subList(common, rows.size()));
+        }
+        else if (previousRows.size() > common) {
+            fireIntervalRemoved(rowIndex + common,
+                                previousRows.subList(common, previousRows.size()));
+        }
+    }
+
+    /**
+     * Updates the rows of a right entry whose element was replaced or changed
+     * @param entry : right entry
+     * @param previousElement : element before the change
+     */
+    private void updateRight(RightEntry entry, R previousElement) {
+        K key = rightKeyExtractor.convert(entry.element);
+        if (key == null ? entry.key != null : !key.equals(entry.key)) {
+            removeMatch(entry, previousElement);
+            entry.key = key;
+            addMatch(entry);
+            return;
+        }
+        if (key == null || !leftIndex.containsKey(key)) {
+            return;
+        }
+        int position = getMatchPosition(rightIndex.get(key), entry);
+        for (LeftEntry left : leftIndex.get(key)) {
+            fireContentsChanged(leftEntries.weightBefore(left.node) + position,
+                                new JoinedRow<L, R>(left.element, previousElement),
+                                new JoinedRow<L, R>(left.element, entry.element));
+        }
+    }
+
+    /**
+     * A left element entry, listening to the element changes
+     */
+    private class LeftEntry implements PropertyChangeListener {
+
+        /** Left element **/
+        private L element;
+
+        /** Element key **/
+        private K key;
+
+        /** Entry node **/
+        private Node<LeftEntry> node;
+
+        /** Is this entry listening to its element? **/
+        private boolean observing;
+
+        /**
+         * Constructor
+         * @param element : left element
+         */
+        public LeftEntry(L element) {
+            this.element = element;
+            this.key = leftKeyExtractor.convert(element);
+        }
+
+        /**
+         * Adds this entry to the left index
+         */
+        public void index() {
+            if (key == null) {
+                return;
+            }
+            Set<LeftEntry> entries = leftIndex.get(key);
+            if (entries == null) {
+                entries = new HashSet<LeftEntry>();
+                leftIndex.put(key, entries);
+            }
+            entries.add(this);
+        }
+
+        /**
+         * Removes this entry from the left index
+         */
+        public void unindex() {
+            if (key == null) {
+                return;
+            }
+            Set<LeftEntry> entries = leftIndex.get(key);
+            entries.remove(this);
+            if (entries.isEmpty()) {
+                leftIndex.remove(key);
+            }
+        }
+
+        /**
+         * Starts listening to the element
+         * @param entryNode : entry node
+         */
+        public void startObserving(Node<LeftEntry> entryNode) {
+            this.node = entryNode;
+            if (observeElements) {
+                observing = IntrospectionTools.addPropertyChangeListener(element, this);
+            }
+        }
+
+        /**
+         * Stops listening to the element
+         */
+        public void stopObserving() {
+            if (observing) {
+                IntrospectionTools.removePropertyChangeListener(element, this);
+                observing = false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            updateLeft(this, getRows(this));
+        }
+    }
+
+    /**
+     * A right element entry, listening to the element changes
+     */
+    private class RightEntry implements PropertyChangeListener {
+
+        /** Right element **/
+        private R element;
+
+        /** Element key **/
+        private K key;
+
+        /** Entry node **/
+        private Node<RightEntry> node;
+
+        /** Is this entry listening to its element? **/
+        private boolean observing;
+
+        /**
+         * Constructor
+         * @param element : right element
+         */
+        public RightEntry(R element) {
+            this.element = element;
+            this.key = rightKeyExtractor.convert(element);
+        }
+
+        /**
+         * Starts listening to the element
+         * @param entryNode : entry node
+         */
+        public void startObserving(Node<RightEntry> entryNode) {
+            this.node = entryNode;
+            if (observeElements) {
+                observing = IntrospectionTools.addPropertyChangeListener(element, this);
+            }
+        }
+
+        /**
+         * Stops listening to the element
+         */
+        public void stopObserving() {
+            if (observing) {
+                IntrospectionTools.removePropertyChangeListener(element, this);
+                observing = false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            updateRight(this, element);
+        }
+    }
+
+    /**
+     * Translates left source events into view events
+     */
+    private class LeftListener implements TypedListDataListener<L> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<L> added = event.getNewElements();
+            if (added == null) {
+                added = leftSource.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            List<JoinedRow<L, R>> rows = insertLeftEntries(event.getIndex0(), added);
+            fireIntervalAdded(leftEntries.weightBefore(event.getIndex0()), rows);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            int rowIndex = leftEntries.weightBefore(event.getIndex0());
+            List<Node<LeftEntry>> removed = leftEntries.remove(event.getIndex0(),
+                    event.getIndex1() - event.getIndex0() + 1);
+            List<JoinedRow<L, R>> rows = new ArrayList<JoinedRow<L, R>>();
+            for (Node<LeftEntry> node : removed) {
+                LeftEntry entry = node.getValue();
+                rows.addAll(getRows(entry));
+                entry.unindex();
+                entry.stopObserving();
+            }
+            fireIntervalRemoved(rowIndex, rows);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<L> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                LeftEntry entry = leftEntries.get(i).getValue();
+                List<JoinedRow<L, R>> previousRows = getRows(entry);
+                entry.stopObserving();
+                entry.element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : leftSource.get(i);
+                entry.startObserving(entry.node);
+                updateLeft(entry, previousRows);
+            }
+        }
+    }
+
+    /**
+     * Translates right source events into view events
+     */
+    private class RightListener implements TypedListDataListener<R> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<R> added = event.getNewElements();
+            if (added == null) {
+                added = rightSource.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            insertRightEntries(event.getIndex0(), added);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            int count = event.getIndex1() - event.getIndex0() + 1;
+            for (int i = 0; i < count; i++) {
+                RightEntry entry = rightEntries.get(event.getIndex0() + i).getValue();
+                removeMatch(entry, entry.element);
+                entry.stopObserving();
+            }
+            rightEntries.remove(event.getIndex0(), count);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<R> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                RightEntry entry = rightEntries.get(i).getValue();
+                R previousElement = entry.element;
+                entry.stopObserving();
+                entry.element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : rightSource.get(i);
+                entry.startObserving(entry.node);
+                updateRight(entry, previousElement);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+/**
+ * An immutable row of a joined view : a left element and its matching right element (null
+ * when a left join finds no match).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <L> : left elements type
+ * @param <R> : right elements type
+ */
+public class JoinedRow<L, R> {
+
+    /** Left element **/
+    private final L left;
+
+    /** Right element **/
+    private final R right;
+
+    /**
+     * Constructor
+     * @param left : left element
+     * @param right : right element, null if none
+     */
+    public JoinedRow(L left, R right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Left element getter
+     * @return -
+     */
+    public L getLeft() {
+        return left;
+    }
+
+    /**
+     * Right element getter
+     * @return - the right element, null if none
+     */
+    public R getRight() {
+        return right;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof JoinedRow)) {
+            return false;
+        }
+        JoinedRow<?, ?> row = (JoinedRow<?, ?>) obj;
+        return (left == null ? row.left == null : left.equals(row.left))
+                && (right == null ? row.right == null : right.equals(row.right));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (left == null ? 0 : left.hashCode()) + (right == null ? 0 : right.hashCode());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "(" + left + ", " + right + ")";
+    }
+}
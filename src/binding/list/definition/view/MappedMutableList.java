@@ -0,0 +1,361 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A read only view showing source elements through a converter. Elements are converted lazily,
+ * only when they are read, so that a view over a very large source only converts the elements
+ * that are actually displayed. Converted elements are kept in a bounded cache keyed by position,
+ * which evicts the least recently read elements and follows source range events (cached 
+ * positions are shifted on insertions and removals, replaced ranges are evicted).<br>
+ * Elements carried by the view events are converted on demand too, when the listener reads them.
+ * <br>
+ * Call {@link #invalidate()} when the converter result changes for unchanged source elements, 
+ * and {@link #dispose()} to stop listening to the source list.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : source elements type
+ * @param <U> : converted elements type
+ */
+public class MappedMutableList<T, U> extends AbstractMutableList<U> {
+
+    /** Default cache capacity **/
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    /** Source list **/
+    private final MutableList<T> source;
+
+    /** Element converter **/
+    private final ElementConverter<? super T, ? extends U> converter;
+
+    /** Maximum count of cached elements **/
+    private final int cacheCapacity;
+
+    /** Cached elements by position **/
+    private final TreeMap<Integer, CachedElement> cacheByIndex;
+
+    /** Cached elements, least recently read first **/
+    private final LinkedHashMap<CachedElement, CachedElement> cacheByAccess;
+
+    /** Source list listener **/
+    private final TypedListDataListener<T> sourceListener;
+
+    /**
+     * Constructor (cache with default capacity)
+     * @param source : source list
+     * @param converter : element converter
+     * @throws IllegalArgumentException if the source or the converter is null
+     */
+    public MappedMutableList(MutableList<T> source,
+                             ElementConverter<? super T, ? extends U> converter) {
+        this(source, converter, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @param converter : element converter
+     * @param cacheCapacity : maximum count of converted elements kept in cache (0 to disable 
+     *          the cache)
+     * @throws IllegalArgumentException if the source or the converter is null, or if the cache 
+     *          capacity is negative
+     */
+    public MappedMutableList(MutableList<T> source,
+                             ElementConverter<? super T, ? extends U> converter,
+                             int cacheCapacity) {
+        if (source == null || converter == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the source list and the converter can not be null");
+        }
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the cache capacity can not be negative");
+        }
+        this.source = source;
+        this.converter = converter;
+        this.cacheCapacity = cacheCapacity;
+        this.cacheByIndex = new TreeMap<Integer, CachedElement>();
+        this.cacheByAccess = new LinkedHashMap<CachedElement, CachedElement>(16, 0.75f, true);
+        this.sourceListener = new SourceListener();
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Converter getter
+     * @return -
+     */
+    public ElementConverter<? super T, ? extends U> getConverter() {
+        return converter;
+    }
+
+    /**
+     * Returns the count of currently cached elements
+     * @return -
+     */
+    public int getCachedCount() {
+        return cacheByIndex.size();
+    }
+
+    /**
+     * Clears the cache : elements will be converted again when read
+     */
+    public void invalidate() {
+        cacheByIndex.clear();
+        cacheByAccess.clear();
+    }
+
+    /**
+     * Stops listening to the source list. The view must no longer be used after this call
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        invalidate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public U get(int index) {
+        CachedElement cached = cacheByIndex.get(index);
+        if (cached != null) {
+            cacheByAccess.get(cached);
+            return cached.element;
+        }
+        U element = converter.convert(source.get(index));
+        if (cacheCapacity > 0) {
+            cached = new CachedElement(index, element);
+            cacheByIndex.put(index, cached);
+            cacheByAccess.put(cached, cached);
+            if (cacheByAccess.size() > cacheCapacity) {
+                Iterator<CachedElement> eldest = cacheByAccess.keySet().iterator();
+                cacheByIndex.remove(eldest.next().index);
+                eldest.remove();
+            }
+        }
+        return element;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    /**
+     * Evicts cached elements in a range
+     * @param firstIndex : first evicted index
+     * @param lastIndex : last evicted index
+     * @return - the evicted elements, indexed by position
+     */
+    private SortedMap<Integer, CachedElement> evict(int firstIndex, int lastIndex) {
+        SortedMap<Integer, CachedElement> range = cacheByIndex.subMap(firstIndex, lastIndex + 1);
+        SortedMap<Integer, CachedElement> evicted = new TreeMap<Integer, CachedElement>(range);
+        for (CachedElement cached : evicted.values()) {
+            cacheByAccess.remove(cached);
+        }
+        range.clear();
+        return evicted;
+    }
+
+    /**
+     * Shifts cached positions
+     * @param firstIndex : first shifted index
+     * @param delta : shift to apply
+     */
+    private void shift(int firstIndex, int delta) {
+        SortedMap<Integer, CachedElement> tail = cacheByIndex.tailMap(firstIndex);
+        if (tail.isEmpty()) {
+            return;
+        }
+        List<CachedElement> shifted = new ArrayList<CachedElement>(tail.values());
+        tail.clear();
+        for (CachedElement cached : shifted) {
+            cached.index += delta;
+            cacheByIndex.put(cached.index, cached);
+        }
+    }
+
+    /**
+     * A converted element in cache. Cached elements are compared by identity, as their index 
+     * changes with source events
+     */
+    private class CachedElement {
+
+        /** Element position **/
+        private int index;
+
+        /** Converted element **/
+        private final U element;
+
+        /**
+         * Constructor
+         * @param index : element position
+         * @param element : converted element
+         */
+        public CachedElement(int index, U element) {
+            this.index = index;
+            this.element = element;
+        }
+    }
+
+    /**
+     * Event elements, converted when read (previously evicted conversions are reused). Events may
+     * be read from several listener threads : conversions are synchronized on the event elements
+     */
+    private class ConvertedElements extends AbstractList<U> {
+
+        /** Source elements, null if the source event did not carry them **/
+        private final List<T> elements;
+
+        /** Already converted elements, by offset in range **/
+        private final SortedMap<Integer, CachedElement> converted;
+
+        /** Range size **/
+        private final int size;
+
+        /**
+         * Constructor
+         * @param elements : source elements, null if unknown
+         * @param converted : already converted elements, by position
+         * @param firstIndex : range first position
+         * @param size : range size
+         */
+        public ConvertedElements(List<T> elements, SortedMap<Integer, CachedElement> converted,
+                                 int firstIndex, int size) {
+            this.elements = elements;
+            this.converted = new TreeMap<Integer, CachedElement>();
+            for (CachedElement cached : converted.values()) {
+                this.converted.put(cached.index - firstIndex, cached);
+            }
+            this.size = size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public synchronized U get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            CachedElement cached = converted.get(index);
+            if (cached == null) {
+                cached = new CachedElement(index,
+                        elements == null ? null : converter.convert(elements.get(index)));
+                converted.put(index, cached);
+            }
+            return cached.element;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Translates source events into view events, keeping the cache in sync
+     */
+    private class SourceListener implements TypedListDataListener<T> {
+
+        /** No element converted yet **/
+        private final SortedMap<Integer, CachedElement> none =
+                new TreeMap<Integer, CachedElement>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            int count = event.getIndex1() - event.getIndex0() + 1;
+            shift(event.getIndex0(), count);
+            List<T> added = event.getNewElements();
+            if (added == null) {
+                // copied : a live source range would not survive following source changes
+                added = new ArrayList<T>(source.subList(event.getIndex0(),
+                                                        event.getIndex1() + 1));
+            }
+            fireIntervalAdded(event.getIndex0(),
+                              new ConvertedElements(added, none, event.getIndex0(), count));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalRemoved(TypedListDataEvent event) {
+            int count = event.getIndex1() - event.getIndex0() + 1;
+            SortedMap<Integer, CachedElement> evicted = evict(event.getIndex0(),
+                                                              event.getIndex1());
+            shift(event.getIndex1() + 1, -count);
+            fireIntervalRemoved(event.getIndex0(),
+                                new ConvertedElements(event.getPreviousElements(), evicted,
+                                                      event.getIndex0(), count));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            int count = event.getIndex1() - event.getIndex0() + 1;
+            SortedMap<Integer, CachedElement> evicted = evict(event.getIndex0(),
+                                                              event.getIndex1());
+            List<T> newElements = event.getNewElements();
+            if (newElements == null) {
+                newElements = new ArrayList<T>(source.subList(event.getIndex0(),
+                                                              event.getIndex1() + 1));
+            }
+            fireContentsChanged(event.getIndex0(),
+                                new ConvertedElements(event.getPreviousElements(), evicted,
+                                                      event.getIndex0(), count),
+                                new ConvertedElements(newElements, none, event.getIndex0(),
+                                                      count));
+        }
+    }
+}
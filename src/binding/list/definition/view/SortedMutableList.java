@@ -0,0 +1,359 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.IntrospectionTools;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A read only view showing the elements of a source mutable list sorted by a comparator. The 
+ * view is backed by two order statistic trees sharing the same entries (see 
+ * {@link WeightedSequence}) : one in source order, to find the entry of a source index, and one
+ * in view order. Each source insertion, removal or replacement therefore becomes a single 
+ * positional view event, computed in O(log n). Equal elements are kept in source order.<br>
+ * When elements are observable (they define addPropertyChangeListener(PropertyChangeListener)),
+ * the view listens to them and only repositions the element that fired a property change.<br>
+ * Call {@link #dispose()} to stop listening to the source list and its elements.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class SortedMutableList<T> extends AbstractMutableList<T> {
+
+    /** Source list **/
+    private final MutableList<T> source;
+
+    /** Should the view listen to elements property changes? **/
+    private final boolean observeElements;
+
+    /** Entries in source order **/
+    private final WeightedSequence<Entry> sourceEntries;
+
+    /** Entries in view order **/
+    private final WeightedSequence<Entry> sortedEntries;
+
+    /** Entries comparator : elements comparator, then source order **/
+    private final Comparator<Entry> entryComparator;
+
+    /** Source list listener **/
+    private final TypedListDataListener<T> sourceListener;
+
+    /** Elements comparator **/
+    private Comparator<? super T> comparator;
+
+    /**
+     * Constructor (the view listens to elements property changes)
+     * @param source : source list
+     * @param comparator : elements comparator
+     * @throws IllegalArgumentException if the source or the comparator is null
+     */
+    public SortedMutableList(MutableList<T> source, Comparator<? super T> comparator) {
+        this(source, comparator, true);
+    }
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @param comparator : elements comparator
+     * @param observeElements : true if the view should reposition elements that fire a
+     *          property change
+     * @throws IllegalArgumentException if the source or the comparator is null
+     */
+    public SortedMutableList(MutableList<T> source, Comparator<? super T> comparator,
+                             boolean observeElements) {
+        if (source == null || comparator == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the source list and the comparator can not be null");
+        }
+        this.source = source;
+        this.comparator = comparator;
+        this.observeElements = observeElements;
+        this.sourceEntries = new WeightedSequence<Entry>();
+        this.sortedEntries = new WeightedSequence<Entry>();
+        this.entryComparator = new Comparator<Entry>() {
+
+            @Override
+            public int compare(Entry first, Entry second) {
+                int result = SortedMutableList.this.comparator.compare(first.element,
+                                                                       second.element);
+                if (result != 0 || first == second) {
+                    return result;
+                }
+                return sourceEntries.indexOf(first.sourceNode)
+                        < sourceEntries.indexOf(second.sourceNode) ? -1 : 1;
+            }
+        };
+        this.sourceListener = new SourceListener();
+        insertEntries(0, source, false);
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Comparator getter
+     * @return -
+     */
+    public Comparator<? super T> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Comparator setter : sorts the view again (fired as a remove all / add all)
+     * @param comparator : new comparator
+     * @throws IllegalArgumentException if the comparator is null
+     */
+    public void setComparator(Comparator<? super T> comparator) {
+        if (comparator == null) {
+            throw new IllegalArgumentException(getClass() + ": the comparator can not be null");
+        }
+        List<T> previousElements = new ArrayList<T>(this);
+        this.comparator = comparator;
+        sortedEntries.clear();
+        for (Node<Entry> node : sourceEntries.getNodes()) {
+            insertSorted(node.getValue());
+        }
+        fireIntervalRemoved(0, previousElements);
+        fireIntervalAdded(0, new ArrayList<T>(this));
+    }
+
+    /**
+     * Stops listening to the source list and its elements. The view must no longer be used
+     * after this call
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        for (Node<Entry> node : sourceEntries.getNodes()) {
+            node.getValue().stopObserving();
+        }
+        sourceEntries.clear();
+        sortedEntries.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        return sortedEntries.get(index).getValue().element;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return sortedEntries.size();
+    }
+
+    /**
+     * Inserts entries for source elements
+     * @param index : source index of the first element
+     * @param elements : source elements
+     * @param fire : should insertions be fired?
+     */
+    private void insertEntries(int index, List<T> elements, boolean fire) {
+        List<Entry> inserted = new ArrayList<Entry>(elements.size());
+        for (T element : elements) {
+            inserted.add(new Entry(element));
+        }
+        int[] weights = new int[inserted.size()];
+        Arrays.fill(weights, 1);
+        List<Node<Entry>> nodes = sourceEntries.insertAll(index, inserted, weights);
+        for (Node<Entry> node : nodes) {
+            Entry entry = node.getValue();
+            entry.sourceNode = node;
+            int sortedIndex = insertSorted(entry);
+            entry.startObserving();
+            if (fire) {
+                fireIntervalAdded(sortedIndex, Collections.singletonList(entry.element));
+            }
+        }
+    }
+
+    /**
+     * Inserts an entry in view order
+     * @param entry : entry
+     * @return - the entry view index
+     */
+    private int insertSorted(Entry entry) {
+        int sortedIndex = sortedEntries.upperBound(entry, entryComparator);
+        entry.sortedNode = sortedEntries.insert(sortedIndex, entry, 1);
+        return sortedIndex;
+    }
+
+    /**
+     * Repositions an entry whose element was replaced or changed
+     * @param entry : entry
+     * @param previousElement : element before change
+     */
+    private void reposition(Entry entry, T previousElement) {
+        int index = sortedEntries.indexOf(entry.sortedNode);
+        if (isInPlace(entry, index)) {
+            if (previousElement != entry.element) {
+                fireContentsChanged(index, previousElement, entry.element);
+            }
+            return;
+        }
+        sortedEntries.remove(index, 1);
+        fireIntervalRemoved(index, Collections.singletonList(previousElement));
+        int newIndex = insertSorted(entry);
+        fireIntervalAdded(newIndex, Collections.singletonList(entry.element));
+    }
+
+    /**
+     * Is an entry still correctly ordered relatively to its neighbors?
+     * @param entry : entry
+     * @param index : entry view index
+     * @return -
+     */
+    private boolean isInPlace(Entry entry, int index) {
+        if (index > 0
+                && entryComparator.compare(sortedEntries.get(index - 1).getValue(), entry) > 0) {
+            return false;
+        }
+        return index + 1 >= sortedEntries.size()
+                || entryComparator.compare(entry, sortedEntries.get(index + 1).getValue()) < 0;
+    }
+
+    /**
+     * A source element entry, listening to the element changes
+     */
+    private class Entry implements PropertyChangeListener {
+
+        /** Source element **/
+        private T element;
+
+        /** Node in source order **/
+        private Node<Entry> sourceNode;
+
+        /** Node in view order **/
+        private Node<Entry> sortedNode;
+
+        /** Is this entry listening to its element? **/
+        private boolean observing;
+
+        /**
+         * Constructor
+         * @param element : source element
+         */
+        public Entry(T element) {
+            this.element = element;
+        }
+
+        /**
+         * Starts listening to the element
+         */
+        public void startObserving() {
+            if (observeElements) {
+                observing = IntrospectionTools.addPropertyChangeListener(element, this);
+            }
+        }
+
+        /**
+         * Stops listening to the element
+         */
+        public void stopObserving() {
+            if (observing) {
+                IntrospectionTools.removePropertyChangeListener(element, this);
+                observing = false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            reposition(this, element);
+        }
+    }
+
+    /**
+     * Translates source events into view events
+     */
+    private class SourceListener implements TypedListDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<T> added = event.getNewElements();
+            if (added == null) {
+                added = source.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            insertEntries(event.getIndex0(), added, true);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            List<Node<Entry>> removed = sourceEntries.remove(event.getIndex0(),
+                                                             event.getIndex1()
+                                                                     - event.getIndex0() + 1);
+            for (Node<Entry> node : removed) {
+                Entry entry = node.getValue();
+                entry.stopObserving();
+                int index = sortedEntries.indexOf(entry.sortedNode);
+                sortedEntries.remove(index, 1);
+                fireIntervalRemoved(index, Collections.singletonList(entry.element));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<T> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                Entry entry = sourceEntries.get(i).getValue();
+                T previousElement = entry.element;
+                entry.stopObserving();
+                entry.element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : source.get(i);
+                entry.startObserving();
+                reposition(entry, previousElement);
+            }
+        }
+    }
+}
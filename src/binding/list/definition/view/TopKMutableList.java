@@ -0,0 +1,531 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.definition.view;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.tools.IntrospectionTools;
+import binding.tools.WeightedSequence;
+import binding.tools.WeightedSequence.Node;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A read only view showing the K first elements of a source list under a comparator, sorted
+ * (use a reversed comparator to show the K greatest elements). The view is maintained 
+ * incrementally from source events : besides the shown elements, it keeps a reserve of the 
+ * next best candidates in a bounded heap whose worst candidate is at the head. When a shown 
+ * element is removed, the best candidate of the reserve replaces it, so that the source is only
+ * scanned again when the reserve is exhausted.<br>
+ * Shown elements are kept in a sorted array, so updates cost O(K) : the view is meant for 
+ * small K (a leaderboard, the best quotes...), whatever the source size. Equal elements are 
+ * ordered by arrival. When elements are observable (they define 
+ * addPropertyChangeListener(PropertyChangeListener)), the view listens to them and places 
+ * again the element that fired a property change.<br>
+ * Call {@link #dispose()} to stop listening to the source list and its elements.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class TopKMutableList<T> extends AbstractMutableList<T> {
+
+    /** Source list **/
+    private final MutableList<T> source;
+
+    /** Elements comparator **/
+    private final Comparator<? super T> comparator;
+
+    /** Shown elements count **/
+    private final int k;
+
+    /** Maximum candidates count in the reserve **/
+    private final int reserveCapacity;
+
+    /** Should the view listen to elements property changes? **/
+    private final boolean observeElements;
+
+    /** Source entries, in source order **/
+    private final WeightedSequence<Entry> entries;
+
+    /** Shown entries, sorted **/
+    private final List<Entry> top;
+
+    /** Reserve entries, worst candidate first **/
+    private final PriorityQueue<Entry> reserve;
+
+    /** Entries order : comparator, then arrival **/
+    private final Comparator<Entry> entryComparator;
+
+    /** Count of entries that are neither shown nor in the reserve **/
+    private int othersCount;
+
+    /** Next entry arrival number **/
+    private long nextArrival;
+
+    /** Source list listener **/
+    private final TypedListDataListener<T> sourceListener;
+
+    /**
+     * Constructor (the reserve holds up to k candidates, the view listens to elements property
+     * changes)
+     * @param source : source list
+     * @param comparator : elements comparator, the first elements are shown
+     * @param k : shown elements count
+     * @throws IllegalArgumentException if the source or the comparator is null, or if k is not
+     *          strictly positive
+     */
+    public TopKMutableList(MutableList<T> source, Comparator<? super T> comparator, int k) {
+        this(source, comparator, k, k, true);
+    }
+
+    /**
+     * Constructor
+     * @param source : source list
+     * @param comparator : elements comparator, the first elements are shown
+     * @param k : shown elements count
+     * @param reserveCapacity : maximum candidates count kept to replace removed elements
+     * @param observeElements : true if the view should place again elements that fire a
+     *          property change
+     * @throws IllegalArgumentException if the source or the comparator is null, or if k or the
+     *          reserve capacity is not strictly positive
+     */
+    public TopKMutableList(MutableList<T> source, Comparator<? super T> comparator, int k,
+                           int reserveCapacity, boolean observeElements) {
+        if (source == null || comparator == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the source list and the comparator can not be null");
+        }
+        if (k <= 0 || reserveCapacity <= 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": k and the reserve capacity must be strictly positive");
+        }
+        this.source = source;
+        this.comparator = comparator;
+        this.k = k;
+        this.reserveCapacity = reserveCapacity;
+        this.observeElements = observeElements;
+        this.entries = new WeightedSequence<Entry>();
+        this.top = new ArrayList<Entry>(k + 1);
+        this.entryComparator = new Comparator<Entry>() {
+
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                int result = TopKMutableList.this.comparator.compare(e1.element, e2.element);
+                if (result == 0) {
+                    result = e1.arrival < e2.arrival ? -1 : (e1.arrival > e2.arrival ? 1 : 0);
+                }
+                return result;
+            }
+        };
+        this.reserve = new PriorityQueue<Entry>(reserveCapacity + 1,
+                                                Collections.reverseOrder(entryComparator));
+        this.sourceListener = new SourceListener();
+        insertEntries(0, source);
+        source.addListDataListener(sourceListener);
+    }
+
+    /**
+     * Source list getter
+     * @return -
+     */
+    public MutableList<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the maximum shown elements count
+     * @return -
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        return top.get(index).element;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return top.size();
+    }
+
+    /**
+     * Stops listening to the source list and its elements. The view must no longer be used
+     * after this call
+     */
+    public void dispose() {
+        source.removeListDataListener(sourceListener);
+        for (Node<Entry> node : entries.getNodes()) {
+            node.getValue().stopObserving();
+        }
+        entries.clear();
+        top.clear();
+        reserve.clear();
+    }
+
+    /**
+     * Inserts entries for source elements
+     * @param index : source index of the first element
+     * @param elements : source elements
+     */
+    private void insertEntries(int index, List<T> elements) {
+        List<Entry> inserted = new ArrayList<Entry>(elements.size());
+        int[] weights = new int[elements.size()];
+        for (T element : elements) {
+            inserted.add(new Entry(element));
+        }
+        List<Node<Entry>> nodes = entries.insertAll(index, inserted, weights);
+        for (Node<Entry> node : nodes) {
+            node.getValue().startObserving(node);
+            add(node.getValue());
+        }
+    }
+
+    /**
+     * Returns the position of an entry in the shown entries, or where it would be inserted
+     * @param entry : entry
+     * @return -
+     */
+    private int getTopPosition(Entry entry) {
+        int position = Collections.binarySearch(top, entry, entryComparator);
+        return position < 0 ? -position - 1 : position;
+    }
+
+    /**
+     * Returns the position of an entry in the shown entries, by identity (its element may have 
+     * changed since it was placed)
+     * @param entry : entry
+     * @return -
+     */
+    private int indexOfTop(Entry entry) {
+        for (int i = 0; i < top.size(); i++) {
+            if (top.get(i) == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Places a new entry, firing the view events
+     * @param entry : entry
+     */
+    private void add(Entry entry) {
+        if (top.size() < k) {
+            // the view is not full : the reserve is empty and no entry is left out
+            showEntry(entry, getTopPosition(entry));
+        }
+        else if (entryComparator.compare(entry, top.get(k - 1)) < 0) {
+            showEntry(entry, getTopPosition(entry));
+            Entry demoted = top.remove(k);
+            fireIntervalRemoved(k, Collections.singletonList(demoted.element));
+            addCandidate(demoted);
+        }
+        else {
+            addCandidate(entry);
+        }
+    }
+
+    /**
+     * Shows an entry, firing the view event
+     * @param entry : entry
+     * @param position : position in the shown entries
+     */
+    private void showEntry(Entry entry, int position) {
+        entry.state = Entry.SHOWN;
+        top.add(position, entry);
+        fireIntervalAdded(position, Collections.singletonList(entry.element));
+    }
+
+    /**
+     * Adds a candidate that is not shown, to the reserve if it is among the best candidates
+     * @param entry : entry
+     */
+    private void addCandidate(Entry entry) {
+        refillReserve();
+        Entry worst = reserve.peek();
+        if (reserve.size() < reserveCapacity
+                && (othersCount == 0 || entryComparator.compare(entry, worst) <= 0)) {
+            entry.state = Entry.RESERVED;
+            reserve.add(entry);
+        }
+        else if (worst != null && entryComparator.compare(entry, worst) < 0) {
+            entry.state = Entry.RESERVED;
+            reserve.add(entry);
+            reserve.poll().state = Entry.OTHER;
+            othersCount++;
+        }
+        else {
+            entry.state = Entry.OTHER;
+            othersCount++;
+        }
+    }
+
+    /**
+     * Removes an entry, firing the view events
+     * @param entry : entry
+     * @param previousElement : element the view was showing for that entry
+     */
+    private void remove(Entry entry, T previousElement) {
+        if (entry.state == Entry.SHOWN) {
+            int position = indexOfTop(entry);
+            top.remove(position);
+            fireIntervalRemoved(position, Collections.singletonList(previousElement));
+            promoteCandidate();
+        }
+        else if (entry.state == Entry.RESERVED) {
+            reserve.remove(entry);
+            refillReserve();
+        }
+        else {
+            othersCount--;
+        }
+    }
+
+    /**
+     * Shows the best candidate, after a shown entry was removed
+     */
+    private void promoteCandidate() {
+        refillReserve();
+        if (reserve.isEmpty()) {
+            return;
+        }
+        Entry best = null;
+        for (Entry candidate : reserve) {
+            if (best == null || entryComparator.compare(candidate, best) < 0) {
+                best = candidate;
+            }
+        }
+        reserve.remove(best);
+        showEntry(best, top.size());
+        refillReserve();
+    }
+
+    /**
+     * Fills the reserve again by scanning the source when it is exhausted while some entries 
+     * are left out
+     */
+    private void refillReserve() {
+        if (!reserve.isEmpty() || othersCount == 0) {
+            return;
+        }
+        for (Node<Entry> node : entries.getNodes()) {
+            Entry entry = node.getValue();
+            if (entry.state == Entry.OTHER) {
+                if (reserve.size() < reserveCapacity) {
+                    reserve.add(entry);
+                }
+                else if (entryComparator.compare(entry, reserve.peek()) < 0) {
+                    reserve.poll();
+                    reserve.add(entry);
+                }
+            }
+        }
+        for (Entry entry : reserve) {
+            entry.state = Entry.RESERVED;
+        }
+        othersCount -= reserve.size();
+    }
+
+    /**
+     * Places again an entry whose element was replaced or changed
+     * @param entry : entry
+     * @param previousElement : element before change
+     */
+    private void update(Entry entry, T previousElement) {
+        if (entry.state != Entry.SHOWN) {
+            remove(entry, previousElement);
+            add(entry);
+            return;
+        }
+        int position = indexOfTop(entry);
+        top.remove(position);
+        Entry best = null;
+        for (Entry candidate : reserve) {
+            if (best == null || entryComparator.compare(candidate, best) < 0) {
+                best = candidate;
+            }
+        }
+        if (best != null && entryComparator.compare(best, entry) < 0) {
+            // the entry leaves the view
+            fireIntervalRemoved(position, Collections.singletonList(previousElement));
+            reserve.remove(best);
+            showEntry(best, top.size());
+            addCandidate(entry);
+        }
+        else {
+            int newPosition = getTopPosition(entry);
+            if (newPosition == position) {
+                top.add(position, entry);
+                fireContentsChanged(position, previousElement, entry.element);
+            }
+            else {
+                fireIntervalRemoved(position, Collections.singletonList(previousElement));
+                showEntry(entry, newPosition);
+            }
+        }
+    }
+
+    /**
+     * A source element entry, listening to the element changes
+     */
+    private class Entry implements PropertyChangeListener {
+
+        /** State of a shown entry **/
+        private static final int SHOWN = 0;
+
+        /** State of an entry in the reserve **/
+        private static final int RESERVED = 1;
+
+        /** State of an entry neither shown nor in the reserve **/
+        private static final int OTHER = 2;
+
+        /** Source element **/
+        private T element;
+
+        /** Arrival number, orders equal elements **/
+        private final long arrival;
+
+        /** Entry state **/
+        private int state;
+
+        /** Entry node **/
+        private Node<Entry> node;
+
+        /** Is this entry listening to its element? **/
+        private boolean observing;
+
+        /**
+         * Constructor
+         * @param element : source element
+         */
+        public Entry(T element) {
+            this.element = element;
+            this.arrival = nextArrival++;
+        }
+
+        /**
+         * Starts listening to the element
+         * @param entryNode : entry node
+         */
+        public void startObserving(Node<Entry> entryNode) {
+            this.node = entryNode;
+            if (observeElements) {
+                observing = IntrospectionTools.addPropertyChangeListener(element, this);
+            }
+        }
+
+        /**
+         * Stops listening to the element
+         */
+        public void stopObserving() {
+            if (observing) {
+                IntrospectionTools.removePropertyChangeListener(element, this);
+                observing = false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            update(this, element);
+        }
+    }
+
+    /**
+     * Translates source events into view events
+     */
+    private class SourceListener implements TypedListDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            List<T> added = event.getNewElements();
+            if (added == null) {
+                added = source.subList(event.getIndex0(), event.getIndex1() + 1);
+            }
+            insertEntries(event.getIndex0(), added);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            List<Node<Entry>> removed = entries.remove(event.getIndex0(), event.getIndex1()
+                    - event.getIndex0() + 1);
+            // remove left out entries first, so that promotions do not pick removed entries
+            for (Node<Entry> node : removed) {
+                node.getValue().stopObserving();
+                if (node.getValue().state == Entry.OTHER) {
+                    remove(node.getValue(), node.getValue().element);
+                }
+            }
+            for (Node<Entry> node : removed) {
+                if (node.getValue().state == Entry.RESERVED) {
+                    reserve.remove(node.getValue());
+                    node.getValue().state = Entry.OTHER;
+                }
+            }
+            for (Node<Entry> node : removed) {
+                if (node.getValue().state == Entry.SHOWN) {
+                    remove(node.getValue(), node.getValue().element);
+                }
+            }
+            refillReserve();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            List<T> newElements = event.getNewElements();
+            for (int i = event.getIndex0(); i <= event.getIndex1(); i++) {
+                Entry entry = entries.get(i).getValue();
+                T previousElement = entry.element;
+                entry.stopObserving();
+                entry.element = newElements != null ? newElements.get(i - event.getIndex0())
+                        : source.get(i);
+                entry.startObserving(entry.node);
+                update(entry, previousElement);
+            }
+        }
+    }
+}
@@ -0,0 +1,476 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.journal;
+
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.ElementCodec;
+import binding.list.definition.implementation.MutableArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only journal of list changes. Registered as listener of a mutable list, it records
+ * every change as a compact binary delta (operation, range and elements encoded by an 
+ * {@link ElementCodec}), buffered in memory and appended to a file in batches through a file 
+ * channel. {@link #replay(File, ElementCodec, List)} rebuilds a list from a journal, applying 
+ * each delta as a bulk range operation.<br>
+ * The journal should be attached to an empty list, or start with 
+ * {@link #recordContent(List)}. Records are written to the file when the buffer is full, on 
+ * {@link #flush()} and on {@link #close()}; {@link #sync()} also forces them to the storage 
+ * device. A record truncated by a crash is ignored when replaying, and dropped when the journal
+ * is opened again for appending.<br>
+ * File format : magic number and version (two ints), then records made of their payload length
+ * (int) and payload : operation (byte), first index and count (two ints), and, for additions 
+ * and changes, each element as a presence flag (boolean) followed by its encoding.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : list elements type
+ */
+public class ListChangeJournal<T> implements TypedListDataListener<T>, Closeable {
+
+    /** Journal file magic number **/
+    private static final int MAGIC = 0x42544a4c;
+
+    /** Journal format version **/
+    private static final int VERSION = 1;
+
+    /** Header size **/
+    private static final int HEADER_SIZE = 8;
+
+    /** Elements added operation **/
+    private static final byte ADD = 1;
+
+    /** Elements removed operation **/
+    private static final byte REMOVE = 2;
+
+    /** Elements replaced operation **/
+    private static final byte CHANGE = 3;
+
+    /** List cleared operation **/
+    private static final byte CLEAR = 4;
+
+    /** Size of the file windows mapped when replaying **/
+    private static final long REPLAY_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /** Default write buffer size **/
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Journal file **/
+    private final RandomAccessFile file;
+
+    /** Journal file channel **/
+    private final FileChannel channel;
+
+    /** Elements codec **/
+    private final ElementCodec<T> codec;
+
+    /** Records not written yet **/
+    private final ByteBuffer buffer;
+
+    /** Record encoding stream **/
+    private final ByteArrayOutputStream recordBytes;
+
+    /** Record encoding output **/
+    private final DataOutputStream recordOutput;
+
+    /**
+     * Constructor (default buffer size)
+     * @param journalFile : journal file, created if it does not exist, appended otherwise
+     * @param codec : elements codec
+     * @throws IOException if the file could not be opened or is not a journal
+     */
+    public ListChangeJournal(File journalFile, ElementCodec<T> codec) throws IOException {
+        this(journalFile, codec, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param journalFile : journal file, created if it does not exist, appended otherwise
+     * @param codec : elements codec
+     * @param bufferSize : size of the buffer holding records before they are written
+     * @throws IOException if the file could not be opened or is not a journal
+     * @throws IllegalArgumentException if the file or the codec is null, or if the buffer size
+     *          is not strictly positive
+     */
+    public ListChangeJournal(File journalFile, ElementCodec<T> codec, int bufferSize)
+            throws IOException {
+        if (journalFile == null || codec == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the journal file and the codec can not be null");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the buffer size must be strictly positive");
+        }
+        this.codec = codec;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.recordBytes = new ByteArrayOutputStream();
+        this.recordOutput = new DataOutputStream(recordBytes);
+        this.file = new RandomAccessFile(journalFile, "rw");
+        this.channel = file.getChannel();
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(header, 0);
+            }
+            else {
+                checkHeader(channel);
+                // drop a record truncated by a crash, so that new records are not swallowed
+                long recordsEnd = findRecordsEnd(channel);
+                if (recordsEnd < channel.size()) {
+                    channel.truncate(recordsEnd);
+                }
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the whole content of a list (a clear followed by the addition of all elements),
+     * to start a journal on a list that is not empty
+     * @param elements : list content
+     */
+    public synchronized void recordContent(List<T> elements) {
+        record(CLEAR, 0, 0, null);
+        if (!elements.isEmpty()) {
+            record(ADD, 0, elements.size(), elements);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void intervalAdded(TypedListDataEvent e) {
+        record(ADD, e.getIndex0(), e.getIndex1() - e.getIndex0() + 1,
+               elements(e, e.getNewElements()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void intervalRemoved(TypedListDataEvent e) {
+        record(REMOVE, e.getIndex0(), e.getIndex1() - e.getIndex0() + 1, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void contentsChanged(TypedListDataEvent e) {
+        record(CHANGE, e.getIndex0(), e.getIndex1() - e.getIndex0() + 1,
+               elements(e, e.getNewElements()));
+    }
+
+    /**
+     * Writes buffered records to the file
+     * @throws IOException if records could not be written
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes buffered records and forces them to the storage device
+     * @throws IOException if records could not be written
+     */
+    public synchronized void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    /**
+     * Writes buffered records and closes the journal file. The journal must no longer be 
+     * registered as list listener after this call
+     * @throws IOException if records could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Returns the elements of an event, reading them from the event source list if the event 
+     * does not carry them
+     * @param e : event
+     * @param carried : elements carried by the event (null if none)
+     * @return -
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> elements(TypedListDataEvent<T> e, List<T> carried) {
+        if (carried != null) {
+            return carried;
+        }
+        return ((List<T>) e.getSource()).subList(e.getIndex0(), e.getIndex1() + 1);
+    }
+
+    /**
+     * Encodes a record and appends it to the buffer (writing the buffer when full)
+     * @param operation : operation
+     * @param index : first index
+     * @param count : elements count
+     * @param elements : elements to encode, null if none
+     */
+    private void record(byte operation, int index, int count, List<T> elements) {
+        try {
+            recordBytes.reset();
+            recordOutput.writeByte(operation);
+            recordOutput.writeInt(index);
+            recordOutput.writeInt(count);
+            if (elements != null) {
+                for (T element : elements) {
+                    recordOutput.writeBoolean(element != null);
+                    if (element != null) {
+                        codec.write(element, recordOutput);
+                    }
+                }
+            }
+            recordOutput.flush();
+
+            int length = recordBytes.size();
+            if (buffer.remaining() < length + 4) {
+                flush();
+            }
+            if (buffer.remaining() < length + 4) {
+                // larger than the buffer : written directly
+                ByteBuffer record = ByteBuffer.allocate(length + 4);
+                record.putInt(length).put(recordBytes.toByteArray()).flip();
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            else {
+                buffer.putInt(length).put(recordBytes.toByteArray());
+            }
+        } catch (IOException e) {
+            // the event can not be recorded : do not force the list user catching it
+            throw new RuntimeException(getClass() + ": the change could not be recorded", e);
+        }
+    }
+
+    /**
+     * Writes a buffer at a position
+     * @param data : data to write
+     * @param position : file position
+     * @throws IOException if data could not be written
+     */
+    private void writeFully(ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+    }
+
+    /**
+     * Checks a journal file header
+     * @param journalChannel : journal file channel
+     * @throws IOException if the file is not a journal
+     */
+    private static void checkHeader(FileChannel journalChannel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (journalChannel.read(header, header.position()) < 0) {
+                throw new IOException("Not a list change journal (truncated header)");
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a list change journal");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported list change journal version " + version);
+        }
+    }
+
+    /**
+     * Finds the end of the last complete record of a journal file
+     * @param journalChannel : journal file channel
+     * @return - the file position following the last complete record
+     * @throws IOException if the file could not be read
+     */
+    private static long findRecordsEnd(FileChannel journalChannel) throws IOException {
+        long size = journalChannel.size();
+        long position = HEADER_SIZE;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (size - position >= 4) {
+            lengthBuffer.clear();
+            while (lengthBuffer.hasRemaining()) {
+                journalChannel.read(lengthBuffer, position + lengthBuffer.position());
+            }
+            int length = lengthBuffer.getInt(0);
+            if (length < 0 || size - position - 4 < length) {
+                break;
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    /**
+     * Maps a read only window of a journal file
+     * @param journalChannel : journal file channel
+     * @param position : window start
+     * @param minimumLength : minimum window length
+     * @return - the window, as large as possible up to REPLAY_WINDOW_SIZE (or the minimum 
+     *          length), and never beyond the file end
+     * @throws IOException if the file could not be mapped
+     */
+    private static ByteBuffer mapWindow(FileChannel journalChannel, long position,
+                                        long minimumLength) throws IOException {
+        long length = Math.min(journalChannel.size() - position,
+                               Math.max(REPLAY_WINDOW_SIZE, minimumLength));
+        return journalChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * Rebuilds a list by applying the changes recorded in a journal. Each recorded range is 
+     * applied with a single bulk operation (addAll, subList(...).clear(), or setAll for a 
+     * MutableArrayList target), so that a mutable list fires one event per record. Changed 
+     * ranges are applied with one set per element on other lists
+     * @param <T> : list elements type
+     * @param journalFile : journal file
+     * @param codec : elements codec
+     * @param target : list the changes are applied to (usually empty)
+     * @return - the count of applied records
+     * @throws IOException if the journal could not be read
+     */
+    public static <T> int replay(File journalFile, ElementCodec<T> codec, List<T> target)
+            throws IOException {
+        RandomAccessFile journal = new RandomAccessFile(journalFile, "r");
+        try {
+            FileChannel channel = journal.getChannel();
+            checkHeader(channel);
+            // the file is mapped by windows, so that journals larger than 2 GB can be replayed
+            long size = channel.size();
+            long position = HEADER_SIZE;
+            long windowStart = position;
+            ByteBuffer window = null;
+            int applied = 0;
+            while (size - position >= 4) {
+                if (window == null || position + 4 > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = mapWindow(channel, position, 4);
+                }
+                int length = window.getInt((int) (position - windowStart));
+                if (length < 0 || size - position - 4 < length) {
+                    // record truncated by a crash : ignored
+                    break;
+                }
+                if (position + 4 + length > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = mapWindow(channel, position, 4L + length);
+                }
+                byte[] payload = new byte[length];
+                ByteBuffer record = window.duplicate();
+                record.position((int) (position - windowStart) + 4);
+                record.get(payload);
+                apply(new DataInputStream(new ByteArrayInputStream(payload)), codec,
+                      target);
+                applied++;
+                position += 4 + length;
+            }
+            return applied;
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Applies a record
+     * @param <T> : list elements type
+     * @param in : record payload
+     * @param codec : elements codec
+     * @param target : list the record is applied to
+     * @throws IOException if the record could not be read
+     */
+    private static <T> void apply(DataInputStream in, ElementCodec<T> codec, List<T> target)
+            throws IOException {
+        byte operation = in.readByte();
+        int index = in.readInt();
+        int count = in.readInt();
+        switch (operation) {
+        case ADD:
+            target.addAll(index, readElements(in, codec, count));
+            break;
+        case REMOVE:
+            target.subList(index, index + count).clear();
+            break;
+        case CHANGE:
+            List<T> elements = readElements(in, codec, count);
+            if (target instanceof MutableArrayList) {
+                ((MutableArrayList<T>) target).setAll(index, elements);
+            }
+            else {
+                for (int i = 0; i < count; i++) {
+                    target.set(index + i, elements.get(i));
+                }
+            }
+            break;
+        case CLEAR:
+            target.clear();
+            break;
+        default:
+            throw new IOException("Unknown list change journal operation " + operation);
+        }
+    }
+
+    /**
+     * Reads encoded elements
+     * @param <T> : elements type
+     * @param in : input
+     * @param codec : elements codec
+     * @param count : elements count
+     * @return - the read elements
+     * @throws IOException if elements could not be read
+     */
+    private static <T> List<T> readElements(DataInputStream in, ElementCodec<T> codec, int count)
+            throws IOException {
+        List<T> elements = new ArrayList<T>(count);
+        for (int i = 0; i < count; i++) {
+            elements.add(in.readBoolean() ? codec.read(in) : null);
+        }
+        return elements;
+    }
+}
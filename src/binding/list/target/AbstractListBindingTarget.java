@@ -20,10 +20,22 @@ package binding.list.target;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Class that propagates changes of a source list of type MutableList<T> to a
- * target list of type List<U>
+ * target list of type List<U>. <br>
+ * Large batches (initial binding, big addAll) are converted in parallel, split in chunks over
+ * an executor, when their size reaches the parallel threshold. Converted chunks are still 
+ * inserted in order, with a single addAll on the target. Subclasses whose convert method is 
+ * not thread safe must return false in {@link #isParallelConversionAllowed()}. A conversion
+ * started from a conversion task (for instance a convert method binding a large sub-list) runs
+ * on the calling thread, so that conversion threads never wait for chunks queued behind them.
  * 
  * Copyright 2010, Raphael Mechali <br>
  * Distributed under Lesser GNU General Public License (LGPL)
@@ -34,9 +46,27 @@ import java.util.List;
 public abstract class AbstractListBindingTarget<T, U> implements
         ListBindingTarget<T> {
 
+    /** Default minimum batch size converted in parallel **/
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    /** Minimum count of elements converted by a parallel task **/
+    private static final int MINIMUM_CHUNK_SIZE = 256;
+
+    /** Shared conversion executor, created on first need **/
+    private static ExecutorService sharedExecutor;
+
+    /** Is the current thread running a conversion task? **/
+    private static final ThreadLocal<Boolean> CONVERSION_THREAD = new ThreadLocal<Boolean>();
+
     /** Target list **/
     private final List<U> target;
 
+    /** Executor used for parallel conversion, null to use the shared one **/
+    private ExecutorService conversionExecutor;
+
+    /** Minimum batch size converted in parallel **/
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
     /**
      * Constructor
      * 
@@ -56,25 +86,209 @@ public abstract class AbstractListBindingTarget<T, U> implements
     @Override
     public final void intervalAdded(List<T> sourceElements, List<T> elementsAdded,
                                     int insertionIndex, int lastInsertionIndex) {
-        this.target.addAll(insertionIndex, convertElements(insertionIndex, elementsAdded));
+        addConvertedElements(insertionIndex, convertElements(insertionIndex, elementsAdded));
+    }
+
+    /**
+     * Inserts converted elements in the target list
+     * 
+     * @param index : insertion index
+     * @param converted : converted elements
+     */
+    protected void addConvertedElements(int index, Collection<U> converted) {
+        this.target.addAll(index, converted);
     }
 
     /**
      * Converts a a list of elements of type T into a list of element of type U
-     * (target list type)
+     * (target list type). The conversion is parallel when the list size reaches the parallel
+     * threshold and parallel conversion is allowed (nested conversions, and conversions on the
+     * shared executor of a single processor machine, stay on the calling thread)
      * 
      * @param toConvert : elements to convert
-     * @param index  : index to convert
+     * @param index  : index of the first element to convert
      * @return - the new elements list
      */
     protected final Collection<U> convertElements(int index, List<T> toConvert) {
-        List<U> converted = new ArrayList<U>();
-        for (int i = 0; i < toConvert.size(); i++) {
-            converted.add(convert(index, toConvert.get(i)));
+        int size = toConvert.size();
+        if (size < parallelThreshold || size < 2 * MINIMUM_CHUNK_SIZE
+                || !isParallelConversionAllowed() || CONVERSION_THREAD.get() != null
+                || (conversionExecutor == null
+                        && Runtime.getRuntime().availableProcessors() == 1)) {
+            return convertRange(index, toConvert, 0, size);
+        }
+
+        // split in chunks, several per processor to balance uneven conversion costs
+        int chunksCount = Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                                   size / MINIMUM_CHUNK_SIZE);
+        // copy elements on the calling thread : the event list may be lazy or not thread safe
+        List<T> elements = new ArrayList<T>(toConvert);
+        ExecutorService executor = getConversionExecutor();
+        List<Future<List<U>>> chunks = new ArrayList<Future<List<U>>>(chunksCount);
+        for (int i = 0; i < chunksCount; i++) {
+            chunks.add(executor.submit(new ChunkConversion(index, elements,
+                                                           (int) ((long) size * i / chunksCount),
+                                                           (int) ((long) size * (i + 1)
+                                                                   / chunksCount))));
+        }
+
+        // gather chunks in order
+        List<U> converted = new ArrayList<U>(size);
+        try {
+            for (Future<List<U>> chunk : chunks) {
+                converted.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (Future<List<U>> chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Converts a range of elements on the calling thread
+     * 
+     * @param index : index of the first element of the list to convert
+     * @param toConvert : elements to convert
+     * @param from : first converted position in list (inclusive)
+     * @param to : last converted position in list (exclusive)
+     * @return - the converted elements
+     */
+    private List<U> convertRange(int index, List<T> toConvert, int from, int to) {
+        List<U> converted = new ArrayList<U>(to - from);
+        for (int i = from; i < to; i++) {
+            converted.add(convert(index + i, toConvert.get(i)));
         }
         return converted;
     }
 
+    /**
+     * Can {@link #convert(int, Object)} be called concurrently from several threads? Override
+     * to return false when the conversion is not thread safe (or not worth being split)
+     * 
+     * @return true (default) if large batches can be converted in parallel
+     */
+    protected boolean isParallelConversionAllowed() {
+        return true;
+    }
+
+    /**
+     * Parallel threshold getter
+     * 
+     * @return - the minimum batch size converted in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Parallel threshold setter
+     * 
+     * @param parallelThreshold : minimum batch size converted in parallel (Integer.MAX_VALUE to
+     *          always convert on the calling thread)
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Conversion executor setter
+     * 
+     * @param conversionExecutor : executor running parallel conversions, null to use the 
+     *          executor shared by all targets (daemon threads, one per processor)
+     */
+    public void setConversionExecutor(ExecutorService conversionExecutor) {
+        this.conversionExecutor = conversionExecutor;
+    }
+
+    /**
+     * Returns the executor to use for parallel conversions
+     * 
+     * @return -
+     */
+    private ExecutorService getConversionExecutor() {
+        if (conversionExecutor != null) {
+            return conversionExecutor;
+        }
+        synchronized (AbstractListBindingTarget.class) {
+            if (sharedExecutor == null) {
+                sharedExecutor = Executors.newFixedThreadPool(
+                        Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+
+                            /** Created threads count **/
+                            private int count;
+
+                            @Override
+                            public Thread newThread(Runnable runnable) {
+                                Thread thread = new Thread(runnable, "binding-conversion-"
+                                        + (++count));
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                        });
+            }
+            return sharedExecutor;
+        }
+    }
+
+    /**
+     * Task converting a chunk of a batch
+     */
+    private class ChunkConversion implements Callable<List<U>> {
+
+        /** Index of the first element of the batch **/
+        private final int index;
+
+        /** Batch elements **/
+        private final List<T> toConvert;
+
+        /** First converted position (inclusive) **/
+        private final int from;
+
+        /** Last converted position (exclusive) **/
+        private final int to;
+
+        /**
+         * Constructor
+         * 
+         * @param index : index of the first element of the batch
+         * @param toConvert : batch elements
+         * @param from : first converted position (inclusive)
+         * @param to : last converted position (exclusive)
+         */
+        public ChunkConversion(int index, List<T> toConvert, int from, int to) {
+            this.index = index;
+            this.toConvert = toConvert;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * {@inherit}
+         */
+        @Override
+        public List<U> call() {
+            CONVERSION_THREAD.set(Boolean.TRUE);
+            try {
+                return convertRange(index, toConvert, from, to);
+            } finally {
+                CONVERSION_THREAD.remove();
+            }
+        }
+    }
+
     /**
      * Converts an element of type T into an element of type U
      * 
@@ -91,7 +305,16 @@ public abstract class AbstractListBindingTarget<T, U> implements
     public final void intervalRemoved(List<T> sourceElements, List<T> elementsRemoved,
                                       int firstIndex,
                                       int lastIndex) {
+        removeInterval(firstIndex, lastIndex);
+    }
 
+    /**
+     * Removes an interval of the target list
+     * 
+     * @param firstIndex : first removed index
+     * @param lastIndex : last removed index (inclusive)
+     */
+    void removeInterval(int firstIndex, int lastIndex) {
         List<U> toRemove = this.target.subList(firstIndex, lastIndex + 1);
         removeElements(toRemove);
     }
@@ -0,0 +1,282 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.list.target;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A list binding target decorator that converts added elements on a background executor and 
+ * applies the converted ranges to the decorated target on another executor, such as the Swing
+ * event dispatch thread. The thread firing source events only copies the event elements and 
+ * queues them, so a burst of large additions no longer blocks it.<br>
+ * Events are applied in the order they were received, each one once every previous event has 
+ * been applied, so that the index shifts caused by intermediate events are preserved. Several
+ * conversions may run at the same time when the conversion executor has several threads.<br>
+ * The decorated target list must only be modified through this decorator, from the apply 
+ * executor. When a conversion fails (with any throwable), the failed event inserts null 
+ * placeholders, so that the indexes of the following events stay aligned, and the failure is 
+ * rethrown on the apply executor (the following events being applied by another run).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * 
+ * @param <T> : source list elements type
+ * @param <U> : target list elements type
+ */
+public class AsynchronousListBindingTarget<T, U> implements ListBindingTarget<T> {
+
+    /** Executor running tasks on the Swing event dispatch thread **/
+    public static final Executor EVENT_DISPATCH_THREAD = new Executor() {
+
+        @Override
+        public void execute(Runnable command) {
+            SwingUtilities.invokeLater(command);
+        }
+    };
+
+    /** Decorated target **/
+    private final AbstractListBindingTarget<T, U> delegate;
+
+    /** Executor converting added elements **/
+    private final Executor conversionExecutor;
+
+    /** Executor applying events to the decorated target **/
+    private final Executor applyExecutor;
+
+    /** Received events not applied yet, in reception order **/
+    private final LinkedList<PendingEvent> pendingEvents;
+
+    /** Lock ensuring events are applied one at a time **/
+    private final Object applyLock;
+
+    /** Task applying ready events **/
+    private final Runnable applyTask;
+
+    /**
+     * Constructor : converted elements are applied on the Swing event dispatch thread
+     * 
+     * @param delegate : decorated target
+     * @param conversionExecutor : executor converting added elements
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public AsynchronousListBindingTarget(AbstractListBindingTarget<T, U> delegate,
+                                         Executor conversionExecutor) {
+        this(delegate, conversionExecutor, EVENT_DISPATCH_THREAD);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param delegate : decorated target
+     * @param conversionExecutor : executor converting added elements
+     * @param applyExecutor : executor applying events to the decorated target (it should run 
+     *          tasks on a single thread, the one allowed to modify the target list)
+     * @throws IllegalArgumentException if a parameter is null
+     */
+    public AsynchronousListBindingTarget(AbstractListBindingTarget<T, U> delegate,
+                                         Executor conversionExecutor, Executor applyExecutor) {
+        if (delegate == null || conversionExecutor == null || applyExecutor == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the target and the executors can not be null");
+        }
+        this.delegate = delegate;
+        this.conversionExecutor = conversionExecutor;
+        this.applyExecutor = applyExecutor;
+        this.pendingEvents = new LinkedList<PendingEvent>();
+        this.applyLock = new Object();
+        this.applyTask = new Runnable() {
+
+            @Override
+            public void run() {
+                applyReadyEvents();
+            }
+        };
+    }
+
+    /**
+     * Decorated target getter
+     * 
+     * @return -
+     */
+    public AbstractListBindingTarget<T, U> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the count of received events that were not applied yet
+     * 
+     * @return -
+     */
+    public int getPendingCount() {
+        synchronized (pendingEvents) {
+            return pendingEvents.size();
+        }
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public void intervalAdded(List<T> sourceElements, List<T> elementsAdded,
+                              int insertionIndex, int lastInsertionIndex) {
+        final PendingEvent event = new PendingEvent(insertionIndex, lastInsertionIndex,
+                                                    new ArrayList<T>(elementsAdded));
+        enqueue(event);
+        conversionExecutor.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                event.convert();
+                applyExecutor.execute(applyTask);
+            }
+        });
+    }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    public void intervalRemoved(List<T> sourceElements, List<T> elementsRemoved,
+                                int firstIndex, int lastIndex) {
+        enqueue(new PendingEvent(firstIndex, lastIndex, null));
+        applyExecutor.execute(applyTask);
+    }
+
+    /**
+     * Queues an event
+     * 
+     * @param event : received event
+     */
+    private void enqueue(PendingEvent event) {
+        synchronized (pendingEvents) {
+            pendingEvents.addLast(event);
+        }
+    }
+
+    /**
+     * Applies, in reception order, every event whose conversion is done
+     */
+    private void applyReadyEvents() {
+        Throwable failure = null;
+        synchronized (applyLock) {
+            while (true) {
+                PendingEvent event;
+                synchronized (pendingEvents) {
+                    event = pendingEvents.peek();
+                    if (event == null || !event.ready) {
+                        break;
+                    }
+                    pendingEvents.removeFirst();
+                }
+                failure = event.apply();
+                if (failure != null) {
+                    // the remaining ready events are applied by another run
+                    applyExecutor.execute(applyTask);
+                    break;
+                }
+            }
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    /**
+     * A received event, waiting to be applied
+     */
+    private class PendingEvent {
+
+        /** First index **/
+        private final int firstIndex;
+
+        /** Last index (inclusive) **/
+        private final int lastIndex;
+
+        /** Added elements, null for a removal **/
+        private final List<T> added;
+
+        /** Converted elements **/
+        private Collection<U> converted;
+
+        /** Conversion failure **/
+        private Throwable failure;
+
+        /** Can this event be applied? **/
+        private volatile boolean ready;
+
+        /**
+         * Constructor
+         * 
+         * @param firstIndex : first index
+         * @param lastIndex : last index (inclusive)
+         * @param added : added elements, null for a removal
+         */
+        public PendingEvent(int firstIndex, int lastIndex, List<T> added) {
+            this.firstIndex = firstIndex;
+            this.lastIndex = lastIndex;
+            this.added = added;
+            this.ready = added == null;
+        }
+
+        /**
+         * Converts added elements (called on the conversion executor)
+         */
+        public void convert() {
+            try {
+                converted = delegate.convertElements(firstIndex, added);
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                ready = true;
+            }
+        }
+
+        /**
+         * Applies the event to the decorated target (called on the apply executor)
+         * 
+         * @return - the conversion failure, null if the conversion succeeded
+         */
+        public Throwable apply() {
+            if (added == null) {
+                delegate.removeInterval(firstIndex, lastIndex);
+            }
+            else if (failure != null) {
+                // keep the following events indexes aligned
+                delegate.addConvertedElements(firstIndex,
+                                              Collections.<U> nCopies(added.size(), null));
+            }
+            else {
+                delegate.addConvertedElements(firstIndex, converted);
+            }
+            return failure;
+        }
+    }
+}
@@ -49,4 +49,13 @@ public class BasicListBindingTarget<T> extends AbstractListBindingTarget<T, T> {
     protected T convert(int elementIndex, T element) {
         return element;
     }
+
+    /**
+     * {@inherit}
+     */
+    @Override
+    protected boolean isParallelConversionAllowed() {
+        // identity conversion : nothing to gain from splitting it
+        return false;
+    }
 }
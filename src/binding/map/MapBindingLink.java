@@ -0,0 +1,183 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map;
+
+import binding.IBindingLink;
+import binding.map.definition.MapDataEvent;
+import binding.map.definition.MapDataListener;
+import binding.map.definition.MutableMap;
+import binding.map.target.MapBindingTarget;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binding link for map events : entries changes of the source MutableMap are forwarded, as 
+ * batches, to the binding target, so that the target only applies the changed entries. As for
+ * ListBindingLink, terminating the binding makes the target believe that the map is now empty.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : values type
+ */
+public class MapBindingLink<K, V> implements MapDataListener<K, V>,
+                                             IBindingLink<MutableMap<K, V>, MapBindingTarget<K, V>> {
+
+    /** Binding source **/
+    private MutableMap<K, V> bindingSource;
+
+    /** Binding target **/
+    private MapBindingTarget<K, V> bindingTarget;
+
+    /**
+     * Constructor
+     * @param bindingSource : binding source
+     * @param bindingTarget : binding target
+     */
+    public MapBindingLink(MutableMap<K, V> bindingSource, MapBindingTarget<K, V> bindingTarget) {
+        setBindingSource(bindingSource);
+        setBindingTarget(bindingTarget);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableMap<K, V> getBindingSource() {
+        return bindingSource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBindingSource(MutableMap<K, V> newSource) {
+        MutableMap<K, V> previousSource = bindingSource;
+        List<K> previousKeys = new ArrayList<K>();
+        List<V> previousValues = new ArrayList<V>();
+        if (previousSource != null) {
+            previousSource.removeMapDataListener(this);
+            collectEntries(previousSource, previousKeys, previousValues);
+        }
+        bindingSource = newSource;
+        if (newSource != null) {
+            newSource.addMapDataListener(this);
+        }
+        if (bindingTarget != null) {
+            if (!previousKeys.isEmpty()) {
+                bindingTarget.entriesRemoved(previousSource, previousKeys, previousValues);
+            }
+            fireAddAll(bindingTarget);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MapBindingTarget<K, V> getBindingTarget() {
+        return bindingTarget;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBindingTarget(MapBindingTarget<K, V> newTarget) {
+        if (bindingTarget != null && bindingSource != null && !bindingSource.isEmpty()) {
+            List<K> keys = new ArrayList<K>(bindingSource.size());
+            List<V> values = new ArrayList<V>(bindingSource.size());
+            collectEntries(bindingSource, keys, values);
+            bindingTarget.entriesRemoved(bindingSource, keys, values);
+        }
+        bindingTarget = newTarget;
+        if (newTarget != null) {
+            fireAddAll(newTarget);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminateBinding() {
+        // remove source first so that target is notified
+        setBindingSource(null);
+        // remove target to break every double link
+        setBindingTarget(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void entriesAdded(MapDataEvent<K, V> event) {
+        if (bindingTarget != null) {
+            bindingTarget.entriesAdded(bindingSource, event.getKeys(), event.getNewValues());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void entriesRemoved(MapDataEvent<K, V> event) {
+        if (bindingTarget != null) {
+            bindingTarget.entriesRemoved(bindingSource, event.getKeys(),
+                                         event.getPreviousValues());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void entriesReplaced(MapDataEvent<K, V> event) {
+        if (bindingTarget != null) {
+            bindingTarget.entriesReplaced(bindingSource, event.getKeys(),
+                                          event.getPreviousValues(), event.getNewValues());
+        }
+    }
+
+    /**
+     * Sends every source entry to a target, as added entries
+     * @param target : target
+     */
+    private void fireAddAll(MapBindingTarget<K, V> target) {
+        if (bindingSource != null && !bindingSource.isEmpty()) {
+            List<K> keys = new ArrayList<K>(bindingSource.size());
+            List<V> values = new ArrayList<V>(bindingSource.size());
+            collectEntries(bindingSource, keys, values);
+            target.entriesAdded(bindingSource, keys, values);
+        }
+    }
+
+    /**
+     * Copies the entries of a map
+     * @param map : map
+     * @param keys : list receiving keys
+     * @param values : list receiving values, in keys order
+     */
+    private static <K, V> void collectEntries(Map<K, V> map, List<K> keys, List<V> values) {
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+    }
+}
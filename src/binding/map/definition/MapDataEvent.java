@@ -0,0 +1,115 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.definition;
+
+import java.util.EventObject;
+import java.util.List;
+
+/**
+ * A typed map data event, describing a batch of entries of the same kind of change : the
+ * changed keys, in the order they changed, with their previous values (null list for added 
+ * entries) and their new values (null list for removed entries).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : values type
+ */
+public class MapDataEvent<K, V> extends EventObject {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** Type of an added entries event **/
+    public static final int ENTRIES_ADDED = 0;
+
+    /** Type of a removed entries event **/
+    public static final int ENTRIES_REMOVED = 1;
+
+    /** Type of a replaced values event **/
+    public static final int ENTRIES_REPLACED = 2;
+
+    /** Event type **/
+    private final int type;
+
+    /** Changed keys **/
+    private final List<K> keys;
+
+    /** Values before event **/
+    private final List<V> previousValues;
+
+    /** Values after event **/
+    private final List<V> newValues;
+
+    /**
+     * Constructor
+     * @param source : source map
+     * @param type : event type
+     * @param keys : changed keys
+     * @param previousValues : values before event (null for added entries)
+     * @param newValues : values after event (null for removed entries)
+     */
+    public MapDataEvent(Object source, int type, List<K> keys, List<V> previousValues,
+                        List<V> newValues) {
+        super(source);
+        this.type = type;
+        this.keys = keys;
+        this.previousValues = previousValues;
+        this.newValues = newValues;
+    }
+
+    /**
+     * Event type getter
+     * @return - ENTRIES_ADDED, ENTRIES_REMOVED or ENTRIES_REPLACED
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Changed keys getter
+     * @return -
+     */
+    public List<K> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Previous values getter
+     * @return - values before event, in keys order (null for added entries)
+     */
+    public List<V> getPreviousValues() {
+        return previousValues;
+    }
+
+    /**
+     * New values getter
+     * @return - values after event, in keys order (null for removed entries)
+     */
+    public List<V> getNewValues() {
+        return newValues;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getName() + "[type=" + type + ",keys=" + keys + "]";
+    }
+}
@@ -0,0 +1,47 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.definition;
+
+/**
+ * Map data listener, notified of entries changes in a {@link MutableMap}.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : values type
+ */
+public interface MapDataListener<K, V> {
+
+    /**
+     * Entries were added into the listened map
+     * @param event : event (describes added keys and their values)
+     */
+    void entriesAdded(MapDataEvent<K, V> event);
+
+    /**
+     * Entries were removed from the listened map
+     * @param event : event (describes removed keys and their previous values)
+     */
+    void entriesRemoved(MapDataEvent<K, V> event);
+
+    /**
+     * Values of existing keys were replaced in the listened map
+     * @param event : event (describes keys, their previous values and their new values)
+     */
+    void entriesReplaced(MapDataEvent<K, V> event);
+}
@@ -0,0 +1,52 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.definition;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An observable map for map binding : it notifies {@link MapDataListener}s of added, removed 
+ * and replaced entries, a bulk operation being notified by a single event per kind of change.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : values type
+ */
+public interface MutableMap<K, V> extends Map<K, V> {
+
+    /**
+     * Adds a map data listener
+     * @param listener : listener
+     */
+    void addMapDataListener(MapDataListener<K, V> listener);
+
+    /**
+     * Removes a map data listener
+     * @param listener : listener
+     */
+    void removeMapDataListener(MapDataListener<K, V> listener);
+
+    /**
+     * Removes several keys, firing a single removed entries event
+     * @param keys : keys to remove
+     * @return true if the map changed
+     */
+    boolean removeKeys(Collection<?> keys);
+}
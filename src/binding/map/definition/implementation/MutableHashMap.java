@@ -0,0 +1,657 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.definition.implementation;
+
+import binding.map.definition.MapDataEvent;
+import binding.map.definition.MapDataListener;
+import binding.map.definition.MutableMap;
+import binding.tools.ListenerList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Mutable hash map implementation, using open addressing : keys and values are stored in two 
+ * flat arrays, probed linearly, and removals shift back the following entries instead of 
+ * leaving tombstones. It holds no entry object per mapping, which keeps large maps (caches of 
+ * hundreds of thousands of entries) compact.<br>
+ * put, remove and entries setValue fire single entry events, putAll, {@link #removeKeys(
+ * Collection)} and clear fire a single event per kind of change. The null key and null values
+ * are supported.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : values type
+ */
+public class MutableHashMap<K, V> extends AbstractMap<K, V> implements MutableMap<K, V> {
+
+    /** Minimum table length **/
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /** Maximum table length **/
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** Key stored in place of the null key **/
+    private static final Object NULL_KEY = new Object();
+
+    /** Keys table (null for free slots) **/
+    private Object[] keys;
+
+    /** Values table **/
+    private Object[] values;
+
+    /** Entries count **/
+    private int size;
+
+    /** Structural modifications count, for iterators **/
+    private int modCount;
+
+    /** Listeners **/
+    private final ListenerList<MapDataListener<K, V>> listeners;
+
+    /** Entries view, created on first need **/
+    private Set<Map.Entry<K, V>> entrySet;
+
+    /**
+     * Constructor
+     */
+    public MutableHashMap() {
+        this(0);
+    }
+
+    /**
+     * Constructor
+     * @param expectedSize : expected entries count (the map does not grow until it holds them)
+     */
+    public MutableHashMap(int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < MAXIMUM_CAPACITY && capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        listeners = new ListenerList<MapDataListener<K, V>>();
+    }
+
+    /**
+     * Constructor
+     * @param initialEntries : initial entries
+     */
+    public MutableHashMap(Map<? extends K, ? extends V> initialEntries) {
+        this(initialEntries.size());
+        putAll(initialEntries);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addMapDataListener(MapDataListener<K, V> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(getClass() + ": you can not add a null listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeMapDataListener(MapDataListener<K, V> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns listeners
+     * @return - a read only snapshot of the listeners
+     */
+    public List<MapDataListener<K, V>> getMapDataListeners() {
+        return listeners.getListeners();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(mask(key)) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = find(mask(key));
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Object maskedKey = mask(key);
+        int slot = find(maskedKey);
+        if (slot >= 0) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            fireEvent(MapDataEvent.ENTRIES_REPLACED, single(key), single(previous),
+                      single(value));
+            return previous;
+        }
+        insert(-slot - 1, maskedKey, value);
+        fireEvent(MapDataEvent.ENTRIES_ADDED, single(key), null, single(value));
+        return null;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single added entries event and a single replaced entries event
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends K, ? extends V> m) {
+        List<K> addedKeys = new ArrayList<K>();
+        List<V> addedValues = new ArrayList<V>();
+        List<K> replacedKeys = new ArrayList<K>();
+        List<V> previousValues = new ArrayList<V>();
+        List<V> newValues = new ArrayList<V>();
+        for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            Object maskedKey = mask(entry.getKey());
+            int slot = find(maskedKey);
+            if (slot >= 0) {
+                replacedKeys.add(entry.getKey());
+                previousValues.add((V) values[slot]);
+                newValues.add(entry.getValue());
+                values[slot] = entry.getValue();
+            }
+            else {
+                insert(-slot - 1, maskedKey, entry.getValue());
+                addedKeys.add(entry.getKey());
+                addedValues.add(entry.getValue());
+            }
+        }
+        if (!addedKeys.isEmpty()) {
+            fireEvent(MapDataEvent.ENTRIES_ADDED, addedKeys, null, addedValues);
+        }
+        if (!replacedKeys.isEmpty()) {
+            fireEvent(MapDataEvent.ENTRIES_REPLACED, replacedKeys, previousValues, newValues);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = find(mask(key));
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        delete(slot);
+        fireEvent(MapDataEvent.ENTRIES_REMOVED, single((K) key), single(previous), null);
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeKeys(Collection<?> removed) {
+        List<K> removedKeys = new ArrayList<K>();
+        List<V> previousValues = new ArrayList<V>();
+        for (Object key : removed) {
+            int slot = find(mask(key));
+            if (slot >= 0) {
+                removedKeys.add((K) key);
+                previousValues.add((V) values[slot]);
+                delete(slot);
+            }
+        }
+        if (removedKeys.isEmpty()) {
+            return false;
+        }
+        fireEvent(MapDataEvent.ENTRIES_REMOVED, removedKeys, previousValues, null);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single removed entries event
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        List<K> removedKeys = new ArrayList<K>(size);
+        List<V> previousValues = new ArrayList<V>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                removedKeys.add((K) unmask(keys[i]));
+                previousValues.add((V) values[i]);
+                keys[i] = null;
+                values[i] = null;
+            }
+        }
+        size = 0;
+        modCount++;
+        fireEvent(MapDataEvent.ENTRIES_REMOVED, removedKeys, previousValues, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Finds the slot of a key
+     * @param maskedKey : masked key
+     * @return - the key slot if found, (-insertion slot - 1) otherwise
+     */
+    private int find(Object maskedKey) {
+        int mask = keys.length - 1;
+        int slot = hash(maskedKey) & mask;
+        Object current;
+        while ((current = keys[slot]) != null) {
+            if (current == maskedKey || current.equals(maskedKey)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    /**
+     * Inserts a new entry in a free slot, growing the table when it is half full
+     * @param slot : free slot found for the key
+     * @param maskedKey : masked key
+     * @param value : value
+     */
+    private void insert(int slot, Object maskedKey, Object value) {
+        keys[slot] = maskedKey;
+        values[slot] = value;
+        size++;
+        modCount++;
+        if (2 * size > keys.length && keys.length < MAXIMUM_CAPACITY) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * Removes the entry of a slot, shifting back the following entries of its probe sequence
+     * @param slot : slot to free
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        keys[free] = null;
+        values[free] = null;
+        size--;
+        modCount++;
+        int current = free;
+        while (true) {
+            current = (current + 1) & mask;
+            Object key = keys[current];
+            if (key == null) {
+                return;
+            }
+            int ideal = hash(key) & mask;
+            // the entry can move to the free slot if its ideal slot is not in ]free, current]
+            boolean reachable = free <= current ? ideal > free && ideal <= current
+                    : ideal > free || ideal <= current;
+            if (!reachable) {
+                keys[free] = key;
+                values[free] = values[current];
+                keys[current] = null;
+                values[current] = null;
+                free = current;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the table with a new length
+     * @param capacity : new table length (power of 2)
+     */
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Fires an event to listeners
+     * @param type : event type
+     * @param changedKeys : changed keys
+     * @param previousValues : values before event
+     * @param newValues : values after event
+     */
+    private void fireEvent(int type, List<K> changedKeys, List<V> previousValues,
+                           List<V> newValues) {
+        List<MapDataListener<K, V>> current = listeners.getListeners();
+        if (current.isEmpty()) {
+            return;
+        }
+        MapDataEvent<K, V> event = new MapDataEvent<K, V>(this, type, changedKeys,
+                                                          previousValues, newValues);
+        for (MapDataListener<K, V> listener : current) {
+            switch (type) {
+            case MapDataEvent.ENTRIES_ADDED:
+                listener.entriesAdded(event);
+                break;
+            case MapDataEvent.ENTRIES_REMOVED:
+                listener.entriesRemoved(event);
+                break;
+            default:
+                listener.entriesReplaced(event);
+            }
+        }
+    }
+
+    /**
+     * Spreads a key hash code, so that keys with close hash codes do not fill consecutive slots
+     * @param maskedKey : masked key
+     * @return -
+     */
+    private static int hash(Object maskedKey) {
+        int h = maskedKey.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Masks a key
+     * @param key : key
+     * @return - the key stored in the table
+     */
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    /**
+     * Unmasks a key
+     * @param maskedKey : key stored in the table
+     * @return - the key
+     */
+    private static Object unmask(Object maskedKey) {
+        return maskedKey == NULL_KEY ? null : maskedKey;
+    }
+
+    /**
+     * Builds a single element list
+     * @param <E> : element type
+     * @param element : element
+     * @return -
+     */
+    private static <E> List<E> single(E element) {
+        List<E> list = new ArrayList<E>(1);
+        list.add(element);
+        return list;
+    }
+
+    /**
+     * Entries view
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int slot = find(mask(entry.getKey()));
+            return slot >= 0 && (values[slot] == null ? entry.getValue() == null
+                    : values[slot].equals(entry.getValue()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            MutableHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void clear() {
+            MutableHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Entries iterator. After a removal, it goes on iterating a copy of the keys table, since
+     * the removal may shift back entries it already returned.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        /** Iterated keys table **/
+        private Object[] table = keys;
+
+        /** Next slot **/
+        private int next = advance(0);
+
+        /** Last returned key, null if none or removed **/
+        private Object lastKey;
+
+        /** Expected modifications count **/
+        private int expectedModCount = modCount;
+
+        /**
+         * Returns the first used slot from a slot
+         * @param from : first slot to check
+         * @return -
+         */
+        private int advance(int from) {
+            int slot = from;
+            while (slot < table.length && table[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next < table.length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= table.length) {
+                throw new NoSuchElementException();
+            }
+            lastKey = table[next];
+            next = advance(next + 1);
+            K key = (K) unmask(lastKey);
+            return new Entry(key, get(key));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (table == keys) {
+                table = keys.clone();
+            }
+            MutableHashMap.this.remove(unmask(lastKey));
+            lastKey = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * A map entry, whose setValue replaces the value in the map
+     */
+    private class Entry implements Map.Entry<K, V> {
+
+        /** Entry key **/
+        private final K key;
+
+        /** Entry value **/
+        private V value;
+
+        /**
+         * Constructor
+         * @param key : key
+         * @param value : value
+         */
+        public Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public V setValue(V newValue) {
+            value = newValue;
+            return put(key, newValue);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return (key == null ? entry.getKey() == null : key.equals(entry.getKey()))
+                    && (value == null ? entry.getValue() == null
+                            : value.equals(entry.getValue()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
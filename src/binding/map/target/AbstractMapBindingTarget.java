@@ -0,0 +1,118 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.target;
+
+import binding.map.definition.MutableMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that propagates changes of a source map of type MutableMap<K, V> to a target map of 
+ * type Map<K, U>, applying only the changed entries. Each batch is applied with a single putAll 
+ * or removal call, so that a mutable target map fires a single event per batch.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : source map values type
+ * @param <U> : target map values type
+ */
+public abstract class AbstractMapBindingTarget<K, V, U> implements MapBindingTarget<K, V> {
+
+    /** Target map **/
+    private final Map<K, U> target;
+
+    /**
+     * Constructor
+     * @param target : target map
+     * @throws IllegalArgumentException if the target map is null
+     */
+    public AbstractMapBindingTarget(Map<K, U> target) {
+        if (target == null) {
+            throw new IllegalArgumentException(getClass() + ": the target map can not be null");
+        }
+        this.target = target;
+    }
+
+    /**
+     * Target map getter
+     * @return -
+     */
+    public Map<K, U> getTarget() {
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void entriesAdded(Map<K, V> source, List<K> keys, List<V> values) {
+        putConverted(keys, values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void entriesRemoved(Map<K, V> source, List<K> keys, List<V> previousValues) {
+        if (target instanceof MutableMap) {
+            ((MutableMap<K, U>) target).removeKeys(keys);
+        }
+        else {
+            // keySet().removeAll would look keys up in the list when the map is not larger
+            for (K key : keys) {
+                target.remove(key);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void entriesReplaced(Map<K, V> source, List<K> keys, List<V> previousValues,
+                                List<V> newValues) {
+        putConverted(keys, newValues);
+    }
+
+    /**
+     * Converts values and puts them in the target map
+     * @param keys : keys
+     * @param values : source values, in keys order
+     */
+    private void putConverted(List<K> keys, List<V> values) {
+        if (keys.size() == 1) {
+            target.put(keys.get(0), convert(keys.get(0), values.get(0)));
+            return;
+        }
+        Map<K, U> converted = new LinkedHashMap<K, U>(keys.size() * 4 / 3 + 1);
+        for (int i = 0; i < keys.size(); i++) {
+            converted.put(keys.get(i), convert(keys.get(i), values.get(i)));
+        }
+        target.putAll(converted);
+    }
+
+    /**
+     * Converts a source value into a target value
+     * @param key : entry key
+     * @param value : source value
+     * @return - the target value
+     */
+    protected abstract U convert(K key, V value);
+}
@@ -0,0 +1,48 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.target;
+
+import java.util.Map;
+
+/**
+ * A straight forward map binding target that copies source entries changes into a target map.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : keys type
+ * @param <V> : values type
+ */
+public class BasicMapBindingTarget<K, V> extends AbstractMapBindingTarget<K, V, V> {
+
+    /**
+     * Constructor
+     * @param target : target map
+     * @throws IllegalArgumentException if the target map is null
+     */
+    public BasicMapBindingTarget(Map<K, V> target) {
+        super(target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected V convert(K key, V value) {
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.map.target;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A map binding target, that receives added / removed / replaced entries batches. It also 
+ * receives the source map at each event, so that it can update its state without context.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <K> : source map keys type
+ * @param <V> : source map values type
+ */
+public interface MapBindingTarget<K, V> {
+
+    /**
+     * Indicates that entries were added in the source map
+     * @param source : source map
+     * @param keys : added keys
+     * @param values : added values, in keys order
+     */
+    void entriesAdded(Map<K, V> source, List<K> keys, List<V> values);
+
+    /**
+     * Indicates that entries were removed from the source map
+     * @param source : source map
+     * @param keys : removed keys
+     * @param previousValues : removed values, in keys order
+     */
+    void entriesRemoved(Map<K, V> source, List<K> keys, List<V> previousValues);
+
+    /**
+     * Indicates that values of existing keys were replaced in the source map
+     * @param source : source map
+     * @param keys : keys
+     * @param previousValues : values before change, in keys order
+     * @param newValues : values after change, in keys order
+     */
+    void entriesReplaced(Map<K, V> source, List<K> keys, List<V> previousValues,
+                         List<V> newValues);
+}
@@ -0,0 +1,43 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition;
+
+import java.util.Set;
+
+/**
+ * An observable set : it notifies {@link SetDataListener}s of added and removed elements, a 
+ * bulk operation being notified by a single event.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public interface MutableSet<T> extends Set<T> {
+
+    /**
+     * Adds a set data listener
+     * @param listener : listener
+     */
+    void addSetDataListener(SetDataListener<T> listener);
+
+    /**
+     * Removes a set data listener
+     * @param listener : listener
+     */
+    void removeSetDataListener(SetDataListener<T> listener);
+}
@@ -0,0 +1,84 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition;
+
+import java.util.EventObject;
+import java.util.List;
+
+/**
+ * A typed set data event, describing the elements that were added to, or removed from, a set 
+ * by a single operation. Listed elements really changed : an added element was not in the set 
+ * before the event, a removed element was.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public class SetDataEvent<T> extends EventObject {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** Type of an added elements event **/
+    public static final int ELEMENTS_ADDED = 0;
+
+    /** Type of a removed elements event **/
+    public static final int ELEMENTS_REMOVED = 1;
+
+    /** Event type **/
+    private final int type;
+
+    /** Changed elements **/
+    private final List<T> elements;
+
+    /**
+     * Constructor
+     * @param source : source set
+     * @param type : event type
+     * @param elements : added or removed elements
+     */
+    public SetDataEvent(Object source, int type, List<T> elements) {
+        super(source);
+        this.type = type;
+        this.elements = elements;
+    }
+
+    /**
+     * Event type getter
+     * @return - ELEMENTS_ADDED or ELEMENTS_REMOVED
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Changed elements getter
+     * @return - the added or removed elements
+     */
+    public List<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getName() + "[type=" + type + ",elements=" + elements + "]";
+    }
+}
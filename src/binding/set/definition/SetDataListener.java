@@ -0,0 +1,40 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition;
+
+/**
+ * Set data listener, notified of elements changes in a {@link MutableSet}.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public interface SetDataListener<T> {
+
+    /**
+     * Elements were added into the listened set
+     * @param event : event (describes added elements)
+     */
+    void elementsAdded(SetDataEvent<T> event);
+
+    /**
+     * Elements were removed from the listened set
+     * @param event : event (describes removed elements)
+     */
+    void elementsRemoved(SetDataEvent<T> event);
+}
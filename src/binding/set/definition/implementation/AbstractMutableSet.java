@@ -0,0 +1,94 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition.implementation;
+
+import binding.set.definition.MutableSet;
+import binding.set.definition.SetDataEvent;
+import binding.set.definition.SetDataListener;
+import binding.tools.ListenerList;
+import java.util.AbstractSet;
+import java.util.List;
+
+/**
+ * Base class for mutable sets, holding listeners and firing events.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public abstract class AbstractMutableSet<T> extends AbstractSet<T> implements MutableSet<T> {
+
+    /** Listeners **/
+    private final ListenerList<SetDataListener<T>> listeners =
+            new ListenerList<SetDataListener<T>>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addSetDataListener(SetDataListener<T> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(getClass() + ": you can not add a null listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeSetDataListener(SetDataListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns listeners
+     * @return - a read only snapshot of the listeners
+     */
+    public List<SetDataListener<T>> getSetDataListeners() {
+        return listeners.getListeners();
+    }
+
+    /**
+     * Is there any listener to notify?
+     * @return -
+     */
+    protected boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Fires an event to listeners (nothing is fired for an empty elements list)
+     * @param type : SetDataEvent.ELEMENTS_ADDED or SetDataEvent.ELEMENTS_REMOVED
+     * @param elements : changed elements
+     */
+    protected void fireEvent(int type, List<T> elements) {
+        if (elements.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+        SetDataEvent<T> event = new SetDataEvent<T>(this, type, elements);
+        for (SetDataListener<T> listener : listeners.getListeners()) {
+            if (type == SetDataEvent.ELEMENTS_ADDED) {
+                listener.elementsAdded(event);
+            }
+            else {
+                listener.elementsRemoved(event);
+            }
+        }
+    }
+}
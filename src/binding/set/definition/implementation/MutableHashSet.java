@@ -0,0 +1,192 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition.implementation;
+
+import binding.set.definition.SetDataEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mutable hash set implementation : contains runs in O(1), and bulk operations (addAll, 
+ * removeAll, retainAll, clear) fire a single event listing the elements that really changed.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public class MutableHashSet<T> extends AbstractMutableSet<T> {
+
+    /** Elements **/
+    private final Set<T> elements;
+
+    /**
+     * Constructor
+     */
+    public MutableHashSet() {
+        elements = new HashSet<T>();
+    }
+
+    /**
+     * Constructor
+     * @param initialElements : initial elements
+     */
+    public MutableHashSet(Collection<? extends T> initialElements) {
+        elements = new HashSet<T>(initialElements);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return elements.contains(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        if (elements.add(element)) {
+            fireEvent(SetDataEvent.ELEMENTS_ADDED, Collections.singletonList(element));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        if (elements.remove(o)) {
+            fireEvent(SetDataEvent.ELEMENTS_REMOVED, Collections.singletonList((T) o));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single added elements event
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        List<T> added = new ArrayList<T>();
+        for (T element : c) {
+            if (elements.add(element)) {
+                added.add(element);
+            }
+        }
+        fireEvent(SetDataEvent.ELEMENTS_ADDED, added);
+        return !added.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single removed elements event
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeAll(Collection<?> c) {
+        List<T> removed = new ArrayList<T>();
+        for (Object element : c) {
+            if (elements.remove(element)) {
+                removed.add((T) element);
+            }
+        }
+        fireEvent(SetDataEvent.ELEMENTS_REMOVED, removed);
+        return !removed.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single removed elements event
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        // hashed lookups, whatever the kind of the retained collection
+        Collection<?> retained = c instanceof Set ? c : new HashSet<Object>(c);
+        List<T> removed = new ArrayList<T>();
+        Iterator<T> iterator = elements.iterator();
+        while (iterator.hasNext()) {
+            T element = iterator.next();
+            if (!retained.contains(element)) {
+                iterator.remove();
+                removed.add(element);
+            }
+        }
+        fireEvent(SetDataEvent.ELEMENTS_REMOVED, removed);
+        return !removed.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Fires a single removed elements event
+     */
+    @Override
+    public void clear() {
+        List<T> removed = new ArrayList<T>(elements);
+        elements.clear();
+        fireEvent(SetDataEvent.ELEMENTS_REMOVED, removed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final Iterator<T> iterator = elements.iterator();
+        return new Iterator<T>() {
+
+            /** Last returned element **/
+            private T last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                fireEvent(SetDataEvent.ELEMENTS_REMOVED, Collections.singletonList(last));
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition.view;
+
+import binding.set.definition.MutableSet;
+import binding.set.definition.SetDataEvent;
+import binding.set.definition.SetDataListener;
+import binding.set.definition.implementation.AbstractMutableSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Base class for read only views combining two sets : an element belongs to the view according
+ * to its membership in the left and right sets (see {@link #accept(boolean, boolean)}). The view
+ * keeps its own members, so that an event of a source set only checks the changed elements 
+ * against both sets, and compares the result with what the view already holds : it fires its
+ * own events in O(changed elements). Comparing with its own members (rather than with the other
+ * source state) keeps the view exact when both sides share a source set, as in 
+ * selected & (visible | pinned).<br>
+ * Call {@link #dispose()} to stop listening to the source sets.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public abstract class AbstractSetAlgebraView<T> extends AbstractMutableSet<T> {
+
+    /** Left set **/
+    private final MutableSet<T> left;
+
+    /** Right set **/
+    private final MutableSet<T> right;
+
+    /** Sources listener **/
+    private final SetDataListener<T> sourceListener;
+
+    /** View members **/
+    private final Set<T> members = new HashSet<T>();
+
+    /**
+     * Constructor
+     * @param left : left set
+     * @param right : right set
+     * @throws IllegalArgumentException if a set is null
+     */
+    protected AbstractSetAlgebraView(MutableSet<T> left, MutableSet<T> right) {
+        if (left == null || right == null) {
+            throw new IllegalArgumentException(getClass() + ": the source sets can not be null");
+        }
+        this.left = left;
+        this.right = right;
+        for (T element : left) {
+            if (accept(true, right.contains(element))) {
+                members.add(element);
+            }
+        }
+        if (accept(false, true)) {
+            for (T element : right) {
+                if (!left.contains(element)) {
+                    members.add(element);
+                }
+            }
+        }
+        this.sourceListener = new SourceListener();
+        left.addSetDataListener(sourceListener);
+        if (right != left) {
+            right.addSetDataListener(sourceListener);
+        }
+    }
+
+    /**
+     * Is an element in the view?
+     * @param inLeft : is the element in the left set?
+     * @param inRight : is the element in the right set?
+     * @return -
+     */
+    protected abstract boolean accept(boolean inLeft, boolean inRight);
+
+    /**
+     * Left set getter
+     * @return -
+     */
+    public MutableSet<T> getLeft() {
+        return left;
+    }
+
+    /**
+     * Right set getter
+     * @return -
+     */
+    public MutableSet<T> getRight() {
+        return right;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return members.contains(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final Iterator<T> iterator = members.iterator();
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Stops listening to the source sets. The view must no longer be used after this call
+     */
+    public void dispose() {
+        left.removeSetDataListener(sourceListener);
+        right.removeSetDataListener(sourceListener);
+    }
+
+    /**
+     * Translates source sets events into view events
+     */
+    private class SourceListener implements SetDataListener<T> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void elementsAdded(SetDataEvent<T> event) {
+            sourceChanged(event.getElements());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void elementsRemoved(SetDataEvent<T> event) {
+            sourceChanged(event.getElements());
+        }
+
+        /**
+         * Updates the view members for changed elements of a source set, and fires the view 
+         * events
+         * @param elements : changed elements
+         */
+        private void sourceChanged(List<T> elements) {
+            List<T> entered = new ArrayList<T>();
+            List<T> exited = new ArrayList<T>();
+            for (T element : elements) {
+                if (accept(left.contains(element), right.contains(element))) {
+                    if (members.add(element)) {
+                        entered.add(element);
+                    }
+                }
+                else if (members.remove(element)) {
+                    exited.add(element);
+                }
+            }
+            fireEvent(SetDataEvent.ELEMENTS_REMOVED, exited);
+            fireEvent(SetDataEvent.ELEMENTS_ADDED, entered);
+        }
+    }
+}
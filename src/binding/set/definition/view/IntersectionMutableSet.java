@@ -0,0 +1,49 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.set.definition.view;
+
+import binding.set.definition.MutableSet;
+
+/**
+ * A read only view of the intersection of two sets : the elements of both the left set and the
+ * right set, maintained incrementally (see {@link AbstractSetAlgebraView}).
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : elements type
+ */
+public class IntersectionMutableSet<T> extends AbstractSetAlgebraView<T> {
+
+    /**
+     * Constructor
+     * @param left : left set
+     * @param right : right set
+     * @throws IllegalArgumentException if a set is null
+     */
+    public IntersectionMutableSet(MutableSet<T> left, MutableSet<T> right) {
+        super(left, right);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean accept(boolean inLeft, boolean inRight) {
+        return inLeft && inRight;
+    }
+}
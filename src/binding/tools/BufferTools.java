@@ -0,0 +1,89 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tools;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Tools for the list implementations that store their elements in byte buffers.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public final class BufferTools {
+
+    /** Size of the bounce array used to move bytes **/
+    private static final int BOUNCE_SIZE = 8192;
+
+    /**
+     * Constructor
+     */
+    private BufferTools() {
+        // forbids external instance
+    }
+
+    /**
+     * Moves bytes within a buffer, like System.arraycopy does for arrays (source and destination
+     * ranges may overlap). The buffer position and limit are left unchanged.
+     * 
+     * @param buffer : buffer
+     * @param from : source offset
+     * @param to : destination offset
+     * @param length : count of bytes to move
+     */
+    public static void moveBytes(ByteBuffer buffer, int from, int to, int length) {
+        if (length <= 0 || from == to) {
+            return;
+        }
+        ByteBuffer source = buffer.duplicate();
+        ByteBuffer destination = buffer.duplicate();
+        byte[] bounce = new byte[Math.min(BOUNCE_SIZE, length)];
+        int done = 0;
+        while (done < length) {
+            int chunk = Math.min(bounce.length, length - done);
+            // moving forward : copy from the end so that no byte is overwritten before being read
+            int offset = to > from ? length - done - chunk : done;
+            source.limit(from + offset + chunk).position(from + offset);
+            source.get(bounce, 0, chunk);
+            destination.limit(to + offset + chunk).position(to + offset);
+            destination.put(bounce, 0, chunk);
+            done += chunk;
+        }
+    }
+
+    /**
+     * Copies bytes from a buffer into another one. Buffers position and limit are left unchanged.
+     * 
+     * @param source : source buffer
+     * @param from : source offset
+     * @param destination : destination buffer (must not share content with source)
+     * @param to : destination offset
+     * @param length : count of bytes to copy
+     */
+    public static void copyBytes(ByteBuffer source, int from, ByteBuffer destination, int to,
+                                 int length) {
+        if (length <= 0) {
+            return;
+        }
+        ByteBuffer read = source.duplicate();
+        read.limit(from + length).position(from);
+        ByteBuffer write = destination.duplicate();
+        write.limit(to + length).position(to);
+        write.put(read);
+    }
+}
@@ -0,0 +1,217 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tools;
+
+import java.util.Arrays;
+
+/**
+ * A Fenwick tree (binary indexed tree) over non negative int values, used by list views to
+ * keep the prefix offsets of consecutive parts : changing a value, computing a prefix sum and
+ * finding the part holding a global position take O(log n). Inserting or removing values
+ * rebuilds the tree in O(n), which is fine for structures whose parts are added or removed 
+ * much less often than their sizes change.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class FenwickTree {
+
+    /** Values **/
+    private int[] values;
+
+    /** Tree array, 1 based : tree[i] holds the sum of values ]i - lowbit(i), i] **/
+    private int[] tree;
+
+    /** Values count **/
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public FenwickTree() {
+        values = new int[8];
+        tree = new int[9];
+    }
+
+    /**
+     * Returns the values count
+     * @return -
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a value
+     * @param index : value index
+     * @return -
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     */
+    public int get(int index) {
+        checkIndex(index, size - 1);
+        return values[index];
+    }
+
+    /**
+     * Sets a value
+     * @param index : value index
+     * @param value : new value
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void set(int index, int value) {
+        add(index, value - get(index));
+    }
+
+    /**
+     * Adds a delta to a value
+     * @param index : value index
+     * @param delta : delta to add
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     * @throws IllegalArgumentException if the value would become negative
+     */
+    public void add(int index, int delta) {
+        checkIndex(index, size - 1);
+        if (values[index] + delta < 0) {
+            throw new IllegalArgumentException(getClass() + ": values can not be negative");
+        }
+        values[index] += delta;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the sum of the values before an index
+     * @param index : index, in [0, size]
+     * @return the sum of values [0, index[
+     * @throws IndexOutOfBoundsException if index is not in [0, size]
+     */
+    public int prefixSum(int index) {
+        checkIndex(index, size);
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all values
+     * @return -
+     */
+    public int total() {
+        return prefixSum(size);
+    }
+
+    /**
+     * Finds the value holding a position, when values are seen as consecutive ranges
+     * @param position : position, in [0, total[
+     * @return the index i such as prefixSum(i) &lt;= position &lt; prefixSum(i + 1)
+     * @throws IndexOutOfBoundsException if position is not in [0, total[
+     */
+    public int find(int position) {
+        if (position < 0 || position >= total()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Total: " + total());
+        }
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= size && tree[next] <= remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Inserts values (O(n))
+     * @param index : insertion index, in [0, size]
+     * @param inserted : values to insert
+     * @throws IndexOutOfBoundsException if index is not in [0, size]
+     * @throws IllegalArgumentException if a value is negative
+     */
+    public void insert(int index, int... inserted) {
+        checkIndex(index, size);
+        for (int value : inserted) {
+            if (value < 0) {
+                throw new IllegalArgumentException(getClass() + ": values can not be negative");
+            }
+        }
+        if (size + inserted.length > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + inserted.length, values.length * 2));
+            tree = new int[values.length + 1];
+        }
+        System.arraycopy(values, index, values, index + inserted.length, size - index);
+        System.arraycopy(inserted, 0, values, index, inserted.length);
+        size += inserted.length;
+        rebuild();
+    }
+
+    /**
+     * Removes values (O(n))
+     * @param index : first removed index
+     * @param count : removed values count
+     * @throws IndexOutOfBoundsException if [index, index + count[ is not in [0, size[
+     */
+    public void remove(int index, int count) {
+        if (index < 0 || count < 0 || index + count > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: " + count
+                    + ", Size: " + size);
+        }
+        System.arraycopy(values, index + count, values, index, size - index - count);
+        size -= count;
+        rebuild();
+    }
+
+    /**
+     * Removes all values
+     */
+    public void clear() {
+        size = 0;
+        Arrays.fill(tree, 0);
+    }
+
+    /**
+     * Rebuilds the tree array from values in O(n)
+     */
+    private void rebuild() {
+        Arrays.fill(tree, 0);
+        for (int i = 1; i <= size; i++) {
+            tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Checks an index
+     * @param index : index to check
+     * @param max : maximum allowed index
+     * @throws IndexOutOfBoundsException if index is not in [0, max]
+     */
+    private void checkIndex(int index, int max) {
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
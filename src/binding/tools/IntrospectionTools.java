@@ -20,8 +20,14 @@ package binding.tools;
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
+import java.beans.PropertyChangeListener;
 import java.beans.PropertyDescriptor;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Tools for the binding components using introspection.
@@ -31,6 +37,14 @@ import java.lang.reflect.Method;
  */
 public class IntrospectionTools {
 
+    /**
+     * Add / remove property change listener methods by class (an empty array for classes that 
+     * do not define them). Methods reference their class : they are softly referenced, so that 
+     * the weak class keys can be released
+     **/
+    private static final Map<Class<?>, SoftReference<Method[]>> LISTENER_METHODS =
+            Collections.synchronizedMap(new WeakHashMap<Class<?>, SoftReference<Method[]>>());
+
     /**
      * Retrieves a bean property
      * 
@@ -83,4 +97,129 @@ public class IntrospectionTools {
                     + " is not defined in bean " + object);
         }
     }
+
+    /**
+     * Adds a property change listener (for all properties) to an object, if it defines the
+     * addPropertyChangeListener(PropertyChangeListener) and 
+     * removePropertyChangeListener(PropertyChangeListener) methods. Methods are searched once
+     * per class
+     * 
+     * @param object : object to listen (may be null)
+     * @param listener : listener
+     * @return - true if the listener was added, false if the object cannot be listened
+     * @throws RuntimeException if the invocation failed
+     */
+    public static boolean addPropertyChangeListener(Object object,
+                                                    PropertyChangeListener listener) {
+        return invokeListenerMethod(object, 0, listener);
+    }
+
+    /**
+     * Removes a property change listener added with 
+     * {@link #addPropertyChangeListener(Object, PropertyChangeListener)}
+     * 
+     * @param object : listened object (may be null)
+     * @param listener : listener
+     * @return - true if the listener removal was performed, false if the object cannot be
+     *         listened
+     * @throws RuntimeException if the invocation failed
+     */
+    public static boolean removePropertyChangeListener(Object object,
+                                                       PropertyChangeListener listener) {
+        return invokeListenerMethod(object, 1, listener);
+    }
+
+    /**
+     * Invokes an add or remove property change listener method
+     * 
+     * @param object : listened object (may be null)
+     * @param methodIndex : 0 for add method, 1 for remove method
+     * @param listener : listener
+     * @return - true if the method was invoked
+     */
+    private static boolean invokeListenerMethod(Object object, int methodIndex,
+                                                PropertyChangeListener listener) {
+        if (object == null) {
+            return false;
+        }
+        SoftReference<Method[]> cached = LISTENER_METHODS.get(object.getClass());
+        Method[] methods = cached == null ? null : cached.get();
+        if (methods == null) {
+            try {
+                methods = new Method[] {
+                        getListenerMethod(object.getClass(), "addPropertyChangeListener"),
+                        getListenerMethod(object.getClass(), "removePropertyChangeListener") };
+            }
+            catch (NoSuchMethodException e) {
+                methods = new Method[0];
+            }
+            LISTENER_METHODS.put(object.getClass(), new SoftReference<Method[]>(methods));
+        }
+        if (methods.length == 0) {
+            return false;
+        }
+        try {
+            methods[methodIndex].invoke(object, listener);
+        }
+        catch (Exception e) {
+            // convert the error into a runtime error to not force the user
+            // catching it
+            throw new RuntimeException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves a listener method that can be invoked from this class : a public method of a non
+     * public class can not be invoked by reflection, its declaration in a public super class or
+     * interface is used instead, when there is one
+     * 
+     * @param type : listened object class
+     * @param methodName : method name
+     * @return - the method found
+     * @throws NoSuchMethodException if the class does not define the method
+     */
+    private static Method getListenerMethod(Class<?> type, String methodName)
+            throws NoSuchMethodException {
+        Method method = type.getMethod(methodName, PropertyChangeListener.class);
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return method;
+        }
+        Method publicMethod = findPublicDeclaration(type, methodName);
+        if (publicMethod != null) {
+            return publicMethod;
+        }
+        method.setAccessible(true);
+        return method;
+    }
+
+    /**
+     * Searches a listener method declaration in a public class or interface of a type hierarchy
+     * 
+     * @param type : searched type (may be null)
+     * @param methodName : method name
+     * @return - the method found, null if none
+     */
+    private static Method findPublicDeclaration(Class<?> type, String methodName) {
+        if (type == null) {
+            return null;
+        }
+        if (Modifier.isPublic(type.getModifiers())) {
+            try {
+                Method method = type.getMethod(methodName, PropertyChangeListener.class);
+                if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    return method;
+                }
+            }
+            catch (NoSuchMethodException e) {
+                // not declared at this level
+            }
+        }
+        Method method = findPublicDeclaration(type.getSuperclass(), methodName);
+        Class<?>[] interfaces = type.getInterfaces();
+        for (int i = 0; method == null && i < interfaces.length; i++) {
+            method = findPublicDeclaration(interfaces[i], methodName);
+        }
+        return method;
+    }
 }
@@ -0,0 +1,102 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A copy-on-write listeners list. Registering or removing a listener copies the listeners array,
+ * firing reads the current array without copy nor lock : a listener may register or remove 
+ * listeners while an event is fired, the fire in progress keeps notifying the listeners it 
+ * started with. Listeners are removed by identity, so that a listener redefining equals can 
+ * not remove another one.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <L> : listeners type
+ */
+public class ListenerList<L> {
+
+    /** Empty listeners array **/
+    private static final Object[] EMPTY = new Object[0];
+
+    /** Current listeners (never modified once published) **/
+    private volatile Object[] listeners = EMPTY;
+
+    /**
+     * Registers a listener
+     * @param listener : listener to add
+     */
+    public synchronized void add(L listener) {
+        Object[] current = listeners;
+        Object[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Removes a listener (its last registration, if registered several times)
+     * @param listener : listener to remove
+     * @return true if the listener was registered
+     */
+    public synchronized boolean remove(L listener) {
+        Object[] current = listeners;
+        for (int i = current.length - 1; i >= 0; i--) {
+            if (current[i] == listener) {
+                if (current.length == 1) {
+                    listeners = EMPTY;
+                }
+                else {
+                    Object[] updated = new Object[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    listeners = updated;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the current listeners
+     * @return - a read only snapshot, not affected by later registrations and removals
+     */
+    @SuppressWarnings("unchecked")
+    public List<L> getListeners() {
+        return (List<L>) Collections.unmodifiableList(Arrays.asList(listeners));
+    }
+
+    /**
+     * Is there any registered listener?
+     * @return -
+     */
+    public boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    /**
+     * Returns the count of registered listeners
+     * @return -
+     */
+    public int size() {
+        return listeners.length;
+    }
+}
@@ -0,0 +1,475 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tools;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A sequence of weighted nodes, used by list views to map positions between lists. It supports,
+ * in O(log n) expected time : insertion and removal at a position, access by position, access by
+ * cumulated weight (the node holding the n-th weight unit), prefix weight sums and position of a
+ * node (nodes are stable handles, so that an element listener can retrieve its current
+ * position). For instance, a filtered view gives weight 1 to accepted source elements and 0 to
+ * the other ones, so that the view index of a source element is the weight before it.<br>
+ * It is implemented as a treap (randomized balanced binary tree) annotated with subtree sizes
+ * and weights, whose nodes know their parent.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <V> : nodes value type
+ */
+public class WeightedSequence<V> {
+
+    /** Tree root (null when empty) **/
+    private Node<V> root;
+
+    /** Priorities generator **/
+    private final Random random;
+
+    /**
+     * Constructor
+     */
+    public WeightedSequence() {
+        random = new Random();
+    }
+
+    /**
+     * Returns the nodes count
+     * @return -
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the sum of nodes weights
+     * @return -
+     */
+    public int getTotalWeight() {
+        return weight(root);
+    }
+
+    /**
+     * Returns the node at a position
+     * @param index : position
+     * @return -
+     * @throws IndexOutOfBoundsException if index is not in [0, size[
+     */
+    public Node<V> get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            }
+            else if (index == leftSize) {
+                return node;
+            }
+            else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the node holding a weight unit, that is the node n such as weightBefore(n) <= 
+     * weightOffset < weightBefore(n) + n.getWeight()
+     * @param weightOffset : weight offset
+     * @return -
+     * @throws IndexOutOfBoundsException if weightOffset is not in [0, total weight[
+     */
+    public Node<V> getAtWeight(int weightOffset) {
+        if (weightOffset < 0 || weightOffset >= getTotalWeight()) {
+            throw new IndexOutOfBoundsException("Weight offset: " + weightOffset
+                    + ", Total weight: " + getTotalWeight());
+        }
+        Node<V> node = root;
+        while (true) {
+            int leftWeight = weight(node.left);
+            if (weightOffset < leftWeight) {
+                node = node.left;
+            }
+            else if (weightOffset < leftWeight + node.weight) {
+                return node;
+            }
+            else {
+                weightOffset -= leftWeight + node.weight;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the position of a node
+     * @param node : node of this sequence
+     * @return -
+     */
+    public int indexOf(Node<V> node) {
+        int index = size(node.left);
+        for (Node<V> current = node; current.parent != null; current = current.parent) {
+            if (current == current.parent.right) {
+                index += size(current.parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the sum of weights of the nodes before a node
+     * @param node : node of this sequence
+     * @return -
+     */
+    public int weightBefore(Node<V> node) {
+        int weight = weight(node.left);
+        for (Node<V> current = node; current.parent != null; current = current.parent) {
+            if (current == current.parent.right) {
+                weight += weight(current.parent.left) + current.parent.weight;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the sum of weights of the nodes before a position
+     * @param index : position, in [0, size]
+     * @return -
+     */
+    public int weightBefore(int index) {
+        int weight = 0;
+        Node<V> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index <= leftSize) {
+                node = node.left;
+            }
+            else {
+                weight += weight(node.left) + node.weight;
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Searches the insertion position of a value in a sequence sorted by a comparator
+     * @param value : searched value
+     * @param comparator : comparator that sorts the sequence values
+     * @return - the count of nodes whose value is lower than or equal to the value
+     */
+    public int upperBound(V value, Comparator<? super V> comparator) {
+        int index = 0;
+        Node<V> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) < 0) {
+                node = node.left;
+            }
+            else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Inserts a node
+     * @param index : insertion position
+     * @param value : node value
+     * @param weight : node weight
+     * @return - the inserted node
+     */
+    public Node<V> insert(int index, V value, int weight) {
+        Node<V> node = new Node<V>(value, weight, random.nextInt());
+        insertNodes(index, node);
+        return node;
+    }
+
+    /**
+     * Inserts consecutive nodes
+     * @param index : insertion position
+     * @param values : nodes values
+     * @param weights : nodes weights (same size than values)
+     * @return - the inserted nodes
+     */
+    public List<Node<V>> insertAll(int index, List<? extends V> values, int[] weights) {
+        List<Node<V>> inserted = new ArrayList<Node<V>>(values.size());
+        Node<V> block = null;
+        for (int i = 0; i < values.size(); i++) {
+            Node<V> node = new Node<V>(values.get(i), weights[i], random.nextInt());
+            inserted.add(node);
+            block = merge(block, node);
+        }
+        insertNodes(index, block);
+        return inserted;
+    }
+
+    /**
+     * Inserts a tree at a position
+     * @param index : insertion position
+     * @param block : inserted tree
+     */
+    private void insertNodes(int index, Node<V> block) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<V>[] parts = split(root, index);
+        root = merge(merge(parts[0], block), parts[1]);
+        detach(root);
+    }
+
+    /**
+     * Removes consecutive nodes
+     * @param index : first removed position
+     * @param count : count of removed nodes
+     * @return - the removed nodes, in sequence order
+     */
+    public List<Node<V>> remove(int index, int count) {
+        if (index < 0 || count < 0 || index + count > size()) {
+            throw new IndexOutOfBoundsException("Range [" + index + ", " + (index + count)
+                    + "[ out of sequence bounds, size: " + size());
+        }
+        Node<V>[] head = split(root, index);
+        Node<V>[] tail = split(head[1], count);
+        List<Node<V>> removed = new ArrayList<Node<V>>(count);
+        collect(tail[0], removed);
+        for (Node<V> node : removed) {
+            node.left = null;
+            node.right = null;
+            node.parent = null;
+            update(node);
+        }
+        root = merge(head[0], tail[1]);
+        detach(root);
+        return removed;
+    }
+
+    /**
+     * Removes all nodes
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Changes a node weight
+     * @param node : node of this sequence
+     * @param weight : new weight
+     */
+    public void setWeight(Node<V> node, int weight) {
+        node.weight = weight;
+        for (Node<V> current = node; current != null; current = current.parent) {
+            current.totalWeight = weight(current.left) + current.weight + weight(current.right);
+        }
+    }
+
+    /**
+     * Returns all nodes, in sequence order
+     * @return -
+     */
+    public List<Node<V>> getNodes() {
+        List<Node<V>> nodes = new ArrayList<Node<V>>(size());
+        collect(root, nodes);
+        return nodes;
+    }
+
+    /**
+     * Collects nodes of a subtree in order
+     * @param node : subtree root
+     * @param nodes : list receiving nodes
+     */
+    private static <V> void collect(Node<V> node, List<Node<V>> nodes) {
+        // iterate on right branches to limit recursion depth
+        for (Node<V> current = node; current != null; current = current.right) {
+            collect(current.left, nodes);
+            nodes.add(current);
+        }
+    }
+
+    /**
+     * Splits a tree
+     * @param node : tree root
+     * @param index : count of nodes in the first part
+     * @return - the first and second parts
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] split(Node<V> node, int index) {
+        if (node == null) {
+            return (Node<V>[]) new Node<?>[2];
+        }
+        Node<V>[] parts;
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            parts = split(node.left, index);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+        }
+        else {
+            parts = split(node.right, index - leftSize - 1);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+        }
+        detach(parts[0]);
+        detach(parts[1]);
+        return parts;
+    }
+
+    /**
+     * Merges two trees
+     * @param left : first tree
+     * @param right : second tree
+     * @return - the merged tree
+     */
+    private static <V> Node<V> merge(Node<V> left, Node<V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Updates a node aggregates and its children parent link
+     * @param node : node
+     */
+    private static <V> void update(Node<V> node) {
+        node.size = size(node.left) + 1 + size(node.right);
+        node.totalWeight = weight(node.left) + node.weight + weight(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+    }
+
+    /**
+     * Marks a node as a tree root
+     * @param node : node (may be null)
+     */
+    private static <V> void detach(Node<V> node) {
+        if (node != null) {
+            node.parent = null;
+        }
+    }
+
+    /**
+     * Returns a subtree size
+     * @param node : subtree root (may be null)
+     * @return -
+     */
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns a subtree weight
+     * @param node : subtree root (may be null)
+     * @return -
+     */
+    private static int weight(Node<?> node) {
+        return node == null ? 0 : node.totalWeight;
+    }
+
+    /**
+     * A sequence node
+     * @param <V> : value type
+     */
+    public static final class Node<V> {
+
+        /** Node value **/
+        private V value;
+
+        /** Node weight **/
+        private int weight;
+
+        /** Random priority (heap order) **/
+        private final int priority;
+
+        /** Left subtree **/
+        private Node<V> left;
+
+        /** Right subtree **/
+        private Node<V> right;
+
+        /** Parent node **/
+        private Node<V> parent;
+
+        /** Subtree size **/
+        private int size;
+
+        /** Subtree weight **/
+        private int totalWeight;
+
+        /**
+         * Constructor
+         * @param value : value
+         * @param weight : weight
+         * @param priority : priority
+         */
+        private Node(V value, int weight, int priority) {
+            this.value = value;
+            this.weight = weight;
+            this.priority = priority;
+            this.size = 1;
+            this.totalWeight = weight;
+        }
+
+        /**
+         * Value getter
+         * @return -
+         */
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Value setter
+         * @param value : new value
+         */
+        public void setValue(V value) {
+            this.value = value;
+        }
+
+        /**
+         * Weight getter
+         * @return -
+         */
+        public int getWeight() {
+            return weight;
+        }
+    }
+}
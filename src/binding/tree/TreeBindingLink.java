@@ -0,0 +1,172 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree;
+
+import binding.IBindingLink;
+import binding.tree.definition.MutableTree;
+import binding.tree.definition.TreeDataEvent;
+import binding.tree.definition.TreeDataListener;
+import binding.tree.target.TreeBindingTarget;
+import java.util.Collections;
+
+/**
+ * A binding link for tree events : each subtrees change of the source MutableTree is forwarded
+ * to the binding target as is, so that the target only applies the changed subtrees. Binding,
+ * rebinding and terminating only send the root (as inserted or removed) : the target reads 
+ * the children it needs from the source, so that nodes under collapsed branches of a lazily 
+ * loaded tree are never materialized. As for ListBindingLink, terminating the binding makes 
+ * the target believe that the tree is now empty.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public class TreeBindingLink<T> implements TreeDataListener<T>,
+                                           IBindingLink<MutableTree<T>, TreeBindingTarget<T>> {
+
+    /** Binding source **/
+    private MutableTree<T> bindingSource;
+
+    /** Binding target **/
+    private TreeBindingTarget<T> bindingTarget;
+
+    /**
+     * Constructor
+     * @param bindingSource : binding source
+     * @param bindingTarget : binding target
+     */
+    public TreeBindingLink(MutableTree<T> bindingSource, TreeBindingTarget<T> bindingTarget) {
+        setBindingSource(bindingSource);
+        setBindingTarget(bindingTarget);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableTree<T> getBindingSource() {
+        return bindingSource;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBindingSource(MutableTree<T> newSource) {
+        MutableTree<T> previousSource = bindingSource;
+        if (previousSource != null) {
+            previousSource.removeTreeDataListener(this);
+        }
+        bindingSource = newSource;
+        if (newSource != null) {
+            newSource.addTreeDataListener(this);
+        }
+        if (bindingTarget != null) {
+            fireRootRemoved(previousSource, bindingTarget);
+            fireRootInserted(bindingTarget);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TreeBindingTarget<T> getBindingTarget() {
+        return bindingTarget;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBindingTarget(TreeBindingTarget<T> newTarget) {
+        if (bindingTarget != null) {
+            fireRootRemoved(bindingSource, bindingTarget);
+        }
+        bindingTarget = newTarget;
+        if (newTarget != null) {
+            fireRootInserted(newTarget);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminateBinding() {
+        // remove source first so that target is notified
+        setBindingSource(null);
+        // remove target to break every double link
+        setBindingTarget(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subtreesInserted(TreeDataEvent<T> event) {
+        if (bindingTarget != null) {
+            bindingTarget.subtreesInserted(bindingSource, event.getParent(), event.getIndex0(),
+                                           event.getNewChildren());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subtreesRemoved(TreeDataEvent<T> event) {
+        if (bindingTarget != null) {
+            bindingTarget.subtreesRemoved(bindingSource, event.getParent(), event.getIndex0(),
+                                          event.getPreviousChildren());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subtreesReplaced(TreeDataEvent<T> event) {
+        if (bindingTarget != null) {
+            bindingTarget.subtreesReplaced(bindingSource, event.getParent(), event.getIndex0(),
+                                           event.getPreviousChildren(), event.getNewChildren());
+        }
+    }
+
+    /**
+     * Sends the root of a source tree to a target, as removed
+     * @param source : source tree (may be null)
+     * @param target : target
+     */
+    private void fireRootRemoved(MutableTree<T> source, TreeBindingTarget<T> target) {
+        if (source != null && source.getRoot() != null) {
+            target.subtreesRemoved(source, null, 0, Collections.singletonList(source.getRoot()));
+        }
+    }
+
+    /**
+     * Sends the root of the source tree to a target, as inserted
+     * @param target : target
+     */
+    private void fireRootInserted(TreeBindingTarget<T> target) {
+        if (bindingSource != null && bindingSource.getRoot() != null) {
+            target.subtreesInserted(bindingSource, null, 0,
+                                    Collections.singletonList(bindingSource.getRoot()));
+        }
+    }
+}
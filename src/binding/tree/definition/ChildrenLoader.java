@@ -0,0 +1,45 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.definition;
+
+import java.util.List;
+
+/**
+ * Materializes the children of tree nodes on demand, so that the nodes that are never expanded 
+ * are never loaded.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public interface ChildrenLoader<T> {
+
+    /**
+     * Can a node have children? It is called on nodes that are not loaded, and must be cheap
+     * @param node : node
+     * @return -
+     */
+    boolean hasChildren(T node);
+
+    /**
+     * Loads the children of a node
+     * @param node : node
+     * @return - the children of the node, that must not be in the tree yet
+     */
+    List<T> loadChildren(T node);
+}
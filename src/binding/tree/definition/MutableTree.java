@@ -0,0 +1,184 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.definition;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An observable tree : nodes are the values themselves (as in javax.swing.tree.TreeModel), so a 
+ * value can appear only once in the tree. Each structure change is notified to 
+ * {@link TreeDataListener}s as a single event describing the inserted, removed or replaced 
+ * subtrees under one parent, the root being considered as the only child of a virtual null 
+ * parent. <br>
+ * Children of a node may be materialized lazily (see {@link ChildrenLoader}) : they are loaded
+ * on the first call that needs them, and loading notifies no event.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public interface MutableTree<T> {
+
+    /**
+     * Root getter
+     * @return - the root, null for an empty tree
+     */
+    T getRoot();
+
+    /**
+     * Replaces the root, and therefore the whole tree
+     * @param root : new root, null to empty the tree
+     */
+    void setRoot(T root);
+
+    /**
+     * Is a node in the tree? (never loads children)
+     * @param node : node
+     * @return -
+     */
+    boolean contains(Object node);
+
+    /**
+     * Returns the parent of a node
+     * @param node : node in the tree
+     * @return - the parent, null for the root
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    T getParent(T node);
+
+    /**
+     * Are the children of a node materialized?
+     * @param node : node in the tree
+     * @return -
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    boolean isLoaded(T node);
+
+    /**
+     * Is a node a leaf? (never loads children)
+     * @param node : node in the tree
+     * @return -
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    boolean isLeaf(T node);
+
+    /**
+     * Returns the children of a node, loading them if required
+     * @param node : node in the tree
+     * @return - a read only list of the children
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    List<T> getChildren(T node);
+
+    /**
+     * Returns the children count of a node, loading them if required
+     * @param node : node in the tree
+     * @return -
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    int getChildCount(T node);
+
+    /**
+     * Returns a child of a node, loading them if required
+     * @param parent : node in the tree
+     * @param index : child index
+     * @return -
+     * @throws IllegalArgumentException if the parent is not in the tree
+     */
+    T getChild(T parent, int index);
+
+    /**
+     * Returns the index of a child, loading the parent children if required
+     * @param parent : node in the tree
+     * @param child : child
+     * @return - the child index, -1 if it is not a child of the parent
+     * @throws IllegalArgumentException if the parent is not in the tree
+     */
+    int getIndexOfChild(T parent, Object child);
+
+    /**
+     * Inserts new subtrees under a parent (a single event is fired)
+     * @param parent : node in the tree
+     * @param index : insertion index
+     * @param children : inserted children, that must not be in the tree yet
+     * @throws IllegalArgumentException if the parent is not in the tree, or a child is null or 
+     *          already in the tree
+     */
+    void insertChildren(T parent, int index, Collection<? extends T> children);
+
+    /**
+     * Inserts a new subtree under a parent
+     * @param parent : node in the tree
+     * @param index : insertion index
+     * @param child : inserted child, that must not be in the tree yet
+     * @throws IllegalArgumentException if the parent is not in the tree, or the child is null 
+     *          or already in the tree
+     */
+    void insertChild(T parent, int index, T child);
+
+    /**
+     * Appends a new subtree to the children of a parent
+     * @param parent : node in the tree
+     * @param child : added child, that must not be in the tree yet
+     * @throws IllegalArgumentException if the parent is not in the tree, or the child is null 
+     *          or already in the tree
+     */
+    void addChild(T parent, T child);
+
+    /**
+     * Removes consecutive subtrees of a parent (a single event is fired)
+     * @param parent : node in the tree
+     * @param index : first removed child index
+     * @param count : removed children count
+     * @throws IllegalArgumentException if the parent is not in the tree
+     */
+    void removeChildren(T parent, int index, int count);
+
+    /**
+     * Removes a subtree (removing the root empties the tree)
+     * @param node : subtree root
+     * @return - true if the node was in the tree
+     */
+    boolean remove(T node);
+
+    /**
+     * Replaces a child of a parent. A child equal to the previous one keeps its subtree (this
+     * notifies that the node itself changed), another child replaces the whole previous 
+     * subtree.
+     * @param parent : node in the tree
+     * @param index : replaced child index
+     * @param child : new child
+     * @return - the previous child
+     * @throws IllegalArgumentException if the parent is not in the tree, or the child is null 
+     *          or already in the tree at another place
+     */
+    T setChild(T parent, int index, T child);
+
+    /**
+     * Adds a tree data listener
+     * @param listener : listener
+     */
+    void addTreeDataListener(TreeDataListener<T> listener);
+
+    /**
+     * Removes a tree data listener
+     * @param listener : listener
+     */
+    void removeTreeDataListener(TreeDataListener<T> listener);
+}
@@ -0,0 +1,136 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.definition;
+
+import java.util.EventObject;
+import java.util.List;
+
+/**
+ * A typed tree data event, describing consecutive children of a parent that were inserted, 
+ * removed or replaced, with their subtrees. The root is described as the only child of a null 
+ * parent.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public class TreeDataEvent<T> extends EventObject {
+
+    /** Serial version UID **/
+    private static final long serialVersionUID = 1L;
+
+    /** Type of an inserted subtrees event **/
+    public static final int SUBTREES_INSERTED = 0;
+
+    /** Type of a removed subtrees event **/
+    public static final int SUBTREES_REMOVED = 1;
+
+    /** Type of a replaced subtrees event **/
+    public static final int SUBTREES_REPLACED = 2;
+
+    /** Event type **/
+    private final int type;
+
+    /** Parent of the changed children **/
+    private final T parent;
+
+    /** First changed child index **/
+    private final int index0;
+
+    /** Children before event **/
+    private final List<T> previousChildren;
+
+    /** Children after event **/
+    private final List<T> newChildren;
+
+    /**
+     * Constructor
+     * @param source : source tree
+     * @param type : event type
+     * @param parent : parent of the changed children (null for the root)
+     * @param index0 : first changed child index
+     * @param previousChildren : children before event (null for inserted subtrees)
+     * @param newChildren : children after event (null for removed subtrees)
+     */
+    public TreeDataEvent(Object source, int type, T parent, int index0, List<T> previousChildren,
+                         List<T> newChildren) {
+        super(source);
+        this.type = type;
+        this.parent = parent;
+        this.index0 = index0;
+        this.previousChildren = previousChildren;
+        this.newChildren = newChildren;
+    }
+
+    /**
+     * Event type getter
+     * @return - SUBTREES_INSERTED, SUBTREES_REMOVED or SUBTREES_REPLACED
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Parent getter
+     * @return - the parent of the changed children, null if the root changed
+     */
+    public T getParent() {
+        return parent;
+    }
+
+    /**
+     * First changed child index getter
+     * @return -
+     */
+    public int getIndex0() {
+        return index0;
+    }
+
+    /**
+     * Last changed child index getter
+     * @return -
+     */
+    public int getIndex1() {
+        return index0 + (newChildren == null ? previousChildren : newChildren).size() - 1;
+    }
+
+    /**
+     * Previous children getter
+     * @return - children before event (null for inserted subtrees)
+     */
+    public List<T> getPreviousChildren() {
+        return previousChildren;
+    }
+
+    /**
+     * New children getter
+     * @return - children after event (null for removed subtrees)
+     */
+    public List<T> getNewChildren() {
+        return newChildren;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getName() + "[type=" + type + ",parent=" + parent + ",index0=" + index0
+                + ",index1=" + getIndex1() + "]";
+    }
+}
@@ -0,0 +1,48 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.definition;
+
+import java.util.EventListener;
+
+/**
+ * A listener of the subtrees changes of a {@link MutableTree}
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public interface TreeDataListener<T> extends EventListener {
+
+    /**
+     * Subtrees were inserted under a parent
+     * @param event : event
+     */
+    void subtreesInserted(TreeDataEvent<T> event);
+
+    /**
+     * Subtrees were removed from a parent
+     * @param event : event
+     */
+    void subtreesRemoved(TreeDataEvent<T> event);
+
+    /**
+     * Children of a parent were replaced
+     * @param event : event
+     */
+    void subtreesReplaced(TreeDataEvent<T> event);
+}
@@ -0,0 +1,454 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.definition.implementation;
+
+import binding.tools.ListenerList;
+import binding.tree.definition.ChildrenLoader;
+import binding.tree.definition.MutableTree;
+import binding.tree.definition.TreeDataEvent;
+import binding.tree.definition.TreeDataListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable tree storing its nodes in a hash map, so that parent lookups and contains are O(1)
+ * whatever the tree size. When a {@link ChildrenLoader} is provided, the children of a node are
+ * materialized on first access only, so that nodes under collapsed branches are never 
+ * created : a tree of millions of nodes costs only what has been explored.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public class MutableHashTree<T> implements MutableTree<T> {
+
+    /**
+     * Node informations
+     * @param <T> : nodes type
+     */
+    private static class NodeInfo<T> {
+
+        /** Parent node, null for the root **/
+        private T parent;
+
+        /** Children, null while they are not loaded **/
+        private List<T> children;
+    }
+
+    /** Nodes informations **/
+    private final Map<T, NodeInfo<T>> nodes = new HashMap<T, NodeInfo<T>>();
+
+    /** Children loader, null when every node is loaded **/
+    private final ChildrenLoader<T> loader;
+
+    /** Listeners **/
+    private final ListenerList<TreeDataListener<T>> listeners =
+            new ListenerList<TreeDataListener<T>>();
+
+    /** Root **/
+    private T root;
+
+    /**
+     * Constructor for an empty tree
+     */
+    public MutableHashTree() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor
+     * @param root : root (null for an empty tree)
+     */
+    public MutableHashTree(T root) {
+        this(root, null);
+    }
+
+    /**
+     * Constructor
+     * @param root : root (null for an empty tree)
+     * @param loader : loader of the children, null if the tree is built explicitly
+     */
+    public MutableHashTree(T root, ChildrenLoader<T> loader) {
+        this.loader = loader;
+        if (root != null) {
+            this.root = root;
+            register(null, root);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getRoot() {
+        return root;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRoot(T newRoot) {
+        T previousRoot = root;
+        if (previousRoot == null && newRoot == null) {
+            return;
+        }
+        nodes.clear();
+        root = newRoot;
+        if (newRoot != null) {
+            register(null, newRoot);
+        }
+        if (previousRoot == null) {
+            fireEvent(TreeDataEvent.SUBTREES_INSERTED, null, 0, null,
+                      Collections.singletonList(newRoot));
+        }
+        else if (newRoot == null) {
+            fireEvent(TreeDataEvent.SUBTREES_REMOVED, null, 0,
+                      Collections.singletonList(previousRoot), null);
+        }
+        else {
+            fireEvent(TreeDataEvent.SUBTREES_REPLACED, null, 0,
+                      Collections.singletonList(previousRoot), Collections.singletonList(newRoot));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object node) {
+        return nodes.containsKey(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getParent(T node) {
+        return getInfo(node).parent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isLoaded(T node) {
+        return getInfo(node).children != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isLeaf(T node) {
+        NodeInfo<T> info = getInfo(node);
+        if (info.children != null) {
+            return info.children.isEmpty();
+        }
+        return !loader.hasChildren(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getChildren(T node) {
+        return Collections.unmodifiableList(getLoadedChildren(node));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getChildCount(T node) {
+        return getLoadedChildren(node).size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getChild(T parent, int index) {
+        return getLoadedChildren(parent).get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndexOfChild(T parent, Object child) {
+        getInfo(parent);
+        NodeInfo<T> childInfo = nodes.get(child);
+        if (childInfo == null || !parent.equals(childInfo.parent)) {
+            return -1;
+        }
+        return getLoadedChildren(parent).indexOf(child);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertChildren(T parent, int index, Collection<? extends T> children) {
+        List<T> siblings = getLoadedChildren(parent);
+        if (index < 0 || index > siblings.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + siblings.size());
+        }
+        List<T> inserted = new ArrayList<T>(children);
+        Set<T> distinct = new HashSet<T>();
+        for (T child : inserted) {
+            if (child == null || nodes.containsKey(child) || !distinct.add(child)) {
+                throw new IllegalArgumentException(getClass() + ": the child " + child
+                        + " is null, duplicated or already in the tree");
+            }
+        }
+        if (inserted.isEmpty()) {
+            return;
+        }
+        for (T child : inserted) {
+            register(parent, child);
+        }
+        siblings.addAll(index, inserted);
+        fireEvent(TreeDataEvent.SUBTREES_INSERTED, parent, index, null, inserted);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertChild(T parent, int index, T child) {
+        insertChildren(parent, index, Collections.singletonList(child));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addChild(T parent, T child) {
+        insertChildren(parent, getChildCount(parent), Collections.singletonList(child));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeChildren(T parent, int index, int count) {
+        List<T> siblings = getLoadedChildren(parent);
+        if (index < 0 || count < 0 || index + count > siblings.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: " + count
+                    + ", Size: " + siblings.size());
+        }
+        if (count == 0) {
+            return;
+        }
+        List<T> range = siblings.subList(index, index + count);
+        List<T> removed = new ArrayList<T>(range);
+        range.clear();
+        for (T child : removed) {
+            unregister(child);
+        }
+        fireEvent(TreeDataEvent.SUBTREES_REMOVED, parent, index, removed, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(T node) {
+        NodeInfo<T> info = nodes.get(node);
+        if (info == null) {
+            return false;
+        }
+        if (info.parent == null) {
+            setRoot(null);
+        }
+        else {
+            removeChildren(info.parent, nodes.get(info.parent).children.indexOf(node), 1);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T setChild(T parent, int index, T child) {
+        List<T> siblings = getLoadedChildren(parent);
+        T previous = siblings.get(index);
+        if (child == null || (!child.equals(previous) && nodes.containsKey(child))) {
+            throw new IllegalArgumentException(getClass() + ": the child " + child
+                    + " is null or already in the tree");
+        }
+        if (child.equals(previous)) {
+            // same node, new instance : keep its subtree
+            NodeInfo<T> info = nodes.remove(previous);
+            nodes.put(child, info);
+            if (info.children != null) {
+                for (T grandChild : info.children) {
+                    nodes.get(grandChild).parent = child;
+                }
+            }
+        }
+        else {
+            unregister(previous);
+            register(parent, child);
+        }
+        siblings.set(index, child);
+        fireEvent(TreeDataEvent.SUBTREES_REPLACED, parent, index,
+                  Collections.singletonList(previous), Collections.singletonList(child));
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addTreeDataListener(TreeDataListener<T> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(getClass() + ": you can not add a null listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeTreeDataListener(TreeDataListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns listeners
+     * @return - a read only snapshot of the listeners
+     */
+    public List<TreeDataListener<T>> getTreeDataListeners() {
+        return listeners.getListeners();
+    }
+
+    /**
+     * Returns the count of materialized nodes
+     * @return -
+     */
+    public int getLoadedNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the informations of a node
+     * @param node : node
+     * @return -
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    private NodeInfo<T> getInfo(Object node) {
+        NodeInfo<T> info = nodes.get(node);
+        if (info == null) {
+            throw new IllegalArgumentException(getClass() + ": " + node + " is not in the tree");
+        }
+        return info;
+    }
+
+    /**
+     * Returns the mutable children list of a node, loading it if required
+     * @param node : node
+     * @return -
+     * @throws IllegalArgumentException if the node is not in the tree
+     */
+    private List<T> getLoadedChildren(T node) {
+        NodeInfo<T> info = getInfo(node);
+        if (info.children == null) {
+            List<T> loaded = loader.hasChildren(node) ? loader.loadChildren(node) : null;
+            info.children = new ArrayList<T>();
+            if (loaded != null) {
+                for (T child : loaded) {
+                    if (child == null || nodes.containsKey(child)) {
+                        throw new IllegalStateException(getClass() + ": the loaded child "
+                                + child + " is null or already in the tree");
+                    }
+                    register(node, child);
+                    info.children.add(child);
+                }
+            }
+        }
+        return info.children;
+    }
+
+    /**
+     * Registers a new node, not loaded when there is a loader
+     * @param parent : parent node
+     * @param node : new node
+     */
+    private void register(T parent, T node) {
+        NodeInfo<T> info = new NodeInfo<T>();
+        info.parent = parent;
+        if (loader == null) {
+            info.children = new ArrayList<T>();
+        }
+        nodes.put(node, info);
+    }
+
+    /**
+     * Unregisters a subtree (only the loaded nodes are visited)
+     * @param subtreeRoot : subtree root
+     */
+    private void unregister(T subtreeRoot) {
+        List<T> pending = new ArrayList<T>();
+        pending.add(subtreeRoot);
+        while (!pending.isEmpty()) {
+            NodeInfo<T> info = nodes.remove(pending.remove(pending.size() - 1));
+            if (info.children != null) {
+                pending.addAll(info.children);
+            }
+        }
+    }
+
+    /**
+     * Fires an event to listeners
+     * @param type : event type
+     * @param parent : parent of the changed children
+     * @param index : first changed child index
+     * @param previousChildren : children before event
+     * @param newChildren : children after event
+     */
+    private void fireEvent(int type, T parent, int index, List<T> previousChildren,
+                           List<T> newChildren) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TreeDataEvent<T> event = new TreeDataEvent<T>(this, type, parent, index,
+                                                      previousChildren, newChildren);
+        for (TreeDataListener<T> listener : listeners.getListeners()) {
+            switch (type) {
+            case TreeDataEvent.SUBTREES_INSERTED:
+                listener.subtreesInserted(event);
+                break;
+            case TreeDataEvent.SUBTREES_REMOVED:
+                listener.subtreesRemoved(event);
+                break;
+            default:
+                listener.subtreesReplaced(event);
+            }
+        }
+    }
+}
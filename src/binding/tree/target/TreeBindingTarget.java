@@ -0,0 +1,64 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.target;
+
+import binding.tree.definition.MutableTree;
+import java.util.List;
+
+/**
+ * A tree binding target, that receives the subtrees inserted, removed or replaced under a 
+ * parent. The root is described as the only child of a null parent. The target also receives
+ * the source tree at each event, from which it can read the content of the changed subtrees 
+ * only when it needs them, so that lazily loaded nodes stay unloaded.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : source tree nodes type
+ */
+public interface TreeBindingTarget<T> {
+
+    /**
+     * Indicates that subtrees were inserted in the source tree
+     * @param source : source tree
+     * @param parent : parent of the inserted children, null for a new root
+     * @param firstIndex : first inserted child index
+     * @param children : inserted children
+     */
+    void subtreesInserted(MutableTree<T> source, T parent, int firstIndex, List<T> children);
+
+    /**
+     * Indicates that subtrees were removed from the source tree
+     * @param source : source tree
+     * @param parent : parent of the removed children, null for a removed root
+     * @param firstIndex : first removed child index
+     * @param children : removed children
+     */
+    void subtreesRemoved(MutableTree<T> source, T parent, int firstIndex, List<T> children);
+
+    /**
+     * Indicates that children were replaced in the source tree (an equal child notifies a 
+     * changed node that kept its subtree)
+     * @param source : source tree
+     * @param parent : parent of the replaced children, null for a replaced root
+     * @param firstIndex : first replaced child index
+     * @param previousChildren : children before change
+     * @param newChildren : children after change
+     */
+    void subtreesReplaced(MutableTree<T> source, T parent, int firstIndex,
+                          List<T> previousChildren, List<T> newChildren);
+}
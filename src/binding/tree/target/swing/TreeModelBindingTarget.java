@@ -0,0 +1,250 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.tree.target.swing;
+
+import binding.tools.ListenerList;
+import binding.tree.definition.MutableTree;
+import binding.tree.definition.TreeDataEvent;
+import binding.tree.target.TreeBindingTarget;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+
+/**
+ * A Swing tree model bound to a MutableTree (see TreeBindingLink) : each subtrees change is 
+ * translated into the matching fine-grained treeNodesInserted / treeNodesRemoved / 
+ * treeNodesChanged event, so that a JTree never rebuilds its whole model. The model reads
+ * nodes from the source tree on demand and isLeaf never loads children, so that collapsed 
+ * branches of a lazily loaded tree are never materialized. <br>
+ * As any Swing model, it must be used on the event dispatch thread : the source tree must be
+ * modified on that thread.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ * @param <T> : nodes type
+ */
+public class TreeModelBindingTarget<T> implements TreeBindingTarget<T>, TreeModel {
+
+    /** Listeners **/
+    private final ListenerList<TreeModelListener> listeners =
+            new ListenerList<TreeModelListener>();
+
+    /** Source tree, null when unbound **/
+    private MutableTree<T> tree;
+
+    /** Current root **/
+    private T root;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subtreesInserted(MutableTree<T> source, T parent, int firstIndex,
+                                 List<T> children) {
+        tree = source;
+        if (parent == null) {
+            root = children.get(0);
+            fireStructureChanged();
+        }
+        else {
+            fireEvent(TreeDataEvent.SUBTREES_INSERTED, parent, firstIndex, children);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subtreesRemoved(MutableTree<T> source, T parent, int firstIndex,
+                                List<T> children) {
+        if (parent == null) {
+            root = null;
+            tree = null;
+            fireStructureChanged();
+        }
+        else {
+            tree = source;
+            fireEvent(TreeDataEvent.SUBTREES_REMOVED, parent, firstIndex, children);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subtreesReplaced(MutableTree<T> source, T parent, int firstIndex,
+                                 List<T> previousChildren, List<T> newChildren) {
+        tree = source;
+        if (parent == null) {
+            root = newChildren.get(0);
+            fireStructureChanged();
+            return;
+        }
+        // an equal child is the same node that changed, another one is a new subtree
+        int size = newChildren.size();
+        for (int i = 0; i < size; i++) {
+            List<T> previous = previousChildren.subList(i, i + 1);
+            List<T> current = newChildren.subList(i, i + 1);
+            if (current.equals(previous)) {
+                fireEvent(TreeDataEvent.SUBTREES_REPLACED, parent, firstIndex + i, current);
+            }
+            else {
+                fireEvent(TreeDataEvent.SUBTREES_REMOVED, parent, firstIndex + i, previous);
+                fireEvent(TreeDataEvent.SUBTREES_INSERTED, parent, firstIndex + i, current);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getRoot() {
+        return root;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object getChild(Object parent, int index) {
+        return tree.getChild((T) parent, index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int getChildCount(Object parent) {
+        return tree.getChildCount((T) parent);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean isLeaf(Object node) {
+        return tree.isLeaf((T) node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int getIndexOfChild(Object parent, Object child) {
+        if (tree == null || parent == null || child == null || !tree.contains(parent)) {
+            return -1;
+        }
+        return tree.getIndexOfChild((T) parent, child);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * Not supported : edit the source tree instead
+     */
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        throw new UnsupportedOperationException(getClass()
+                + ": the model is read only, the source tree must be edited instead");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(getClass() + ": you can not add a null listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Fires a nodes event under a parent
+     * @param type : tree data event type (replaced meaning changed nodes)
+     * @param parent : parent
+     * @param firstIndex : first child index
+     * @param children : children
+     */
+    private void fireEvent(int type, T parent, int firstIndex, List<T> children) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        int[] indices = new int[children.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = firstIndex + i;
+        }
+        TreeModelEvent event = new TreeModelEvent(this, getPath(parent), indices,
+                                                  children.toArray());
+        for (TreeModelListener listener : listeners.getListeners()) {
+            switch (type) {
+            case TreeDataEvent.SUBTREES_INSERTED:
+                listener.treeNodesInserted(event);
+                break;
+            case TreeDataEvent.SUBTREES_REMOVED:
+                listener.treeNodesRemoved(event);
+                break;
+            default:
+                listener.treeNodesChanged(event);
+            }
+        }
+    }
+
+    /**
+     * Fires a structure changed event for the whole tree
+     */
+    private void fireStructureChanged() {
+        TreeModelEvent event = new TreeModelEvent(this, root == null ? null
+                : new Object[] { root });
+        for (TreeModelListener listener : listeners.getListeners()) {
+            listener.treeStructureChanged(event);
+        }
+    }
+
+    /**
+     * Computes the path from the root to a node
+     * @param node : node in the tree
+     * @return -
+     */
+    private Object[] getPath(T node) {
+        List<Object> reversed = new ArrayList<Object>();
+        for (T current = node; current != null; current = tree.getParent(current)) {
+            reversed.add(current);
+        }
+        Object[] path = new Object[reversed.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = reversed.get(path.length - 1 - i);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,825 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package binding.undo;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.property.source.PropertyBindingSource;
+import binding.property.target.PropertyBindingTarget;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An undo / redo manager for bound models. It listens to mutable lists and property binding 
+ * sources and records, for each change, only the delta needed to revert it (range and elements
+ * for lists, previous and new value for properties, changed part only for texts), instead of a
+ * snapshot of the model.<br>
+ * Changes received within the coalescing window are merged into a single step when they extend
+ * each other : keystroke-level changes of the same property, additions typed after one another,
+ * removals of adjacent ranges (backspace or delete), replacements of the same element. 
+ * {@link #endStep()} forces a step boundary.<br>
+ * Undo and redo apply each step as one bulk operation (addAll, subList(...).clear(), 
+ * {@link MutableArrayList#setAll(int, List)} or a property write through its binding target), so
+ * that bound targets receive one event per step (replacements in other lists are applied element
+ * by element).
+ * The history is capped by a memory budget : the oldest steps are dropped when the estimated 
+ * size of recorded deltas exceeds it.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class DeltaUndoManager {
+
+    /** Default coalescing window, in milliseconds **/
+    public static final long DEFAULT_COALESCING_WINDOW = 1000;
+
+    /** Estimated size of a recorded step, without its elements **/
+    private static final long STEP_SIZE = 64;
+
+    /** Estimated size of an element reference in a recorded step **/
+    private static final long ELEMENT_SIZE = 8;
+
+    /** Estimated size of a text character in a recorded step **/
+    private static final long CHAR_SIZE = 2;
+
+    /** Memory budget, in estimated bytes **/
+    private final long memoryBudget;
+
+    /** Undoable steps, oldest first **/
+    private final LinkedList<Step> undoSteps;
+
+    /** Redoable steps, next to redo last **/
+    private final LinkedList<Step> redoSteps;
+
+    /** Listeners registered on watched lists **/
+    private final Map<MutableList<?>, ListRecorder<?>> listRecorders;
+
+    /** Listeners registered on watched property sources **/
+    private final Map<PropertyBindingSource, PropertyRecorder> propertyRecorders;
+
+    /** Coalescing window, in milliseconds **/
+    private long coalescingWindow = DEFAULT_COALESCING_WINDOW;
+
+    /** Estimated size of recorded steps **/
+    private long usedMemory;
+
+    /** Time of the last recorded change **/
+    private long lastChangeTime;
+
+    /** Can the next change be merged with the last step? **/
+    private boolean mergeable;
+
+    /** Is a step being undone or redone (changes are then ignored)? **/
+    private boolean applying;
+
+    /**
+     * Constructor
+     * @param memoryBudget : maximum estimated size of recorded deltas, in bytes
+     * @throws IllegalArgumentException if the budget is not strictly positive
+     */
+    public DeltaUndoManager(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the memory budget must be strictly positive");
+        }
+        this.memoryBudget = memoryBudget;
+        this.undoSteps = new LinkedList<Step>();
+        this.redoSteps = new LinkedList<Step>();
+        this.listRecorders = new IdentityHashMap<MutableList<?>, ListRecorder<?>>();
+        this.propertyRecorders = new IdentityHashMap<PropertyBindingSource, PropertyRecorder>();
+    }
+
+    /**
+     * Coalescing window setter
+     * @param coalescingWindow : maximum delay between two changes merged in the same step, in 
+     *          milliseconds (0 to never merge changes)
+     */
+    public void setCoalescingWindow(long coalescingWindow) {
+        this.coalescingWindow = coalescingWindow;
+    }
+
+    /**
+     * Starts recording the changes of a list
+     * @param <T> : list elements type
+     * @param list : watched list
+     * @throws IllegalArgumentException if the list is null
+     */
+    public <T> void watch(MutableList<T> list) {
+        if (list == null) {
+            throw new IllegalArgumentException(getClass() + ": the list can not be null");
+        }
+        if (!listRecorders.containsKey(list)) {
+            ListRecorder<T> recorder = new ListRecorder<T>(list);
+            listRecorders.put(list, recorder);
+            list.addListDataListener(recorder);
+        }
+    }
+
+    /**
+     * Stops recording the changes of a list (its recorded steps are kept)
+     * @param <T> : list elements type
+     * @param list : watched list
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void unwatch(MutableList<T> list) {
+        ListRecorder<T> recorder = (ListRecorder<T>) listRecorders.remove(list);
+        if (recorder != null) {
+            list.removeListDataListener(recorder);
+        }
+    }
+
+    /**
+     * Starts recording the changes of a property
+     * @param source : property binding source, whose change events provide old and new values
+     * @param writer : target writing the property, used to restore values
+     * @throws IllegalArgumentException if the source or the writer is null
+     */
+    public void watch(PropertyBindingSource source, PropertyBindingTarget writer) {
+        if (source == null || writer == null) {
+            throw new IllegalArgumentException(getClass()
+                    + ": the property source and writer can not be null");
+        }
+        if (!propertyRecorders.containsKey(source)) {
+            PropertyRecorder recorder = new PropertyRecorder(source, writer);
+            propertyRecorders.put(source, recorder);
+            source.addPropertyChangeListener(recorder);
+        }
+    }
+
+    /**
+     * Stops recording the changes of a property (its recorded steps are kept)
+     * @param source : property binding source
+     */
+    public void unwatch(PropertyBindingSource source) {
+        PropertyRecorder recorder = propertyRecorders.remove(source);
+        if (recorder != null) {
+            source.removePropertyChangeListener(recorder);
+        }
+    }
+
+    /**
+     * Ends the current step : the next change starts a new step
+     */
+    public void endStep() {
+        mergeable = false;
+    }
+
+    /**
+     * Can a step be undone?
+     * @return -
+     */
+    public boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    /**
+     * Can a step be redone?
+     * @return -
+     */
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /**
+     * Returns the count of undoable steps
+     * @return -
+     */
+    public int getUndoCount() {
+        return undoSteps.size();
+    }
+
+    /**
+     * Returns the estimated size of recorded steps
+     * @return - the estimated size, in bytes
+     */
+    public long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * Undoes the last step
+     * @throws IllegalStateException if there is no step to undo
+     */
+    public void undo() {
+        if (undoSteps.isEmpty()) {
+            throw new IllegalStateException(getClass() + ": nothing to undo");
+        }
+        Step step = undoSteps.removeLast();
+        applying = true;
+        try {
+            step.undo();
+        } finally {
+            applying = false;
+        }
+        redoSteps.addLast(step);
+        mergeable = false;
+    }
+
+    /**
+     * Redoes the last undone step
+     * @throws IllegalStateException if there is no step to redo
+     */
+    public void redo() {
+        if (redoSteps.isEmpty()) {
+            throw new IllegalStateException(getClass() + ": nothing to redo");
+        }
+        Step step = redoSteps.removeLast();
+        applying = true;
+        try {
+            step.redo();
+        } finally {
+            applying = false;
+        }
+        undoSteps.addLast(step);
+        mergeable = false;
+    }
+
+    /**
+     * Clears the history
+     */
+    public void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        usedMemory = 0;
+        mergeable = false;
+    }
+
+    /**
+     * Records a change : merges it in the last step when possible, starts a new step otherwise
+     * @param change : change delta
+     */
+    private void record(Step change) {
+        if (applying) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Step redone : redoSteps) {
+            usedMemory -= redone.getSize();
+        }
+        redoSteps.clear();
+
+        Step last = undoSteps.isEmpty() ? null : undoSteps.getLast();
+        if (last != null && mergeable && coalescingWindow > 0
+                && now - lastChangeTime <= coalescingWindow) {
+            long previousSize = last.getSize();
+            if (last.merge(change)) {
+                usedMemory += last.getSize() - previousSize;
+                lastChangeTime = now;
+                trim();
+                return;
+            }
+        }
+        undoSteps.addLast(change);
+        usedMemory += change.getSize();
+        lastChangeTime = now;
+        mergeable = true;
+        trim();
+    }
+
+    /**
+     * Drops the oldest steps until recorded steps fit in the memory budget (the last step is 
+     * always kept)
+     */
+    private void trim() {
+        while (usedMemory > memoryBudget && undoSteps.size() > 1) {
+            usedMemory -= undoSteps.removeFirst().getSize();
+        }
+    }
+
+    /**
+     * A recorded step : the delta of one or several merged changes
+     */
+    private abstract static class Step {
+
+        /**
+         * Reverts the step
+         */
+        public abstract void undo();
+
+        /**
+         * Applies the step again
+         */
+        public abstract void redo();
+
+        /**
+         * Returns the estimated size of the step
+         * @return - the size in bytes
+         */
+        public abstract long getSize();
+
+        /**
+         * Merges a following change in this step, if it extends it
+         * @param next : following change
+         * @return true if the change was merged
+         */
+        public abstract boolean merge(Step next);
+    }
+
+    /**
+     * Elements added to a list
+     * @param <T> : list elements type
+     */
+    private static class ListAddition<T> extends Step {
+
+        /** List **/
+        private final MutableList<T> list;
+
+        /** Insertion index **/
+        private final int index;
+
+        /** Added elements **/
+        private final List<T> elements;
+
+        /**
+         * Constructor
+         * @param list : list
+         * @param index : insertion index
+         * @param elements : added elements
+         */
+        public ListAddition(MutableList<T> list, int index, List<T> elements) {
+            this.list = list;
+            this.index = index;
+            this.elements = new ArrayList<T>(elements);
+        }
+
+        @Override
+        public void undo() {
+            list.subList(index, index + elements.size()).clear();
+        }
+
+        @Override
+        public void redo() {
+            list.addAll(index, elements);
+        }
+
+        @Override
+        public long getSize() {
+            return STEP_SIZE + ELEMENT_SIZE * elements.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean merge(Step next) {
+            if (!(next instanceof ListAddition) || ((ListAddition<?>) next).list != list) {
+                return false;
+            }
+            ListAddition<T> addition = (ListAddition<T>) next;
+            if (addition.index < index || addition.index > index + elements.size()) {
+                return false;
+            }
+            elements.addAll(addition.index - index, addition.elements);
+            return true;
+        }
+    }
+
+    /**
+     * Elements removed from a list
+     * @param <T> : list elements type
+     */
+    private static class ListRemoval<T> extends Step {
+
+        /** List **/
+        private final MutableList<T> list;
+
+        /** First removed index **/
+        private int index;
+
+        /** Removed elements **/
+        private List<T> elements;
+
+        /**
+         * Constructor
+         * @param list : list
+         * @param index : first removed index
+         * @param elements : removed elements
+         */
+        public ListRemoval(MutableList<T> list, int index, List<T> elements) {
+            this.list = list;
+            this.index = index;
+            this.elements = new ArrayList<T>(elements);
+        }
+
+        @Override
+        public void undo() {
+            list.addAll(index, elements);
+        }
+
+        @Override
+        public void redo() {
+            list.subList(index, index + elements.size()).clear();
+        }
+
+        @Override
+        public long getSize() {
+            return STEP_SIZE + ELEMENT_SIZE * elements.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean merge(Step next) {
+            if (!(next instanceof ListRemoval) || ((ListRemoval<?>) next).list != list) {
+                return false;
+            }
+            ListRemoval<T> removal = (ListRemoval<T>) next;
+            int split = index - removal.index;
+            if (split < 0 || split > removal.elements.size()) {
+                // the removed range does not touch the gap left by this step
+                return false;
+            }
+            List<T> merged = new ArrayList<T>(elements.size() + removal.elements.size());
+            merged.addAll(removal.elements.subList(0, split));
+            merged.addAll(elements);
+            merged.addAll(removal.elements.subList(split, removal.elements.size()));
+            index = removal.index;
+            elements = merged;
+            return true;
+        }
+    }
+
+    /**
+     * Elements replaced in a list
+     * @param <T> : list elements type
+     */
+    private static class ListReplacement<T> extends Step {
+
+        /** List **/
+        private final MutableList<T> list;
+
+        /** First replaced index **/
+        private final int index;
+
+        /** Previous elements **/
+        private final List<T> previousElements;
+
+        /** New elements **/
+        private List<T> newElements;
+
+        /**
+         * Constructor
+         * @param list : list
+         * @param index : first replaced index
+         * @param previousElements : previous elements
+         * @param newElements : new elements
+         */
+        public ListReplacement(MutableList<T> list, int index, List<T> previousElements,
+                               List<T> newElements) {
+            this.list = list;
+            this.index = index;
+            this.previousElements = new ArrayList<T>(previousElements);
+            this.newElements = new ArrayList<T>(newElements);
+        }
+
+        @Override
+        public void undo() {
+            replace(previousElements);
+        }
+
+        @Override
+        public void redo() {
+            replace(newElements);
+        }
+
+        /**
+         * Replaces the step range, in a single operation when the list supports it
+         * @param elements : elements to set in the range
+         */
+        private void replace(List<T> elements) {
+            if (list instanceof MutableArrayList) {
+                ((MutableArrayList<T>) list).setAll(index, elements);
+            }
+            else {
+                for (int i = 0; i < elements.size(); i++) {
+                    list.set(index + i, elements.get(i));
+                }
+            }
+        }
+
+        @Override
+        public long getSize() {
+            return STEP_SIZE + 2 * ELEMENT_SIZE * newElements.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean merge(Step next) {
+            if (!(next instanceof ListReplacement) || ((ListReplacement<?>) next).list != list) {
+                return false;
+            }
+            ListReplacement<T> replacement = (ListReplacement<T>) next;
+            if (replacement.index != index
+                    || replacement.newElements.size() != newElements.size()) {
+                return false;
+            }
+            newElements = replacement.newElements;
+            return true;
+        }
+    }
+
+    /**
+     * A property value change. A change between two strings only keeps the changed part of the
+     * texts : the values are rebuilt from the current property value, read from the source
+     */
+    private static class PropertyStep extends Step {
+
+        /** Property recorder **/
+        private final PropertyRecorder recorder;
+
+        /** Previous value, null for a text change **/
+        private final Object previousValue;
+
+        /** New value, null for a text change **/
+        private Object newValue;
+
+        /** Text change, null if the values are not both strings **/
+        private TextChange textChange;
+
+        /**
+         * Constructor
+         * @param recorder : property recorder
+         * @param previousValue : previous value
+         * @param newValue : new value
+         */
+        public PropertyStep(PropertyRecorder recorder, Object previousValue, Object newValue) {
+            this.recorder = recorder;
+            if (previousValue instanceof String && newValue instanceof String) {
+                this.previousValue = null;
+                this.textChange = new TextChange((String) previousValue, (String) newValue);
+            }
+            else {
+                this.previousValue = previousValue;
+                this.newValue = newValue;
+            }
+        }
+
+        @Override
+        public void undo() {
+            recorder.write(textChange == null ? previousValue
+                    : textChange.revert(recorder.read()));
+        }
+
+        @Override
+        public void redo() {
+            recorder.write(textChange == null ? newValue
+                    : textChange.apply(recorder.read()));
+        }
+
+        @Override
+        public long getSize() {
+            return textChange == null ? STEP_SIZE + 2 * ELEMENT_SIZE
+                    : STEP_SIZE + textChange.getSize();
+        }
+
+        @Override
+        public boolean merge(Step next) {
+            if (!(next instanceof PropertyStep) || ((PropertyStep) next).recorder != recorder) {
+                return false;
+            }
+            PropertyStep change = (PropertyStep) next;
+            if (textChange != null && change.textChange != null) {
+                // the recorder knows the merged change last value : rebuild the first one
+                String lastValue = (String) recorder.currentValue;
+                String firstValue = textChange.revert(change.textChange.revert(lastValue));
+                textChange = new TextChange(firstValue, lastValue);
+                return true;
+            }
+            if (textChange != null || change.textChange != null) {
+                return false;
+            }
+            newValue = change.newValue;
+            return true;
+        }
+    }
+
+    /**
+     * The changed part of a text : the text between the common prefix and the common suffix of
+     * the previous and new values
+     */
+    private static class TextChange {
+
+        /** Common prefix length **/
+        private final int prefixLength;
+
+        /** Common suffix length **/
+        private final int suffixLength;
+
+        /** Changed part of the previous text **/
+        private final String previousMiddle;
+
+        /** Changed part of the new text **/
+        private final String newMiddle;
+
+        /**
+         * Constructor
+         * @param previousText : previous text
+         * @param newText : new text
+         */
+        public TextChange(String previousText, String newText) {
+            int maxLength = Math.min(previousText.length(), newText.length());
+            int prefix = 0;
+            while (prefix < maxLength && previousText.charAt(prefix) == newText.charAt(prefix)) {
+                prefix++;
+            }
+            int suffix = 0;
+            while (suffix < maxLength - prefix
+                    && previousText.charAt(previousText.length() - 1 - suffix)
+                            == newText.charAt(newText.length() - 1 - suffix)) {
+                suffix++;
+            }
+            this.prefixLength = prefix;
+            this.suffixLength = suffix;
+            this.previousMiddle = previousText.substring(prefix, previousText.length() - suffix);
+            this.newMiddle = newText.substring(prefix, newText.length() - suffix);
+        }
+
+        /**
+         * Rebuilds the previous text
+         * @param newText : new text
+         * @return -
+         * @throws IllegalStateException if the text does not match the change
+         */
+        public String revert(Object newText) {
+            return splice(newText, newMiddle, previousMiddle);
+        }
+
+        /**
+         * Rebuilds the new text
+         * @param previousText : previous text
+         * @return -
+         * @throws IllegalStateException if the text does not match the change
+         */
+        public String apply(Object previousText) {
+            return splice(previousText, previousMiddle, newMiddle);
+        }
+
+        /**
+         * Returns the estimated size of the change
+         * @return - the size in bytes
+         */
+        public long getSize() {
+            return CHAR_SIZE * (previousMiddle.length() + newMiddle.length());
+        }
+
+        /**
+         * Replaces the changed part of a text
+         * @param text : text
+         * @param removedMiddle : changed part expected in text
+         * @param insertedMiddle : changed part to insert
+         * @return -
+         * @throws IllegalStateException if the text does not match the change
+         */
+        private String splice(Object text, String removedMiddle, String insertedMiddle) {
+            if (!(text instanceof String) || ((String) text).length()
+                    != prefixLength + removedMiddle.length() + suffixLength
+                    || !((String) text).regionMatches(prefixLength, removedMiddle, 0,
+                                                      removedMiddle.length())) {
+                throw new IllegalStateException(getClass()
+                        + ": the text was modified outside of the recorded changes");
+            }
+            String value = (String) text;
+            return value.substring(0, prefixLength) + insertedMiddle
+                    + value.substring(value.length() - suffixLength);
+        }
+    }
+
+    /**
+     * Records the changes of a list
+     * @param <T> : list elements type
+     */
+    private class ListRecorder<T> implements TypedListDataListener<T> {
+
+        /** Watched list **/
+        private final MutableList<T> list;
+
+        /**
+         * Constructor
+         * @param list : watched list
+         */
+        public ListRecorder(MutableList<T> list) {
+            this.list = list;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent e) {
+            List<T> added = e.getNewElements();
+            if (added == null) {
+                added = list.subList(e.getIndex0(), e.getIndex1() + 1);
+            }
+            record(new ListAddition<T>(list, e.getIndex0(), added));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalRemoved(TypedListDataEvent e) {
+            List<T> removed = e.getPreviousElements();
+            if (removed == null) {
+                // the removal can not be reverted : previous steps no longer apply
+                if (!applying) {
+                    clear();
+                }
+                return;
+            }
+            record(new ListRemoval<T>(list, e.getIndex0(), removed));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent e) {
+            List<T> previous = e.getPreviousElements();
+            if (previous == null) {
+                if (!applying) {
+                    clear();
+                }
+                return;
+            }
+            List<T> current = e.getNewElements();
+            if (current == null) {
+                current = list.subList(e.getIndex0(), e.getIndex1() + 1);
+            }
+            record(new ListReplacement<T>(list, e.getIndex0(), previous, current));
+        }
+    }
+
+    /**
+     * Records the changes of a property
+     */
+    private class PropertyRecorder implements PropertyChangeListener {
+
+        /** Property source **/
+        private final PropertyBindingSource source;
+
+        /** Property writer **/
+        private final PropertyBindingTarget writer;
+
+        /** Last recorded property value **/
+        private Object currentValue;
+
+        /**
+         * Constructor
+         * @param source : property source
+         * @param writer : property writer
+         */
+        public PropertyRecorder(PropertyBindingSource source, PropertyBindingTarget writer) {
+            this.source = source;
+            this.writer = writer;
+        }
+
+        /**
+         * Reads the property value from its source, which sees changes made while the property
+         * was not watched
+         * @return -
+         */
+        public Object read() {
+            return source.getInitialValue();
+        }
+
+        /**
+         * Writes the property value
+         * @param value : new value
+         */
+        public void write(Object value) {
+            writer.updateTarget(value);
+            currentValue = value;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            currentValue = evt.getNewValue();
+            record(new PropertyStep(this, evt.getOldValue(), evt.getNewValue()));
+        }
+    }
+}
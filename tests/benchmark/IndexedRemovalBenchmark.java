@@ -0,0 +1,72 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import binding.BindingTools;
+import binding.list.definition.implementation.MutableArrayList;
+
+/**
+ * Measures the removal, by identity, of entities from a large bound list, with and without the
+ * elements positions index. Run it as a plain java application.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class IndexedRemovalBenchmark {
+
+    /** List size **/
+    private static final int SIZE = 200000;
+
+    /** Removed entities count **/
+    private static final int REMOVED = 2000;
+
+    /**
+     * Removes entities one by one from a bound list
+     * @param indexed : should the list be indexed?
+     * @return - the removal duration, in milliseconds
+     */
+    private static long measure(boolean indexed) {
+        MutableArrayList<Object> list = new MutableArrayList<Object>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            list.add(new Object());
+        }
+        BindingTools.createBinding(list, new ArrayList<Object>());
+        list.setIndexed(indexed);
+        List<Object> removed = new ArrayList<Object>(REMOVED);
+        for (int i = 0; i < REMOVED; i++) {
+            removed.add(list.get(SIZE - 1 - i * (SIZE / REMOVED)));
+        }
+        long start = System.nanoTime();
+        for (Object entity : removed) {
+            list.remove(entity);
+        }
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args : not used
+     */
+    public static void main(String[] args) {
+        System.out.println("not indexed : " + measure(false) + " ms");
+        System.out.println("indexed     : " + measure(true) + " ms");
+    }
+}
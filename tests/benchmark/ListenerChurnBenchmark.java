@@ -0,0 +1,80 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package benchmark;
+
+import java.util.ArrayList;
+
+import binding.BindingTools;
+import binding.list.ListBindingLink;
+import binding.list.definition.MutableList;
+import binding.list.definition.implementation.MutableArrayList;
+
+/**
+ * Checks that the cost of a list event stays flat while bindings are created and terminated on 
+ * the same list (terminated bindings must not stay attached). Run it as a plain java 
+ * application.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class ListenerChurnBenchmark {
+
+    /** Bind / terminate cycles count **/
+    private static final int CYCLES = 10000;
+
+    /** Cycles between two measures **/
+    private static final int MEASURE_PERIOD = 1000;
+
+    /** Events fired per measure **/
+    private static final int EVENTS = 1000;
+
+    /**
+     * Measures the average cost of an event on a list
+     * @param list : list
+     * @return - the average event cost, in microseconds
+     */
+    private static double measureEvent(MutableList<Integer> list) {
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            list.set(0, i);
+        }
+        return (System.nanoTime() - start) / 1000.0 / EVENTS;
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args : not used
+     */
+    public static void main(String[] args) {
+        MutableArrayList<Integer> list = new MutableArrayList<Integer>();
+        list.add(0);
+        // one live binding, as in a real session
+        BindingTools.createBinding(list, new ArrayList<Integer>());
+
+        System.out.println("cycles\tlisteners\tevent cost (us)");
+        for (int cycle = 0; cycle <= CYCLES; cycle++) {
+            if (cycle % MEASURE_PERIOD == 0) {
+                System.out.println(cycle + "\t" + list.getTypedListeners().size() + "\t\t"
+                        + String.format("%.2f", measureEvent(list)));
+            }
+            ListBindingLink<Integer> link = BindingTools.createBinding(list,
+                                                                       new ArrayList<Integer>());
+            link.terminateBinding();
+        }
+    }
+}
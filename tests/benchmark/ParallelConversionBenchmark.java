@@ -0,0 +1,103 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import binding.list.target.AbstractListBindingTarget;
+
+/**
+ * Measures list binding target conversion time by batch size, sequential versus parallel. Run 
+ * it as a plain java application.
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class ParallelConversionBenchmark {
+
+    /** Measured batch sizes **/
+    private static final int[] BATCH_SIZES = {100, 1000, 10000, 100000};
+
+    /** Measures per batch size (the best one is kept) **/
+    private static final int RUNS = 5;
+
+    /**
+     * Target whose conversion builds a costly view model (a formatted description)
+     */
+    private static class DescriptionTarget extends AbstractListBindingTarget<Integer, String> {
+
+        /**
+         * Constructor
+         * @param target : target list
+         * @param parallel : should large batches be converted in parallel?
+         */
+        public DescriptionTarget(List<String> target, boolean parallel) {
+            super(target);
+            setParallelThreshold(parallel ? DEFAULT_PARALLEL_THRESHOLD : Integer.MAX_VALUE);
+        }
+
+        @Override
+        protected String convert(int elementIndex, Integer element) {
+            StringBuilder description = new StringBuilder();
+            double value = element;
+            for (int i = 0; i < 20; i++) {
+                value = Math.sqrt(value + i) * 1.5;
+                description.append(String.format("%.2f;", value));
+            }
+            return description.toString();
+        }
+    }
+
+    /**
+     * Measures the best conversion time of a batch
+     * @param batch : batch to convert
+     * @param parallel : parallel conversion?
+     * @return - the best time, in milliseconds
+     */
+    private static double measure(List<Integer> batch, boolean parallel) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            DescriptionTarget target = new DescriptionTarget(new ArrayList<String>(), parallel);
+            long start = System.nanoTime();
+            target.intervalAdded(batch, batch, 0, batch.size() - 1);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1000000.0;
+    }
+
+    /**
+     * Runs the benchmark
+     * @param args : not used
+     */
+    public static void main(String[] args) {
+        System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("batch size\tsequential (ms)\tparallel (ms)\tspeedup");
+        for (int size : BATCH_SIZES) {
+            List<Integer> batch = new ArrayList<Integer>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(i);
+            }
+            double sequential = measure(batch, false);
+            double parallel = measure(batch, true);
+            System.out.println(size + "\t\t" + String.format("%.1f", sequential) + "\t\t"
+                    + String.format("%.1f", parallel) + "\t\t"
+                    + String.format("%.2f", sequential / parallel));
+        }
+    }
+}
@@ -17,9 +17,38 @@
  **/
 package junit;
 
+import junit.list.TestAsynchronousListBindingTarget;
+import junit.list.TestConcatMutableList;
+import junit.list.TestConcurrentMutableList;
+import junit.list.TestDistinctMutableList;
+import junit.list.TestFanOutListBinding;
+import junit.list.TestFilteredMutableList;
+import junit.list.TestGroupedMutableList;
+import junit.list.TestIndexedMutableArrayList;
+import junit.list.TestJoinedMutableList;
 import junit.list.TestListBinding;
+import junit.list.TestListBindingCoalescing;
+import junit.list.TestListChangeJournal;
+import junit.list.TestListenerRegistration;
+import junit.list.TestMappedMutableList;
+import junit.list.TestMemoryMappedMutableList;
+import junit.list.TestMutableArrayListSerialization;
+import junit.list.TestMutableSubList;
+import junit.list.TestOffHeapMutableList;
+import junit.list.TestParallelConversion;
+import junit.list.TestPersistentMutableList;
+import junit.list.TestSortedMutableList;
+import junit.list.TestSwingModelAdapters;
+import junit.list.TestTopKMutableList;
+import junit.map.TestMapBinding;
+import junit.map.TestMutableHashMap;
 import junit.property.ChainedPropertyBindingTest;
 import junit.property.TestPropertyBinding;
+import junit.set.TestMutableHashSet;
+import junit.set.TestSetAlgebraViews;
+import junit.tree.TestMutableHashTree;
+import junit.tree.TestTreeBinding;
+import junit.undo.TestDeltaUndoManager;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -32,7 +61,19 @@ import org.junit.runners.Suite;
  */
 @RunWith (Suite.class)
 @Suite.SuiteClasses ({TestPropertyBinding.class, TestListBinding.class,
-    ChainedPropertyBindingTest.class})
+    ChainedPropertyBindingTest.class, TestOffHeapMutableList.class,
+    TestMemoryMappedMutableList.class, TestConcurrentMutableList.class,
+    TestPersistentMutableList.class, TestFilteredMutableList.class,
+    TestSortedMutableList.class, TestMappedMutableList.class,
+    TestGroupedMutableList.class, TestParallelConversion.class,
+    TestAsynchronousListBindingTarget.class, TestListBindingCoalescing.class,
+    TestFanOutListBinding.class, TestListenerRegistration.class,
+    TestMutableArrayListSerialization.class, TestListChangeJournal.class,
+    TestDeltaUndoManager.class, TestMutableSubList.class, TestConcatMutableList.class,
+    TestJoinedMutableList.class, TestTopKMutableList.class, TestDistinctMutableList.class,
+    TestIndexedMutableArrayList.class, TestMutableHashMap.class, TestMapBinding.class,
+    TestMutableHashSet.class, TestSetAlgebraViews.class, TestMutableHashTree.class,
+    TestTreeBinding.class, TestSwingModelAdapters.class})
 public class AllTests {
     // all tests
 }
@@ -0,0 +1,117 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+
+/**
+ * Observable bean used as list element by view tests
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class ObservableItem {
+
+    /** Item name **/
+    private final String name;
+
+    /** Item value **/
+    private int value;
+
+    /** Property change support **/
+    private final PropertyChangeSupport changeSupport;
+
+    /**
+     * Constructor
+     * 
+     * @param name : item name
+     * @param value : initial value
+     */
+    public ObservableItem(String name, int value) {
+        this.name = name;
+        this.value = value;
+        changeSupport = new PropertyChangeSupport(this);
+    }
+
+    /**
+     * Name getter
+     * 
+     * @return -
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Value getter
+     * 
+     * @return -
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Value setter
+     * 
+     * @param value : new value
+     */
+    public void setValue(int value) {
+        int oldValue = this.value;
+        this.value = value;
+        changeSupport.firePropertyChange("value", oldValue, value);
+    }
+
+    /**
+     * Delegate method.
+     * 
+     * @param listener : listener
+     * @see java.beans.PropertyChangeSupport#addPropertyChangeListener(PropertyChangeListener)
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        changeSupport.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Delegate method.
+     * 
+     * @param listener : listener
+     * @see java.beans.PropertyChangeSupport#removePropertyChangeListener(PropertyChangeListener)
+     */
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        changeSupport.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * Returns the count of registered listeners
+     * 
+     * @return -
+     */
+    public int getListenersCount() {
+        return changeSupport.getPropertyChangeListeners().length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return name + "=" + value;
+    }
+}
@@ -0,0 +1,285 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.map.definition.MapDataEvent;
+import binding.map.definition.MapDataListener;
+import binding.set.definition.SetDataEvent;
+import binding.set.definition.SetDataListener;
+
+/**
+ * Listeners replaying the events of observable collections on plain copies, used by view and
+ * collection tests to check that the events describe the changes
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public final class ReplayingListeners {
+
+    /**
+     * Hidden constructor
+     */
+    private ReplayingListeners() {
+    }
+
+    /**
+     * Listener replaying list events on a copy of the list, counting events
+     * @param <T> : list elements type
+     */
+    public static class ListReplayer<T> implements TypedListDataListener<T> {
+
+        /** List copy **/
+        private final List<T> copy;
+
+        /** Received events count **/
+        private int eventsCount;
+
+        /**
+         * Constructor
+         * @param initialElements : list elements when the listener is registered
+         */
+        public ListReplayer(Collection<? extends T> initialElements) {
+            copy = new ArrayList<T>(initialElements);
+        }
+
+        /**
+         * Getter -
+         * 
+         * @return the list copy
+         */
+        public List<T> getCopy() {
+            return copy;
+        }
+
+        /**
+         * Getter -
+         * 
+         * @return the received events count
+         */
+        public int getEventsCount() {
+            return eventsCount;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            eventsCount++;
+            copy.addAll(event.getIndex0(), event.getNewElements());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            eventsCount++;
+            copy.subList(event.getIndex0(), event.getIndex1() + 1).clear();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            eventsCount++;
+            List<T> elements = event.getNewElements();
+            for (int i = 0; i < elements.size(); i++) {
+                copy.set(event.getIndex0() + i, elements.get(i));
+            }
+        }
+    }
+
+    /**
+     * Listener replaying map events on a plain map, counting events and checking previous values
+     * @param <K> : keys type
+     * @param <V> : values type
+     */
+    public static class MapReplayer<K, V> implements MapDataListener<K, V> {
+
+        /** Replayed map **/
+        private final Map<K, V> copy;
+
+        /** Received events count **/
+        private int eventsCount;
+
+        /**
+         * Constructor
+         * @param initialEntries : map entries when the listener is registered
+         */
+        public MapReplayer(Map<? extends K, ? extends V> initialEntries) {
+            copy = new HashMap<K, V>(initialEntries);
+        }
+
+        /**
+         * Getter -
+         * 
+         * @return the map copy
+         */
+        public Map<K, V> getCopy() {
+            return copy;
+        }
+
+        /**
+         * Getter -
+         * 
+         * @return the received events count
+         */
+        public int getEventsCount() {
+            return eventsCount;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void entriesAdded(MapDataEvent<K, V> event) {
+            eventsCount++;
+            for (int i = 0; i < event.getKeys().size(); i++) {
+                Assert.assertFalse(copy.containsKey(event.getKeys().get(i)));
+                copy.put(event.getKeys().get(i), event.getNewValues().get(i));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void entriesRemoved(MapDataEvent<K, V> event) {
+            eventsCount++;
+            for (int i = 0; i < event.getKeys().size(); i++) {
+                Assert.assertEquals(copy.remove(event.getKeys().get(i)),
+                                    event.getPreviousValues().get(i));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void entriesReplaced(MapDataEvent<K, V> event) {
+            eventsCount++;
+            for (int i = 0; i < event.getKeys().size(); i++) {
+                Assert.assertEquals(copy.put(event.getKeys().get(i), event.getNewValues().get(i)),
+                                    event.getPreviousValues().get(i));
+            }
+        }
+    }
+
+    /**
+     * Listener replaying set events on a plain set, counting events and checking that each
+     * event changes the copy
+     * @param <T> : set elements type
+     */
+    public static class SetReplayer<T> implements SetDataListener<T> {
+
+        /** Replayed set **/
+        private final Set<T> copy;
+
+        /** Received events count **/
+        private int eventsCount;
+
+        /**
+         * Constructor
+         * @param initialElements : set elements when the listener is registered
+         */
+        public SetReplayer(Collection<? extends T> initialElements) {
+            copy = new HashSet<T>(initialElements);
+        }
+
+        /**
+         * Getter -
+         * 
+         * @return the set copy
+         */
+        public Set<T> getCopy() {
+            return copy;
+        }
+
+        /**
+         * Getter -
+         * 
+         * @return the received events count
+         */
+        public int getEventsCount() {
+            return eventsCount;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void elementsAdded(SetDataEvent<T> event) {
+            eventsCount++;
+            for (T element : event.getElements()) {
+                Assert.assertTrue(copy.add(element));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void elementsRemoved(SetDataEvent<T> event) {
+            eventsCount++;
+            for (T element : event.getElements()) {
+                Assert.assertTrue(copy.remove(element));
+            }
+        }
+    }
+
+    /**
+     * Applies a random modification to a list: insertion, removal, replacement or range removal
+     * @param list : list
+     * @param random : random generator
+     * @param valuesRange : values range
+     */
+    public static void modify(MutableArrayList<Integer> list, Random random, int valuesRange) {
+        int operation = random.nextInt(10);
+        if (list.isEmpty() || operation < 4) {
+            list.add(random.nextInt(list.size() + 1), random.nextInt(valuesRange));
+        }
+        else if (operation < 7) {
+            list.remove(random.nextInt(list.size()));
+        }
+        else if (operation < 9) {
+            list.set(random.nextInt(list.size()), random.nextInt(valuesRange));
+        }
+        else {
+            int from = random.nextInt(list.size());
+            list.subList(from, Math.min(list.size(), from + 1 + random.nextInt(5))).clear();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.MutableList;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.target.AbstractListBindingTarget;
+import binding.list.target.AsynchronousListBindingTarget;
+
+/**
+ * Test for asynchronous list binding target
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestAsynchronousListBindingTarget {
+
+    /**
+     * Target converting integers into strings, slowly and with uneven delays
+     */
+    private static class SlowTarget extends AbstractListBindingTarget<Integer, String> {
+
+        /** Thread applying events **/
+        private volatile Thread applyThread;
+
+        /**
+         * Constructor
+         * @param target : target list
+         */
+        public SlowTarget(List<String> target) {
+            super(target);
+        }
+
+        @Override
+        protected String convert(int elementIndex, Integer element) {
+            try {
+                Thread.sleep(element % 3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "#" + element;
+        }
+
+        @Override
+        protected void addConvertedElements(int index, Collection<String> converted) {
+            applyThread = Thread.currentThread();
+            super.addConvertedElements(index, converted);
+        }
+    }
+
+    /**
+     * Test events converted concurrently are applied in order on the apply executor
+     * @throws Exception : if the executors can not be terminated
+     */
+    @Test
+    public void testOrderedApplication() throws Exception {
+        ExecutorService conversionExecutor = Executors.newFixedThreadPool(4);
+        ExecutorService applyExecutor = Executors.newSingleThreadExecutor();
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        List<String> target = new ArrayList<String>();
+        SlowTarget slowTarget = new SlowTarget(target);
+        AsynchronousListBindingTarget<Integer, String> asynchronousTarget =
+                new AsynchronousListBindingTarget<Integer, String>(slowTarget,
+                                                                   conversionExecutor,
+                                                                   applyExecutor);
+        BindingTools.createBinding(source, asynchronousTarget);
+
+        Random random = new Random(35);
+        for (int i = 0; i < 300; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || source.isEmpty()) {
+                source.addAll(random.nextInt(source.size() + 1),
+                              Collections.nCopies(random.nextInt(5) + 1, random.nextInt(100)));
+            }
+            else if (operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else {
+                source.set(random.nextInt(source.size()), random.nextInt(100));
+            }
+        }
+
+        conversionExecutor.shutdown();
+        Assert.assertTrue(conversionExecutor.awaitTermination(30, TimeUnit.SECONDS));
+        applyExecutor.shutdown();
+        Assert.assertTrue(applyExecutor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Assert.assertEquals(0, asynchronousTarget.getPendingCount());
+        List<String> expected = new ArrayList<String>();
+        for (Integer element : source) {
+            expected.add("#" + element);
+        }
+        Assert.assertEquals(expected, target);
+        Assert.assertNotSame(Thread.currentThread(), slowTarget.applyThread);
+    }
+
+    /**
+     * Test that failed conversions, exceptions or errors, keep the following events aligned
+     * and are rethrown on the apply executor
+     */
+    @Test
+    public void testConversionFailures() {
+        final List<Runnable> applyTasks = new ArrayList<Runnable>();
+        Executor applyExecutor = new Executor() {
+
+            @Override
+            public void execute(Runnable command) {
+                applyTasks.add(command);
+            }
+        };
+        Executor callingThread = new Executor() {
+
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        List<String> target = new ArrayList<String>();
+        AbstractListBindingTarget<Integer, String> failingTarget =
+                new AbstractListBindingTarget<Integer, String>(target) {
+
+                    @Override
+                    protected String convert(int elementIndex, Integer element) {
+                        if (element == -1) {
+                            throw new IllegalStateException("conversion failure");
+                        }
+                        if (element == -2) {
+                            throw new AssertionError("conversion error");
+                        }
+                        return "#" + element;
+                    }
+                };
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        BindingTools.createBinding(source, new AsynchronousListBindingTarget<Integer, String>(
+                failingTarget, callingThread, applyExecutor));
+
+        source.addAll(Arrays.asList(1, 2));
+        source.add(1, -1);
+        source.add(3);
+        source.add(0, -2);
+        source.remove(4);
+        source.add(4, 4);
+
+        List<Throwable> failures = new ArrayList<Throwable>();
+        for (int i = 0; i < applyTasks.size(); i++) {
+            try {
+                applyTasks.get(i).run();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        }
+        Assert.assertEquals(Arrays.asList(null, "#1", null, "#2", "#4"), target);
+        Assert.assertEquals(2, failures.size());
+        Assert.assertTrue(failures.get(0) instanceof IllegalStateException);
+        Assert.assertTrue(failures.get(1) instanceof AssertionError);
+    }
+}
@@ -0,0 +1,188 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.ConcatMutableList;
+import binding.list.definition.view.ElementConverter;
+import binding.list.definition.view.FlatMappedMutableList;
+import binding.tools.FenwickTree;
+
+/**
+ * Test for concatenated and flattened list views
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestConcatMutableList {
+
+    /**
+     * Listener recording events as "type:index0:index1" strings
+     */
+    private static class RecordingListener implements TypedListDataListener<String> {
+
+        /** Recorded events **/
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            events.add("add:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            events.add("remove:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            events.add("change:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+    }
+
+    /**
+     * A parent exposing children
+     */
+    private static class Parent {
+
+        /** Children **/
+        private final MutableArrayList<String> children = new MutableArrayList<String>();
+    }
+
+    /**
+     * Builds a mutable list
+     * @param elements : list elements
+     * @return -
+     */
+    private static MutableArrayList<String> createList(String... elements) {
+        return new MutableArrayList<String>(Arrays.asList(elements));
+    }
+
+    /**
+     * Tests prefix sums and position search of the Fenwick tree
+     */
+    @Test
+    public void testFenwickTree() {
+        FenwickTree tree = new FenwickTree();
+        tree.insert(0, 3, 0, 2, 5);
+        Assert.assertEquals(10, tree.total());
+        Assert.assertEquals(5, tree.prefixSum(3));
+        Assert.assertEquals(0, tree.find(0));
+        Assert.assertEquals(0, tree.find(2));
+        Assert.assertEquals(2, tree.find(3));
+        Assert.assertEquals(3, tree.find(9));
+        tree.add(1, 4);
+        tree.remove(0, 1);
+        Assert.assertEquals(11, tree.total());
+        Assert.assertEquals(0, tree.find(3));
+        Assert.assertEquals(1, tree.find(4));
+        for (int i = 0; i < 20; i++) {
+            tree.insert(tree.size(), 1);
+        }
+        Assert.assertEquals(22, tree.find(30));
+    }
+
+    /**
+     * Tests the concatenated view content and events
+     */
+    @Test
+    public void testConcatenation() {
+        MutableArrayList<String> first = createList("a", "b");
+        MutableArrayList<String> second = createList();
+        MutableArrayList<String> third = createList("c", "d", "e");
+        @SuppressWarnings("unchecked")
+        ConcatMutableList<String> view = new ConcatMutableList<String>(first, second, third);
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d", "e"), view);
+        RecordingListener listener = new RecordingListener();
+        view.addListDataListener(listener);
+
+        second.add("x");
+        third.set(1, "D");
+        first.remove(0);
+        third.subList(0, 2).clear();
+        Assert.assertEquals(Arrays.asList("b", "x", "e"), view);
+        Assert.assertEquals(Arrays.asList("add:2:2", "change:4:4", "remove:0:0", "remove:2:3"),
+                            listener.events);
+        listener.events.clear();
+
+        view.addSource(1, createList("y", "z"));
+        Assert.assertEquals(Arrays.asList("b", "y", "z", "x", "e"), view);
+        Assert.assertEquals(second, view.removeSource(2));
+        Assert.assertEquals(Arrays.asList("b", "y", "z", "e"), view);
+        Assert.assertEquals(Arrays.asList("add:1:2", "remove:3:3"), listener.events);
+
+        // removed sources are not listened anymore
+        second.add("w");
+        Assert.assertEquals(4, view.size());
+        view.dispose();
+        Assert.assertTrue(first.getTypedListeners().isEmpty());
+    }
+
+    /**
+     * Tests the flattened view content and events
+     */
+    @Test
+    public void testFlattening() {
+        MutableArrayList<Parent> parents = new MutableArrayList<Parent>();
+        Parent p1 = new Parent();
+        p1.children.addAll(Arrays.asList("a", "b"));
+        Parent p2 = new Parent();
+        parents.add(p1);
+        parents.add(p2);
+        FlatMappedMutableList<Parent, String> view = new FlatMappedMutableList<Parent, String>(
+                parents, new ElementConverter<Parent, MutableList<String>>() {
+
+                    @Override
+                    public MutableList<String> convert(Parent element) {
+                        return element.children;
+                    }
+                });
+        RecordingListener listener = new RecordingListener();
+        view.addListDataListener(listener);
+
+        p2.children.add("c");
+        p1.children.add(1, "a2");
+        Assert.assertEquals(Arrays.asList("a", "a2", "b", "c"), view);
+        Parent p3 = new Parent();
+        p3.children.addAll(Arrays.asList("d", "e"));
+        parents.add(1, p3);
+        Assert.assertEquals(Arrays.asList("a", "a2", "b", "d", "e", "c"), view);
+        parents.remove(0);
+        Assert.assertEquals(Arrays.asList("d", "e", "c"), view);
+        parents.set(1, p1);
+        Assert.assertEquals(Arrays.asList("d", "e", "a", "a2", "b"), view);
+        Assert.assertEquals(Arrays.asList("add:2:2", "add:1:1", "add:3:4", "remove:0:2",
+                                          "remove:2:2", "add:2:4"), listener.events);
+        Assert.assertEquals(3, view.getPartOffset(1) + 1);
+
+        view.dispose();
+        Assert.assertTrue(parents.getTypedListeners().isEmpty());
+        Assert.assertTrue(p2.children.getTypedListeners().isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.ConcurrentMutableList;
+
+/**
+ * Test for concurrent mutable list
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestConcurrentMutableList {
+
+    /** Writer threads count **/
+    private static final int WRITERS = 8;
+
+    /** Elements added by each writer **/
+    private static final int ELEMENTS_PER_WRITER = 2000;
+
+    /**
+     * Test parallel writers : the bound target must receive every event, in mutation order,
+     * and listeners must never be called concurrently
+     * @throws InterruptedException -
+     */
+    @Test
+    public void testParallelWriters() throws InterruptedException {
+        final ConcurrentMutableList<Integer> source = new ConcurrentMutableList<Integer>();
+        List<Integer> target = new ArrayList<Integer>();
+        BindingTools.createBinding(source, target);
+
+        final AtomicInteger activeListeners = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        source.addListDataListener(new TypedListDataListener<Integer>() {
+
+            @Override
+            public void intervalAdded(TypedListDataEvent event) {
+                check();
+            }
+
+            @Override
+            public void intervalRemoved(TypedListDataEvent event) {
+                check();
+            }
+
+            @Override
+            public void contentsChanged(TypedListDataEvent event) {
+                check();
+            }
+
+            private void check() {
+                if (activeListeners.incrementAndGet() != 1) {
+                    overlaps.incrementAndGet();
+                }
+                activeListeners.decrementAndGet();
+            }
+        });
+
+        Thread[] writers = new Thread[WRITERS];
+        for (int i = 0; i < WRITERS; i++) {
+            final int writer = i;
+            writers[i] = new Thread() {
+
+                @Override
+                public void run() {
+                    for (int j = 0; j < ELEMENTS_PER_WRITER; j++) {
+                        source.add(writer * ELEMENTS_PER_WRITER + j);
+                        if (j % 10 == 0) {
+                            source.add(0, -1);
+                        }
+                        if (j % 20 == 0) {
+                            source.remove(Integer.valueOf(-1));
+                        }
+                    }
+                }
+            };
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Assert.assertEquals(0, overlaps.get());
+        // each writer inserts one marker every 10 elements and removes one every 20 elements
+        Assert.assertEquals(WRITERS * (ELEMENTS_PER_WRITER + ELEMENTS_PER_WRITER / 20),
+                            source.size());
+        Assert.assertEquals(source.snapshot(), target);
+    }
+
+    /**
+     * Test that snapshots are not affected by later mutations
+     */
+    @Test
+    public void testSnapshots() {
+        ConcurrentMutableList<Integer> source = new ConcurrentMutableList<Integer>();
+        source.add(1);
+        source.add(2);
+        List<Integer> snapshot = source.snapshot();
+        source.set(0, 10);
+        source.clear();
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals(Integer.valueOf(1), snapshot.get(0));
+        Assert.assertTrue(source.isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.list.ReplayingListeners.ListReplayer;
+
+import org.junit.Test;
+
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.DistinctMutableList;
+
+/**
+ * Test for the distinct values view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestDistinctMutableList {
+
+    /**
+     * Tests the view against a full deduplication after random source changes
+     */
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(11);
+        MutableArrayList<Integer> source = new MutableArrayList<Integer>();
+        for (int i = 0; i < 30; i++) {
+            source.add(random.nextInt(20));
+        }
+        DistinctMutableList<Integer> view = new DistinctMutableList<Integer>(source);
+        ListReplayer<Integer> listener = new ListReplayer<Integer>(view);
+        view.addListDataListener(listener);
+        for (int i = 0; i < 2000; i++) {
+            ReplayingListeners.modify(source, random, 20);
+            Assert.assertEquals(new LinkedHashSet<Integer>(source).size(), view.size());
+            Assert.assertEquals(new LinkedHashSet<Integer>(source),
+                                new LinkedHashSet<Integer>(view));
+            Assert.assertEquals(view, listener.getCopy());
+        }
+        view.dispose();
+        Assert.assertTrue(source.getTypedListeners().isEmpty());
+    }
+
+    /**
+     * Tests the appearance order and the reference counts
+     */
+    @Test
+    public void testCounts() {
+        MutableArrayList<String> source = new MutableArrayList<String>();
+        source.add("b");
+        source.add("a");
+        source.add("b");
+        DistinctMutableList<String> view = new DistinctMutableList<String>(source);
+        Assert.assertEquals(2, view.getCount("b"));
+        Assert.assertEquals(1, view.indexOf("a"));
+        source.add("c");
+        source.remove(0);
+        Assert.assertEquals(3, view.size());
+        source.remove(1);
+        Assert.assertEquals(2, view.size());
+        Assert.assertEquals(0, view.getCount("b"));
+        Assert.assertEquals("a", view.get(0));
+        source.set(0, "c");
+        Assert.assertEquals(1, view.size());
+        Assert.assertEquals(2, view.getCount("c"));
+    }
+}
@@ -0,0 +1,120 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.FanOutListBindingLink;
+import binding.list.definition.MutableList;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.ElementConverter;
+import binding.list.target.BasicListBindingTarget;
+
+/**
+ * Test for fan-out list binding
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestFanOutListBinding {
+
+    /**
+     * Converter counting its conversions
+     */
+    private static class CountingConverter implements ElementConverter<Integer, String> {
+
+        /** Conversions count **/
+        private int conversions;
+
+        @Override
+        public String convert(Integer element) {
+            conversions++;
+            return "#" + element;
+        }
+    }
+
+    /**
+     * Converts a list from scratch
+     * @param source : source list
+     * @return - the expected targets content
+     */
+    private static List<String> convert(List<Integer> source) {
+        List<String> converted = new ArrayList<String>();
+        for (Integer element : source) {
+            converted.add("#" + element);
+        }
+        return converted;
+    }
+
+    /**
+     * Test every target follows the source while each element is converted once
+     */
+    @Test
+    public void testSharedConversion() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        source.add(1);
+        source.add(2);
+        CountingConverter converter = new CountingConverter();
+        FanOutListBindingLink<Integer, String> link =
+                BindingTools.createFanOutBinding(source, converter);
+        List<List<String>> targets = new ArrayList<List<String>>();
+        for (int i = 0; i < 3; i++) {
+            List<String> target = new ArrayList<String>();
+            targets.add(target);
+            link.addBindingTarget(new BasicListBindingTarget<String>(target));
+        }
+        Assert.assertEquals(2, converter.conversions);
+
+        int added = 2;
+        Random random = new Random(37);
+        for (int i = 0; i < 1000; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || source.isEmpty()) {
+                source.add(random.nextInt(source.size() + 1), i);
+                added++;
+            }
+            else if (operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else {
+                source.set(random.nextInt(source.size()), i);
+                added++;
+            }
+            for (List<String> target : targets) {
+                Assert.assertEquals(convert(source), target);
+            }
+        }
+        Assert.assertEquals(added, converter.conversions);
+        Assert.assertEquals(convert(source), link.getConvertedElements());
+
+        // a removed target is emptied, terminating empties the others
+        Assert.assertTrue(link.removeBindingTarget(link.getBindingTarget().get(0)));
+        Assert.assertTrue(targets.get(0).isEmpty());
+        link.terminateBinding();
+        Assert.assertTrue(targets.get(1).isEmpty());
+        Assert.assertTrue(targets.get(2).isEmpty());
+        Assert.assertTrue(link.getBindingTarget().isEmpty());
+    }
+}
@@ -0,0 +1,213 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.MutableList;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.implementation.PersistentMutableList;
+import binding.list.definition.view.ElementFilter;
+import binding.list.definition.view.FilteredMutableList;
+
+/**
+ * Test for filtered list view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestFilteredMutableList {
+
+    /**
+     * Filter accepting items whose value is under a threshold
+     */
+    private static class ThresholdFilter implements ElementFilter<ObservableItem> {
+
+        /** Threshold **/
+        private int threshold;
+
+        @Override
+        public boolean accept(ObservableItem element) {
+            return element.getValue() < threshold;
+        }
+    }
+
+    /**
+     * Item of a non public class, overriding the public listener methods
+     */
+    private static class HiddenItem extends ObservableItem {
+
+        /**
+         * Constructor
+         * @param value : initial value
+         */
+        public HiddenItem(int value) {
+            super("hidden", value);
+        }
+
+        @Override
+        public void addPropertyChangeListener(PropertyChangeListener listener) {
+            super.addPropertyChangeListener(listener);
+        }
+
+        @Override
+        public void removePropertyChangeListener(PropertyChangeListener listener) {
+            super.removePropertyChangeListener(listener);
+        }
+    }
+
+    /**
+     * Bean of a non public class, without public declaration of the listener methods
+     */
+    private static class HiddenBean {
+
+        /** Property change support **/
+        private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+
+        public void addPropertyChangeListener(PropertyChangeListener listener) {
+            changeSupport.addPropertyChangeListener(listener);
+        }
+
+        public void removePropertyChangeListener(PropertyChangeListener listener) {
+            changeSupport.removePropertyChangeListener(listener);
+        }
+    }
+
+    /**
+     * Filters a list from scratch
+     * @param source : source list
+     * @param filter : filter
+     * @return - the expected view content
+     */
+    private static List<ObservableItem> filter(List<ObservableItem> source,
+                                               ThresholdFilter filter) {
+        List<ObservableItem> filtered = new ArrayList<ObservableItem>();
+        for (ObservableItem item : source) {
+            if (filter.accept(item)) {
+                filtered.add(item);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Test random source operations and element changes, through a binding
+     */
+    @Test
+    public void testIncrementalFiltering() {
+        MutableList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        ThresholdFilter filter = new ThresholdFilter();
+        filter.threshold = 50;
+        FilteredMutableList<ObservableItem> view =
+                new FilteredMutableList<ObservableItem>(source, filter);
+        List<ObservableItem> target = new ArrayList<ObservableItem>();
+        BindingTools.createBinding(view, target);
+
+        Random random = new Random(30);
+        for (int i = 0; i < 3000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || source.isEmpty()) {
+                List<ObservableItem> added = new ArrayList<ObservableItem>();
+                for (int j = random.nextInt(10); j >= 0; j--) {
+                    added.add(new ObservableItem("item" + i + "_" + j, random.nextInt(100)));
+                }
+                source.addAll(random.nextInt(source.size() + 1), added);
+            }
+            else if (operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else if (operation == 2) {
+                source.set(random.nextInt(source.size()),
+                           new ObservableItem("set" + i, random.nextInt(100)));
+            }
+            else {
+                source.get(random.nextInt(source.size())).setValue(random.nextInt(100));
+            }
+            if (i % 1000 == 0) {
+                filter.threshold = random.nextInt(100);
+                view.refresh();
+            }
+            Assert.assertEquals(filter(source, filter), view);
+            Assert.assertEquals("operation " + operation + " at step " + i, view, target);
+        }
+        Assert.assertEquals(view, target);
+    }
+
+    /**
+     * Test dispose stops listening to source and elements
+     */
+    @Test
+    public void testDispose() {
+        MutableList<ObservableItem> source = new PersistentMutableList<ObservableItem>();
+        ObservableItem item = new ObservableItem("item", 1);
+        source.add(item);
+        ThresholdFilter filter = new ThresholdFilter();
+        filter.threshold = 50;
+        FilteredMutableList<ObservableItem> view =
+                new FilteredMutableList<ObservableItem>(source, filter);
+        Assert.assertEquals(1, item.getListenersCount());
+
+        view.dispose();
+        Assert.assertEquals(0, item.getListenersCount());
+        source.add(new ObservableItem("other", 2));
+        Assert.assertTrue(view.isEmpty());
+    }
+
+    /**
+     * Test elements of non public classes are observed
+     */
+    @Test
+    public void testNonPublicElements() {
+        MutableList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        HiddenItem item = new HiddenItem(10);
+        source.add(item);
+        ThresholdFilter filter = new ThresholdFilter();
+        filter.threshold = 50;
+        FilteredMutableList<ObservableItem> view =
+                new FilteredMutableList<ObservableItem>(source, filter);
+        Assert.assertEquals(1, view.size());
+        item.setValue(60);
+        Assert.assertTrue(view.isEmpty());
+        view.dispose();
+        Assert.assertEquals(0, item.getListenersCount());
+
+        MutableList<HiddenBean> beans = new MutableArrayList<HiddenBean>();
+        HiddenBean bean = new HiddenBean();
+        beans.add(bean);
+        FilteredMutableList<HiddenBean> beansView =
+                new FilteredMutableList<HiddenBean>(beans, new ElementFilter<HiddenBean>() {
+
+                    @Override
+                    public boolean accept(HiddenBean element) {
+                        return true;
+                    }
+                });
+        Assert.assertEquals(1, bean.changeSupport.getPropertyChangeListeners().length);
+        beansView.dispose();
+        Assert.assertEquals(0, bean.changeSupport.getPropertyChangeListeners().length);
+    }
+}
@@ -0,0 +1,161 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.MutableList;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.ElementConverter;
+import binding.list.definition.view.GroupSummary;
+import binding.list.definition.view.GroupedMutableList;
+
+/**
+ * Test for grouped aggregation view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestGroupedMutableList {
+
+    /** Groups items by name first letter **/
+    private static final ElementConverter<ObservableItem, Character> BY_LETTER =
+            new ElementConverter<ObservableItem, Character>() {
+
+                @Override
+                public Character convert(ObservableItem element) {
+                    return element.getName().charAt(0);
+                }
+            };
+
+    /** Aggregates items value **/
+    private static final ElementConverter<ObservableItem, Integer> VALUE =
+            new ElementConverter<ObservableItem, Integer>() {
+
+                @Override
+                public Integer convert(ObservableItem element) {
+                    return element.getValue();
+                }
+            };
+
+    /**
+     * Checks a view against aggregates computed from scratch
+     * @param source : source list
+     * @param view : grouped view
+     */
+    private static void checkGroups(List<ObservableItem> source,
+                                    GroupedMutableList<ObservableItem, Character> view) {
+        Map<Character, List<Integer>> expected = new HashMap<Character, List<Integer>>();
+        for (ObservableItem item : source) {
+            List<Integer> values = expected.get(item.getName().charAt(0));
+            if (values == null) {
+                values = new ArrayList<Integer>();
+                expected.put(item.getName().charAt(0), values);
+            }
+            values.add(item.getValue());
+        }
+        Assert.assertEquals(expected.size(), view.size());
+        for (GroupSummary<Character> group : view) {
+            List<Integer> values = expected.get(group.getKey());
+            Assert.assertNotNull(values);
+            int sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int value : values) {
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            Assert.assertEquals(values.size(), group.getCount());
+            Assert.assertEquals(sum, (int) group.getSum());
+            Assert.assertEquals(min, group.getMin().intValue());
+            Assert.assertEquals(max, group.getMax().intValue());
+            Assert.assertEquals((double) sum / values.size(), group.getAverage(), 1e-9);
+            Assert.assertSame(group, view.getGroup(group.getKey()));
+        }
+    }
+
+    /**
+     * Test random source operations and element changes, through a binding
+     */
+    @Test
+    public void testIncrementalGrouping() {
+        MutableList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        GroupedMutableList<ObservableItem, Character> view =
+                new GroupedMutableList<ObservableItem, Character>(source, BY_LETTER, VALUE, true);
+        List<GroupSummary<Character>> target = new ArrayList<GroupSummary<Character>>();
+        BindingTools.createBinding(view, target);
+
+        Random random = new Random(33);
+        for (int i = 0; i < 3000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || source.isEmpty()) {
+                List<ObservableItem> added = new ArrayList<ObservableItem>();
+                for (int j = random.nextInt(10); j >= 0; j--) {
+                    added.add(new ObservableItem((char) ('a' + random.nextInt(8)) + "item",
+                                                 random.nextInt(100)));
+                }
+                source.addAll(random.nextInt(source.size() + 1), added);
+            }
+            else if (operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else if (operation == 2) {
+                source.set(random.nextInt(source.size()),
+                           new ObservableItem((char) ('a' + random.nextInt(8)) + "set",
+                                              random.nextInt(100)));
+            }
+            else {
+                source.get(random.nextInt(source.size())).setValue(random.nextInt(100));
+            }
+            checkGroups(source, view);
+            Assert.assertEquals("operation " + operation + " at step " + i, view, target);
+        }
+    }
+
+    /**
+     * Test groups rows are added and removed with their first and last element
+     */
+    @Test
+    public void testGroupLifecycle() {
+        MutableList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        GroupedMutableList<ObservableItem, Character> view =
+                new GroupedMutableList<ObservableItem, Character>(source, BY_LETTER);
+        source.add(new ObservableItem("a1", 1));
+        source.add(new ObservableItem("b1", 2));
+        source.add(new ObservableItem("a2", 3));
+        Assert.assertEquals(2, view.size());
+        Assert.assertEquals(2, view.getGroup('a').getCount());
+        Assert.assertNull(view.getGroup('a').getMax());
+
+        source.remove(1);
+        Assert.assertEquals(1, view.size());
+        Assert.assertNull(view.getGroup('b'));
+        source.clear();
+        Assert.assertTrue(view.isEmpty());
+    }
+}
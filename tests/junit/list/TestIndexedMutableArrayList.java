@@ -0,0 +1,339 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.ElementConverter;
+
+/**
+ * Test for the elements positions index of mutable array lists
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestIndexedMutableArrayList {
+
+    /**
+     * Listener logging received events
+     * @param <T> : list elements type
+     */
+    private static class EventLog<T> implements TypedListDataListener<T> {
+
+        /** Received events, as type:index0:index1 **/
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            events.add("add:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            events.add("remove:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            events.add("change:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+    }
+
+    /**
+     * Checks indexed lookups of a list against a plain scan
+     * @param list : indexed list
+     * @param values : looked up values
+     */
+    private static void checkLookups(MutableArrayList<String> list, String... values) {
+        List<String> reference = new ArrayList<String>(list);
+        for (String value : values) {
+            Assert.assertEquals(value, reference.indexOf(value), list.indexOf(value));
+            Assert.assertEquals(value, reference.lastIndexOf(value), list.lastIndexOf(value));
+            Assert.assertEquals(value, reference.contains(value), list.contains(value));
+        }
+    }
+
+    /**
+     * Tests indexed lookups against a plain list after random mutations on every path
+     */
+    @Test
+    public void testRandomMutations() {
+        Random random = new Random(3);
+        MutableArrayList<Integer> list = new MutableArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            list.add(random.nextInt(50));
+        }
+        list.setIndexed(true);
+        Assert.assertTrue(list.isIndexed());
+        List<Integer> reference = new ArrayList<Integer>(list);
+        for (int i = 0; i < 3000; i++) {
+            int operation = random.nextInt(9);
+            Integer value = random.nextInt(50);
+            int index = random.nextInt(list.size() + 1);
+            if (operation == 0 || list.isEmpty()) {
+                list.add(index, value);
+                reference.add(index, value);
+            }
+            else if (operation == 1) {
+                list.addAll(index, Arrays.asList(value, value + 1));
+                reference.addAll(index, Arrays.asList(value, value + 1));
+            }
+            else if (operation == 2) {
+                list.remove(value);
+                reference.remove(value);
+            }
+            else if (operation == 3) {
+                index = random.nextInt(list.size());
+                list.set(index, value);
+                reference.set(index, value);
+            }
+            else if (operation == 4) {
+                index = random.nextInt(list.size());
+                list.remove(index);
+                reference.remove(index);
+            }
+            else if (operation == 5) {
+                int to = Math.min(list.size(), index + random.nextInt(4));
+                list.subList(index, to).clear();
+                reference.subList(index, to).clear();
+            }
+            else if (operation == 6) {
+                list.removeAll(Arrays.asList(value, value + 7));
+                reference.removeAll(Arrays.asList(value, value + 7));
+            }
+            else if (operation == 7) {
+                list.add(value);
+                reference.add(value);
+            }
+            else {
+                list.addAll(Arrays.asList(value, value));
+                reference.addAll(Arrays.asList(value, value));
+            }
+            Assert.assertEquals(reference, list);
+            for (int v = -1; v <= 51; v++) {
+                Assert.assertEquals(reference.indexOf(v), list.indexOf(v));
+                Assert.assertEquals(reference.lastIndexOf(v), list.lastIndexOf(v));
+            }
+        }
+        Assert.assertFalse(list.contains("not an integer"));
+        list.setIndexed(false);
+        Assert.assertFalse(list.isIndexed());
+    }
+
+    /**
+     * Tests key lookups
+     */
+    @Test
+    public void testKeyIndex() {
+        MutableArrayList<ObservableItem> list = new MutableArrayList<ObservableItem>();
+        for (int i = 0; i < 10; i++) {
+            list.add(new ObservableItem("item" + i, i));
+        }
+        list.setIndexed(new ElementConverter<ObservableItem, String>() {
+
+            @Override
+            public String convert(ObservableItem element) {
+                return element.getName();
+            }
+        });
+        Assert.assertEquals(3, list.indexOfKey("item3"));
+        list.remove(0);
+        list.add(0, new ObservableItem("first", -1));
+        list.add(1, new ObservableItem("second", -2));
+        Assert.assertEquals(4, list.indexOfKey("item3"));
+        Assert.assertEquals(1, list.indexOfKey("second"));
+        Assert.assertEquals(-1, list.indexOfKey("item0"));
+        ObservableItem item5 = list.get(6);
+        Assert.assertTrue(list.remove(item5));
+        Assert.assertEquals(-1, list.indexOfKey("item5"));
+        Assert.assertEquals(6, list.indexOfKey("item6"));
+    }
+
+    /**
+     * Tests that removeAll and retainAll fire one event per run of removed elements
+     */
+    @Test
+    public void testBatchRemovalEvents() {
+        MutableArrayList<Integer> list = new MutableArrayList<Integer>(
+                Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7));
+        EventLog<Integer> log = new EventLog<Integer>();
+        list.addListDataListener(log);
+        List<String> events = log.events;
+        Assert.assertTrue(list.removeAll(Arrays.asList(1, 2, 5)));
+        Assert.assertEquals(Arrays.asList("remove:5:5", "remove:1:2"), events);
+        events.clear();
+        Assert.assertFalse(list.removeAll(Arrays.asList(42)));
+        Assert.assertTrue(list.retainAll(Arrays.asList(0, 7)));
+        Assert.assertEquals(Arrays.asList(0, 7), list);
+        Assert.assertEquals(Arrays.asList("remove:1:3"), events);
+    }
+
+    /**
+     * Tests that sort, replaceAll and removeIf keep the index up to date and fire events
+     */
+    @Test
+    public void testBulkOperations() {
+        MutableArrayList<String> list = new MutableArrayList<String>(Arrays.asList("c", "a", "b"));
+        list.setIndexed(true);
+        EventLog<String> log = new EventLog<String>();
+        list.addListDataListener(log);
+        List<String> bound = new ArrayList<String>();
+        binding.BindingTools.createBinding(list, bound);
+
+        Collections.sort(list);
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), list);
+        Assert.assertEquals(0, list.indexOf("a"));
+        checkLookups(list, "a", "b", "c");
+        list.sort(Collections.<String> reverseOrder());
+        Assert.assertEquals(Arrays.asList("c", "b", "a"), list);
+        checkLookups(list, "a", "b", "c");
+        Assert.assertEquals(Arrays.asList("change:0:2", "change:0:2"), log.events);
+        log.events.clear();
+
+        list.replaceAll(new UnaryOperator<String>() {
+
+            @Override
+            public String apply(String element) {
+                return element.toUpperCase();
+            }
+        });
+        Assert.assertTrue(list.contains("A"));
+        Assert.assertFalse(list.contains("a"));
+        checkLookups(list, "a", "A", "B", "C");
+        Assert.assertEquals(Arrays.asList("change:0:2"), log.events);
+        log.events.clear();
+
+        list.addAll(Arrays.asList("X", "Y", "Z"));
+        log.events.clear();
+        Assert.assertTrue(list.removeIf(new Predicate<String>() {
+
+            @Override
+            public boolean test(String element) {
+                return element.equals("B") || element.equals("X") || element.equals("Y");
+            }
+        }));
+        Assert.assertEquals(Arrays.asList("C", "A", "Z"), list);
+        Assert.assertEquals(Arrays.asList("remove:3:4", "remove:1:1"), log.events);
+        checkLookups(list, "A", "B", "C", "X", "Y", "Z");
+        Assert.assertTrue(list.remove("Z"));
+        Assert.assertEquals(Arrays.asList("C", "A"), list);
+        Assert.assertEquals(list, bound);
+    }
+
+    /**
+     * Tests that a clone has its own index and listeners
+     */
+    @Test
+    public void testClone() {
+        MutableArrayList<String> list = new MutableArrayList<String>(Arrays.asList("p", "q"));
+        list.setIndexed(true);
+        EventLog<String> log = new EventLog<String>();
+        list.addListDataListener(log);
+        MutableArrayList<String> copy = list.clone();
+        copy.add(0, "r");
+        Assert.assertTrue(copy.isIndexed());
+        Assert.assertEquals(1, list.indexOf("q"));
+        Assert.assertEquals(2, copy.indexOf("q"));
+        Assert.assertEquals(0, copy.indexOf("r"));
+        Assert.assertFalse(list.contains("r"));
+        Assert.assertTrue(log.events.isEmpty());
+        checkLookups(list, "p", "q", "r");
+        checkLookups(copy, "p", "q", "r");
+    }
+
+    /**
+     * Tests that an element whose key can not be extracted does not enter the list
+     */
+    @Test
+    public void testRejectedKeys() {
+        MutableArrayList<String> list = new MutableArrayList<String>(Arrays.asList("a", "bb"));
+        list.setIndexed(new ElementConverter<String, Integer>() {
+
+            @Override
+            public Integer convert(String element) {
+                return element.length();
+            }
+        });
+        EventLog<String> log = new EventLog<String>();
+        list.addListDataListener(log);
+        List<Runnable> mutations = new ArrayList<Runnable>();
+        final MutableArrayList<String> target = list;
+        mutations.add(new Runnable() {
+
+            @Override
+            public void run() {
+                target.add(null);
+            }
+        });
+        mutations.add(new Runnable() {
+
+            @Override
+            public void run() {
+                target.add(1, null);
+            }
+        });
+        mutations.add(new Runnable() {
+
+            @Override
+            public void run() {
+                target.addAll(Arrays.asList("ccc", null));
+            }
+        });
+        mutations.add(new Runnable() {
+
+            @Override
+            public void run() {
+                target.addAll(0, Arrays.asList("ccc", null));
+            }
+        });
+        mutations.add(new Runnable() {
+
+            @Override
+            public void run() {
+                target.set(0, null);
+            }
+        });
+        for (Runnable mutation : mutations) {
+            try {
+                mutation.run();
+                Assert.fail("An exception should have been thrown");
+            } catch (NullPointerException e) {
+                // expected
+            }
+            Assert.assertEquals(Arrays.asList("a", "bb"), list);
+            Assert.assertEquals(1, list.indexOfKey(2));
+            Assert.assertEquals(0, list.indexOfKey(1));
+        }
+        Assert.assertTrue(log.events.isEmpty());
+        list.add("ccc");
+        Assert.assertEquals(2, list.indexOfKey(3));
+    }
+}
@@ -0,0 +1,157 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.list.ReplayingListeners.ListReplayer;
+
+import org.junit.Test;
+
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.ElementConverter;
+import binding.list.definition.view.JoinedMutableList;
+import binding.list.definition.view.JoinedRow;
+
+/**
+ * Test for the keyed join view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestJoinedMutableList {
+
+    /** Key extractor returning item values **/
+    private static final ElementConverter<ObservableItem, Integer> KEY =
+            new ElementConverter<ObservableItem, Integer>() {
+
+                @Override
+                public Integer convert(ObservableItem element) {
+                    return element.getValue();
+                }
+            };
+
+    /**
+     * Computes the expected join
+     * @param left : left elements
+     * @param right : right elements
+     * @param leftJoin : left join?
+     * @return -
+     */
+    private static List<JoinedRow<ObservableItem, ObservableItem>> join(List<ObservableItem> left,
+            List<ObservableItem> right, boolean leftJoin) {
+        List<JoinedRow<ObservableItem, ObservableItem>> rows =
+                new ArrayList<JoinedRow<ObservableItem, ObservableItem>>();
+        for (ObservableItem l : left) {
+            boolean matched = false;
+            for (ObservableItem r : right) {
+                if (l.getValue() == r.getValue()) {
+                    rows.add(new JoinedRow<ObservableItem, ObservableItem>(l, r));
+                    matched = true;
+                }
+            }
+            if (!matched && leftJoin) {
+                rows.add(new JoinedRow<ObservableItem, ObservableItem>(l, null));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Applies changes on both sources and checks the view and the events against the
+     * expected join
+     * @param leftJoin : left join?
+     */
+    private void testJoin(boolean leftJoin) {
+        MutableArrayList<ObservableItem> orders = new MutableArrayList<ObservableItem>();
+        MutableArrayList<ObservableItem> instruments = new MutableArrayList<ObservableItem>();
+        orders.add(new ObservableItem("o1", 1));
+        orders.add(new ObservableItem("o2", 2));
+        orders.add(new ObservableItem("o3", 1));
+        instruments.add(new ObservableItem("i1", 1));
+        JoinedMutableList<ObservableItem, ObservableItem, Integer> view =
+                new JoinedMutableList<ObservableItem, ObservableItem, Integer>(orders, instruments,
+                                                                               KEY, KEY, leftJoin);
+        Assert.assertEquals(join(orders, instruments, leftJoin), view);
+        ListReplayer<JoinedRow<ObservableItem, ObservableItem>> listener =
+                new ListReplayer<JoinedRow<ObservableItem, ObservableItem>>(view);
+        view.addListDataListener(listener);
+
+        instruments.add(new ObservableItem("i2", 2));
+        checkState(view, listener, orders, instruments, leftJoin);
+        instruments.add(0, new ObservableItem("i1bis", 1));
+        checkState(view, listener, orders, instruments, leftJoin);
+        orders.add(1, new ObservableItem("o4", 3));
+        checkState(view, listener, orders, instruments, leftJoin);
+        orders.get(0).setValue(2);
+        checkState(view, listener, orders, instruments, leftJoin);
+        instruments.get(2).setValue(3);
+        checkState(view, listener, orders, instruments, leftJoin);
+        orders.set(2, new ObservableItem("o5", 1));
+        checkState(view, listener, orders, instruments, leftJoin);
+        instruments.remove(0);
+        checkState(view, listener, orders, instruments, leftJoin);
+        orders.subList(0, 2).clear();
+        checkState(view, listener, orders, instruments, leftJoin);
+        instruments.clear();
+        checkState(view, listener, orders, instruments, leftJoin);
+
+        // changing an element without match fires only its own rows change
+        int eventsCount = listener.getEventsCount();
+        instruments.add(new ObservableItem("i9", 9));
+        Assert.assertEquals(eventsCount, listener.getEventsCount());
+
+        view.dispose();
+        Assert.assertEquals(0, orders.get(0).getListenersCount());
+        Assert.assertEquals(0, instruments.get(0).getListenersCount());
+    }
+
+    /**
+     * Checks the view and the replayed events against the expected join
+     * @param view : view
+     * @param listener : view listener
+     * @param left : left elements
+     * @param right : right elements
+     * @param leftJoin : left join?
+     */
+    private void checkState(JoinedMutableList<ObservableItem, ObservableItem, Integer> view,
+                            ListReplayer<JoinedRow<ObservableItem, ObservableItem>> listener, List<ObservableItem> left,
+                            List<ObservableItem> right, boolean leftJoin) {
+        List<JoinedRow<ObservableItem, ObservableItem>> expected = join(left, right, leftJoin);
+        Assert.assertEquals(expected, view);
+        Assert.assertEquals(expected, listener.getCopy());
+    }
+
+    /**
+     * Tests an inner join
+     */
+    @Test
+    public void testInnerJoin() {
+        testJoin(false);
+    }
+
+    /**
+     * Tests a left join
+     */
+    @Test
+    public void testLeftJoin() {
+        testJoin(true);
+    }
+}
@@ -0,0 +1,222 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.ListBindingLink;
+import binding.list.definition.MutableList;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.source.BasicListBindingSource;
+import binding.list.target.BasicListBindingTarget;
+
+/**
+ * Test for list binding events coalescing
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestListBindingCoalescing {
+
+    /**
+     * Target counting the events it receives
+     */
+    private static class CountingTarget extends BasicListBindingTarget<Integer> {
+
+        /** Received events count **/
+        private int events;
+
+        /**
+         * Constructor
+         * @param target : target list
+         */
+        public CountingTarget(List<Integer> target) {
+            super(target);
+        }
+
+        @Override
+        protected void addConvertedElements(int index, Collection<Integer> converted) {
+            events++;
+            super.addConvertedElements(index, converted);
+        }
+
+        @Override
+        protected void removeElements(List<Integer> toRemove) {
+            events++;
+            super.removeElements(toRemove);
+        }
+    }
+
+    /**
+     * Executor queuing tasks until they are explicitly run
+     */
+    private static class ManualExecutor implements Executor {
+
+        /** Queued tasks **/
+        private final LinkedList<Runnable> tasks = new LinkedList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        /**
+         * Runs queued tasks
+         */
+        public void tick() {
+            while (!tasks.isEmpty()) {
+                tasks.removeFirst().run();
+            }
+        }
+    }
+
+    /**
+     * Test a burst of tail additions and removals reaches the target as single events
+     */
+    @Test
+    public void testBurst() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        List<Integer> target = new ArrayList<Integer>();
+        CountingTarget countingTarget = new CountingTarget(target);
+        ListBindingLink<Integer> link = new ListBindingLink<Integer>(
+                new BasicListBindingSource<Integer>(source), countingTarget);
+        ManualExecutor executor = new ManualExecutor();
+        link.setCoalescing(executor, 10000);
+
+        for (int i = 0; i < 500; i++) {
+            source.add(i);
+        }
+        Assert.assertTrue(target.isEmpty());
+        executor.tick();
+        Assert.assertEquals(source, target);
+        Assert.assertEquals(1, countingTarget.events);
+
+        // removals from the tail, then from the head
+        for (int i = 0; i < 100; i++) {
+            source.remove(source.size() - 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            source.remove(0);
+        }
+        executor.tick();
+        Assert.assertEquals(source, target);
+        Assert.assertEquals(3, countingTarget.events);
+    }
+
+    /**
+     * Test the size limit and explicit flushes
+     */
+    @Test
+    public void testLimitAndFlush() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        List<Integer> target = new ArrayList<Integer>();
+        CountingTarget countingTarget = new CountingTarget(target);
+        ListBindingLink<Integer> link = new ListBindingLink<Integer>(
+                new BasicListBindingSource<Integer>(source), countingTarget);
+        link.setCoalescing(null, 100);
+
+        for (int i = 0; i < 250; i++) {
+            source.add(i);
+        }
+        Assert.assertEquals(200, target.size());
+        Assert.assertEquals(2, countingTarget.events);
+        link.flush();
+        Assert.assertEquals(source, target);
+
+        source.add(1000);
+        link.disableCoalescing();
+        Assert.assertEquals(source, target);
+        source.add(1001);
+        Assert.assertEquals(source, target);
+    }
+
+    /**
+     * Test random operations keep the target consistent once flushed
+     */
+    @Test
+    public void testRandomOperations() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        List<Integer> target = new ArrayList<Integer>();
+        ListBindingLink<Integer> link = new ListBindingLink<Integer>(
+                new BasicListBindingSource<Integer>(source),
+                new BasicListBindingTarget<Integer>(target));
+        ManualExecutor executor = new ManualExecutor();
+        link.setCoalescing(executor, 50);
+
+        Random random = new Random(36);
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(4);
+            if (operation <= 1 || source.isEmpty()) {
+                source.add(random.nextInt(source.size() + 1), i);
+            }
+            else if (operation == 2) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else {
+                source.set(random.nextInt(source.size()), i);
+            }
+            if (random.nextInt(20) == 0) {
+                executor.tick();
+                Assert.assertEquals("step " + i, source, target);
+            }
+        }
+        executor.tick();
+        Assert.assertEquals(source, target);
+    }
+
+    /**
+     * Test events are delivered without locking the link when coalescing is disabled
+     * @throws InterruptedException : if the test thread was interrupted
+     */
+    @Test
+    public void testDispatchWithoutCoalescing() throws InterruptedException {
+        final MutableList<Integer> source = new MutableArrayList<Integer>();
+        List<Integer> target = new ArrayList<Integer>();
+        ListBindingLink<Integer> link = new ListBindingLink<Integer>(
+                new BasicListBindingSource<Integer>(source),
+                new BasicListBindingTarget<Integer>(target));
+        link.setCoalescing(null, 10);
+        link.disableCoalescing();
+
+        Thread modifier = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                source.add(1);
+                source.remove(0);
+                source.add(2);
+            }
+        });
+        synchronized (link) {
+            // the link is locked by this thread : the modifier must not wait for it
+            modifier.start();
+            modifier.join(10000);
+            Assert.assertFalse(modifier.isAlive());
+        }
+        Assert.assertEquals(source, target);
+    }
+}
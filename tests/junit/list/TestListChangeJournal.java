@@ -0,0 +1,245 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.ElementCodecs;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.journal.ListChangeJournal;
+
+/**
+ * Test for list change journal
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestListChangeJournal {
+
+    /** Journal file **/
+    private File journalFile;
+
+    /**
+     * Creates the journal file
+     * @throws IOException : if the file could not be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        journalFile = File.createTempFile("journal", ".bin");
+        journalFile.delete();
+    }
+
+    /**
+     * Deletes the journal file
+     */
+    @After
+    public void tearDown() {
+        journalFile.delete();
+    }
+
+    /**
+     * Test random operations are replayed identically
+     * @throws IOException : if the journal could not be written or read
+     */
+    @Test
+    public void testReplay() throws IOException {
+        MutableList<String> list = new MutableArrayList<String>();
+        list.add("initial");
+        ListChangeJournal<String> journal = new ListChangeJournal<String>(journalFile,
+                ElementCodecs.STRING, 256);
+        journal.recordContent(list);
+        list.addListDataListener(journal);
+
+        Random random = new Random(40);
+        for (int i = 0; i < 2000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || list.isEmpty()) {
+                List<String> added = new ArrayList<String>();
+                for (int j = random.nextInt(5); j >= 0; j--) {
+                    added.add(random.nextInt(10) == 0 ? null : "e" + i + "_" + j);
+                }
+                list.addAll(random.nextInt(list.size() + 1), added);
+            }
+            else if (operation == 1) {
+                list.remove(random.nextInt(list.size()));
+            }
+            else if (operation == 2) {
+                int from = random.nextInt(list.size());
+                list.subList(from, Math.min(list.size(), from + random.nextInt(4))).clear();
+            }
+            else {
+                list.set(random.nextInt(list.size()), "s" + i);
+            }
+        }
+        list.removeListDataListener(journal);
+        journal.close();
+
+        // replay : one event per record
+        MutableList<String> replayed = new MutableArrayList<String>();
+        final int[] events = new int[1];
+        replayed.addListDataListener(new TypedListDataListener<String>() {
+
+            @Override
+            public void intervalAdded(TypedListDataEvent e) {
+                events[0]++;
+            }
+
+            @Override
+            public void intervalRemoved(TypedListDataEvent e) {
+                events[0]++;
+            }
+
+            @Override
+            public void contentsChanged(TypedListDataEvent e) {
+                events[0]++;
+            }
+        });
+        int records = ListChangeJournal.replay(journalFile, ElementCodecs.STRING, replayed);
+        Assert.assertEquals(list, replayed);
+        Assert.assertTrue(events[0] <= records);
+
+        // appending to an existing journal
+        journal = new ListChangeJournal<String>(journalFile, ElementCodecs.STRING);
+        list.addListDataListener(journal);
+        list.add("appended");
+        journal.close();
+        List<String> appended = new ArrayList<String>();
+        ListChangeJournal.replay(journalFile, ElementCodecs.STRING, appended);
+        Assert.assertEquals(list, appended);
+    }
+
+    /**
+     * Test a truncated last record is ignored
+     * @throws IOException : if the journal could not be written or read
+     */
+    @Test
+    public void testTruncatedRecord() throws IOException {
+        MutableList<Integer> list = new MutableArrayList<Integer>();
+        ListChangeJournal<Integer> journal = new ListChangeJournal<Integer>(journalFile,
+                ElementCodecs.INTEGER);
+        list.addListDataListener(journal);
+        list.add(1);
+        list.add(2);
+        journal.sync();
+        long validLength = journalFile.length();
+        list.add(3);
+        journal.close();
+
+        RandomAccessFile file = new RandomAccessFile(journalFile, "rw");
+        file.setLength(file.length() - 2);
+        file.close();
+        Assert.assertTrue(journalFile.length() > validLength);
+
+        List<Integer> replayed = new ArrayList<Integer>();
+        Assert.assertEquals(2, ListChangeJournal.replay(journalFile, ElementCodecs.INTEGER,
+                                                        replayed));
+        Assert.assertEquals(list.subList(0, 2), replayed);
+    }
+
+    /**
+     * Test that reopening a journal whose last record was truncated drops that record before
+     * appending new ones
+     */
+    @Test
+    public void testAppendAfterTruncatedRecord() throws IOException {
+        MutableList<Integer> list = new MutableArrayList<Integer>();
+        ListChangeJournal<Integer> journal = new ListChangeJournal<Integer>(journalFile,
+                ElementCodecs.INTEGER);
+        list.addListDataListener(journal);
+        list.add(1);
+        list.add(2);
+        list.add(3);
+        list.add(0);
+        journal.close();
+
+        RandomAccessFile file = new RandomAccessFile(journalFile, "rw");
+        file.setLength(file.length() - 3);
+        file.close();
+
+        List<Integer> recovered = new ArrayList<Integer>();
+        ListChangeJournal.replay(journalFile, ElementCodecs.INTEGER, recovered);
+        MutableList<Integer> reopened = new MutableArrayList<Integer>(recovered);
+        journal = new ListChangeJournal<Integer>(journalFile, ElementCodecs.INTEGER);
+        reopened.addListDataListener(journal);
+        reopened.add(10);
+        reopened.add(11);
+        reopened.remove(0);
+        journal.close();
+
+        List<Integer> replayed = new ArrayList<Integer>();
+        Assert.assertEquals(6, ListChangeJournal.replay(journalFile, ElementCodecs.INTEGER,
+                                                        replayed));
+        Assert.assertEquals(Arrays.asList(2, 3, 10, 11), replayed);
+    }
+
+    /**
+     * Test that a recorded change of several elements is replayed as a single event
+     * @throws IOException : if the journal could not be written or read
+     */
+    @Test
+    public void testReplayRangeChange() throws IOException {
+        MutableArrayList<String> list = new MutableArrayList<String>(Arrays.asList("a", "b",
+                "c", "d"));
+        ListChangeJournal<String> journal = new ListChangeJournal<String>(journalFile,
+                ElementCodecs.STRING);
+        journal.recordContent(list);
+        list.addListDataListener(journal);
+        list.setAll(1, Arrays.asList("x", "y", "z"));
+        journal.close();
+
+        MutableArrayList<String> replayed = new MutableArrayList<String>();
+        final List<String> changes = new ArrayList<String>();
+        replayed.addListDataListener(new TypedListDataListener<String>() {
+
+            @Override
+            public void intervalAdded(TypedListDataEvent e) {
+                // checked by the content
+            }
+
+            @Override
+            public void intervalRemoved(TypedListDataEvent e) {
+                // checked by the content
+            }
+
+            @Override
+            public void contentsChanged(TypedListDataEvent e) {
+                changes.add(e.getIndex0() + ":" + e.getIndex1());
+            }
+        });
+        // clear and content records, then the change record
+        Assert.assertEquals(3, ListChangeJournal.replay(journalFile, ElementCodecs.STRING,
+                                                        replayed));
+        Assert.assertEquals(Arrays.asList("a", "x", "y", "z"), replayed);
+        Assert.assertEquals(Arrays.asList("1:3"), changes);
+    }
+}
@@ -0,0 +1,147 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.ListBindingLink;
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.ConcurrentMutableList;
+import binding.list.definition.implementation.MutableArrayList;
+
+/**
+ * Test for list listeners registration and removal
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestListenerRegistration {
+
+    /**
+     * Listener counting added intervals, equal to any other counting listener
+     */
+    private static class CountingListener implements TypedListDataListener<Integer> {
+
+        /** Added intervals count **/
+        protected int added;
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            added++;
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            // not counted
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            // not counted
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CountingListener;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    /**
+     * Test terminated bindings are no longer attached to the source list
+     */
+    @Test
+    public void testBindTerminateCycles() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        source.add(1);
+        for (int i = 0; i < 1000; i++) {
+            ListBindingLink<Integer> link = BindingTools.createBinding(source,
+                                                                       new ArrayList<Integer>());
+            link.terminateBinding();
+        }
+        Assert.assertTrue(((MutableArrayList<Integer>) source).getTypedListeners().isEmpty());
+    }
+
+    /**
+     * Test listeners are removed by identity
+     */
+    @Test
+    public void testIdentityRemoval() {
+        List<MutableList<Integer>> sources = new ArrayList<MutableList<Integer>>();
+        sources.add(new MutableArrayList<Integer>());
+        sources.add(new ConcurrentMutableList<Integer>());
+        for (MutableList<Integer> source : sources) {
+            CountingListener first = new CountingListener();
+            CountingListener second = new CountingListener();
+            source.addListDataListener(first);
+            source.addListDataListener(second);
+            source.removeListDataListener(first);
+            source.add(1);
+            Assert.assertEquals(0, first.added);
+            Assert.assertEquals(1, second.added);
+        }
+    }
+
+    /**
+     * Test listeners (un)registering during a fire
+     */
+    @Test
+    public void testRegistrationDuringFire() {
+        final MutableArrayList<Integer> source = new MutableArrayList<Integer>();
+        final CountingListener late = new CountingListener();
+        final List<CountingListener> others = new ArrayList<CountingListener>();
+        CountingListener selfRemoving = new CountingListener() {
+
+            @Override
+            public void intervalAdded(TypedListDataEvent event) {
+                super.intervalAdded(event);
+                source.removeListDataListener(this);
+                source.addListDataListener(late);
+            }
+        };
+        source.addListDataListener(selfRemoving);
+        for (int i = 0; i < 3; i++) {
+            CountingListener other = new CountingListener();
+            others.add(other);
+            source.addListDataListener(other);
+        }
+
+        source.add(1);
+        Assert.assertEquals(1, selfRemoving.added);
+        Assert.assertEquals(0, late.added);
+        for (CountingListener other : others) {
+            Assert.assertEquals(1, other.added);
+        }
+
+        source.add(2);
+        Assert.assertEquals(1, selfRemoving.added);
+        Assert.assertEquals(1, late.added);
+    }
+}
@@ -0,0 +1,255 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import javax.swing.event.ListDataEvent;
+
+import binding.BindingTools;
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.AbstractMutableList;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.ElementConverter;
+import binding.list.definition.view.MappedMutableList;
+
+/**
+ * Test for lazily mapped list view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMappedMutableList {
+
+    /**
+     * Converter counting its conversions
+     */
+    private static class CountingConverter implements ElementConverter<Integer, String> {
+
+        /** Conversions count **/
+        private int conversions;
+
+        @Override
+        public String convert(Integer element) {
+            conversions++;
+            return "#" + element;
+        }
+    }
+
+    /**
+     * Test only read elements are converted, and only once while cached
+     */
+    @Test
+    public void testLazyConversion() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < 1000000; i++) {
+            elements.add(i);
+        }
+        source.addAll(elements);
+        CountingConverter converter = new CountingConverter();
+        MappedMutableList<Integer, String> view =
+                new MappedMutableList<Integer, String>(source, converter, 100);
+
+        Assert.assertEquals(1000000, view.size());
+        for (int i = 0; i < 40; i++) {
+            Assert.assertEquals("#" + (500000 + i), view.get(500000 + i));
+        }
+        for (int i = 0; i < 40; i++) {
+            view.get(500000 + i);
+        }
+        Assert.assertEquals(40, converter.conversions);
+
+        // inserting before shifts cached elements without converting them again
+        source.add(0, -1);
+        Assert.assertEquals("#500000", view.get(500001));
+        Assert.assertEquals(40, converter.conversions);
+
+        // the cache is bounded
+        for (int i = 0; i < 1000; i++) {
+            view.get(i);
+        }
+        Assert.assertEquals(100, view.getCachedCount());
+    }
+
+    /**
+     * Test random source operations, through a binding, with a small cache
+     */
+    @Test
+    public void testCacheFollowsSource() {
+        MutableList<Integer> source = new MutableArrayList<Integer>();
+        MappedMutableList<Integer, String> view =
+                new MappedMutableList<Integer, String>(source, new CountingConverter(), 16);
+        List<String> target = new ArrayList<String>();
+        BindingTools.createBinding(view, target);
+
+        Random random = new Random(32);
+        for (int i = 0; i < 3000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 || source.isEmpty()) {
+                source.addAll(random.nextInt(source.size() + 1),
+                              Collections.nCopies(random.nextInt(5) + 1, random.nextInt(100)));
+            }
+            else if (operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else if (operation == 2) {
+                source.set(random.nextInt(source.size()), random.nextInt(100));
+            }
+            else {
+                view.get(random.nextInt(source.size()));
+            }
+            for (int j = 0; j < 5 && !source.isEmpty(); j++) {
+                int index = random.nextInt(source.size());
+                Assert.assertEquals("#" + source.get(index), view.get(index));
+            }
+            Assert.assertEquals("operation " + operation + " at step " + i, target, view);
+        }
+    }
+
+    /**
+     * Source list whose events do not carry elements
+     */
+    private static class SilentList extends AbstractMutableList<Integer> {
+
+        /** Elements **/
+        private final List<Integer> elements = new ArrayList<Integer>();
+
+        @Override
+        public Integer get(int index) {
+            return elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public void add(int index, Integer element) {
+            elements.add(index, element);
+            fireEvent(new TypedListDataEvent<Integer>(this, ListDataEvent.INTERVAL_ADDED, index,
+                                                      index, null, null));
+        }
+
+        @Override
+        public Integer set(int index, Integer element) {
+            Integer previous = elements.set(index, element);
+            List<Integer> previousElements = Collections.singletonList(previous);
+            fireEvent(new TypedListDataEvent<Integer>(this, ListDataEvent.CONTENTS_CHANGED,
+                                                      index, index, previousElements, null));
+            return previous;
+        }
+    }
+
+    /**
+     * Listener keeping the elements carried by the view events
+     */
+    private static class EventRecorder implements TypedListDataListener<String> {
+
+        /** Added or new elements, by event **/
+        private final List<List<String>> newElements = new ArrayList<List<String>>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void intervalAdded(TypedListDataEvent event) {
+            newElements.add(event.getNewElements());
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void contentsChanged(TypedListDataEvent event) {
+            newElements.add(event.getNewElements());
+        }
+    }
+
+    /**
+     * Test event elements read after following source changes, and from concurrent threads
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void testEventElementsWithoutSourceElements() throws Exception {
+        SilentList source = new SilentList();
+        MappedMutableList<Integer, String> view =
+                new MappedMutableList<Integer, String>(source, new CountingConverter(), 0);
+        EventRecorder recorder = new EventRecorder();
+        view.addListDataListener(recorder);
+
+        source.add(0, 1);
+        source.set(0, 2);
+        source.add(0, 3);
+        source.add(0, 4);
+        Assert.assertEquals(Collections.singletonList("#1"), recorder.newElements.get(0));
+        Assert.assertEquals(Collections.singletonList("#2"), recorder.newElements.get(1));
+        Assert.assertEquals(Collections.singletonList("#3"), recorder.newElements.get(2));
+
+        // a shared event is converted once, whatever the count of reading threads
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            elements.add(i);
+        }
+        final CountingConverter converter = new CountingConverter();
+        MappedMutableList<Integer, String> large =
+                new MappedMutableList<Integer, String>(new MutableArrayList<Integer>(), converter,
+                                                       0);
+        EventRecorder largeRecorder = new EventRecorder();
+        large.addListDataListener(largeRecorder);
+        large.getSource().addAll(elements);
+        final List<String> converted = largeRecorder.newElements.get(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        List<Thread> readers = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < converted.size(); j++) {
+                            Assert.assertEquals("#" + j, converted.get(j));
+                        }
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }
+            };
+            reader.start();
+            readers.add(reader);
+        }
+        start.countDown();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assert.assertTrue(failures.toString(), failures.isEmpty());
+        Assert.assertEquals(10000, converter.conversions);
+    }
+}
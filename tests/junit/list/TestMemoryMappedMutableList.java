@@ -0,0 +1,251 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MemoryMappedMutableList;
+import binding.list.definition.implementation.RecordCodec;
+import binding.list.definition.implementation.VariableRecordCodec;
+
+/**
+ * Test for memory mapped mutable list
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMemoryMappedMutableList {
+
+    /**
+     * Codec for int values
+     */
+    private static class IntegerCodec implements RecordCodec<Integer> {
+
+        @Override
+        public int getRecordLength() {
+            return 4;
+        }
+
+        @Override
+        public void write(Integer element, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, element);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    }
+
+    /**
+     * Codec for strings (one byte characters)
+     */
+    private static class StringCodec implements VariableRecordCodec<String> {
+
+        @Override
+        public int getEncodedLength(String element) {
+            return element.length();
+        }
+
+        @Override
+        public void write(String element, ByteBuffer buffer, int offset) {
+            for (int i = 0; i < element.length(); i++) {
+                buffer.put(offset + i, (byte) element.charAt(i));
+            }
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int offset, int length) {
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                builder.append((char) buffer.get(offset + i));
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Creates a temporary list file
+     * @return -
+     * @throws IOException -
+     */
+    private File createFile() throws IOException {
+        File file = File.createTempFile("mapped", ".list");
+        file.delete();
+        file.deleteOnExit();
+        new File(file.getPath() + ".data").deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Test fixed length records : binding then reopening
+     * @throws IOException -
+     */
+    @Test
+    public void testFixedLengthRecords() throws IOException {
+        File file = createFile();
+        MemoryMappedMutableList<Integer> source =
+                new MemoryMappedMutableList<Integer>(file, new IntegerCodec());
+        List<Integer> target = new ArrayList<Integer>();
+        BindingTools.createBinding(source, target);
+
+        for (int i = 0; i < 50000; i++) {
+            source.add(i);
+        }
+        source.add(0, -1);
+        source.remove(10);
+        source.set(5, 555);
+        source.subList(100, 200).clear();
+        Assert.assertEquals(source, target);
+        source.close();
+
+        // reopen
+        MemoryMappedMutableList<Integer> reopened =
+                new MemoryMappedMutableList<Integer>(file, new IntegerCodec());
+        Assert.assertEquals(target, reopened);
+        reopened.close();
+    }
+
+    /**
+     * Test variable length records : mutations, compaction then reopening
+     * @throws IOException -
+     */
+    @Test
+    public void testVariableLengthRecords() throws IOException {
+        File file = createFile();
+        MemoryMappedMutableList<String> source =
+                new MemoryMappedMutableList<String>(file, new StringCodec());
+        List<String> target = new ArrayList<String>();
+        BindingTools.createBinding(source, target);
+
+        List<String> temp = new ArrayList<String>();
+        temp.add("alpha");
+        temp.add("beta");
+        temp.add("gamma");
+        source.addAll(temp);
+        source.add(1, "inserted");
+        source.set(0, "a");
+        Assert.assertEquals("beta", source.remove(2));
+        Assert.assertEquals(source, target);
+
+        source.compact();
+        Assert.assertEquals(source, target);
+        source.close();
+
+        MemoryMappedMutableList<String> reopened =
+                new MemoryMappedMutableList<String>(file, new StringCodec());
+        Assert.assertEquals(target, reopened);
+        reopened.add("delta");
+        Assert.assertEquals("delta", reopened.get(3));
+        reopened.close();
+    }
+
+    /**
+     * Test empty variable length records, and that a failed write leaves the list unchanged
+     * @throws IOException -
+     */
+    @Test
+    public void testEmptyRecordsAndFailedWrite() throws IOException {
+        File file = createFile();
+        MemoryMappedMutableList<String> source =
+                new MemoryMappedMutableList<String>(file, new StringCodec() {
+
+                    @Override
+                    public void write(String element, ByteBuffer buffer, int offset) {
+                        if (element.equals("fail")) {
+                            throw new IllegalStateException("write failure");
+                        }
+                        super.write(element, buffer, offset);
+                    }
+                });
+        source.add("");
+        source.add("a");
+        source.add("");
+        Assert.assertEquals(Arrays.asList("", "a", ""), source);
+        try {
+            source.addAll(0, Arrays.asList("b", "fail"));
+            Assert.fail("the write failure should be propagated");
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(Arrays.asList("", "a", ""), source);
+        source.close();
+
+        MemoryMappedMutableList<String> reopened =
+                new MemoryMappedMutableList<String>(file, new StringCodec());
+        Assert.assertEquals(Arrays.asList("", "a", ""), reopened);
+        reopened.close();
+    }
+
+    /**
+     * Test that elements removed at the list end remain readable once the list grows again
+     * @throws IOException -
+     */
+    @Test
+    public void testClearedElementsRemainReadable() throws IOException {
+        File file = createFile();
+        MemoryMappedMutableList<Integer> source =
+                new MemoryMappedMutableList<Integer>(file, new IntegerCodec());
+        for (int i = 0; i < 1000; i++) {
+            source.add(i);
+        }
+        final List<List<Integer>> removed = new ArrayList<List<Integer>>();
+        source.addListDataListener(new TypedListDataListener<Integer>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void intervalRemoved(TypedListDataEvent event) {
+                removed.add(event.getPreviousElements());
+            }
+
+            @Override
+            public void intervalAdded(TypedListDataEvent event) {
+                // nothing
+            }
+
+            @Override
+            public void contentsChanged(TypedListDataEvent event) {
+                // nothing
+            }
+        });
+        source.subList(500, 1000).clear();
+        source.clear();
+        for (int i = 0; i < 2000; i++) {
+            source.add(-i);
+        }
+        Assert.assertEquals(2, removed.size());
+        Assert.assertEquals(500, removed.get(0).size());
+        Assert.assertEquals(Integer.valueOf(999), removed.get(0).get(499));
+        Assert.assertEquals(500, removed.get(1).size());
+        Assert.assertEquals(Integer.valueOf(250), removed.get(1).get(250));
+        source.close();
+    }
+}
@@ -0,0 +1,225 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.ElementCodecs;
+import binding.list.definition.implementation.MutableArrayList;
+
+/**
+ * Test for mutable array list serialization
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMutableArrayListSerialization {
+
+    /**
+     * Listener counting added intervals (not serializable, as most UI listeners)
+     */
+    private static class CountingListener implements TypedListDataListener<Integer> {
+
+        /** Added intervals count **/
+        private int added;
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            added++;
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            // not counted
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            // not counted
+        }
+    }
+
+    /**
+     * Serializes an object
+     * @param object : object to serialize
+     * @return - the serialized bytes
+     * @throws IOException : if serialization fails
+     */
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes an object
+     * @param bytes : serialized bytes
+     * @return - the read object
+     * @throws Exception : if deserialization fails
+     */
+    private static Object deserialize(byte[] bytes) throws Exception {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Builds a bound list with a few elements
+     * @return -
+     */
+    private static MutableArrayList<Integer> buildList() {
+        MutableArrayList<Integer> list = new MutableArrayList<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            list.add(i % 7 == 0 ? null : i);
+        }
+        list.addListDataListener(new CountingListener());
+        BindingTools.createBinding(list, new ArrayList<Integer>());
+        return list;
+    }
+
+    /**
+     * Test elements are written without listeners, with and without codec
+     * @throws Exception : if serialization fails
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRoundTrip() throws Exception {
+        MutableArrayList<Integer> list = buildList();
+        byte[] objectBytes = serialize(list);
+        MutableArrayList<Integer> read = (MutableArrayList<Integer>) deserialize(objectBytes);
+        Assert.assertEquals(list, read);
+        Assert.assertTrue(read.getTypedListeners().isEmpty());
+        Assert.assertNull(read.getElementCodec());
+
+        list.setElementCodec(ElementCodecs.INTEGER);
+        byte[] codecBytes = serialize(list);
+        read = (MutableArrayList<Integer>) deserialize(codecBytes);
+        Assert.assertEquals(list, read);
+        Assert.assertSame(ElementCodecs.INTEGER, read.getElementCodec());
+        Assert.assertTrue(codecBytes.length < objectBytes.length);
+
+        // read list is a working mutable list
+        CountingListener listener = new CountingListener();
+        read.addListDataListener(listener);
+        read.add(3);
+        Assert.assertEquals(1, listener.added);
+    }
+
+    /**
+     * Test reading a stream into a bound list fires a single event
+     * @throws Exception : if serialization fails
+     */
+    @Test
+    public void testReadElements() throws Exception {
+        MutableArrayList<Integer> written = buildList();
+        written.setElementCodec(ElementCodecs.INTEGER);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        written.writeExternal(out);
+        out.close();
+
+        MutableArrayList<Integer> target = new MutableArrayList<Integer>();
+        target.add(-1);
+        CountingListener listener = new CountingListener();
+        target.addListDataListener(listener);
+        List<Integer> bound = new ArrayList<Integer>();
+        BindingTools.createBinding(target, bound);
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes
+                .toByteArray()));
+        target.readElements(in);
+        in.close();
+
+        Assert.assertEquals(1, listener.added);
+        Assert.assertEquals(written.size() + 1, target.size());
+        Assert.assertEquals(written, target.subList(1, target.size()));
+        Assert.assertEquals(target, bound);
+        Assert.assertSame(ElementCodecs.INTEGER, target.getElementCodec());
+
+        // a list with a codec keeps it when reading a stream written without codec
+        written.setElementCodec(null);
+        in = new ObjectInputStream(new ByteArrayInputStream(serializeElements(written)));
+        target.readElements(in);
+        in.close();
+        Assert.assertEquals(2 * written.size() + 1, target.size());
+        Assert.assertSame(ElementCodecs.INTEGER, target.getElementCodec());
+    }
+
+    /**
+     * Writes list elements
+     * @param list : written list
+     * @return - the written bytes
+     * @throws IOException : if serialization fails
+     */
+    private static byte[] serializeElements(MutableArrayList<Integer> list) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        list.writeExternal(out);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Test corrupted counts fail with an IOException, without reserving memory for them
+     * @throws Exception : if serialization fails
+     */
+    @Test
+    public void testCorruptedCount() throws Exception {
+        int[] counts = new int[] {-1, Integer.MAX_VALUE};
+        for (int count : counts) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeInt(1);
+            out.writeInt(count);
+            out.writeObject(ElementCodecs.INTEGER);
+            out.writeBoolean(true);
+            out.writeInt(5);
+            out.close();
+
+            MutableArrayList<Integer> target = new MutableArrayList<Integer>();
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes
+                    .toByteArray()));
+            try {
+                target.readElements(in);
+                Assert.fail("An exception should have been thrown");
+            } catch (IOException e) {
+                // expected
+            } finally {
+                in.close();
+            }
+            Assert.assertTrue(target.isEmpty());
+        }
+    }
+}
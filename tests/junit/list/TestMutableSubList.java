@@ -0,0 +1,191 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.implementation.MutableSubList;
+
+/**
+ * Test for observable sub list windows
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMutableSubList {
+
+    /**
+     * Listener recording events as "type:index0:index1" strings
+     */
+    private static class RecordingListener implements TypedListDataListener<Integer> {
+
+        /** Recorded events **/
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            events.add("add:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            events.add("remove:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            events.add("change:" + event.getIndex0() + ":" + event.getIndex1());
+        }
+    }
+
+    /**
+     * Builds a list containing 0 to count - 1
+     * @param count : elements count
+     * @return -
+     */
+    private static MutableArrayList<Integer> createList(int count) {
+        MutableArrayList<Integer> list = new MutableArrayList<Integer>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    /**
+     * Tests that mutations through the window go through the parent events
+     */
+    @Test
+    public void testMutationsThroughWindow() {
+        MutableArrayList<Integer> list = createList(10);
+        RecordingListener parentListener = new RecordingListener();
+        list.addListDataListener(parentListener);
+
+        MutableList<Integer> window = list.subList(2, 5);
+        Assert.assertEquals(3, window.size());
+        Assert.assertEquals(Integer.valueOf(2), window.get(0));
+
+        window.add(100);
+        window.set(0, 200);
+        window.remove(1);
+        window.addAll(0, Arrays.asList(7, 8));
+        Assert.assertEquals(Arrays.asList(7, 8, 200, 4, 100), window);
+        Assert.assertEquals(Arrays.asList(0, 1, 7, 8, 200, 4, 100, 5), 
+                            list.subList(0, 8));
+        Assert.assertEquals(Arrays.asList("add:5:5", "change:2:2", "remove:3:3",
+                                                    "add:2:3"), parentListener.events);
+
+        // clearing a window fires a single parent event
+        parentListener.events.clear();
+        list.subList(1, 6).clear();
+        Assert.assertEquals(Arrays.asList("remove:1:5"), parentListener.events);
+        Assert.assertEquals(Arrays.asList(0, 100, 5, 6, 7, 8, 9), list);
+    }
+
+    /**
+     * Tests that window listeners only receive intersecting events, translated
+     */
+    @Test
+    public void testWindowEvents() {
+        MutableArrayList<Integer> list = createList(10000);
+        MutableSubList<Integer> window = list.subList(100, 200);
+        RecordingListener listener = new RecordingListener();
+        window.addListDataListener(listener);
+
+        // outside the window
+        list.set(5000, -1);
+        list.remove(9000);
+        Assert.assertTrue(listener.events.isEmpty());
+
+        // before the window : shifts it without event
+        list.add(0, -1);
+        list.remove(1);
+        list.remove(1);
+        Assert.assertTrue(listener.events.isEmpty());
+        Assert.assertEquals(Integer.valueOf(100), window.get(0));
+        Assert.assertEquals(99, window.getOffset());
+
+        // inside the window
+        list.set(100, -5);
+        Assert.assertEquals(Arrays.asList("change:1:1"), listener.events);
+        Assert.assertEquals(Integer.valueOf(-5), window.get(1));
+        listener.events.clear();
+        list.add(110, -2);
+        Assert.assertEquals(Arrays.asList("add:11:11"), listener.events);
+        Assert.assertEquals(101, window.size());
+        listener.events.clear();
+
+        // removal across the window start
+        list.subList(90, 102).clear();
+        Assert.assertEquals(Arrays.asList("remove:0:2"), listener.events);
+        Assert.assertEquals(98, window.size());
+        Assert.assertEquals(90, window.getOffset());
+        Assert.assertEquals(Integer.valueOf(103), window.get(0));
+        listener.events.clear();
+
+        // removal across the window end
+        list.subList(180, 300).clear();
+        Assert.assertEquals(Arrays.asList("remove:90:97"), listener.events);
+        Assert.assertEquals(90, window.size());
+
+        // unregistered from the parent with its last listener
+        window.removeListDataListener(listener);
+        Assert.assertEquals(0, list.getTypedListeners().size());
+    }
+
+    /**
+     * Tests that a window without listeners fails after a parent modification
+     */
+    @Test
+    public void testConcurrentModification() {
+        MutableArrayList<Integer> list = createList(10);
+        MutableList<Integer> window = list.subList(2, 5);
+        list.add(0);
+        try {
+            window.get(0);
+            Assert.fail("An exception should have been thrown");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+        // modifications keeping the parent size are detected too
+        window = list.subList(2, 5);
+        list.add(3, 0);
+        list.remove(3);
+        try {
+            window.size();
+            Assert.fail("An exception should have been thrown");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+        // a nested window is a window on the same parent
+        window = list.subList(2, 8).subList(1, 3);
+        Assert.assertEquals(Arrays.asList(3, 4), window);
+        window.clear();
+        Assert.assertEquals(9, list.size());
+    }
+}
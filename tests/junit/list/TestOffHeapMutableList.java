@@ -0,0 +1,104 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.implementation.OffHeapMutableList;
+import binding.list.definition.implementation.RecordCodec;
+
+/**
+ * Test for off-heap mutable list
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestOffHeapMutableList {
+
+    /**
+     * Codec for long values
+     */
+    private static class LongCodec implements RecordCodec<Long> {
+
+        @Override
+        public int getRecordLength() {
+            return 8;
+        }
+
+        @Override
+        public void write(Long element, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, element);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    }
+
+    /**
+     * Test list operations and their propagation through a binding
+     */
+    @Test
+    public void testBoundOperations() {
+        OffHeapMutableList<Long> source = new OffHeapMutableList<Long>(new LongCodec(), 2);
+        List<Long> target = new ArrayList<Long>();
+        BindingTools.createBinding(source, target);
+
+        // add (with capacity growth)
+        for (long i = 0; i < 100; i++) {
+            source.add(i);
+        }
+        Assert.assertEquals(100, source.size());
+        Assert.assertEquals(Long.valueOf(42), source.get(42));
+        Assert.assertEquals(source, target);
+
+        // insert all
+        List<Long> temp = new ArrayList<Long>();
+        temp.add(-1L);
+        temp.add(-2L);
+        source.addAll(10, temp);
+        Assert.assertEquals(Long.valueOf(-2), source.get(11));
+        Assert.assertEquals(Long.valueOf(10), source.get(12));
+        Assert.assertEquals(source, target);
+
+        // replace
+        Assert.assertEquals(Long.valueOf(-1), source.set(10, 555L));
+        Assert.assertEquals(source, target);
+
+        // remove
+        Assert.assertEquals(Long.valueOf(555), source.remove(10));
+        source.subList(0, 5).clear();
+        Assert.assertEquals(Long.valueOf(5), source.get(0));
+        Assert.assertEquals(source, target);
+
+        // clear then reuse
+        source.clear();
+        Assert.assertTrue(source.isEmpty());
+        Assert.assertEquals(source, target);
+        source.add(7L);
+        Assert.assertEquals(source, target);
+    }
+}
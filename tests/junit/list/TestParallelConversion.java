@@ -0,0 +1,167 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.target.AbstractListBindingTarget;
+
+/**
+ * Test for parallel conversion in list binding targets
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestParallelConversion {
+
+    /**
+     * Target recording converted indexes and converting threads
+     */
+    private static class RecordingTarget extends AbstractListBindingTarget<Integer, String> {
+
+        /** Threads that converted elements **/
+        private final Set<Thread> threads =
+                Collections.synchronizedSet(new HashSet<Thread>());
+
+        /** Is parallel conversion allowed? **/
+        private final boolean parallel;
+
+        /**
+         * Constructor
+         * @param target : target list
+         * @param parallel : is parallel conversion allowed?
+         */
+        public RecordingTarget(List<String> target, boolean parallel) {
+            super(target);
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected String convert(int elementIndex, Integer element) {
+            threads.add(Thread.currentThread());
+            return elementIndex + ":" + element;
+        }
+
+        @Override
+        protected boolean isParallelConversionAllowed() {
+            return parallel;
+        }
+    }
+
+    /**
+     * Builds a batch of elements
+     * @param size : batch size
+     * @return -
+     */
+    private static List<Integer> batch(int size) {
+        List<Integer> batch = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(i * 2);
+        }
+        return batch;
+    }
+
+    /**
+     * Test a large batch is converted in parallel and inserted in order
+     */
+    @Test
+    public void testLargeBatchOrder() {
+        List<String> target = new ArrayList<String>();
+        target.add("first");
+        target.add("last");
+        RecordingTarget bindingTarget = new RecordingTarget(target, true);
+        List<Integer> batch = batch(100000);
+        bindingTarget.intervalAdded(batch, batch, 1, batch.size());
+
+        Assert.assertEquals(100002, target.size());
+        Assert.assertEquals("first", target.get(0));
+        Assert.assertEquals("last", target.get(100001));
+        for (int i = 0; i < batch.size(); i++) {
+            Assert.assertEquals((i + 1) + ":" + (i * 2), target.get(i + 1));
+        }
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            Assert.assertFalse(bindingTarget.threads.contains(Thread.currentThread()));
+        }
+    }
+
+    /**
+     * Test small batches and opted out targets convert on the calling thread
+     */
+    @Test
+    public void testCallingThreadConversion() {
+        RecordingTarget small = new RecordingTarget(new ArrayList<String>(), true);
+        List<Integer> smallBatch = batch(10);
+        small.intervalAdded(smallBatch, smallBatch, 0, 9);
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), small.threads);
+
+        RecordingTarget optedOut = new RecordingTarget(new ArrayList<String>(), false);
+        List<Integer> largeBatch = batch(100000);
+        optedOut.intervalAdded(largeBatch, largeBatch, 0, largeBatch.size() - 1);
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), optedOut.threads);
+    }
+
+    /**
+     * Test that a conversion started by a conversion task does not wait for the busy executor
+     */
+    @Test
+    public void testNestedConversion() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<String> target = new ArrayList<String>();
+        final AbstractListBindingTarget<Integer, String> outer =
+                new AbstractListBindingTarget<Integer, String>(target) {
+
+                    @Override
+                    protected String convert(int elementIndex, Integer element) {
+                        if (elementIndex == 0) {
+                            // bind a large sub-list on the same executor
+                            RecordingTarget inner = new RecordingTarget(
+                                    new ArrayList<String>(), true);
+                            inner.setConversionExecutor(executor);
+                            List<Integer> innerBatch = batch(4096);
+                            inner.intervalAdded(innerBatch, innerBatch, 0, 4095);
+                        }
+                        return String.valueOf(element);
+                    }
+                };
+        outer.setConversionExecutor(executor);
+        Thread binding = new Thread() {
+
+            @Override
+            public void run() {
+                List<Integer> batch = batch(4096);
+                outer.intervalAdded(batch, batch, 0, 4095);
+            }
+        };
+        binding.setDaemon(true);
+        binding.start();
+        binding.join(30000);
+        executor.shutdownNow();
+        Assert.assertFalse(binding.isAlive());
+        Assert.assertEquals(4096, target.size());
+    }
+}
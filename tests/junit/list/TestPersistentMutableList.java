@@ -0,0 +1,134 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.ListBindingLink;
+import binding.list.definition.SnapshotListDataEvent;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.PersistentMutableList;
+import binding.list.definition.implementation.PersistentVector;
+import binding.list.source.SnapshotListBindingSource;
+import binding.list.target.BasicListBindingTarget;
+
+/**
+ * Test for persistent mutable list
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestPersistentMutableList {
+
+    /**
+     * Test random operations against an array list, through a binding
+     */
+    @Test
+    public void testRandomOperations() {
+        PersistentMutableList<Integer> source = new PersistentMutableList<Integer>();
+        List<Integer> expected = new ArrayList<Integer>();
+        List<Integer> target = new ArrayList<Integer>();
+        new ListBindingLink<Integer>(new SnapshotListBindingSource<Integer>(source),
+                                     new BasicListBindingTarget<Integer>(target));
+
+        Random random = new Random(29);
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(10);
+            int index = random.nextInt(expected.size() + 1);
+            if (operation < 4 || expected.isEmpty()) {
+                source.add(index, i);
+                expected.add(index, i);
+            }
+            else if (operation < 6) {
+                List<Integer> added = new ArrayList<Integer>();
+                for (int j = random.nextInt(20); j >= 0; j--) {
+                    added.add(-j);
+                }
+                source.addAll(index, added);
+                expected.addAll(index, added);
+            }
+            else if (operation < 8) {
+                index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.remove(index), source.remove(index));
+            }
+            else if (operation < 9) {
+                index = random.nextInt(expected.size());
+                int to = Math.min(expected.size(), index + random.nextInt(10));
+                source.subList(index, to).clear();
+                expected.subList(index, to).clear();
+            }
+            else {
+                index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.set(index, -i), source.set(index, -i));
+            }
+        }
+        Assert.assertEquals(expected, source);
+        Assert.assertEquals(expected, target);
+    }
+
+    /**
+     * Test snapshots are immutable and carried by events
+     */
+    @Test
+    public void testSnapshots() {
+        PersistentMutableList<String> source = new PersistentMutableList<String>();
+        source.add("a");
+        source.add("b");
+        PersistentVector<String> snapshot = source.snapshot();
+
+        final List<SnapshotListDataEvent<String>> events =
+                new ArrayList<SnapshotListDataEvent<String>>();
+        source.addListDataListener(new TypedListDataListener<String>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void intervalAdded(TypedListDataEvent event) {
+                events.add((SnapshotListDataEvent<String>) event);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void intervalRemoved(TypedListDataEvent event) {
+                events.add((SnapshotListDataEvent<String>) event);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void contentsChanged(TypedListDataEvent event) {
+                events.add((SnapshotListDataEvent<String>) event);
+            }
+        });
+
+        source.add(1, "c");
+        source.clear();
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals("b", snapshot.get(1));
+        Assert.assertEquals(2, events.size());
+        Assert.assertSame(snapshot, events.get(0).getPreviousSnapshot());
+        Assert.assertEquals("c", events.get(0).getNewSnapshot().get(1));
+        Assert.assertEquals(3, events.get(1).getPreviousElements().size());
+        Assert.assertTrue(events.get(1).getNewSnapshot().isEmpty());
+    }
+}
@@ -0,0 +1,162 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.SortedMutableList;
+
+/**
+ * Test for sorted list view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestSortedMutableList {
+
+    /** Comparator on items value **/
+    private static final Comparator<ObservableItem> BY_VALUE = new Comparator<ObservableItem>() {
+
+        @Override
+        public int compare(ObservableItem first, ObservableItem second) {
+            return first.getValue() < second.getValue() ? -1
+                    : (first.getValue() == second.getValue() ? 0 : 1);
+        }
+    };
+
+    /**
+     * Listener counting received events
+     */
+    private static class EventCounter implements TypedListDataListener<ObservableItem> {
+
+        /** Received events count **/
+        private int count;
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            count++;
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            count++;
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            count++;
+        }
+    }
+
+    /**
+     * Sorts a list from scratch
+     * @param source : source list
+     * @param comparator : comparator
+     * @return - the expected view content
+     */
+    private static List<ObservableItem> sort(List<ObservableItem> source,
+                                             Comparator<ObservableItem> comparator) {
+        List<ObservableItem> sorted = new ArrayList<ObservableItem>(source);
+        Collections.sort(sorted, comparator);
+        return sorted;
+    }
+
+    /**
+     * Test random source operations and element changes, through a binding
+     */
+    @Test
+    public void testIncrementalSorting() {
+        MutableList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        SortedMutableList<ObservableItem> view =
+                new SortedMutableList<ObservableItem>(source, BY_VALUE);
+        List<ObservableItem> target = new ArrayList<ObservableItem>();
+        BindingTools.createBinding(view, target);
+        EventCounter counter = new EventCounter();
+        view.addListDataListener(counter);
+
+        Random random = new Random(31);
+        for (int i = 0; i < 3000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || source.isEmpty()) {
+                List<ObservableItem> added = new ArrayList<ObservableItem>();
+                for (int j = random.nextInt(10); j >= 0; j--) {
+                    added.add(new ObservableItem("item" + i + "_" + j, random.nextInt(100)));
+                }
+                source.addAll(random.nextInt(source.size() + 1), added);
+            }
+            else if (operation == 1) {
+                source.remove(random.nextInt(source.size()));
+            }
+            else if (operation == 2) {
+                source.set(random.nextInt(source.size()),
+                           new ObservableItem("set" + i, random.nextInt(100)));
+            }
+            else {
+                counter.count = 0;
+                source.get(random.nextInt(source.size())).setValue(random.nextInt(100));
+                Assert.assertTrue(counter.count <= 2);
+            }
+            Assert.assertEquals(sort(source, BY_VALUE), view);
+            Assert.assertEquals("operation " + operation + " at step " + i, view, target);
+        }
+
+        view.setComparator(Collections.reverseOrder(BY_VALUE));
+        Assert.assertEquals(sort(source, Collections.reverseOrder(BY_VALUE)), view);
+        Assert.assertEquals(view, target);
+    }
+
+    /**
+     * Test an element change that keeps its position fires nothing
+     */
+    @Test
+    public void testChangeInPlace() {
+        MutableList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        ObservableItem middle = new ObservableItem("middle", 5);
+        source.add(new ObservableItem("high", 10));
+        source.add(middle);
+        source.add(new ObservableItem("low", 0));
+        SortedMutableList<ObservableItem> view =
+                new SortedMutableList<ObservableItem>(source, BY_VALUE);
+        EventCounter counter = new EventCounter();
+        view.addListDataListener(counter);
+
+        middle.setValue(7);
+        Assert.assertEquals(0, counter.count);
+        Assert.assertSame(middle, view.get(1));
+
+        middle.setValue(20);
+        Assert.assertEquals(2, counter.count);
+        Assert.assertSame(middle, view.get(2));
+
+        view.dispose();
+        Assert.assertEquals(0, middle.getListenersCount());
+    }
+}
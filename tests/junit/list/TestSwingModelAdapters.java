@@ -0,0 +1,278 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.list.adapter.swing.ColumnAccessor;
+import binding.list.adapter.swing.MutableListModelAdapter;
+import binding.list.adapter.swing.MutableListTableModel;
+import binding.list.definition.implementation.MutableArrayList;
+
+/**
+ * Test for the Swing table and list models over mutable lists
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestSwingModelAdapters {
+
+    /**
+     * An executor queuing tasks until they are run explicitly, as a dispatch thread tick
+     */
+    private static class ManualExecutor implements Executor {
+
+        /** Queued tasks **/
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        /**
+         * Runs the queued tasks
+         */
+        public void tick() {
+            List<Runnable> queued = new ArrayList<Runnable>(tasks);
+            tasks.clear();
+            for (Runnable task : queued) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * A table model listener recording the received events, and the rows count at that time
+     */
+    private static class RecordingTableListener implements TableModelListener {
+
+        /** Received events, as strings **/
+        private final List<String> events = new ArrayList<String>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void tableChanged(TableModelEvent event) {
+            String type = event.getType() == TableModelEvent.INSERT ? "insert"
+                    : event.getType() == TableModelEvent.DELETE ? "delete" : "update";
+            MutableListTableModel<?> model = (MutableListTableModel<?>) event.getSource();
+            events.add(type + ":" + event.getFirstRow() + ":" + event.getLastRow() + ":"
+                    + event.getColumn() + "/" + model.getRowCount());
+        }
+    }
+
+    /** Name column **/
+    private static final ColumnAccessor<StringBuilder> NAME =
+            new ColumnAccessor<StringBuilder>("Name", String.class) {
+
+                @Override
+                public Object getValue(StringBuilder row) {
+                    return row.toString();
+                }
+
+                @Override
+                public boolean isEditable(StringBuilder row) {
+                    return true;
+                }
+
+                @Override
+                public void setValue(StringBuilder row, Object value) {
+                    row.setLength(0);
+                    row.append(value);
+                }
+            };
+
+    /** Length column **/
+    private static final ColumnAccessor<CharSequence> LENGTH =
+            new ColumnAccessor<CharSequence>("Length", Integer.class) {
+
+                @Override
+                public Object getValue(CharSequence row) {
+                    return row.length();
+                }
+            };
+
+    /**
+     * Builds a list of string builders
+     * @param values : values
+     * @return -
+     */
+    private static MutableArrayList<StringBuilder> createList(String... values) {
+        MutableArrayList<StringBuilder> list = new MutableArrayList<StringBuilder>();
+        for (String value : values) {
+            list.add(new StringBuilder(value));
+        }
+        return list;
+    }
+
+    /**
+     * Tests the cells values and edition
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCells() {
+        MutableArrayList<StringBuilder> list = createList("a", "bcd");
+        MutableListTableModel<StringBuilder> model =
+                new MutableListTableModel<StringBuilder>(list, NAME, LENGTH);
+        Assert.assertEquals(2, model.getRowCount());
+        Assert.assertEquals(2, model.getColumnCount());
+        Assert.assertEquals("Length", model.getColumnName(1));
+        Assert.assertEquals(Integer.class, model.getColumnClass(1));
+        Assert.assertEquals("bcd", model.getValueAt(1, 0));
+        Assert.assertEquals(3, model.getValueAt(1, 1));
+        Assert.assertTrue(model.isCellEditable(0, 0));
+        Assert.assertFalse(model.isCellEditable(0, 1));
+
+        RecordingTableListener listener = new RecordingTableListener();
+        model.addTableModelListener(listener);
+        model.setValueAt("xy", 0, 0);
+        Assert.assertEquals(2, model.getValueAt(0, 1));
+        Assert.assertEquals(Arrays.asList("update:0:0:0/2"), listener.events);
+    }
+
+    /**
+     * Tests that each list event is translated into the exact rows event
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testExactEvents() {
+        MutableArrayList<StringBuilder> list = createList("a", "b", "c");
+        MutableListTableModel<StringBuilder> model =
+                new MutableListTableModel<StringBuilder>(list, NAME);
+        RecordingTableListener listener = new RecordingTableListener();
+        model.addTableModelListener(listener);
+
+        list.add(1, new StringBuilder("d"));
+        list.addAll(createList("e", "f"));
+        list.set(2, new StringBuilder("g"));
+        list.subList(0, 2).clear();
+        list.remove(3);
+        Assert.assertEquals(Arrays.asList("insert:1:1:-1/4", "insert:4:5:-1/6",
+                "update:2:2:-1/6", "delete:0:1:-1/4", "delete:3:3:-1/3"), listener.events);
+
+        model.dispose();
+        list.clear();
+        Assert.assertEquals(5, listener.events.size());
+    }
+
+    /**
+     * Tests that bursts are coalesced into one updated region and one inserted range per tick
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCoalescing() {
+        MutableArrayList<StringBuilder> list = createList("a", "b", "c", "d", "e");
+        MutableListTableModel<StringBuilder> model =
+                new MutableListTableModel<StringBuilder>(list, NAME);
+        ManualExecutor executor = new ManualExecutor();
+        model.setCoalescing(executor);
+        RecordingTableListener listener = new RecordingTableListener();
+        model.addTableModelListener(listener);
+
+        list.set(3, new StringBuilder("x"));
+        list.set(1, new StringBuilder("y"));
+        for (int i = 0; i < 100; i++) {
+            list.add(new StringBuilder("n" + i));
+        }
+        list.add(7, new StringBuilder("z"));
+        list.set(50, new StringBuilder("w"));
+        list.remove(60);
+        Assert.assertTrue(listener.events.isEmpty());
+        Assert.assertEquals(5, model.getRowCount());
+        Assert.assertEquals(1, executor.tasks.size());
+
+        executor.tick();
+        Assert.assertEquals(Arrays.asList("update:1:3:-1/5", "insert:5:104:-1/105"),
+                listener.events);
+        Assert.assertEquals("z", model.getValueAt(7, 0));
+
+        // a structural change among shown rows flushes buffered events first
+        list.set(0, new StringBuilder("v"));
+        list.add(new StringBuilder("t"));
+        list.remove(2);
+        Assert.assertEquals(Arrays.asList("update:1:3:-1/5", "insert:5:104:-1/105",
+                "update:0:0:-1/105", "insert:105:105:-1/106", "delete:2:2:-1/105"),
+                listener.events);
+        executor.tick();
+        Assert.assertEquals(5, listener.events.size());
+
+        list.set(4, new StringBuilder("u"));
+        model.disableCoalescing();
+        Assert.assertEquals("update:4:4:-1/105", listener.events.get(5));
+    }
+
+    /**
+     * Tests the list model adapter coalescing
+     */
+    @Test
+    public void testListModel() {
+        MutableArrayList<String> list = new MutableArrayList<String>();
+        list.add("a");
+        final MutableListModelAdapter<String> model = new MutableListModelAdapter<String>(list);
+        final List<String> events = new ArrayList<String>();
+        model.addListDataListener(new ListDataListener() {
+
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added:" + e.getIndex0() + ":" + e.getIndex1() + "/" + model.getSize());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed:" + e.getIndex0() + ":" + e.getIndex1() + "/"
+                        + model.getSize());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed:" + e.getIndex0() + ":" + e.getIndex1() + "/"
+                        + model.getSize());
+            }
+        });
+
+        list.add("b");
+        list.set(0, "c");
+        ManualExecutor executor = new ManualExecutor();
+        model.setCoalescing(executor);
+        list.addAll(Arrays.asList("d", "e"));
+        list.add("f");
+        list.remove("e");
+        Assert.assertEquals(2, model.getSize());
+        executor.tick();
+        Assert.assertEquals(Arrays.asList("added:1:1/2", "changed:0:0/2", "added:2:3/4"),
+                events);
+        Assert.assertEquals("f", model.getElementAt(3));
+    }
+}
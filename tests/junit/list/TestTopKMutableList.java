@@ -0,0 +1,115 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.list.ReplayingListeners.ListReplayer;
+
+import org.junit.Test;
+
+import binding.list.definition.implementation.MutableArrayList;
+import binding.list.definition.view.TopKMutableList;
+
+/**
+ * Test for the top K view
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestTopKMutableList {
+
+    /**
+     * Computes the expected view
+     * @param source : source elements
+     * @param k : shown elements count
+     * @return -
+     */
+    private static List<Integer> expectedTop(List<Integer> source, int k) {
+        List<Integer> sorted = new ArrayList<Integer>(source);
+        Collections.sort(sorted, Collections.reverseOrder());
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    /**
+     * Tests the view against a full sort after random source changes
+     */
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(7);
+        MutableArrayList<Integer> source = new MutableArrayList<Integer>();
+        for (int i = 0; i < 50; i++) {
+            source.add(random.nextInt(100));
+        }
+        TopKMutableList<Integer> view = new TopKMutableList<Integer>(source,
+                Collections.<Integer>reverseOrder(), 5, 3, true);
+        ListReplayer<Integer> listener = new ListReplayer<Integer>(view);
+        view.addListDataListener(listener);
+        for (int i = 0; i < 2000; i++) {
+            ReplayingListeners.modify(source, random, 100);
+            List<Integer> expected = expectedTop(source, 5);
+            Assert.assertEquals(expected, view);
+            Assert.assertEquals(expected, listener.getCopy());
+        }
+        view.dispose();
+        Assert.assertTrue(source.getTypedListeners().isEmpty());
+    }
+
+    /**
+     * Tests that elements changing their value are placed again
+     */
+    @Test
+    public void testElementChanges() {
+        MutableArrayList<ObservableItem> source = new MutableArrayList<ObservableItem>();
+        for (int i = 0; i < 10; i++) {
+            source.add(new ObservableItem("item" + i, i));
+        }
+        TopKMutableList<ObservableItem> view = new TopKMutableList<ObservableItem>(source,
+                new Comparator<ObservableItem>() {
+
+                    @Override
+                    public int compare(ObservableItem o1, ObservableItem o2) {
+                        return o1.getValue() - o2.getValue();
+                    }
+                }, 3);
+        ListReplayer<ObservableItem> listener = new ListReplayer<ObservableItem>(view);
+        view.addListDataListener(listener);
+        Assert.assertEquals("item0", view.get(0).getName());
+
+        // shown element moving inside the view, then leaving it
+        source.get(0).setValue(2);
+        Assert.assertEquals("item1", view.get(0).getName());
+        Assert.assertEquals("item0", view.get(1).getName());
+        source.get(1).setValue(50);
+        Assert.assertEquals("item0", view.get(0).getName());
+        Assert.assertEquals("item3", view.get(2).getName());
+
+        // other elements entering the view
+        source.get(9).setValue(-1);
+        Assert.assertEquals("item9", view.get(0).getName());
+        Assert.assertEquals(3, view.size());
+        Assert.assertEquals(view, listener.getCopy());
+        view.dispose();
+        Assert.assertEquals(0, source.get(0).getListenersCount());
+    }
+}
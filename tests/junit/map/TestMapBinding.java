@@ -0,0 +1,125 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.map;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.map.MapBindingLink;
+import binding.map.definition.MapDataEvent;
+import binding.map.definition.MapDataListener;
+import binding.map.definition.implementation.MutableHashMap;
+import binding.map.target.AbstractMapBindingTarget;
+
+/**
+ * Test for map binding links and targets
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMapBinding {
+
+    /**
+     * Tests a binding to a plain map, source change and termination
+     */
+    @Test
+    public void testDefaultBinding() {
+        MutableHashMap<String, Integer> source = new MutableHashMap<String, Integer>();
+        source.put("a", 1);
+        Map<String, Integer> target = new HashMap<String, Integer>();
+        target.put("unrelated", 0);
+        MapBindingLink<String, Integer> link = BindingTools.createBinding(source, target);
+        Assert.assertEquals(Integer.valueOf(1), target.get("a"));
+
+        source.put("b", 2);
+        source.put("a", 3);
+        source.remove("b");
+        Assert.assertEquals(Integer.valueOf(3), target.get("a"));
+        Assert.assertFalse(target.containsKey("b"));
+
+        MutableHashMap<String, Integer> other = new MutableHashMap<String, Integer>();
+        other.put("c", 4);
+        link.setBindingSource(other);
+        Assert.assertFalse(target.containsKey("a"));
+        Assert.assertEquals(Integer.valueOf(4), target.get("c"));
+        source.put("d", 5);
+        Assert.assertFalse(target.containsKey("d"));
+        Assert.assertTrue(source.getMapDataListeners().isEmpty());
+
+        link.terminateBinding();
+        Assert.assertEquals(1, target.size());
+        Assert.assertTrue(other.getMapDataListeners().isEmpty());
+    }
+
+    /**
+     * Tests that a converting target applies batches to a mutable target map with one event each
+     */
+    @Test
+    public void testIncrementalTarget() {
+        MutableHashMap<Integer, Integer> source = new MutableHashMap<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            source.put(i, i);
+        }
+        MutableHashMap<Integer, String> target = new MutableHashMap<Integer, String>();
+        final int[] events = new int[1];
+        target.addMapDataListener(new MapDataListener<Integer, String>() {
+
+            @Override
+            public void entriesAdded(MapDataEvent<Integer, String> event) {
+                events[0]++;
+            }
+
+            @Override
+            public void entriesRemoved(MapDataEvent<Integer, String> event) {
+                events[0]++;
+            }
+
+            @Override
+            public void entriesReplaced(MapDataEvent<Integer, String> event) {
+                events[0]++;
+            }
+        });
+        BindingTools.createBinding(source, new AbstractMapBindingTarget<Integer, Integer, String>(
+                target) {
+
+            @Override
+            protected String convert(Integer key, Integer value) {
+                return key + ":" + value;
+            }
+        });
+        Assert.assertEquals(1, events[0]);
+        Assert.assertEquals("10:10", target.get(10));
+
+        source.put(10, 11);
+        Assert.assertEquals("10:11", target.get(10));
+        List<Integer> removed = Arrays.asList(1, 2, 3);
+        source.removeKeys(removed);
+        Assert.assertEquals(3, events[0]);
+        Assert.assertEquals(997, target.size());
+        source.clear();
+        Assert.assertEquals(4, events[0]);
+        Assert.assertTrue(target.isEmpty());
+    }
+}
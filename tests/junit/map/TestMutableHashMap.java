@@ -0,0 +1,152 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.map;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.list.ReplayingListeners.MapReplayer;
+
+import org.junit.Test;
+
+import binding.map.definition.implementation.MutableHashMap;
+
+/**
+ * Test for the open addressing mutable hash map
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMutableHashMap {
+
+    /**
+     * A key whose hash code collides with many other keys
+     */
+    private static class CollidingKey {
+
+        /** Key value **/
+        private final int value;
+
+        /**
+         * Constructor
+         * @param value : key value
+         */
+        public CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value % 7;
+        }
+    }
+
+    /**
+     * Tests the map against a HashMap after random operations, with colliding keys
+     */
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(5);
+        MutableHashMap<CollidingKey, Integer> map = new MutableHashMap<CollidingKey, Integer>();
+        MapReplayer<CollidingKey, Integer> listener =
+                new MapReplayer<CollidingKey, Integer>(map);
+        map.addMapDataListener(listener);
+        Map<CollidingKey, Integer> reference = new HashMap<CollidingKey, Integer>();
+        for (int i = 0; i < 20000; i++) {
+            CollidingKey key = new CollidingKey(random.nextInt(300));
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                Assert.assertEquals(reference.put(key, i), map.put(key, i));
+            }
+            else if (operation < 8) {
+                Assert.assertEquals(reference.remove(key), map.remove(key));
+            }
+            else if (operation == 8) {
+                Map<CollidingKey, Integer> added = new HashMap<CollidingKey, Integer>();
+                added.put(key, i);
+                added.put(new CollidingKey(key.value + 1), -i);
+                reference.putAll(added);
+                map.putAll(added);
+            }
+            else {
+                // remove through the iterator every entry of a given remainder
+                int remainder = random.nextInt(5);
+                Iterator<Map.Entry<CollidingKey, Integer>> iterator = map.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getKey().value % 5 == remainder) {
+                        iterator.remove();
+                    }
+                }
+                Iterator<CollidingKey> referenceIterator = reference.keySet().iterator();
+                while (referenceIterator.hasNext()) {
+                    if (referenceIterator.next().value % 5 == remainder) {
+                        referenceIterator.remove();
+                    }
+                }
+            }
+            Assert.assertEquals(reference.size(), map.size());
+            Assert.assertEquals(reference.get(key), map.get(key));
+            Assert.assertEquals(reference.containsKey(key), map.containsKey(key));
+        }
+        Assert.assertEquals(reference, map);
+        Assert.assertEquals(reference, listener.getCopy());
+    }
+
+    /**
+     * Tests batch operations events, null key and entries setValue
+     */
+    @Test
+    public void testBatchEvents() {
+        MutableHashMap<String, Integer> map = new MutableHashMap<String, Integer>();
+        map.put("a", 1);
+        MapReplayer<String, Integer> listener = new MapReplayer<String, Integer>(map);
+        map.addMapDataListener(listener);
+
+        Map<String, Integer> added = new HashMap<String, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            added.put("key" + i, i);
+        }
+        added.put("a", 2);
+        map.putAll(added);
+        // one added event, one replaced event
+        Assert.assertEquals(2, listener.getEventsCount());
+
+        map.put(null, 5);
+        Assert.assertEquals(Integer.valueOf(5), map.get(null));
+        map.entrySet().iterator().next().setValue(42);
+        Assert.assertTrue(map.removeKeys(Arrays.asList("key1", "key2", "missing")));
+        Assert.assertFalse(map.removeKeys(Arrays.asList("missing")));
+        Assert.assertEquals(5, listener.getEventsCount());
+        Assert.assertEquals(listener.getCopy(), map);
+
+        map.clear();
+        Assert.assertEquals(6, listener.getEventsCount());
+        Assert.assertTrue(listener.getCopy().isEmpty());
+        map.clear();
+        Assert.assertEquals(6, listener.getEventsCount());
+    }
+}
@@ -0,0 +1,125 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.set;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.set.definition.SetDataEvent;
+import binding.set.definition.SetDataListener;
+import binding.set.definition.implementation.MutableHashSet;
+
+/**
+ * Test for the mutable hash set events
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMutableHashSet {
+
+    /**
+     * A listener recording the received events
+     */
+    private static class RecordingListener implements SetDataListener<Integer> {
+
+        /** Received events, as strings **/
+        private final List<String> events = new ArrayList<String>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void elementsAdded(SetDataEvent<Integer> event) {
+            events.add("added:" + new HashSet<Integer>(event.getElements()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void elementsRemoved(SetDataEvent<Integer> event) {
+            events.add("removed:" + new HashSet<Integer>(event.getElements()));
+        }
+    }
+
+    /**
+     * Tests the single element operations events
+     */
+    @Test
+    public void testSingleElementEvents() {
+        MutableHashSet<Integer> set = new MutableHashSet<Integer>();
+        RecordingListener listener = new RecordingListener();
+        set.addSetDataListener(listener);
+
+        Assert.assertTrue(set.add(1));
+        Assert.assertFalse(set.add(1));
+        Assert.assertTrue(set.add(2));
+        Assert.assertTrue(set.remove(1));
+        Assert.assertFalse(set.remove(3));
+        Assert.assertEquals(Arrays.asList("added:[1]", "added:[2]", "removed:[1]"),
+                listener.events);
+        Assert.assertEquals(new HashSet<Integer>(Arrays.asList(2)), set);
+    }
+
+    /**
+     * Tests that the bulk operations fire a single event holding only the changed elements
+     */
+    @Test
+    public void testBulkEvents() {
+        MutableHashSet<Integer> set = new MutableHashSet<Integer>(Arrays.asList(1, 2, 3));
+        RecordingListener listener = new RecordingListener();
+        set.addSetDataListener(listener);
+
+        Assert.assertTrue(set.addAll(Arrays.asList(3, 4, 5)));
+        Assert.assertFalse(set.addAll(Arrays.asList(1, 2)));
+        Assert.assertTrue(set.removeAll(Arrays.asList(1, 5, 6)));
+        Assert.assertTrue(set.retainAll(Arrays.asList(2, 3)));
+        Assert.assertFalse(set.retainAll(Arrays.asList(2, 3)));
+        set.clear();
+        set.clear();
+        Assert.assertEquals(Arrays.asList("added:[4, 5]", "removed:[1, 5]", "removed:[4]",
+                "removed:[2, 3]"), listener.events);
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    /**
+     * Tests the events fired when removing through the iterator
+     */
+    @Test
+    public void testIteratorRemoval() {
+        MutableHashSet<Integer> set = new MutableHashSet<Integer>(Arrays.asList(1, 2, 3, 4));
+        RecordingListener listener = new RecordingListener();
+        set.addSetDataListener(listener);
+        for (Iterator<Integer> iterator = set.iterator(); iterator.hasNext();) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(2, listener.events.size());
+        Set<Integer> expected = new HashSet<Integer>(Arrays.asList(1, 3));
+        Assert.assertEquals(expected, set);
+    }
+}
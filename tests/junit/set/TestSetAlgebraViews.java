@@ -0,0 +1,202 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.set;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Assert;
+import junit.list.ReplayingListeners.SetReplayer;
+
+import org.junit.Test;
+
+import binding.set.definition.implementation.MutableHashSet;
+import binding.set.definition.view.AbstractSetAlgebraView;
+import binding.set.definition.view.DifferenceMutableSet;
+import binding.set.definition.view.IntersectionMutableSet;
+import binding.set.definition.view.UnionMutableSet;
+
+/**
+ * Test for the union, intersection and difference set views
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestSetAlgebraViews {
+
+    /**
+     * Checks a view against the expected content
+     * @param expected : expected content
+     * @param view : checked view
+     * @param listener : listener of the view
+     */
+    private static void check(Set<Integer> expected, Set<Integer> view,
+            SetReplayer<Integer> listener) {
+        Assert.assertEquals(expected.size(), view.size());
+        Assert.assertEquals(expected, new HashSet<Integer>(view));
+        Assert.assertEquals(expected.size(), new ArrayList<Integer>(view).size());
+        Assert.assertEquals(expected, listener.getCopy());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(expected.contains(i), view.contains(i));
+        }
+    }
+
+    /**
+     * Tests the basic content of each view
+     */
+    @Test
+    public void testContent() {
+        MutableHashSet<Integer> left = new MutableHashSet<Integer>(Arrays.asList(1, 2, 3));
+        MutableHashSet<Integer> right = new MutableHashSet<Integer>(Arrays.asList(3, 4));
+        Assert.assertEquals(new HashSet<Integer>(Arrays.asList(1, 2, 3, 4)),
+                new UnionMutableSet<Integer>(left, right));
+        Assert.assertEquals(new HashSet<Integer>(Arrays.asList(3)),
+                new IntersectionMutableSet<Integer>(left, right));
+        Assert.assertEquals(new HashSet<Integer>(Arrays.asList(1, 2)),
+                new DifferenceMutableSet<Integer>(left, right));
+    }
+
+    /**
+     * Tests that a bulk operation on a source set results in at most one event of each kind
+     */
+    @Test
+    public void testBulkEvents() {
+        MutableHashSet<Integer> left = new MutableHashSet<Integer>(Arrays.asList(1, 2, 3));
+        MutableHashSet<Integer> right = new MutableHashSet<Integer>(Arrays.asList(3, 4));
+        DifferenceMutableSet<Integer> difference = new DifferenceMutableSet<Integer>(left, right);
+        SetReplayer<Integer> listener = new SetReplayer<Integer>(difference);
+        difference.addSetDataListener(listener);
+
+        right.addAll(Arrays.asList(1, 2, 5));
+        Assert.assertEquals(1, listener.getEventsCount());
+        Assert.assertTrue(difference.isEmpty());
+
+        right.clear();
+        Assert.assertEquals(2, listener.getEventsCount());
+        check(new HashSet<Integer>(Arrays.asList(1, 2, 3)), difference, listener);
+
+        // unchanged view: no event
+        right.add(7);
+        Assert.assertEquals(2, listener.getEventsCount());
+    }
+
+    /**
+     * Tests views sharing a source set on both sides, directly or through another view
+     */
+    @Test
+    public void testSharedSources() {
+        MutableHashSet<Integer> selected = new MutableHashSet<Integer>();
+        MutableHashSet<Integer> pinned = new MutableHashSet<Integer>();
+        UnionMutableSet<Integer> visible = new UnionMutableSet<Integer>(selected, pinned);
+        IntersectionMutableSet<Integer> diamond =
+                new IntersectionMutableSet<Integer>(selected, visible);
+        SetReplayer<Integer> listener = new SetReplayer<Integer>(diamond);
+        diamond.addSetDataListener(listener);
+
+        selected.add(1);
+        Assert.assertEquals(1, listener.getEventsCount());
+        check(new HashSet<Integer>(Arrays.asList(1)), diamond, listener);
+        pinned.add(1);
+        pinned.add(2);
+        Assert.assertEquals(1, listener.getEventsCount());
+        selected.remove(1);
+        Assert.assertEquals(2, listener.getEventsCount());
+        check(new HashSet<Integer>(), diamond, listener);
+
+        MutableHashSet<Integer> set = new MutableHashSet<Integer>(Arrays.asList(5));
+        UnionMutableSet<Integer> self = new UnionMutableSet<Integer>(set, set);
+        SetReplayer<Integer> selfListener = new SetReplayer<Integer>(self);
+        self.addSetDataListener(selfListener);
+        check(new HashSet<Integer>(Arrays.asList(5)), self, selfListener);
+        set.addAll(Arrays.asList(6, 7));
+        set.remove(5);
+        Assert.assertEquals(2, selfListener.getEventsCount());
+        check(new HashSet<Integer>(Arrays.asList(6, 7)), self, selfListener);
+        Assert.assertTrue(new DifferenceMutableSet<Integer>(set, set).isEmpty());
+    }
+
+    /**
+     * Tests the views against sets recomputed after random operations
+     */
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(48);
+        MutableHashSet<Integer> left = new MutableHashSet<Integer>();
+        MutableHashSet<Integer> right = new MutableHashSet<Integer>();
+        List<AbstractSetAlgebraView<Integer>> views = new ArrayList<AbstractSetAlgebraView<Integer>>();
+        views.add(new UnionMutableSet<Integer>(left, right));
+        views.add(new IntersectionMutableSet<Integer>(left, right));
+        views.add(new DifferenceMutableSet<Integer>(left, right));
+        List<SetReplayer<Integer>> listeners = new ArrayList<SetReplayer<Integer>>();
+        for (AbstractSetAlgebraView<Integer> view : views) {
+            SetReplayer<Integer> listener = new SetReplayer<Integer>(view);
+            view.addSetDataListener(listener);
+            listeners.add(listener);
+        }
+
+        for (int step = 0; step < 500; step++) {
+            MutableHashSet<Integer> changed = random.nextBoolean() ? left : right;
+            List<Integer> elements = new ArrayList<Integer>();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                elements.add(random.nextInt(20));
+            }
+            switch (random.nextInt(5)) {
+            case 0:
+                changed.add(elements.get(0));
+                break;
+            case 1:
+                changed.remove(elements.get(0));
+                break;
+            case 2:
+                changed.addAll(elements);
+                break;
+            case 3:
+                changed.removeAll(elements);
+                break;
+            default:
+                if (random.nextInt(10) == 0) {
+                    changed.clear();
+                }
+                else {
+                    changed.retainAll(elements);
+                }
+            }
+
+            Set<Integer> union = new HashSet<Integer>(left);
+            union.addAll(right);
+            Set<Integer> intersection = new HashSet<Integer>(left);
+            intersection.retainAll(right);
+            Set<Integer> difference = new HashSet<Integer>(left);
+            difference.removeAll(right);
+            check(union, views.get(0), listeners.get(0));
+            check(intersection, views.get(1), listeners.get(1));
+            check(difference, views.get(2), listeners.get(2));
+        }
+
+        for (AbstractSetAlgebraView<Integer> view : views) {
+            view.dispose();
+        }
+        int eventsCount = listeners.get(0).getEventsCount();
+        left.add(100);
+        Assert.assertEquals(eventsCount, listeners.get(0).getEventsCount());
+    }
+}
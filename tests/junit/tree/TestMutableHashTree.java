@@ -0,0 +1,228 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.tree.definition.ChildrenLoader;
+import binding.tree.definition.TreeDataEvent;
+import binding.tree.definition.TreeDataListener;
+import binding.tree.definition.implementation.MutableHashTree;
+
+/**
+ * Test for the mutable hash tree events and lazy loading
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestMutableHashTree {
+
+    /**
+     * A listener recording the received events
+     */
+    private static class RecordingListener implements TreeDataListener<String> {
+
+        /** Received events, as strings **/
+        private final List<String> events = new ArrayList<String>();
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void subtreesInserted(TreeDataEvent<String> event) {
+            events.add("inserted:" + event.getParent() + ":" + event.getIndex0() + ":"
+                    + event.getNewChildren());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void subtreesRemoved(TreeDataEvent<String> event) {
+            events.add("removed:" + event.getParent() + ":" + event.getIndex0() + ":"
+                    + event.getPreviousChildren());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void subtreesReplaced(TreeDataEvent<String> event) {
+            events.add("replaced:" + event.getParent() + ":" + event.getIndex0() + ":"
+                    + event.getPreviousChildren() + "->" + event.getNewChildren());
+        }
+    }
+
+    /**
+     * A loader of an infinite tree, where each node has a fixed count of children
+     */
+    private static class CountingLoader implements ChildrenLoader<String> {
+
+        /** Children count of each node **/
+        private final int fanOut;
+
+        /** Count of loaded nodes **/
+        private int loadCount;
+
+        /**
+         * Constructor
+         * @param fanOut : children count of each node
+         */
+        public CountingLoader(int fanOut) {
+            this.fanOut = fanOut;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasChildren(String node) {
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public List<String> loadChildren(String node) {
+            loadCount++;
+            List<String> children = new ArrayList<String>(fanOut);
+            for (int i = 0; i < fanOut; i++) {
+                children.add(node + "/" + i);
+            }
+            return children;
+        }
+    }
+
+    /**
+     * Tests the structure changes and their events
+     */
+    @Test
+    public void testEvents() {
+        MutableHashTree<String> tree = new MutableHashTree<String>("r");
+        RecordingListener listener = new RecordingListener();
+        tree.addTreeDataListener(listener);
+
+        tree.addChild("r", "a");
+        tree.addChild("r", "b");
+        tree.insertChildren("a", 0, Arrays.asList("a1", "a2"));
+        tree.insertChild("r", 1, "c");
+        Assert.assertEquals(Arrays.asList("a", "c", "b"), tree.getChildren("r"));
+        Assert.assertEquals("a", tree.getParent("a2"));
+        Assert.assertEquals(1, tree.getIndexOfChild("a", "a2"));
+        Assert.assertEquals(-1, tree.getIndexOfChild("r", "a2"));
+
+        tree.removeChildren("r", 0, 2);
+        Assert.assertFalse(tree.contains("a1"));
+        Assert.assertFalse(tree.contains("c"));
+        Assert.assertEquals(2, tree.getLoadedNodeCount());
+
+        tree.addChild("b", "b1");
+        tree.setChild("r", 0, new String("b"));
+        Assert.assertEquals("b", tree.getParent("b1"));
+        tree.setChild("r", 0, "d");
+        Assert.assertFalse(tree.contains("b1"));
+        Assert.assertTrue(tree.remove("d"));
+        Assert.assertFalse(tree.remove("d"));
+        Assert.assertTrue(tree.remove("r"));
+        Assert.assertNull(tree.getRoot());
+        tree.setRoot("s");
+
+        Assert.assertEquals(Arrays.asList("inserted:r:0:[a]", "inserted:r:1:[b]",
+                "inserted:a:0:[a1, a2]", "inserted:r:1:[c]", "removed:r:0:[a, c]",
+                "inserted:b:0:[b1]", "replaced:r:0:[b]->[b]", "replaced:r:0:[b]->[d]",
+                "removed:r:0:[d]", "removed:null:0:[r]", "inserted:null:0:[s]"),
+                listener.events);
+    }
+
+    /**
+     * Tests that invalid structure changes are refused
+     */
+    @Test
+    public void testInvalidChanges() {
+        MutableHashTree<String> tree = new MutableHashTree<String>("r");
+        tree.addChild("r", "a");
+        try {
+            tree.addChild("r", "a");
+            Assert.fail("a node can not be inserted twice");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            tree.addChild("unknown", "b");
+            Assert.fail("the parent must be in the tree");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            tree.insertChildren("r", 0, Arrays.asList("b", "b"));
+            Assert.fail("duplicated children can not be inserted");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            tree.setChild("r", 0, "r");
+            Assert.fail("a node can not be moved by replacement");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertEquals(Arrays.asList("a"), tree.getChildren("r"));
+    }
+
+    /**
+     * Tests that only the explored nodes of a lazily loaded tree are materialized
+     */
+    @Test
+    public void testLazyLoading() {
+        CountingLoader loader = new CountingLoader(1000);
+        MutableHashTree<String> tree = new MutableHashTree<String>("r", loader);
+        RecordingListener listener = new RecordingListener();
+        tree.addTreeDataListener(listener);
+
+        Assert.assertFalse(tree.isLeaf("r"));
+        Assert.assertFalse(tree.isLoaded("r"));
+        Assert.assertEquals(0, loader.loadCount);
+
+        Assert.assertEquals("r/5", tree.getChild("r", 5));
+        Assert.assertEquals("r/5/7", tree.getChild("r/5", 7));
+        Assert.assertEquals(2, loader.loadCount);
+        Assert.assertEquals(2001, tree.getLoadedNodeCount());
+        Assert.assertFalse(tree.isLoaded("r/6"));
+
+        // changing a node that was never loaded loads it first
+        tree.addChild("r/6", "new");
+        Assert.assertEquals(1000, tree.getIndexOfChild("r/6", "new"));
+        Assert.assertEquals(3, loader.loadCount);
+        Assert.assertEquals(Arrays.asList("inserted:r/6:1000:[new]"), listener.events);
+
+        // removing a subtree forgets its loaded nodes only
+        tree.removeChildren("r", 5, 2);
+        Assert.assertEquals(999, tree.getLoadedNodeCount());
+        Assert.assertEquals(3, loader.loadCount);
+    }
+}
@@ -0,0 +1,161 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.tree.TreeBindingLink;
+import binding.tree.definition.ChildrenLoader;
+import binding.tree.definition.implementation.MutableHashTree;
+import binding.tree.target.swing.TreeModelBindingTarget;
+
+/**
+ * Test for tree binding links and the Swing tree model target
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestTreeBinding {
+
+    /**
+     * A tree model listener recording the received events
+     */
+    private static class RecordingListener implements TreeModelListener {
+
+        /** Received events, as strings **/
+        private final List<String> events = new ArrayList<String>();
+
+        /**
+         * Records an event
+         * @param kind : event kind
+         * @param event : event
+         */
+        private void record(String kind, TreeModelEvent event) {
+            events.add(kind + ":" + (event.getTreePath() == null ? null : event.getTreePath())
+                    + ":" + Arrays.toString(event.getChildIndices()) + ":"
+                    + Arrays.toString(event.getChildren()));
+        }
+
+        @Override
+        public void treeNodesChanged(TreeModelEvent event) {
+            record("changed", event);
+        }
+
+        @Override
+        public void treeNodesInserted(TreeModelEvent event) {
+            record("inserted", event);
+        }
+
+        @Override
+        public void treeNodesRemoved(TreeModelEvent event) {
+            record("removed", event);
+        }
+
+        @Override
+        public void treeStructureChanged(TreeModelEvent event) {
+            record("structure", event);
+        }
+    }
+
+    /**
+     * Tests the fine-grained events of the tree model
+     */
+    @Test
+    public void testTreeModelEvents() {
+        MutableHashTree<String> tree = new MutableHashTree<String>("r");
+        tree.addChild("r", "a");
+        TreeModelBindingTarget<String> model = new TreeModelBindingTarget<String>();
+        RecordingListener listener = new RecordingListener();
+        model.addTreeModelListener(listener);
+        TreeBindingLink<String> link = BindingTools.createBinding(tree, model);
+        Assert.assertEquals("r", model.getRoot());
+        Assert.assertEquals("a", model.getChild("r", 0));
+
+        tree.insertChildren("a", 0, Arrays.asList("a1", "a2"));
+        tree.removeChildren("a", 1, 1);
+        tree.setChild("a", 0, new String("a1"));
+        tree.setChild("a", 0, "a3");
+
+        link.terminateBinding();
+        Assert.assertNull(model.getRoot());
+        Assert.assertTrue(tree.getTreeDataListeners().isEmpty());
+        Assert.assertEquals(Arrays.asList("structure:[r]:[]:null",
+                "inserted:[r, a]:[0, 1]:[a1, a2]", "removed:[r, a]:[1]:[a2]",
+                "changed:[r, a]:[0]:[a1]", "removed:[r, a]:[0]:[a1]", "inserted:[r, a]:[0]:[a3]",
+                "structure:null:[]:null"), listener.events);
+    }
+
+    /**
+     * Tests that binding a huge lazily loaded tree only materializes the nodes read by the 
+     * target
+     */
+    @Test
+    public void testLazyBinding() {
+        MutableHashTree<Integer> tree = new MutableHashTree<Integer>(0,
+                new ChildrenLoader<Integer>() {
+
+                    @Override
+                    public boolean hasChildren(Integer node) {
+                        return node < 100000000;
+                    }
+
+                    @Override
+                    public List<Integer> loadChildren(Integer node) {
+                        List<Integer> children = new ArrayList<Integer>();
+                        for (int i = 1; i <= 100; i++) {
+                            children.add(node * 100 + i);
+                        }
+                        return children;
+                    }
+                });
+        TreeModelBindingTarget<Integer> model = new TreeModelBindingTarget<Integer>();
+        RecordingListener listener = new RecordingListener();
+        model.addTreeModelListener(listener);
+        TreeBindingLink<Integer> link = new TreeBindingLink<Integer>(tree, model);
+        Assert.assertEquals(1, tree.getLoadedNodeCount());
+        Assert.assertFalse(model.isLeaf(0));
+        Assert.assertEquals(1, tree.getLoadedNodeCount());
+
+        Assert.assertEquals(100, model.getChildCount(0));
+        Object child = model.getChild(0, 41);
+        Assert.assertEquals(41, model.getIndexOfChild(0, child));
+        Assert.assertEquals(101, tree.getLoadedNodeCount());
+
+        tree.addChild(42, -1);
+        Assert.assertEquals("inserted:[0, 42]:[100]:[-1]", listener.events.get(1));
+        Assert.assertEquals(202, tree.getLoadedNodeCount());
+
+        // rebinding only replaces the root
+        MutableHashTree<Integer> other = new MutableHashTree<Integer>(7);
+        link.setBindingSource(other);
+        Assert.assertEquals(7, model.getRoot());
+        Assert.assertEquals(4, listener.events.size());
+        tree.addChild(43, -2);
+        Assert.assertEquals(4, listener.events.size());
+    }
+}
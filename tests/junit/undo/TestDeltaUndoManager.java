@@ -0,0 +1,271 @@
+/** 
+ * This file is part of Binding Tools project.
+ *
+ * Binding Tools is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of 
+ * the License, or (at your option) any later version.
+ *
+ * Binding Tools is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * and GNU Lesser General Public License along with Binding Tools project.
+ * If not, see <http://www.gnu.org/licenses/>.
+ **/
+package junit.undo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.JButton;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import binding.BindingTools;
+import binding.list.definition.MutableList;
+import binding.list.definition.TypedListDataEvent;
+import binding.list.definition.TypedListDataListener;
+import binding.list.definition.implementation.MutableArrayList;
+import binding.property.source.object.BeanBindingSource;
+import binding.property.target.BeanBindingTarget;
+import binding.undo.DeltaUndoManager;
+
+/**
+ * Test for delta based undo manager
+ * 
+ * Copyright 2011, Raphael Mechali <br>
+ * Distributed under Lesser GNU General Public License (LGPL)
+ */
+public class TestDeltaUndoManager {
+
+    /**
+     * Listener counting received events
+     */
+    private static class EventCounter implements TypedListDataListener<Character> {
+
+        /** Received events count **/
+        private int count;
+
+        @Override
+        public void intervalAdded(TypedListDataEvent event) {
+            count++;
+        }
+
+        @Override
+        public void intervalRemoved(TypedListDataEvent event) {
+            count++;
+        }
+
+        @Override
+        public void contentsChanged(TypedListDataEvent event) {
+            count++;
+        }
+    }
+
+    /**
+     * Types a text in a list of characters
+     * @param list : list
+     * @param index : insertion index
+     * @param text : typed text
+     */
+    private static void type(MutableList<Character> list, int index, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            list.add(index + i, text.charAt(i));
+        }
+    }
+
+    /**
+     * Test coalesced list changes are undone and redone as single events
+     */
+    @Test
+    public void testListSteps() {
+        MutableList<Character> text = new MutableArrayList<Character>();
+        List<Character> bound = new ArrayList<Character>();
+        BindingTools.createBinding(text, bound);
+        DeltaUndoManager undoManager = new DeltaUndoManager(1024 * 1024);
+        undoManager.setCoalescingWindow(Long.MAX_VALUE);
+        undoManager.watch(text);
+
+        type(text, 0, "hello");
+        undoManager.endStep();
+        type(text, 5, " world");
+        undoManager.endStep();
+        // backspace 3 times, then delete twice at the start
+        for (int i = 0; i < 3; i++) {
+            text.remove(text.size() - 1);
+        }
+        for (int i = 0; i < 2; i++) {
+            text.remove(0);
+        }
+        undoManager.endStep();
+        text.set(0, 'L');
+        text.set(0, 'P');
+        Assert.assertEquals(Arrays.asList('P', 'l', 'o', ' ', 'w', 'o'), text);
+        Assert.assertEquals(5, undoManager.getUndoCount());
+
+        EventCounter counter = new EventCounter();
+        text.addListDataListener(counter);
+        undoManager.undo();
+        Assert.assertEquals(Arrays.asList('l', 'l', 'o', ' ', 'w', 'o'), text);
+        undoManager.undo();
+        undoManager.undo();
+        Assert.assertEquals(Arrays.asList('h', 'e', 'l', 'l', 'o', ' ', 'w', 'o', 'r', 'l', 'd'),
+                            text);
+        undoManager.undo();
+        Assert.assertEquals(Arrays.asList('h', 'e', 'l', 'l', 'o'), text);
+        Assert.assertEquals(4, counter.count);
+        Assert.assertEquals(text, bound);
+
+        undoManager.redo();
+        undoManager.redo();
+        Assert.assertEquals(Arrays.asList('h', 'e', 'l', 'l', 'o', ' ', 'w', 'o'), text);
+        Assert.assertEquals(text, bound);
+
+        // a new change drops redoable steps
+        text.add('!');
+        Assert.assertFalse(undoManager.canRedo());
+    }
+
+    /**
+     * Test keystroke-level property changes are undone in one step
+     */
+    @Test
+    public void testPropertySteps() {
+        JButton button = new JButton("a");
+        DeltaUndoManager undoManager = new DeltaUndoManager(1024 * 1024);
+        undoManager.setCoalescingWindow(Long.MAX_VALUE);
+        undoManager.watch(new BeanBindingSource(button, "text"),
+                          new BeanBindingTarget(button, "text"));
+
+        button.setText("ab");
+        button.setText("abc");
+        undoManager.endStep();
+        button.setText("abcd");
+        Assert.assertEquals(2, undoManager.getUndoCount());
+
+        undoManager.undo();
+        Assert.assertEquals("abc", button.getText());
+        undoManager.undo();
+        Assert.assertEquals("a", button.getText());
+        Assert.assertFalse(undoManager.canUndo());
+        undoManager.redo();
+        undoManager.redo();
+        Assert.assertEquals("abcd", button.getText());
+    }
+
+    /**
+     * Test the memory budget drops the oldest steps
+     */
+    @Test
+    public void testMemoryBudget() {
+        MutableList<Character> text = new MutableArrayList<Character>();
+        DeltaUndoManager undoManager = new DeltaUndoManager(2000);
+        undoManager.setCoalescingWindow(0);
+        undoManager.watch(text);
+        type(text, 0, "abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyz");
+        Assert.assertTrue(undoManager.getUsedMemory() <= 2000);
+        int kept = undoManager.getUndoCount();
+        Assert.assertTrue(kept < 52);
+
+        while (undoManager.canUndo()) {
+            undoManager.undo();
+        }
+        Assert.assertEquals(52 - kept, text.size());
+        undoManager.unwatch(text);
+        text.add('z');
+        Assert.assertFalse(undoManager.canUndo());
+    }
+
+    /**
+     * Test range replacements are undone and redone as single events
+     */
+    @Test
+    public void testReplacementSteps() {
+        MutableArrayList<Character> text = new MutableArrayList<Character>();
+        type(text, 0, "abcde");
+        List<Character> bound = new ArrayList<Character>();
+        BindingTools.createBinding(text, bound);
+        DeltaUndoManager undoManager = new DeltaUndoManager(1024 * 1024);
+        undoManager.watch(text);
+
+        text.setAll(1, Arrays.asList('X', 'Y', 'Z'));
+        Assert.assertEquals(Arrays.asList('a', 'X', 'Y', 'Z', 'e'), text);
+        EventCounter counter = new EventCounter();
+        text.addListDataListener(counter);
+        undoManager.undo();
+        Assert.assertEquals(Arrays.asList('a', 'b', 'c', 'd', 'e'), text);
+        Assert.assertEquals(1, counter.count);
+        undoManager.redo();
+        Assert.assertEquals(Arrays.asList('a', 'X', 'Y', 'Z', 'e'), text);
+        Assert.assertEquals(2, counter.count);
+        Assert.assertEquals(text, bound);
+    }
+
+    /**
+     * Test text property changes only keep their changed part
+     */
+    @Test
+    public void testTextSteps() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            longText.append((char) ('a' + i % 26));
+        }
+        String initial = longText.toString();
+        JButton button = new JButton(initial);
+        DeltaUndoManager undoManager = new DeltaUndoManager(1024 * 1024);
+        undoManager.setCoalescingWindow(Long.MAX_VALUE);
+        undoManager.watch(new BeanBindingSource(button, "text"),
+                          new BeanBindingTarget(button, "text"));
+
+        // keystrokes in the middle of the text, then a deletion
+        longText.insert(50000, 'X');
+        button.setText(longText.toString());
+        longText.insert(50001, 'Y');
+        button.setText(longText.toString());
+        String typed = longText.toString();
+        undoManager.endStep();
+        longText.delete(10, 20);
+        button.setText(longText.toString());
+        String deleted = longText.toString();
+        Assert.assertEquals(2, undoManager.getUndoCount());
+        Assert.assertTrue(undoManager.getUsedMemory() < 1000);
+
+        undoManager.undo();
+        Assert.assertEquals(typed, button.getText());
+        undoManager.undo();
+        Assert.assertEquals(initial, button.getText());
+        undoManager.redo();
+        Assert.assertEquals(typed, button.getText());
+        undoManager.redo();
+        Assert.assertEquals(deleted, button.getText());
+    }
+
+    /**
+     * Test a text changed outside of the recorded changes is not spliced
+     */
+    @Test
+    public void testTextModifiedOutside() {
+        JButton button = new JButton("hello");
+        DeltaUndoManager undoManager = new DeltaUndoManager(1024 * 1024);
+        BeanBindingSource source = new BeanBindingSource(button, "text");
+        undoManager.watch(source, new BeanBindingTarget(button, "text"));
+        button.setText("help!");
+        undoManager.unwatch(source);
+
+        // same length, but the recorded middle was replaced
+        button.setText("helXY");
+        try {
+            undoManager.undo();
+            Assert.fail("An IllegalStateException should have been thrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals("helXY", button.getText());
+    }
+}